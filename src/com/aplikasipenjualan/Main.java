@@ -1,13 +1,14 @@
 package com.aplikasipenjualan;
 
 import com.aplikasipenjualan.view.MainFrame;
-import javax.swing.SwingUtilities;
-import javax.swing.UIManager;
-import javax.swing.UnsupportedLookAndFeelException;
 
 /**
  * Kelas utama untuk menjalankan Aplikasi Penjualan dengan Metode Apriori
  * 
+ * Tanpa argumen, aplikasi GUI dijalankan. Dengan argumen, aplikasi berjalan
+ * dalam mode batch tanpa GUI ({@link MiningCli}) yang tidak pernah memuat
+ * AWT/Swing, sehingga dapat dijalankan di server tanpa display.
+ * 
  * @author Developer
  * @version 1.0
  */
@@ -15,26 +16,12 @@ public class Main {
     
     /**
      * Method main untuk memulai aplikasi
-     * @param args argumen command line
+     * @param args argumen command line, kosong untuk GUI
      */
     public static void main(String[] args) {
-        // Set Look and Feel ke sistem default
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeel());
-        } catch (ClassNotFoundException | InstantiationException | 
-                 IllegalAccessException | UnsupportedLookAndFeelException e) {
-            System.err.println("Gagal mengatur Look and Feel: " + e.getMessage());
+        if (args.length > 0) {
+            System.exit(MiningCli.run(args));
         }
-        
-        // Jalankan aplikasi di Event Dispatch Thread
-        SwingUtilities.invokeLater(() -> {
-            try {
-                MainFrame mainFrame = new MainFrame();
-                mainFrame.setVisible(true);
-            } catch (Exception e) {
-                System.err.println("Error saat memulai aplikasi: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+        MainFrame.launch();
     }
 }
@@ -0,0 +1,473 @@
+package com.aplikasipenjualan;
+
+import com.aplikasipenjualan.algorithm.Apriori;
+import com.aplikasipenjualan.algorithm.FrequentItemSet;
+import com.aplikasipenjualan.algorithm.Rule;
+import com.aplikasipenjualan.algorithm.RuleIndex;
+import com.aplikasipenjualan.algorithm.ShardWorker;
+import com.aplikasipenjualan.algorithm.ShardedSupportCounter;
+import com.aplikasipenjualan.controller.AnalyticsServer;
+import com.aplikasipenjualan.controller.MiningExporter;
+import com.aplikasipenjualan.controller.SalesController;
+import com.aplikasipenjualan.model.BasketSource;
+import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.Transaction;
+import com.aplikasipenjualan.util.BasketWindow;
+import com.aplikasipenjualan.util.CsvTransactionImporter;
+import com.aplikasipenjualan.util.DataLoader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Mode batch tanpa GUI untuk menjalankan mining dari command line, misalnya
+ * sebagai job malam di server tanpa display. Transaksi dibaca dari file
+ * CSV/TSV atau dari basket store di direktori data, mining dijalankan dengan
+ * threshold yang diberikan, lalu aturan dan itemset ditulis ke CSV atau JSON
+ * sesuai ekstensi file (.csv, .json, boleh diakhiri .gz).
+ * 
+ * Kelas ini tidak boleh mereferensikan paket view atau kelas AWT/Swing apa
+ * pun, agar AWT tidak pernah diinisialisasi dan JVM cepat siap.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public final class MiningCli {
+    
+    /** Kode keluar jika berhasil */
+    public static final int EXIT_OK = 0;
+    /** Kode keluar jika mining atau penulisan gagal */
+    public static final int EXIT_FAILURE = 1;
+    /** Kode keluar jika argumen tidak valid */
+    public static final int EXIT_USAGE = 2;
+    
+    private static final double DEFAULT_MIN_SUPPORT = 0.01;
+    private static final double DEFAULT_MIN_CONFIDENCE = 0.5;
+    private static final int DEFAULT_PERMUTATIONS = 1000;
+    private static final int WORKER_TIMEOUT_MILLIS = 60_000;
+    
+    /** Argumen internal untuk proses worker mining tersebar */
+    static final String SHARD_WORKER_OPTION = "--shard-worker";
+    
+    private static final String USAGE =
+        "Penggunaan: java -cp build com.aplikasipenjualan.Main [opsi]\n" +
+        "Tanpa opsi, aplikasi GUI dijalankan.\n" +
+        "\n" +
+        "  --input <file>            Transaksi dari CSV/TSV (boleh .gz); tanpa opsi ini\n" +
+        "                            basket store di direktori data/ yang dipakai\n" +
+        "  --miner <all|non-redundant>\n" +
+        "                            Mode pembentukan aturan Apriori (default all)\n" +
+        "  --min-support <0-1>       Minimum support (default " + DEFAULT_MIN_SUPPORT + ")\n" +
+        "  --min-confidence <0-1>    Minimum confidence (default " + DEFAULT_MIN_CONFIDENCE + ")\n" +
+        "  --alpha <0-1>             Hanya aturan signifikan pada tingkat alpha\n" +
+        "  --permutations <n>        Jumlah permutasi koreksi alpha (default " + DEFAULT_PERMUTATIONS + ")\n" +
+        "  --rules <file>            Tulis aturan ke .csv atau .json (boleh .gz)\n" +
+        "  --itemsets <file>         Tulis frequent itemset ke .csv atau .json (boleh .gz)\n" +
+        "  --serve <port>            Setelah mining, layani API HTTP sampai proses dihentikan\n" +
+        "  --bind <alamat>           Alamat server --serve (default loopback; 0.0.0.0 untuk\n" +
+        "                            semua interface)\n" +
+        "  --workers <n>             Bagi keranjang ke n proses worker lokal (hasil sama persis)\n" +
+        "  --help                    Tampilkan bantuan ini";
+    
+    private File input;
+    private Apriori.RuleGenerationMode mode = Apriori.RuleGenerationMode.ALL;
+    private double minSupport = DEFAULT_MIN_SUPPORT;
+    private double minConfidence = DEFAULT_MIN_CONFIDENCE;
+    private double alpha = 1.0;
+    private int permutations = DEFAULT_PERMUTATIONS;
+    private File rulesFile;
+    private File itemSetsFile;
+    private int servePort = -1;
+    private InetAddress bindAddress = InetAddress.getLoopbackAddress();
+    private int workers;
+    private RuleIndex ruleIndex;
+    
+    private final PrintStream out;
+    
+    private MiningCli(PrintStream out) {
+        this.out = out;
+    }
+    
+    /**
+     * Menjalankan mode batch
+     * @param args Argumen command line
+     * @return Kode keluar proses
+     */
+    public static int run(String[] args) {
+        // Pengaman jika ada kelas yang tanpa sengaja menyentuh AWT
+        System.setProperty("java.awt.headless", "true");
+        if (args.length == 2 && args[0].equals(SHARD_WORKER_OPTION)) {
+            return runWorker(args[1]);
+        }
+        MiningCli cli = new MiningCli(System.out);
+        try {
+            if (!cli.parse(args)) {
+                System.out.println(USAGE);
+                return EXIT_OK;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        try {
+            cli.execute();
+            if (cli.servePort >= 0) {
+                cli.serve();
+            }
+            return EXIT_OK;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Mining gagal: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+    
+    /**
+     * Membaca argumen
+     * @return false jika bantuan diminta
+     * @throws IllegalArgumentException jika argumen tidak valid
+     */
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            String value = null;
+            int equals = name.indexOf('=');
+            if (name.startsWith("--") && equals > 0) {
+                value = name.substring(equals + 1);
+                name = name.substring(0, equals);
+            }
+            if (name.equals("--help") || name.equals("-h")) {
+                return false;
+            }
+            if (value == null) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Nilai untuk " + name + " tidak ada");
+                }
+                value = args[++i];
+            }
+            switch (name) {
+                case "--input":
+                    input = new File(value);
+                    if (!input.isFile()) {
+                        throw new IllegalArgumentException("File input tidak ditemukan: " + value);
+                    }
+                    break;
+                case "--miner":
+                    mode = parseMode(value);
+                    break;
+                case "--min-support":
+                    minSupport = parseFraction(name, value);
+                    break;
+                case "--min-confidence":
+                    minConfidence = parseFraction(name, value);
+                    break;
+                case "--alpha":
+                    alpha = parseFraction(name, value);
+                    break;
+                case "--permutations":
+                    permutations = parseCount(name, value);
+                    break;
+                case "--rules":
+                    rulesFile = outputFile(value);
+                    break;
+                case "--itemsets":
+                    itemSetsFile = outputFile(value);
+                    break;
+                case "--serve":
+                    servePort = parseCount(name, value);
+                    if (servePort > 65535) {
+                        throw new IllegalArgumentException("Port tidak valid: " + value);
+                    }
+                    break;
+                case "--bind":
+                    bindAddress = AnalyticsServer.parseBindAddress(value);
+                    break;
+                case "--workers":
+                    workers = parseCount(name, value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opsi tidak dikenal: " + name);
+            }
+        }
+        if (workers > 0 && alpha < 1.0 && permutations > 0) {
+            throw new IllegalArgumentException("--workers hanya dapat dipakai dengan --permutations 0");
+        }
+        return true;
+    }
+    
+    /**
+     * Menjalankan proses worker yang terhubung kembali ke koordinator
+     * @param port Port koordinator di loopback
+     * @return Kode keluar proses
+     */
+    private static int runWorker(String port) {
+        try {
+            ShardWorker.run(Integer.parseInt(port));
+            return EXIT_OK;
+        } catch (NumberFormatException e) {
+            System.err.println("Port koordinator tidak valid: " + port);
+            return EXIT_USAGE;
+        } catch (IOException e) {
+            System.err.println("Worker gagal: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+    
+    private static Apriori.RuleGenerationMode parseMode(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "all":
+            case "apriori":
+                return Apriori.RuleGenerationMode.ALL;
+            case "non-redundant":
+            case "nonredundant":
+                return Apriori.RuleGenerationMode.NON_REDUNDANT;
+            default:
+                throw new IllegalArgumentException("Miner tidak dikenal: " + value);
+        }
+    }
+    
+    private static double parseFraction(String name, String value) {
+        try {
+            double result = Double.parseDouble(value);
+            if (result > 0 && result <= 1) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Dilaporkan di bawah
+        }
+        throw new IllegalArgumentException(name + " harus antara 0 dan 1: " + value);
+    }
+    
+    private static int parseCount(String name, String value) {
+        try {
+            int result = Integer.parseInt(value);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Dilaporkan di bawah
+        }
+        throw new IllegalArgumentException(name + " harus bilangan bulat positif: " + value);
+    }
+    
+    private static File outputFile(String value) {
+        String name = stripGzip(value.toLowerCase(Locale.ROOT));
+        if (!name.endsWith(".csv") && !name.endsWith(".json")) {
+            throw new IllegalArgumentException("File output harus berakhiran .csv atau .json: " + value);
+        }
+        return new File(value);
+    }
+    
+    private static String stripGzip(String name) {
+        return name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+    }
+    
+    /**
+     * Memuat transaksi, menjalankan mining, lalu menulis hasil
+     */
+    private void execute() throws IOException {
+        long start = System.nanoTime();
+        DataLoader dataLoader = null;
+        try {
+            BasketSource source;
+            IntFunction<Product> lookup;
+            Map<Integer, Product> catalog = new HashMap<>();
+            for (Product product : SalesController.getDefaultProducts()) {
+                catalog.put(product.getId(), product);
+            }
+            if (input != null) {
+                source = loadFile(input, catalog);
+                lookup = catalog::get;
+            } else {
+                dataLoader = new DataLoader();
+                source = loadStore(dataLoader);
+                DataLoader store = dataLoader;
+                lookup = id -> lookupStoreProduct(store, catalog, id);
+            }
+            long loaded = System.nanoTime();
+            out.printf("Keranjang: %d (dimuat dalam %d ms)%n", source.getBasketCount(), millis(start, loaded));
+            if (source.getBasketCount() == 0) {
+                throw new IOException("Tidak ada transaksi untuk dianalisis");
+            }
+            
+            Apriori apriori = new Apriori();
+            apriori.setMinSupport(minSupport);
+            apriori.setMinConfidence(minConfidence);
+            apriori.setRuleGenerationMode(mode);
+            apriori.setSignificanceFilter(alpha, alpha < 1.0 ? permutations : 0);
+            List<Rule> rules;
+            if (workers > 0) {
+                rules = mineSharded(apriori, source, lookup);
+            } else {
+                apriori.setBasketSource(source, lookup);
+                rules = apriori.runApriori();
+            }
+            List<List<FrequentItemSet>> itemSets = apriori.getAllFrequentItemSets();
+            long mined = System.nanoTime();
+            int itemSetCount = 0;
+            for (List<FrequentItemSet> level : itemSets) {
+                itemSetCount += level.size();
+            }
+            out.printf("Mining %s (support %.4f, confidence %.4f): %d itemset, %d aturan dalam %d ms%n",
+                       mode, minSupport, minConfidence, itemSetCount, rules.size(), millis(loaded, mined));
+            
+            if (rulesFile != null) {
+                long rows = writeRules(rules, rulesFile);
+                out.printf("Aturan ditulis ke %s: %d baris%n", rulesFile, rows);
+            }
+            if (itemSetsFile != null) {
+                long rows = writeItemSets(itemSets, itemSetsFile);
+                out.printf("Itemset ditulis ke %s: %d baris%n", itemSetsFile, rows);
+            }
+            if (servePort >= 0) {
+                ruleIndex = new RuleIndex(rules, itemSets, source.getBasketCount());
+            }
+            long written = System.nanoTime();
+            out.printf("Waktu: muat %d ms, mining %d ms, tulis %d ms, total %d ms%n",
+                       millis(start, loaded), millis(loaded, mined), millis(mined, written), millis(start, written));
+            printMemory();
+        } finally {
+            if (dataLoader != null) {
+                dataLoader.close();
+            }
+        }
+    }
+    
+    /**
+     * Menjalankan Apriori dengan keranjang yang dibagi ke proses worker lokal.
+     * Worker adalah JVM baru dengan classpath yang sama dan terhubung kembali
+     * ke koordinator melalui loopback.
+     */
+    private List<Rule> mineSharded(Apriori apriori, BasketSource source, IntFunction<Product> lookup)
+            throws IOException {
+        List<Process> processes = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            for (int i = 0; i < workers; i++) {
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                                                 Main.class.getName(), SHARD_WORKER_OPTION,
+                                                 String.valueOf(server.getLocalPort()))
+                        .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+            }
+            try (ShardedSupportCounter counter = ShardedSupportCounter.accept(server, workers,
+                                                                                WORKER_TIMEOUT_MILLIS)) {
+                long start = System.nanoTime();
+                counter.distribute(source);
+                out.printf("Keranjang dibagi ke %d worker dalam %d ms%n", workers, millis(start, System.nanoTime()));
+                apriori.setSupportCounter(counter, lookup);
+                return apriori.runApriori();
+            }
+        } finally {
+            for (Process process : processes) {
+                try {
+                    if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                        process.destroyForcibly();
+                    }
+                } catch (InterruptedException e) {
+                    process.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Melayani hasil mining lewat HTTP sampai proses dihentikan (Ctrl+C)
+     */
+    private void serve() throws IOException {
+        RuleIndex index = ruleIndex;
+        AnalyticsServer server = new AnalyticsServer(() -> index, bindAddress, servePort);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            stopped.countDown();
+        }));
+        server.start();
+        out.println("Server analitik berjalan di " + bindAddress.getHostAddress() + ":" + server.getPort()
+            + ", tekan Ctrl+C untuk berhenti");
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Membaca transaksi dari CSV/TSV ke keranjang di heap tanpa menyentuh
+     * penyimpanan transaksi aplikasi
+     */
+    private BasketSource loadFile(File file, Map<Integer, Product> catalog) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        CsvTransactionImporter importer = new CsvTransactionImporter(catalog.values());
+        CsvTransactionImporter.Report report = importer.importFile(file, batch -> {
+            transactions.addAll(batch);
+            return CompletableFuture.completedFuture(null);
+        });
+        out.println("Input " + file + ": " + report);
+        return new BasketWindow(transactions);
+    }
+    
+    private BasketSource loadStore(DataLoader dataLoader) throws IOException {
+        try {
+            return dataLoader.getBasketStore();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Data transaksi lama tidak dapat dibaca: " + e.getMessage(), e);
+        }
+    }
+    
+    private static Product lookupStoreProduct(DataLoader dataLoader, Map<Integer, Product> catalog, int id) {
+        try {
+            Product product = dataLoader.getDictionaryProduct(id);
+            return product != null ? product : catalog.get(id);
+        } catch (IOException e) {
+            throw new IllegalStateException("Kamus produk tidak dapat dibaca: " + e.getMessage(), e);
+        }
+    }
+    
+    private static long writeRules(List<Rule> rules, File file) throws IOException {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        boolean gzip = name.endsWith(".gz");
+        return stripGzip(name).endsWith(".json") ? MiningExporter.writeRulesJson(rules, file, gzip)
+                                                 : MiningExporter.writeRulesCsv(rules, file, gzip);
+    }
+    
+    private static long writeItemSets(List<List<FrequentItemSet>> itemSets, File file) throws IOException {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        boolean gzip = name.endsWith(".gz");
+        return stripGzip(name).endsWith(".json") ? MiningExporter.writeItemSetsJson(itemSets, file, gzip)
+                                                 : MiningExporter.writeItemSetsCsv(itemSets, file, gzip);
+    }
+    
+    private void printMemory() {
+        long used = 0;
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                used += pool.getUsage().getUsed();
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        out.printf("Memori heap: terpakai %d MB, puncak %d MB, maksimum %d MB%n",
+                   used >> 20, peak >> 20, Runtime.getRuntime().maxMemory() >> 20);
+    }
+    
+    private static long millis(long from, long to) {
+        return (to - from) / 1_000_000;
+    }
+}
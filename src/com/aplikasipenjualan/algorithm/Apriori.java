@@ -1,8 +1,10 @@
 package com.aplikasipenjualan.algorithm;
 
+import com.aplikasipenjualan.model.BasketSource;
 import com.aplikasipenjualan.model.Product;
 import com.aplikasipenjualan.model.Transaction;
 import java.util.*;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -14,11 +16,35 @@ import java.util.stream.Collectors;
  */
 public class Apriori {
     
+    private static final long PERMUTATION_SEED = 0x5EEDL; // Seed tetap agar hasil dapat direproduksi
+    
+    /**
+     * Mode pembentukan aturan asosiasi
+     */
+    public enum RuleGenerationMode {
+        /** Semua pembagian antecedent/consequent yang memenuhi confidence */
+        ALL,
+        /**
+         * Hanya basis aturan minimal non-redundan dari closed itemset dan
+         * generator-nya. Aturan dengan antecedent kosong (item yang muncul di
+         * semua transaksi) tidak dibentuk.
+         */
+        NON_REDUNDANT
+    }
+    
     private List<Transaction> transactions;
+    private BasketSource basketSource;                 // Alternatif transactions berbasis ID produk
+    private SupportCounter supportCounter;             // Alternatif berupa penghitung support eksternal
+    private IntFunction<Product> productLookup;        // Mengubah ID produk hasil mining menjadi Product
+    private int transactionCount;
     private double minSupport;
     private double minConfidence;
     private List<List<FrequentItemSet>> allFrequentItemSets;
     private List<Rule> associationRules;
+    private Map<Set<Product>, Integer> supportCounts; // Cache support count frequent itemsets
+    private double significanceAlpha = 1.0;           // 1.0 berarti filter signifikansi nonaktif
+    private int permutationCount;                      // 0 berarti tanpa koreksi permutasi
+    private RuleGenerationMode ruleGenerationMode = RuleGenerationMode.ALL;
     
     /**
      * Constructor
@@ -27,6 +53,7 @@ public class Apriori {
         this.transactions = new ArrayList<>();
         this.allFrequentItemSets = new ArrayList<>();
         this.associationRules = new ArrayList<>();
+        this.supportCounts = new HashMap<>();
     }
     
     /**
@@ -52,6 +79,53 @@ public class Apriori {
             throw new IllegalArgumentException("Daftar transaksi tidak boleh null atau kosong");
         }
         this.transactions = new ArrayList<>(transactions);
+        this.basketSource = null;
+        this.supportCounter = null;
+        this.productLookup = null;
+    }
+    
+    /**
+     * Menggunakan sumber keranjang berbasis ID produk sebagai data mining.
+     * Support dihitung langsung dari keranjang tanpa membuat objek Transaction,
+     * dan Product hanya dibuat untuk itemset yang frequent.
+     * @param source Sumber keranjang
+     * @param productLookup Fungsi untuk mendapatkan Product dari ID
+     * @throws IllegalArgumentException jika parameter null atau sumber kosong
+     */
+    public void setBasketSource(BasketSource source, IntFunction<Product> productLookup) {
+        if (source == null || source.getBasketCount() == 0) {
+            throw new IllegalArgumentException("Sumber keranjang tidak boleh null atau kosong");
+        }
+        if (productLookup == null) {
+            throw new IllegalArgumentException("Lookup produk tidak boleh null");
+        }
+        this.basketSource = source;
+        this.supportCounter = null;
+        this.productLookup = productLookup;
+        this.transactions = new ArrayList<>();
+    }
+    
+    /**
+     * Menggunakan penghitung support eksternal sebagai data mining, misalnya
+     * {@link ShardedSupportCounter} yang menyebar keranjang ke beberapa proses.
+     * Kandidat dan aturan tetap dibentuk di sini sehingga hasilnya sama
+     * dengan mining atas seluruh keranjang di satu proses. Koreksi permutasi
+     * pada filter signifikansi tidak didukung karena membutuhkan keranjang.
+     * @param counter Penghitung support
+     * @param productLookup Fungsi untuk mendapatkan Product dari ID
+     * @throws IllegalArgumentException jika parameter null atau tidak ada keranjang
+     */
+    public void setSupportCounter(SupportCounter counter, IntFunction<Product> productLookup) {
+        if (counter == null || counter.getBasketCount() == 0) {
+            throw new IllegalArgumentException("Penghitung support tidak boleh null atau kosong");
+        }
+        if (productLookup == null) {
+            throw new IllegalArgumentException("Lookup produk tidak boleh null");
+        }
+        this.supportCounter = counter;
+        this.basketSource = null;
+        this.productLookup = productLookup;
+        this.transactions = new ArrayList<>();
     }
     
     /**
@@ -78,6 +152,43 @@ public class Apriori {
         this.minConfidence = minConfidence;
     }
     
+    /**
+     * Mengatur mode pembentukan aturan
+     * @param mode Mode pembentukan aturan
+     * @throws IllegalArgumentException jika mode null
+     */
+    public void setRuleGenerationMode(RuleGenerationMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Mode pembentukan aturan tidak boleh null");
+        }
+        this.ruleGenerationMode = mode;
+    }
+    
+    /**
+     * Getter untuk mode pembentukan aturan
+     * @return Mode pembentukan aturan
+     */
+    public RuleGenerationMode getRuleGenerationMode() {
+        return ruleGenerationMode;
+    }
+    
+    /**
+     * Mengatur filter signifikansi statistik untuk aturan
+     * @param alpha Batas p-value (0.0 - 1.0), 1.0 untuk menonaktifkan filter
+     * @param permutations Jumlah permutasi untuk koreksi family-wise error, 0 untuk p-value mentah
+     * @throws IllegalArgumentException jika parameter di luar range
+     */
+    public void setSignificanceFilter(double alpha, int permutations) {
+        if (alpha < 0.0 || alpha > 1.0) {
+            throw new IllegalArgumentException("Alpha harus antara 0.0 dan 1.0");
+        }
+        if (permutations < 0) {
+            throw new IllegalArgumentException("Jumlah permutasi tidak boleh negatif");
+        }
+        this.significanceAlpha = alpha;
+        this.permutationCount = permutations;
+    }
+    
     /**
      * Menjalankan algoritma Apriori lengkap
      * @return List aturan asosiasi yang ditemukan
@@ -89,13 +200,24 @@ public class Apriori {
         // Reset hasil sebelumnya
         allFrequentItemSets.clear();
         associationRules.clear();
+        supportCounts.clear();
         
         // Generate frequent itemsets
-        generateFrequentItemsets();
+        if (basketSource != null || supportCounter != null) {
+            generateFrequentItemsetsFromBaskets();
+        } else {
+            transactionCount = transactions.size();
+            generateFrequentItemsets();
+        }
         
         // Generate association rules
         generateAssociationRules();
         
+        // Filter aturan yang tidak signifikan secara statistik
+        if (significanceAlpha < 1.0) {
+            applySignificanceFilter();
+        }
+        
         return new ArrayList<>(associationRules);
     }
     
@@ -104,9 +226,12 @@ public class Apriori {
      * @throws IllegalStateException jika parameter tidak valid
      */
     private void validateParameters() {
-        if (transactions == null || transactions.isEmpty()) {
+        if (basketSource == null && supportCounter == null && (transactions == null || transactions.isEmpty())) {
             throw new IllegalStateException("Transaksi belum diset atau kosong");
         }
+        if (supportCounter != null && significanceAlpha < 1.0 && permutationCount > 0) {
+            throw new IllegalStateException("Koreksi permutasi tidak didukung untuk penghitung support eksternal");
+        }
         if (minSupport < 0.0 || minSupport > 1.0) {
             throw new IllegalStateException("Minimum support tidak valid");
         }
@@ -141,6 +266,69 @@ public class Apriori {
         }
     }
     
+    /**
+     * Generate frequent itemsets langsung dari sumber keranjang atau
+     * penghitung support. Setiap level membutuhkan satu kali pemindaian keranjang.
+     */
+    private void generateFrequentItemsetsFromBaskets() {
+        SupportCounter miner = basketCounter();
+        transactionCount = miner.getBasketCount();
+        int minSupportCount = Math.max(1, (int) Math.ceil(minSupport * transactionCount));
+        
+        int[] itemCounts = miner.countItems();
+        List<int[]> level = new ArrayList<>();
+        List<FrequentItemSet> levelItemSets = new ArrayList<>();
+        for (int id = 0; id < itemCounts.length; id++) {
+            if (itemCounts[id] >= minSupportCount) {
+                int[] itemSet = {id};
+                level.add(itemSet);
+                levelItemSets.add(toFrequentItemSet(itemSet, itemCounts[id]));
+            }
+        }
+        
+        while (!levelItemSets.isEmpty()) {
+            allFrequentItemSets.add(levelItemSets);
+            
+            int[][] candidates = BasketMiner.generateCandidates(level);
+            int[] counts = miner.countCandidates(candidates);
+            level = new ArrayList<>();
+            levelItemSets = new ArrayList<>();
+            for (int i = 0; i < candidates.length; i++) {
+                if (counts[i] >= minSupportCount) {
+                    level.add(candidates[i]);
+                    levelItemSets.add(toFrequentItemSet(candidates[i], counts[i]));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Mendapatkan penghitung support untuk mining berbasis ID produk
+     * @return Penghitung eksternal, atau miner baru atas sumber keranjang
+     */
+    private SupportCounter basketCounter() {
+        return supportCounter != null ? supportCounter : new BasketMiner(basketSource);
+    }
+    
+    /**
+     * Mengubah itemset ID produk menjadi FrequentItemSet dan mencatat support count-nya
+     * @param ids ID produk
+     * @param support Support count
+     * @return Frequent itemset
+     */
+    private FrequentItemSet toFrequentItemSet(int[] ids, int support) {
+        Set<Product> items = new HashSet<>();
+        for (int id : ids) {
+            Product product = productLookup.apply(id);
+            if (product == null) {
+                throw new IllegalStateException("Produk dengan ID " + id + " tidak ditemukan");
+            }
+            items.add(product);
+        }
+        supportCounts.put(items, support);
+        return new FrequentItemSet(items, support, transactionCount);
+    }
+    
     /**
      * Generate frequent 1-itemsets
      * @return List frequent 1-itemsets
@@ -156,7 +344,7 @@ public class Apriori {
         }
         
         // Filter berdasarkan minimum support
-        int minSupportCount = (int) Math.ceil(minSupport * transactions.size());
+        int minSupportCount = (int) Math.ceil(minSupport * transactionCount);
         List<FrequentItemSet> frequentItemSets = new ArrayList<>();
         
         for (Map.Entry<Product, Integer> entry : itemCounts.entrySet()) {
@@ -164,9 +352,10 @@ public class Apriori {
                 FrequentItemSet itemSet = new FrequentItemSet(
                     entry.getKey(), 
                     entry.getValue(), 
-                    transactions.size()
+                    transactionCount
                 );
                 frequentItemSets.add(itemSet);
+                supportCounts.put(itemSet.getItems(), entry.getValue());
             }
         }
         
@@ -180,7 +369,8 @@ public class Apriori {
      * @return List candidate itemsets
      */
     private List<FrequentItemSet> generateCandidateItemSets(List<FrequentItemSet> frequentItemSets, int k) {
-        List<FrequentItemSet> candidates = new ArrayList<>();
+        // Kandidat yang sama dapat terbentuk dari beberapa pasangan, simpan sekali saja
+        Set<FrequentItemSet> candidates = new LinkedHashSet<>();
         
         for (int i = 0; i < frequentItemSets.size(); i++) {
             for (int j = i + 1; j < frequentItemSets.size(); j++) {
@@ -198,7 +388,7 @@ public class Apriori {
             }
         }
         
-        return candidates;
+        return new ArrayList<>(candidates);
     }
     
     /**
@@ -232,13 +422,14 @@ public class Apriori {
      */
     private List<FrequentItemSet> pruneInfrequentItemSets(List<FrequentItemSet> candidateItemSets) {
         List<FrequentItemSet> frequentItemSets = new ArrayList<>();
-        int minSupportCount = (int) Math.ceil(minSupport * transactions.size());
+        int minSupportCount = (int) Math.ceil(minSupport * transactionCount);
         
         for (FrequentItemSet candidate : candidateItemSets) {
             int support = calculateSupport(candidate);
             if (support >= minSupportCount) {
-                candidate.setSupport(support, transactions.size());
+                candidate.setSupport(support, transactionCount);
                 frequentItemSets.add(candidate);
+                supportCounts.put(candidate.getItems(), support);
             }
         }
         
@@ -251,6 +442,11 @@ public class Apriori {
      * @return Nilai support absolut
      */
     private int calculateSupport(FrequentItemSet itemSet) {
+        if (basketSource != null || supportCounter != null) {
+            int[] ids = itemSet.getItems().stream().mapToInt(Product::getId).sorted().distinct().toArray();
+            return basketCounter().countItemSet(ids);
+        }
+        
         int count = 0;
         
         for (Transaction transaction : transactions) {
@@ -262,21 +458,105 @@ public class Apriori {
         return count;
     }
     
+    /**
+     * Mendapatkan support count sebuah itemset dari cache.
+     * Semua subset dari frequent itemset juga frequent, sehingga cache
+     * selalu berisi antecedent dan consequent aturan.
+     * @param items Set produk
+     * @return Support count absolut
+     */
+    private int getSupportCount(Set<Product> items) {
+        Integer count = supportCounts.get(items);
+        if (count == null) {
+            count = calculateSupport(new FrequentItemSet(items, 0, 0));
+            supportCounts.put(new HashSet<>(items), count);
+        }
+        return count;
+    }
+    
     /**
      * Generate association rules dari frequent itemsets
      */
     private void generateAssociationRules() {
-        // Mulai dari 2-itemsets (minimal untuk membuat rule)
-        for (int i = 1; i < allFrequentItemSets.size(); i++) {
-            List<FrequentItemSet> frequentItemSets = allFrequentItemSets.get(i);
-            
-            for (FrequentItemSet itemSet : frequentItemSets) {
-                generateRulesFromItemSet(itemSet);
+        if (ruleGenerationMode == RuleGenerationMode.NON_REDUNDANT) {
+            generateNonRedundantRules();
+        } else {
+            // Mulai dari 2-itemsets (minimal untuk membuat rule)
+            for (int i = 1; i < allFrequentItemSets.size(); i++) {
+                List<FrequentItemSet> frequentItemSets = allFrequentItemSets.get(i);
+                
+                for (FrequentItemSet itemSet : frequentItemSets) {
+                    generateRulesFromItemSet(itemSet);
+                }
             }
         }
         
         // Sort rules berdasarkan confidence (descending)
-        associationRules.sort((r1, r2) -> Double.compare(r2.getConfidence(), r1.getConfidence()));
+        associationRules = RuleSorter.sort(associationRules, RuleMeasure.CONFIDENCE);
+    }
+    
+    /**
+     * Generate basis aturan minimal non-redundan.
+     * 
+     * Antecedent hanya berupa generator minimal (itemset tanpa subset langsung
+     * dengan support sama) dan antecedent + consequent selalu berupa closed
+     * itemset (tanpa superset langsung dengan support sama). Aturan lain dapat
+     * diturunkan dari basis ini dengan support dan confidence yang sama.
+     * 
+     * Item yang muncul di semua transaksi memiliki generator minimal himpunan
+     * kosong, sehingga aturan basisnya berbentuk {} =&gt; closed itemset.
+     * Aturan tersebut sengaja tidak dibentuk karena {@link Rule} mensyaratkan
+     * antecedent tidak kosong; item ini tetap terlihat sebagai frequent
+     * itemset dengan support 100% dan tidak pernah muncul sebagai antecedent
+     * aturan non-redundan.
+     */
+    private void generateNonRedundantRules() {
+        Set<Set<Product>> closedItemSets = new HashSet<>(supportCounts.keySet());
+        Set<Set<Product>> generators = new HashSet<>(supportCounts.keySet());
+        
+        // Itemset dengan subset langsung bersupport sama bukan generator,
+        // dan subset tersebut bukan closed itemset
+        for (Map.Entry<Set<Product>, Integer> entry : supportCounts.entrySet()) {
+            Set<Product> items = entry.getKey();
+            if (items.size() < 2) {
+                continue;
+            }
+            for (Product product : items) {
+                Set<Product> subset = new HashSet<>(items);
+                subset.remove(product);
+                if (supportCounts.get(subset).intValue() == entry.getValue().intValue()) {
+                    closedItemSets.remove(subset);
+                    generators.remove(items);
+                }
+            }
+        }
+        
+        // Item yang muncul di semua transaksi memiliki generator himpunan kosong,
+        // aturan {} => closed itemset tidak dibentuk (lihat Javadoc)
+        for (Map.Entry<Set<Product>, Integer> entry : supportCounts.entrySet()) {
+            if (entry.getKey().size() == 1 && entry.getValue() == transactionCount) {
+                generators.remove(entry.getKey());
+            }
+        }
+        
+        for (Set<Product> generator : generators) {
+            int antecedentCount = supportCounts.get(generator);
+            
+            for (Set<Product> closed : closedItemSets) {
+                if (closed.size() <= generator.size() || !closed.containsAll(generator)) {
+                    continue;
+                }
+                int ruleCount = supportCounts.get(closed);
+                double confidence = (double) ruleCount / antecedentCount;
+                
+                if (confidence >= minConfidence) {
+                    Set<Product> consequent = new HashSet<>(closed);
+                    consequent.removeAll(generator);
+                    associationRules.add(new Rule(generator, consequent, ruleCount, antecedentCount,
+                                                  getSupportCount(consequent), transactionCount));
+                }
+            }
+        }
     }
     
     /**
@@ -285,6 +565,7 @@ public class Apriori {
      */
     private void generateRulesFromItemSet(FrequentItemSet itemSet) {
         Set<Product> items = itemSet.getItems();
+        int ruleCount = itemSet.getSupport();
         
         // Generate semua subset non-empty sebagai antecedent
         for (int subsetSize = 1; subsetSize < items.size(); subsetSize++) {
@@ -296,13 +577,12 @@ public class Apriori {
                 consequent.removeAll(antecedent);
                 
                 if (!consequent.isEmpty()) {
-                    double confidence = calculateConfidence(antecedent, consequent);
+                    int antecedentCount = getSupportCount(antecedent);
+                    double confidence = antecedentCount > 0 ? (double) ruleCount / antecedentCount : 0.0;
                     
                     if (confidence >= minConfidence) {
-                        double support = itemSet.getSupportPercentage();
-                        double lift = calculateLift(antecedent, consequent, support);
-                        
-                        Rule rule = new Rule(antecedent, consequent, confidence, support, lift);
+                        Rule rule = new Rule(antecedent, consequent, ruleCount, antecedentCount,
+                                             getSupportCount(consequent), transactionCount);
                         associationRules.add(rule);
                     }
                 }
@@ -311,49 +591,59 @@ public class Apriori {
     }
     
     /**
-     * Menghitung confidence untuk rule
-     * @param antecedent Antecedent items
-     * @param consequent Consequent items
-     * @return Nilai confidence
+     * Menguji signifikansi aturan lalu membuang aturan dengan p-value di atas alpha
      */
-    private double calculateConfidence(Set<Product> antecedent, Set<Product> consequent) {
-        int antecedentSupport = 0;
-        int ruleSupport = 0;
-        
-        for (Transaction transaction : transactions) {
-            Set<Product> transactionItems = new HashSet<>(transaction.getProducts());
-            
-            if (transactionItems.containsAll(antecedent)) {
-                antecedentSupport++;
-                
-                if (transactionItems.containsAll(consequent)) {
-                    ruleSupport++;
-                }
-            }
+    private void applySignificanceFilter() {
+        RuleSignificance significance = new RuleSignificance();
+        if (permutationCount > 0) {
+            TransactionBitsets bitsets = basketSource != null
+                    ? new TransactionBitsets(basketSource) : new TransactionBitsets(transactions);
+            significance.computeAdjustedPValues(associationRules, bitsets, permutationCount, PERMUTATION_SEED);
+        } else {
+            significance.computePValues(associationRules);
         }
-        
-        return antecedentSupport > 0 ? (double) ruleSupport / antecedentSupport : 0.0;
+        associationRules = RuleSignificance.filterSignificant(associationRules, significanceAlpha);
     }
     
     /**
-     * Menghitung lift untuk rule
-     * @param antecedent Antecedent items
-     * @param consequent Consequent items
-     * @param ruleSupport Support dari rule lengkap
-     * @return Nilai lift
+     * Membuat snapshot hasil analisis terakhir untuk disimpan
+     * @param datasetVersion Versi dataset yang dibaca sebelum mining dimulai
+     * @return Snapshot hasil analisis
      */
-    private double calculateLift(Set<Product> antecedent, Set<Product> consequent, double ruleSupport) {
-        int consequentSupport = 0;
+    public MiningSnapshot createSnapshot(long datasetVersion) {
+        List<List<FrequentItemSet>> levels = new ArrayList<>();
+        for (List<FrequentItemSet> level : allFrequentItemSets) {
+            levels.add(new ArrayList<>(level));
+        }
+        return new MiningSnapshot(datasetVersion, System.currentTimeMillis(), transactionCount,
+                                  minSupport, minConfidence, ruleGenerationMode,
+                                  significanceAlpha, permutationCount,
+                                  levels, new ArrayList<>(associationRules));
+    }
+    
+    /**
+     * Memulihkan hasil analisis dan parameternya dari snapshot tanpa mining ulang
+     * @param snapshot Snapshot hasil analisis
+     * @throws IllegalArgumentException jika snapshot null
+     */
+    public void restoreSnapshot(MiningSnapshot snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot tidak boleh null");
+        }
+        setMinSupport(snapshot.getMinSupport());
+        setMinConfidence(snapshot.getMinConfidence());
+        setRuleGenerationMode(snapshot.getRuleGenerationMode());
+        setSignificanceFilter(snapshot.getSignificanceAlpha(), snapshot.getPermutationCount());
+        transactionCount = snapshot.getTransactionCount();
         
-        for (Transaction transaction : transactions) {
-            if (transaction.getProducts().containsAll(consequent)) {
-                consequentSupport++;
+        allFrequentItemSets = snapshot.getFrequentItemSets();
+        associationRules = snapshot.getRules();
+        supportCounts.clear();
+        for (List<FrequentItemSet> level : allFrequentItemSets) {
+            for (FrequentItemSet itemSet : level) {
+                supportCounts.put(itemSet.getItems(), itemSet.getSupport());
             }
         }
-        
-        double consequentSupportRatio = (double) consequentSupport / transactions.size();
-        
-        return consequentSupportRatio > 0 ? ruleSupport / consequentSupportRatio : 0.0;
     }
     
     /**
@@ -412,7 +702,7 @@ public class Apriori {
             "Total Frequent Itemsets: %d\n" +
             "Total Association Rules: %d\n" +
             "Level Itemsets: %d",
-            transactions.size(),
+            transactionCount,
             minSupport * 100,
             minConfidence * 100,
             totalFrequentItemSets,
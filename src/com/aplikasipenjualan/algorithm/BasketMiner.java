@@ -0,0 +1,286 @@
+package com.aplikasipenjualan.algorithm;
+
+import com.aplikasipenjualan.model.BasketSource;
+import java.util.*;
+
+/**
+ * Penghitung support level-wise untuk Apriori yang bekerja langsung pada
+ * keranjang berupa ID produk (int) dari {@link BasketSource}.
+ * 
+ * Kandidat setiap level disimpan dalam prefix tree yang diratakan ke array,
+ * lalu setiap keranjang dipindai sekali per level untuk menaikkan counter
+ * semua kandidat yang termuat di dalamnya.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class BasketMiner implements SupportCounter {
+    
+    private final BasketSource source;
+    private final int basketCount;
+    
+    /**
+     * Constructor. Jumlah keranjang dibaca sekali di sini sehingga semua level
+     * dihitung atas keranjang yang sama walaupun sumber bertambah selama mining.
+     * @param source Sumber keranjang
+     * @throws IllegalArgumentException jika source null
+     */
+    public BasketMiner(BasketSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Sumber keranjang tidak boleh null");
+        }
+        this.source = source;
+        this.basketCount = source.getBasketCount();
+    }
+    
+    /**
+     * Mendapatkan jumlah keranjang yang dihitung
+     * @return Jumlah keranjang
+     */
+    @Override
+    public int getBasketCount() {
+        return basketCount;
+    }
+    
+    /**
+     * Memindai hanya keranjang yang sudah ada saat miner dibuat
+     */
+    private void scan(BasketSource.BasketVisitor visitor) {
+        final int[] visited = {0};
+        source.forEachBasket((items, offset, length) -> {
+            if (visited[0]++ < basketCount) {
+                visitor.visit(items, offset, length);
+            }
+        });
+    }
+    
+    /**
+     * Menghitung frekuensi setiap produk
+     * @return Array counter dengan indeks ID produk
+     */
+    @Override
+    public int[] countItems() {
+        final int[][] counts = {new int[64]};
+        scan((items, offset, length) -> {
+            for (int i = offset; i < offset + length; i++) {
+                int id = items.get(i);
+                if (id >= counts[0].length) {
+                    counts[0] = Arrays.copyOf(counts[0], Math.max(id + 1, counts[0].length * 2));
+                }
+                counts[0][id]++;
+            }
+        });
+        return counts[0];
+    }
+    
+    /**
+     * Membentuk kandidat k-itemset dari frequent (k-1)-itemset (apriori-gen).
+     * Dua itemset digabung jika prefix k-2 item pertamanya sama, lalu kandidat
+     * dengan subset yang tidak frequent dibuang.
+     * @param frequent Frequent itemset berukuran sama, masing-masing terurut naik
+     *                 dan seluruhnya terurut leksikografis
+     * @return Kandidat terurut leksikografis
+     */
+    public static int[][] generateCandidates(List<int[]> frequent) {
+        if (frequent.isEmpty()) {
+            return new int[0][];
+        }
+        int size = frequent.get(0).length;
+        Set<ItemKey> frequentKeys = new HashSet<>();
+        for (int[] itemSet : frequent) {
+            frequentKeys.add(new ItemKey(itemSet));
+        }
+        
+        List<int[]> candidates = new ArrayList<>();
+        int[] subset = new int[size];
+        for (int i = 0; i < frequent.size(); i++) {
+            int[] first = frequent.get(i);
+            for (int j = i + 1; j < frequent.size(); j++) {
+                int[] second = frequent.get(j);
+                if (!samePrefix(first, second, size - 1)) {
+                    break; // Itemset dengan prefix sama selalu berdampingan
+                }
+                
+                int[] candidate = Arrays.copyOf(first, size + 1);
+                candidate[size] = second[size - 1];
+                if (allSubsetsFrequent(candidate, subset, frequentKeys)) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+        return candidates.toArray(new int[0][]);
+    }
+    
+    private static boolean samePrefix(int[] a, int[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean allSubsetsFrequent(int[] candidate, int[] subset, Set<ItemKey> frequentKeys) {
+        // Dua subset tanpa item terakhir/sebelum terakhir adalah induk join, sudah pasti frequent
+        for (int skip = 0; skip < candidate.length - 2; skip++) {
+            int index = 0;
+            for (int i = 0; i < candidate.length; i++) {
+                if (i != skip) {
+                    subset[index++] = candidate[i];
+                }
+            }
+            if (!frequentKeys.contains(new ItemKey(subset))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Menghitung support count setiap kandidat dengan satu kali pemindaian
+     * @param candidates Kandidat berukuran sama, masing-masing terurut naik
+     *                   dan seluruhnya terurut leksikografis
+     * @return Support count dengan indeks yang sama seperti candidates
+     */
+    @Override
+    public int[] countCandidates(int[][] candidates) {
+        if (candidates.length == 0) {
+            return new int[0];
+        }
+        CandidateTrie trie = new CandidateTrie(candidates);
+        
+        // Hanya item yang muncul di kandidat yang perlu dibawa ke trie
+        int largestId = 0;
+        for (int[] candidate : candidates) {
+            largestId = Math.max(largestId, candidate[candidate.length - 1]);
+        }
+        final int maxId = largestId;
+        boolean[] relevant = new boolean[maxId + 1];
+        for (int[] candidate : candidates) {
+            for (int id : candidate) {
+                relevant[id] = true;
+            }
+        }
+        
+        final int[][] basket = {new int[16]};
+        scan((items, offset, length) -> {
+            if (length < trie.depth) {
+                return;
+            }
+            if (basket[0].length < length) {
+                basket[0] = new int[Math.max(length, basket[0].length * 2)];
+            }
+            int size = 0;
+            for (int i = offset; i < offset + length; i++) {
+                int id = items.get(i);
+                if (id <= maxId && relevant[id]) {
+                    basket[0][size++] = id;
+                }
+            }
+            if (size >= trie.depth) {
+                trie.count(basket[0], size);
+            }
+        });
+        return trie.leafCounts();
+    }
+    
+    /**
+     * Prefix tree kandidat yang diratakan ke array. Anak setiap node berada
+     * berurutan di keys[childStart[node] .. childEnd[node]) dan terurut naik.
+     */
+    private static final class CandidateTrie {
+        private final int depth;
+        private final int[] keys;
+        private final int[] childStart;
+        private final int[] childEnd;
+        private final int[] counts;
+        private final int[] leafOf;
+        
+        CandidateTrie(int[][] candidates) {
+            this.depth = candidates[0].length;
+            int capacity = 1 + depth * candidates.length;
+            this.keys = new int[capacity];
+            this.childStart = new int[capacity];
+            this.childEnd = new int[capacity];
+            this.counts = new int[capacity];
+            
+            // Bangun per level: node pada level d+1 adalah prefix unik sepanjang d+1,
+            // sehingga anak dari satu node selalu bersebelahan
+            int[] nodeOf = new int[candidates.length];
+            int nodeCount = 1;
+            for (int d = 0; d < depth; d++) {
+                int previousParent = -1;
+                for (int c = 0; c < candidates.length; c++) {
+                    int parent = nodeOf[c];
+                    boolean newPrefix = parent != previousParent || candidates[c - 1][d] != candidates[c][d];
+                    previousParent = parent;
+                    if (newPrefix) {
+                        int node = nodeCount++;
+                        keys[node] = candidates[c][d];
+                        if (childEnd[parent] == 0) {
+                            childStart[parent] = node;
+                        }
+                        childEnd[parent] = node + 1;
+                        nodeOf[c] = node;
+                    } else {
+                        nodeOf[c] = nodeOf[c - 1];
+                    }
+                }
+            }
+            this.leafOf = nodeOf;
+        }
+        
+        void count(int[] basket, int size) {
+            walk(0, basket, size, 0, 0);
+        }
+        
+        private void walk(int node, int[] basket, int size, int start, int level) {
+            if (level == depth) {
+                counts[node]++;
+                return;
+            }
+            int low = childStart[node];
+            int high = childEnd[node];
+            for (int i = start; i <= size - (depth - level) && low < high; i++) {
+                int index = Arrays.binarySearch(keys, low, high, basket[i]);
+                if (index >= 0) {
+                    walk(index, basket, size, i + 1, level + 1);
+                    low = index + 1;
+                } else {
+                    low = -index - 1;
+                }
+            }
+        }
+        
+        int[] leafCounts() {
+            int[] result = new int[leafOf.length];
+            for (int c = 0; c < leafOf.length; c++) {
+                result[c] = counts[leafOf[c]];
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Kunci hash untuk itemset berbentuk array int
+     */
+    private static final class ItemKey {
+        private final int[] items;
+        private final int hash;
+        
+        ItemKey(int[] items) {
+            this.items = items.clone();
+            this.hash = Arrays.hashCode(this.items);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ItemKey && Arrays.equals(items, ((ItemKey) obj).items);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.aplikasipenjualan.algorithm;
+
+import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.ProductRegistry;
+import java.io.*;
+import java.util.*;
+
+/**
+ * Snapshot hasil analisis Apriori (frequent itemsets, aturan asosiasi, dan
+ * support count-nya) yang dapat disimpan ke disk lalu dimuat kembali tanpa
+ * mining ulang.
+ * 
+ * Snapshot ditandai dengan versi dataset saat mining dimulai dan threshold
+ * yang dipakai. Snapshot hanya berlaku jika versi dataset saat ini masih sama.
+ * 
+ * Format biner: header (magic + versi format), parameter analisis, tabel
+ * produk unik, lalu itemset per level dan aturan yang mereferensikan produk
+ * dengan indeks tabel.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class MiningSnapshot {
+    
+    /** Magic number "APMS" di awal snapshot */
+    public static final int MAGIC = 0x41504D53;
+    /** Versi format snapshot */
+    public static final int FORMAT_VERSION = 1;
+    
+    private final long datasetVersion;
+    private final long createdAt;
+    private final int transactionCount;
+    private final double minSupport;
+    private final double minConfidence;
+    private final Apriori.RuleGenerationMode ruleGenerationMode;
+    private final double significanceAlpha;
+    private final int permutationCount;
+    private final List<List<FrequentItemSet>> frequentItemSets;
+    private final List<Rule> rules;
+    
+    /**
+     * Constructor, dibuat oleh {@link Apriori#createSnapshot(long)} atau saat dibaca dari disk
+     */
+    MiningSnapshot(long datasetVersion, long createdAt, int transactionCount,
+                   double minSupport, double minConfidence, Apriori.RuleGenerationMode ruleGenerationMode,
+                   double significanceAlpha, int permutationCount,
+                   List<List<FrequentItemSet>> frequentItemSets, List<Rule> rules) {
+        this.datasetVersion = datasetVersion;
+        this.createdAt = createdAt;
+        this.transactionCount = transactionCount;
+        this.minSupport = minSupport;
+        this.minConfidence = minConfidence;
+        this.ruleGenerationMode = ruleGenerationMode;
+        this.significanceAlpha = significanceAlpha;
+        this.permutationCount = permutationCount;
+        this.frequentItemSets = frequentItemSets;
+        this.rules = rules;
+    }
+    
+    /**
+     * Mengecek apakah snapshot masih sesuai dengan data transaksi saat ini
+     * @param currentDatasetVersion Versi dataset saat ini
+     * @return true jika tidak ada perubahan transaksi sejak snapshot dibuat
+     */
+    public boolean isValidFor(long currentDatasetVersion) {
+        return datasetVersion == currentDatasetVersion;
+    }
+    
+    /**
+     * Getter untuk versi dataset saat mining dimulai
+     * @return Versi dataset
+     */
+    public long getDatasetVersion() {
+        return datasetVersion;
+    }
+    
+    /**
+     * Getter untuk waktu pembuatan snapshot
+     * @return Epoch millis
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+    
+    /**
+     * Getter untuk jumlah transaksi yang dianalisis
+     * @return Jumlah transaksi
+     */
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+    
+    /**
+     * Getter untuk minimum support
+     * @return Minimum support (0.0 - 1.0)
+     */
+    public double getMinSupport() {
+        return minSupport;
+    }
+    
+    /**
+     * Getter untuk minimum confidence
+     * @return Minimum confidence (0.0 - 1.0)
+     */
+    public double getMinConfidence() {
+        return minConfidence;
+    }
+    
+    /**
+     * Getter untuk mode pembentukan aturan
+     * @return Mode pembentukan aturan
+     */
+    public Apriori.RuleGenerationMode getRuleGenerationMode() {
+        return ruleGenerationMode;
+    }
+    
+    /**
+     * Getter untuk alpha filter signifikansi
+     * @return Alpha, 1.0 berarti filter nonaktif
+     */
+    public double getSignificanceAlpha() {
+        return significanceAlpha;
+    }
+    
+    /**
+     * Getter untuk jumlah permutasi koreksi p-value
+     * @return Jumlah permutasi
+     */
+    public int getPermutationCount() {
+        return permutationCount;
+    }
+    
+    /**
+     * Getter untuk frequent itemsets per level
+     * @return List frequent itemsets per level
+     */
+    public List<List<FrequentItemSet>> getFrequentItemSets() {
+        List<List<FrequentItemSet>> copy = new ArrayList<>();
+        for (List<FrequentItemSet> level : frequentItemSets) {
+            copy.add(new ArrayList<>(level));
+        }
+        return copy;
+    }
+    
+    /**
+     * Getter untuk aturan asosiasi
+     * @return List aturan dengan urutan saat snapshot dibuat
+     */
+    public List<Rule> getRules() {
+        return new ArrayList<>(rules);
+    }
+    
+    /**
+     * Encode snapshot ke bentuk biner
+     * @return Bytes snapshot
+     * @throws IOException jika encode gagal
+     */
+    public byte[] toBytes() throws IOException {
+        // Tabel produk unik, itemset dan aturan hanya menyimpan indeksnya
+        Map<Product, Integer> productIndex = new LinkedHashMap<>();
+        for (List<FrequentItemSet> level : frequentItemSets) {
+            for (FrequentItemSet itemSet : level) {
+                indexProducts(itemSet.getItems(), productIndex);
+            }
+        }
+        for (Rule rule : rules) {
+            indexProducts(rule.getAntecedent(), productIndex);
+            indexProducts(rule.getConsequent(), productIndex);
+        }
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(datasetVersion);
+        out.writeLong(createdAt);
+        out.writeInt(transactionCount);
+        out.writeDouble(minSupport);
+        out.writeDouble(minConfidence);
+        out.writeUTF(ruleGenerationMode.name());
+        out.writeDouble(significanceAlpha);
+        out.writeInt(permutationCount);
+        
+        out.writeInt(productIndex.size());
+        for (Product product : productIndex.keySet()) {
+            out.writeInt(product.getId());
+            out.writeUTF(product.getNama());
+            out.writeUTF(product.getKategori());
+            out.writeDouble(product.getHarga());
+        }
+        
+        out.writeInt(frequentItemSets.size());
+        for (List<FrequentItemSet> level : frequentItemSets) {
+            out.writeInt(level.size());
+            for (FrequentItemSet itemSet : level) {
+                writeItems(out, itemSet.getItems(), productIndex);
+                out.writeInt(itemSet.getSupport());
+            }
+        }
+        
+        out.writeInt(rules.size());
+        for (Rule rule : rules) {
+            if (!rule.hasSupportCounts()) {
+                throw new IOException("Aturan tanpa support count tidak dapat disimpan: " + rule.getRuleAsString());
+            }
+            writeItems(out, rule.getAntecedent(), productIndex);
+            writeItems(out, rule.getConsequent(), productIndex);
+            out.writeInt(rule.getRuleCount());
+            out.writeInt(rule.getAntecedentCount());
+            out.writeInt(rule.getConsequentCount());
+            out.writeInt(rule.getTotalTransactions());
+            out.writeDouble(rule.getPValue());
+            out.writeDouble(rule.getAdjustedPValue());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Decode snapshot dari bentuk biner
+     * @param data Bytes snapshot
+     * @return Snapshot
+     * @throws IOException jika data bukan snapshot yang valid atau versinya tidak didukung
+     */
+    public static MiningSnapshot fromBytes(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Bukan snapshot hasil analisis");
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Versi snapshot tidak didukung: " + version);
+            }
+            long datasetVersion = in.readLong();
+            long createdAt = in.readLong();
+            int transactionCount = in.readInt();
+            double minSupport = in.readDouble();
+            double minConfidence = in.readDouble();
+            Apriori.RuleGenerationMode mode = Apriori.RuleGenerationMode.valueOf(in.readUTF());
+            double significanceAlpha = in.readDouble();
+            int permutationCount = in.readInt();
+            
+            Product[] products = new Product[readCount(in, data.length)];
+            for (int i = 0; i < products.length; i++) {
+                products[i] = ProductRegistry.intern(
+                        new Product(in.readInt(), in.readUTF(), in.readUTF(), in.readDouble()));
+            }
+            
+            List<List<FrequentItemSet>> frequentItemSets = new ArrayList<>();
+            int levels = readCount(in, data.length);
+            for (int l = 0; l < levels; l++) {
+                int count = readCount(in, data.length);
+                List<FrequentItemSet> level = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    Set<Product> items = readItems(in, products, data.length);
+                    level.add(new FrequentItemSet(items, in.readInt(), transactionCount));
+                }
+                frequentItemSets.add(level);
+            }
+            
+            int ruleCount = readCount(in, data.length);
+            List<Rule> rules = new ArrayList<>(ruleCount);
+            for (int i = 0; i < ruleCount; i++) {
+                Set<Product> antecedent = readItems(in, products, data.length);
+                Set<Product> consequent = readItems(in, products, data.length);
+                Rule rule = new Rule(antecedent, consequent, in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                rule.setPValue(in.readDouble());
+                rule.setAdjustedPValue(in.readDouble());
+                rules.add(rule);
+            }
+            
+            return new MiningSnapshot(datasetVersion, createdAt, transactionCount, minSupport, minConfidence,
+                                      mode, significanceAlpha, permutationCount, frequentItemSets, rules);
+        
+        } catch (EOFException | IllegalArgumentException e) {
+            throw new IOException("Snapshot hasil analisis tidak valid", e);
+        }
+    }
+    
+    private static void indexProducts(Set<Product> items, Map<Product, Integer> productIndex) {
+        for (Product product : items) {
+            if (!productIndex.containsKey(product)) {
+                productIndex.put(product, productIndex.size());
+            }
+        }
+    }
+    
+    private static void writeItems(DataOutputStream out, Set<Product> items,
+                                   Map<Product, Integer> productIndex) throws IOException {
+        out.writeInt(items.size());
+        for (Product product : items) {
+            out.writeInt(productIndex.get(product));
+        }
+    }
+    
+    private static Set<Product> readItems(DataInputStream in, Product[] products, int limit) throws IOException {
+        int size = readCount(in, limit);
+        Set<Product> items = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            int index = in.readInt();
+            if (index < 0 || index >= products.length) {
+                throw new IOException("Indeks produk tidak valid: " + index);
+            }
+            items.add(products[index]);
+        }
+        return items;
+    }
+    
+    /**
+     * Membaca jumlah elemen dan menolak nilai yang mustahil untuk ukuran data
+     */
+    private static int readCount(DataInputStream in, int limit) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > limit) {
+            throw new IOException("Jumlah elemen tidak valid: " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,70 @@
+package com.aplikasipenjualan.algorithm;
+
+import com.aplikasipenjualan.model.Product;
+
+/**
+ * Kelas untuk merepresentasikan satu rekomendasi produk (cross-sell)
+ * yang dihasilkan dari aturan asosiasi
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class Recommendation {
+    
+    private final Product product;
+    private final double confidence;
+    private final double lift;
+    private final int ruleCount;
+    
+    /**
+     * Constructor dengan parameter
+     * @param product Produk yang direkomendasikan
+     * @param confidence Confidence tertinggi dari aturan yang cocok
+     * @param lift Lift dari aturan dengan confidence tertinggi
+     * @param ruleCount Jumlah aturan yang mendukung rekomendasi
+     */
+    public Recommendation(Product product, double confidence, double lift, int ruleCount) {
+        this.product = product;
+        this.confidence = confidence;
+        this.lift = lift;
+        this.ruleCount = ruleCount;
+    }
+    
+    /**
+     * Getter untuk produk
+     * @return Produk yang direkomendasikan
+     */
+    public Product getProduct() {
+        return product;
+    }
+    
+    /**
+     * Getter untuk confidence
+     * @return Confidence tertinggi (0.0 - 1.0)
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+    
+    /**
+     * Getter untuk lift
+     * @return Lift ratio
+     */
+    public double getLift() {
+        return lift;
+    }
+    
+    /**
+     * Getter untuk jumlah aturan pendukung
+     * @return Jumlah aturan yang cocok dengan keranjang
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s (Confidence: %.2f%%, Lift: %.2f)",
+                           product.getNama(), confidence * 100, lift);
+    }
+}
@@ -21,6 +21,24 @@ public class Rule implements Serializable {
     private double support;          // Tingkat dukungan
     private double lift;             // Lift ratio
     
+    // Support count absolut (0 jika aturan tidak dibuat dari hasil hitung)
+    private int ruleCount;           // Transaksi yang mengandung antecedent dan consequent
+    private int antecedentCount;     // Transaksi yang mengandung antecedent
+    private int consequentCount;     // Transaksi yang mengandung consequent
+    private int totalTransactions;   // Total transaksi
+    
+    // Metrik tambahan, dihitung sekali dari support count
+    private double conviction;
+    private double leverage;
+    private double jaccard;
+    private double kulczynski;
+    private double cosine;
+    private double imbalanceRatio;
+    
+    // Hasil uji signifikansi (NaN jika belum diuji)
+    private double pValue = Double.NaN;
+    private double adjustedPValue = Double.NaN;
+    
     /**
      * Constructor default
      */
@@ -65,6 +83,77 @@ public class Rule implements Serializable {
         this.lift = lift;
     }
     
+    /**
+     * Constructor dari support count absolut. Semua metrik (confidence,
+     * support, lift, conviction, leverage, Jaccard, Kulczynski, cosine, dan
+     * imbalance ratio) dihitung sekali di sini tanpa membaca ulang transaksi.
+     * @param antecedent Set produk sebagai kondisi
+     * @param consequent Set produk sebagai hasil
+     * @param ruleCount Jumlah transaksi yang mengandung antecedent dan consequent
+     * @param antecedentCount Jumlah transaksi yang mengandung antecedent
+     * @param consequentCount Jumlah transaksi yang mengandung consequent
+     * @param totalTransactions Total transaksi
+     * @throws IllegalArgumentException jika support count tidak konsisten
+     */
+    public Rule(Set<Product> antecedent, Set<Product> consequent,
+                int ruleCount, int antecedentCount, int consequentCount, int totalTransactions) {
+        if (totalTransactions <= 0 || ruleCount < 0 ||
+            ruleCount > antecedentCount || ruleCount > consequentCount ||
+            antecedentCount > totalTransactions || consequentCount > totalTransactions) {
+            throw new IllegalArgumentException("Support count aturan tidak valid");
+        }
+        this.antecedent = antecedent != null ? new HashSet<>(antecedent) : new HashSet<>();
+        this.consequent = consequent != null ? new HashSet<>(consequent) : new HashSet<>();
+        this.ruleCount = ruleCount;
+        this.antecedentCount = antecedentCount;
+        this.consequentCount = consequentCount;
+        this.totalTransactions = totalTransactions;
+        computeMeasures();
+    }
+    
+    /**
+     * Menghitung semua metrik dari support count
+     */
+    private void computeMeasures() {
+        double n = totalTransactions;
+        double pAB = ruleCount / n;
+        double pA = antecedentCount / n;
+        double pB = consequentCount / n;
+        
+        this.support = pAB;
+        this.confidence = antecedentCount > 0 ? (double) ruleCount / antecedentCount : 0.0;
+        this.lift = pA > 0 && pB > 0 ? pAB / (pA * pB) : 0.0;
+        this.leverage = pAB - pA * pB;
+        this.conviction = confidence < 1.0 ? (1.0 - pB) / (1.0 - confidence) : Double.POSITIVE_INFINITY;
+        
+        int union = antecedentCount + consequentCount - ruleCount;
+        this.jaccard = union > 0 ? (double) ruleCount / union : 0.0;
+        this.imbalanceRatio = union > 0 ? Math.abs(antecedentCount - consequentCount) / (double) union : 0.0;
+        
+        double confidenceReverse = consequentCount > 0 ? (double) ruleCount / consequentCount : 0.0;
+        this.kulczynski = (confidence + confidenceReverse) / 2.0;
+        this.cosine = antecedentCount > 0 && consequentCount > 0
+                ? ruleCount / Math.sqrt((double) antecedentCount * consequentCount) : 0.0;
+    }
+    
+    /**
+     * Menghapus support count dan metrik turunannya setelah nilai aturan
+     * diubah lewat setter, sehingga {@link #hasSupportCounts()} bernilai false
+     * dan metrik tambahan tidak bertentangan dengan confidence dan support
+     */
+    private void discardSupportCounts() {
+        ruleCount = 0;
+        antecedentCount = 0;
+        consequentCount = 0;
+        totalTransactions = 0;
+        conviction = 0.0;
+        leverage = 0.0;
+        jaccard = 0.0;
+        kulczynski = 0.0;
+        cosine = 0.0;
+        imbalanceRatio = 0.0;
+    }
+    
     /**
      * Getter untuk antecedent
      * @return Set produk kondisi
@@ -74,11 +163,13 @@ public class Rule implements Serializable {
     }
     
     /**
-     * Setter untuk antecedent
+     * Setter untuk antecedent.
+     * Support count dan metrik turunannya dihapus karena tidak lagi sesuai.
      * @param antecedent Set produk kondisi
      */
     public void setAntecedent(Set<Product> antecedent) {
         this.antecedent = antecedent != null ? new HashSet<>(antecedent) : new HashSet<>();
+        discardSupportCounts();
     }
     
     /**
@@ -90,11 +181,13 @@ public class Rule implements Serializable {
     }
     
     /**
-     * Setter untuk consequent
+     * Setter untuk consequent.
+     * Support count dan metrik turunannya dihapus karena tidak lagi sesuai.
      * @param consequent Set produk hasil
      */
     public void setConsequent(Set<Product> consequent) {
         this.consequent = consequent != null ? new HashSet<>(consequent) : new HashSet<>();
+        discardSupportCounts();
     }
     
     /**
@@ -106,7 +199,8 @@ public class Rule implements Serializable {
     }
     
     /**
-     * Setter untuk confidence
+     * Setter untuk confidence.
+     * Support count dan metrik turunannya dihapus karena tidak lagi sesuai.
      * @param confidence Tingkat kepercayaan
      * @throws IllegalArgumentException jika confidence di luar range 0-1
      */
@@ -115,6 +209,7 @@ public class Rule implements Serializable {
             throw new IllegalArgumentException("Confidence harus antara 0.0 dan 1.0");
         }
         this.confidence = confidence;
+        discardSupportCounts();
     }
     
     /**
@@ -126,7 +221,8 @@ public class Rule implements Serializable {
     }
     
     /**
-     * Setter untuk support
+     * Setter untuk support.
+     * Support count dan metrik turunannya dihapus karena tidak lagi sesuai.
      * @param support Tingkat dukungan
      * @throws IllegalArgumentException jika support di luar range 0-1
      */
@@ -135,6 +231,7 @@ public class Rule implements Serializable {
             throw new IllegalArgumentException("Support harus antara 0.0 dan 1.0");
         }
         this.support = support;
+        discardSupportCounts();
     }
     
     /**
@@ -146,11 +243,133 @@ public class Rule implements Serializable {
     }
     
     /**
-     * Setter untuk lift
+     * Setter untuk lift.
+     * Support count dan metrik turunannya dihapus karena tidak lagi sesuai.
      * @param lift Lift ratio
      */
     public void setLift(double lift) {
         this.lift = lift;
+        discardSupportCounts();
+    }
+    
+    /**
+     * Mengecek apakah aturan membawa support count absolut
+     * @return true jika metrik tambahan tersedia
+     */
+    public boolean hasSupportCounts() {
+        return totalTransactions > 0;
+    }
+    
+    /**
+     * Getter untuk support count aturan (antecedent dan consequent)
+     * @return Jumlah transaksi yang mengandung seluruh item aturan
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+    
+    /**
+     * Getter untuk support count antecedent
+     * @return Jumlah transaksi yang mengandung antecedent
+     */
+    public int getAntecedentCount() {
+        return antecedentCount;
+    }
+    
+    /**
+     * Getter untuk support count consequent
+     * @return Jumlah transaksi yang mengandung consequent
+     */
+    public int getConsequentCount() {
+        return consequentCount;
+    }
+    
+    /**
+     * Getter untuk total transaksi saat aturan dibuat
+     * @return Total transaksi
+     */
+    public int getTotalTransactions() {
+        return totalTransactions;
+    }
+    
+    /**
+     * Getter untuk conviction: (1 - P(B)) / (1 - confidence)
+     * @return Conviction, tak hingga jika confidence = 1
+     */
+    public double getConviction() {
+        return conviction;
+    }
+    
+    /**
+     * Getter untuk leverage: P(A,B) - P(A) * P(B)
+     * @return Leverage (-0.25 - 0.25)
+     */
+    public double getLeverage() {
+        return leverage;
+    }
+    
+    /**
+     * Getter untuk koefisien Jaccard: P(A,B) / P(A atau B)
+     * @return Jaccard (0.0 - 1.0)
+     */
+    public double getJaccard() {
+        return jaccard;
+    }
+    
+    /**
+     * Getter untuk Kulczynski: rata-rata P(B|A) dan P(A|B)
+     * @return Kulczynski (0.0 - 1.0)
+     */
+    public double getKulczynski() {
+        return kulczynski;
+    }
+    
+    /**
+     * Getter untuk cosine: P(A,B) / sqrt(P(A) * P(B))
+     * @return Cosine (0.0 - 1.0)
+     */
+    public double getCosine() {
+        return cosine;
+    }
+    
+    /**
+     * Getter untuk imbalance ratio: |P(A) - P(B)| / P(A atau B)
+     * @return Imbalance ratio (0.0 - 1.0), 0 berarti seimbang
+     */
+    public double getImbalanceRatio() {
+        return imbalanceRatio;
+    }
+    
+    /**
+     * Getter untuk p-value uji signifikansi
+     * @return P-value mentah, NaN jika belum diuji
+     */
+    public double getPValue() {
+        return pValue;
+    }
+    
+    /**
+     * Setter untuk p-value uji signifikansi
+     * @param pValue P-value mentah
+     */
+    public void setPValue(double pValue) {
+        this.pValue = pValue;
+    }
+    
+    /**
+     * Getter untuk p-value yang disesuaikan (family-wise error rate)
+     * @return Adjusted p-value, NaN jika belum diuji dengan permutasi
+     */
+    public double getAdjustedPValue() {
+        return adjustedPValue;
+    }
+    
+    /**
+     * Setter untuk p-value yang disesuaikan
+     * @param adjustedPValue Adjusted p-value
+     */
+    public void setAdjustedPValue(double adjustedPValue) {
+        this.adjustedPValue = adjustedPValue;
     }
     
     /**
@@ -0,0 +1,256 @@
+package com.aplikasipenjualan.algorithm;
+
+import com.aplikasipenjualan.model.Product;
+import java.util.*;
+
+/**
+ * Indeks immutable atas hasil mining untuk layanan baca yang banyak dipanggil
+ * bersamaan (misalnya API HTTP): rekomendasi keranjang melalui
+ * {@link RuleRecommender}, aturan per produk di sisi antecedent maupun
+ * consequent, dan support itemset berdasarkan kumpulan ID produk.
+ * 
+ * Semua struktur dibangun sekali di constructor dan tidak diubah lagi, sehingga
+ * indeks dapat dibaca banyak thread tanpa lock. Hasil mining baru dipasang
+ * dengan membuat indeks baru dan mengganti referensinya. Aturan dan itemset
+ * di dalam indeks tidak boleh diubah melalui setter.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public final class RuleIndex {
+    
+    /** Indeks tanpa aturan maupun itemset */
+    public static final RuleIndex EMPTY = new RuleIndex(null, null, 0);
+    
+    private static final Comparator<Rule> BY_STRENGTH =
+        Comparator.comparingDouble(Rule::getConfidence).thenComparingDouble(Rule::getLift).reversed();
+    
+    private final List<Rule> rules;
+    private final List<List<FrequentItemSet>> frequentItemSets;
+    private final int transactionCount;
+    private final RuleRecommender recommender;
+    private final Map<Integer, Product> products;
+    private final Map<Integer, Rule[]> rulesByAntecedent;
+    private final Map<Integer, Rule[]> rulesByConsequent;
+    private final Map<ItemKey, FrequentItemSet> itemSets;
+    
+    /**
+     * Kunci itemset berupa ID produk terurut
+     */
+    private static final class ItemKey {
+        private final int[] ids;
+        private final int hash;
+        
+        ItemKey(int[] ids) {
+            this.ids = ids;
+            this.hash = Arrays.hashCode(ids);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ItemKey && Arrays.equals(ids, ((ItemKey) obj).ids);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+    
+    /**
+     * Constructor - membangun semua indeks dari hasil mining
+     * @param rules Aturan asosiasi, null berarti tidak ada aturan
+     * @param frequentItemSets Frequent itemset per ukuran, null berarti tidak ada
+     * @param transactionCount Jumlah transaksi yang dianalisis
+     */
+    public RuleIndex(List<Rule> rules, List<List<FrequentItemSet>> frequentItemSets, int transactionCount) {
+        this.rules = rules != null ? Collections.unmodifiableList(new ArrayList<>(rules))
+                                   : Collections.<Rule>emptyList();
+        List<List<FrequentItemSet>> levels = new ArrayList<>();
+        if (frequentItemSets != null) {
+            for (List<FrequentItemSet> level : frequentItemSets) {
+                levels.add(Collections.unmodifiableList(new ArrayList<>(level)));
+            }
+        }
+        this.frequentItemSets = Collections.unmodifiableList(levels);
+        this.transactionCount = transactionCount;
+        this.recommender = new RuleRecommender(this.rules);
+        
+        Map<Integer, Product> productById = new HashMap<>();
+        Map<Integer, List<Rule>> byAntecedent = new HashMap<>();
+        Map<Integer, List<Rule>> byConsequent = new HashMap<>();
+        for (Rule rule : this.rules) {
+            for (Product product : rule.getAntecedent()) {
+                productById.putIfAbsent(product.getId(), product);
+                byAntecedent.computeIfAbsent(product.getId(), id -> new ArrayList<>()).add(rule);
+            }
+            for (Product product : rule.getConsequent()) {
+                productById.putIfAbsent(product.getId(), product);
+                byConsequent.computeIfAbsent(product.getId(), id -> new ArrayList<>()).add(rule);
+            }
+        }
+        Map<ItemKey, FrequentItemSet> itemSetByKey = new HashMap<>();
+        for (List<FrequentItemSet> level : this.frequentItemSets) {
+            for (FrequentItemSet itemSet : level) {
+                int[] ids = new int[itemSet.size()];
+                int size = 0;
+                for (Product product : itemSet.getItems()) {
+                    productById.putIfAbsent(product.getId(), product);
+                    ids[size++] = product.getId();
+                }
+                Arrays.sort(ids);
+                itemSetByKey.put(new ItemKey(ids), itemSet);
+            }
+        }
+        this.products = productById;
+        this.rulesByAntecedent = sortedByStrength(byAntecedent);
+        this.rulesByConsequent = sortedByStrength(byConsequent);
+        this.itemSets = itemSetByKey;
+    }
+    
+    /**
+     * Membangun indeks dari snapshot hasil analisis
+     * @param snapshot Snapshot hasil analisis
+     * @return Indeks baru
+     * @throws IllegalArgumentException jika snapshot null
+     */
+    public static RuleIndex of(MiningSnapshot snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot tidak boleh null");
+        }
+        return new RuleIndex(snapshot.getRules(), snapshot.getFrequentItemSets(),
+                             snapshot.getTransactionCount());
+    }
+    
+    /**
+     * Membuat indeks dengan aturan baru dan frequent itemset dari indeks ini
+     * @param newRules Aturan asosiasi baru
+     * @return Indeks baru, atau indeks ini jika aturannya objek yang sama
+     */
+    public RuleIndex withRules(List<Rule> newRules) {
+        if (newRules != null && newRules.size() == rules.size()) {
+            int i = 0;
+            while (i < rules.size() && rules.get(i) == newRules.get(i)) {
+                i++;
+            }
+            if (i == rules.size()) {
+                return this;
+            }
+        }
+        return new RuleIndex(newRules, frequentItemSets, transactionCount);
+    }
+    
+    private static Map<Integer, Rule[]> sortedByStrength(Map<Integer, List<Rule>> source) {
+        Map<Integer, Rule[]> result = new HashMap<>(source.size() * 2);
+        for (Map.Entry<Integer, List<Rule>> entry : source.entrySet()) {
+            Rule[] sorted = entry.getValue().toArray(new Rule[0]);
+            Arrays.sort(sorted, BY_STRENGTH);
+            result.put(entry.getKey(), sorted);
+        }
+        return result;
+    }
+    
+    /**
+     * Mendapatkan rekomendasi untuk keranjang berisi ID produk. ID yang tidak
+     * muncul di aturan mana pun diabaikan.
+     * @param productIds ID produk di keranjang (boleh duplikat)
+     * @param topN Jumlah maksimum rekomendasi
+     * @return Rekomendasi terurut berdasarkan confidence lalu lift
+     */
+    public List<Recommendation> recommend(int[] productIds, int topN) {
+        RuleRecommender.CartSession session = recommender.newSession();
+        for (int id : productIds) {
+            Product product = products.get(id);
+            if (product != null) {
+                session.addProduct(product);
+            }
+        }
+        return session.recommend(topN);
+    }
+    
+    /**
+     * Mendapatkan aturan yang antecedent-nya mengandung produk
+     * @param productId ID produk
+     * @param limit Jumlah maksimum aturan
+     * @return Aturan terurut berdasarkan confidence lalu lift (descending)
+     */
+    public List<Rule> getRulesWithAntecedent(int productId, int limit) {
+        return head(rulesByAntecedent.get(productId), limit);
+    }
+    
+    /**
+     * Mendapatkan aturan yang consequent-nya mengandung produk
+     * @param productId ID produk
+     * @param limit Jumlah maksimum aturan
+     * @return Aturan terurut berdasarkan confidence lalu lift (descending)
+     */
+    public List<Rule> getRulesWithConsequent(int productId, int limit) {
+        return head(rulesByConsequent.get(productId), limit);
+    }
+    
+    private static List<Rule> head(Rule[] sorted, int limit) {
+        if (sorted == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(sorted).subList(0, Math.min(limit, sorted.length)));
+    }
+    
+    /**
+     * Mencari frequent itemset yang berisi tepat produk-produk tertentu
+     * @param productIds ID produk, urutan dan duplikat diabaikan
+     * @return Itemset, atau null jika kombinasi tersebut tidak frequent
+     */
+    public FrequentItemSet findItemSet(int... productIds) {
+        int[] ids = Arrays.stream(productIds).distinct().sorted().toArray();
+        return itemSets.get(new ItemKey(ids));
+    }
+    
+    /**
+     * Mencari produk yang muncul di aturan atau itemset
+     * @param productId ID produk
+     * @return Produk, atau null jika tidak ada di hasil mining
+     */
+    public Product getProduct(int productId) {
+        return products.get(productId);
+    }
+    
+    /**
+     * Mendapatkan recommender untuk aturan di indeks ini
+     * @return RuleRecommender
+     */
+    public RuleRecommender getRecommender() {
+        return recommender;
+    }
+    
+    /**
+     * Mendapatkan semua aturan
+     * @return List aturan yang tidak dapat diubah
+     */
+    public List<Rule> getRules() {
+        return rules;
+    }
+    
+    /**
+     * Mendapatkan jumlah aturan
+     * @return Jumlah aturan
+     */
+    public int getRuleCount() {
+        return rules.size();
+    }
+    
+    /**
+     * Mendapatkan jumlah frequent itemset semua ukuran
+     * @return Jumlah itemset
+     */
+    public int getItemSetCount() {
+        return itemSets.size();
+    }
+    
+    /**
+     * Mendapatkan jumlah transaksi yang dianalisis
+     * @return Jumlah transaksi
+     */
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+}
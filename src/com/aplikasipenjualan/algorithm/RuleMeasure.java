@@ -0,0 +1,96 @@
+package com.aplikasipenjualan.algorithm;
+
+/**
+ * Daftar metrik kualitas (interestingness measure) aturan asosiasi
+ * yang dapat dipakai untuk mengurutkan aturan
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public enum RuleMeasure {
+    
+    CONFIDENCE("Confidence") {
+        @Override
+        public double valueOf(Rule rule) {
+            return rule.getConfidence();
+        }
+    },
+    SUPPORT("Support") {
+        @Override
+        public double valueOf(Rule rule) {
+            return rule.getSupport();
+        }
+    },
+    LIFT("Lift") {
+        @Override
+        public double valueOf(Rule rule) {
+            return rule.getLift();
+        }
+    },
+    CONVICTION("Conviction") {
+        @Override
+        public double valueOf(Rule rule) {
+            return rule.getConviction();
+        }
+    },
+    LEVERAGE("Leverage") {
+        @Override
+        public double valueOf(Rule rule) {
+            return rule.getLeverage();
+        }
+    },
+    JACCARD("Jaccard") {
+        @Override
+        public double valueOf(Rule rule) {
+            return rule.getJaccard();
+        }
+    },
+    KULCZYNSKI("Kulczynski") {
+        @Override
+        public double valueOf(Rule rule) {
+            return rule.getKulczynski();
+        }
+    },
+    COSINE("Cosine") {
+        @Override
+        public double valueOf(Rule rule) {
+            return rule.getCosine();
+        }
+    },
+    IMBALANCE_RATIO("Imbalance Ratio") {
+        @Override
+        public double valueOf(Rule rule) {
+            return rule.getImbalanceRatio();
+        }
+    };
+    
+    private final String displayName;
+    
+    /**
+     * Constructor
+     * @param displayName Nama metrik untuk ditampilkan
+     */
+    RuleMeasure(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    /**
+     * Mendapatkan nilai metrik dari sebuah aturan
+     * @param rule Aturan asosiasi
+     * @return Nilai metrik
+     */
+    public abstract double valueOf(Rule rule);
+    
+    /**
+     * Getter untuk nama tampilan
+     * @return Nama metrik
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
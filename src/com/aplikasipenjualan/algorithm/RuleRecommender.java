@@ -0,0 +1,437 @@
+package com.aplikasipenjualan.algorithm;
+
+import com.aplikasipenjualan.model.Product;
+import java.util.*;
+
+/**
+ * Mesin rekomendasi cross-sell berbasis aturan asosiasi.
+ * 
+ * Daftar aturan dikompilasi menjadi trie antecedent yang dikunci dengan
+ * ID produk terurut. Setiap node trie menyimpan skor consequent dari aturan
+ * yang antecedent-nya berakhir di node tersebut, sehingga rekomendasi untuk
+ * sebuah keranjang cukup menelusuri subset keranjang yang ada di trie.
+ * Struktur trie disimpan dalam array primitif dan tidak berubah setelah dibuat.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class RuleRecommender {
+    
+    private final Product[] products;       // Produk per indeks padat
+    private final int[] productIds;         // ID produk terurut (indeks padat)
+    
+    // Trie: anak node n berada di childKeys/childNodes[childStart[n] .. childStart[n + 1])
+    private final int[] childStart;
+    private final int[] childKeys;
+    private final int[] childNodes;
+    
+    // Skor consequent node n berada di payload*[payloadStart[n] .. payloadStart[n + 1])
+    private final int[] payloadStart;
+    private final int[] payloadItems;
+    private final double[] payloadConfidence;
+    private final double[] payloadLift;
+    private final int[] payloadRules;
+    
+    private final int ruleCount;
+    
+    /**
+     * Constructor - mengkompilasi daftar aturan menjadi trie antecedent
+     * @param rules Daftar aturan asosiasi
+     */
+    public RuleRecommender(List<Rule> rules) {
+        List<Rule> source = rules != null ? rules : Collections.<Rule>emptyList();
+        
+        // Kumpulkan semua produk dan beri indeks padat berdasarkan ID
+        Map<Integer, Product> productById = new TreeMap<>();
+        for (Rule rule : source) {
+            for (Product product : rule.getAntecedent()) {
+                productById.putIfAbsent(product.getId(), product);
+            }
+            for (Product product : rule.getConsequent()) {
+                productById.putIfAbsent(product.getId(), product);
+            }
+        }
+        this.products = productById.values().toArray(new Product[0]);
+        this.productIds = new int[products.length];
+        for (int i = 0; i < products.length; i++) {
+            productIds[i] = products[i].getId();
+        }
+        
+        // Bangun trie sementara
+        BuilderNode root = new BuilderNode();
+        int nodeCount = 1;
+        int compiledRules = 0;
+        for (Rule rule : source) {
+            int[] antecedent = toSortedIndices(rule.getAntecedent());
+            if (antecedent.length == 0) {
+                continue;
+            }
+            BuilderNode node = root;
+            for (int item : antecedent) {
+                BuilderNode child = node.children.get(item);
+                if (child == null) {
+                    child = new BuilderNode();
+                    node.children.put(item, child);
+                    nodeCount++;
+                }
+                node = child;
+            }
+            for (int item : toSortedIndices(rule.getConsequent())) {
+                node.addScore(item, rule.getConfidence(), rule.getLift());
+            }
+            compiledRules++;
+        }
+        this.ruleCount = compiledRules;
+        
+        // Ratakan trie ke array primitif secara BFS agar anak setiap node berurutan
+        int edgeCount = nodeCount - 1;
+        int payloadCount = 0;
+        List<BuilderNode> order = new ArrayList<>(nodeCount);
+        order.add(root);
+        for (int i = 0; i < order.size(); i++) {
+            BuilderNode node = order.get(i);
+            node.index = i;
+            order.addAll(node.children.values());
+            payloadCount += node.scores.size();
+        }
+        
+        this.childStart = new int[nodeCount + 1];
+        this.childKeys = new int[edgeCount];
+        this.childNodes = new int[edgeCount];
+        this.payloadStart = new int[nodeCount + 1];
+        this.payloadItems = new int[payloadCount];
+        this.payloadConfidence = new double[payloadCount];
+        this.payloadLift = new double[payloadCount];
+        this.payloadRules = new int[payloadCount];
+        
+        int edge = 0;
+        int payload = 0;
+        for (BuilderNode node : order) {
+            childStart[node.index] = edge;
+            for (Map.Entry<Integer, BuilderNode> entry : node.children.entrySet()) {
+                childKeys[edge] = entry.getKey();
+                childNodes[edge] = entry.getValue().index;
+                edge++;
+            }
+            payloadStart[node.index] = payload;
+            for (Map.Entry<Integer, double[]> entry : node.scores.entrySet()) {
+                payloadItems[payload] = entry.getKey();
+                payloadConfidence[payload] = entry.getValue()[0];
+                payloadLift[payload] = entry.getValue()[1];
+                payloadRules[payload] = (int) entry.getValue()[2];
+                payload++;
+            }
+        }
+        childStart[nodeCount] = edge;
+        payloadStart[nodeCount] = payload;
+    }
+    
+    /**
+     * Mengubah set produk menjadi indeks padat terurut
+     * @param items Set produk
+     * @return Array indeks terurut, produk yang tidak dikenal diabaikan
+     */
+    private int[] toSortedIndices(Collection<Product> items) {
+        int[] result = new int[items.size()];
+        int size = 0;
+        for (Product product : items) {
+            int index = indexOf(product);
+            if (index >= 0) {
+                result[size++] = index;
+            }
+        }
+        Arrays.sort(result, 0, size);
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+    
+    /**
+     * Mendapatkan indeks padat sebuah produk
+     * @param product Produk
+     * @return Indeks padat, -1 jika produk tidak ada di aturan manapun
+     */
+    private int indexOf(Product product) {
+        if (product == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(productIds, product.getId());
+        return index >= 0 ? index : -1;
+    }
+    
+    /**
+     * Mencari anak node pada trie
+     * @param node Node induk
+     * @param item Indeks produk
+     * @return Node anak, -1 jika tidak ada
+     */
+    private int child(int node, int item) {
+        int index = Arrays.binarySearch(childKeys, childStart[node], childStart[node + 1], item);
+        return index >= 0 ? childNodes[index] : -1;
+    }
+    
+    /**
+     * Mendapatkan rekomendasi untuk sebuah keranjang
+     * @param cart Daftar produk dalam keranjang (boleh duplikat)
+     * @param topN Jumlah maksimum rekomendasi
+     * @return List rekomendasi terurut berdasarkan confidence (descending)
+     */
+    public List<Recommendation> recommend(Collection<Product> cart, int topN) {
+        CartSession session = newSession();
+        if (cart != null) {
+            for (Product product : cart) {
+                session.addProduct(product);
+            }
+        }
+        return session.recommend(topN);
+    }
+    
+    /**
+     * Membuat sesi keranjang baru untuk rekomendasi inkremental
+     * @return Sesi keranjang kosong
+     */
+    public CartSession newSession() {
+        return new CartSession();
+    }
+    
+    /**
+     * Mendapatkan jumlah aturan yang dikompilasi
+     * @return Jumlah aturan
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+    
+    /**
+     * Mendapatkan jumlah node trie (termasuk root)
+     * @return Jumlah node
+     */
+    public int getNodeCount() {
+        return childStart.length - 1;
+    }
+    
+    /**
+     * Mengecek apakah tidak ada aturan yang dikompilasi
+     * @return true jika kosong
+     */
+    public boolean isEmpty() {
+        return ruleCount == 0;
+    }
+    
+    /**
+     * Sesi keranjang yang memperbarui skor secara inkremental.
+     * 
+     * Setiap penambahan produk hanya menelusuri subset keranjang yang
+     * mengandung produk baru tersebut. Penghapusan produk menghitung ulang
+     * skor dari awal. Sesi tidak thread-safe.
+     */
+    public class CartSession {
+        
+        private final int[] quantity;           // Jumlah per indeks produk
+        private int[] cartItems;                // Indeks produk unik terurut
+        private int cartSize;
+        
+        private final double[] bestConfidence;  // Skor consequent per indeks produk
+        private final double[] bestLift;
+        private final int[] hits;
+        private int[] touched;                  // Indeks produk yang memiliki skor
+        private int touchedSize;
+        
+        /**
+         * Constructor
+         */
+        private CartSession() {
+            this.quantity = new int[products.length];
+            this.cartItems = new int[8];
+            this.bestConfidence = new double[products.length];
+            this.bestLift = new double[products.length];
+            this.hits = new int[products.length];
+            this.touched = new int[8];
+        }
+        
+        /**
+         * Menambah produk ke keranjang dan memperbarui skor
+         * @param product Produk yang ditambahkan
+         */
+        public void addProduct(Product product) {
+            int item = indexOf(product);
+            if (item < 0 || quantity[item]++ > 0) {
+                return;
+            }
+            
+            int position = Arrays.binarySearch(cartItems, 0, cartSize, item);
+            position = -position - 1;
+            if (cartSize == cartItems.length) {
+                cartItems = Arrays.copyOf(cartItems, cartSize * 2);
+            }
+            System.arraycopy(cartItems, position, cartItems, position + 1, cartSize - position);
+            cartItems[position] = item;
+            cartSize++;
+            
+            collect(0, 0, item);
+        }
+        
+        /**
+         * Menghapus satu unit produk dari keranjang
+         * @param product Produk yang dihapus
+         */
+        public void removeProduct(Product product) {
+            int item = indexOf(product);
+            if (item < 0 || quantity[item] == 0 || --quantity[item] > 0) {
+                return;
+            }
+            
+            int position = Arrays.binarySearch(cartItems, 0, cartSize, item);
+            System.arraycopy(cartItems, position + 1, cartItems, position, cartSize - position - 1);
+            cartSize--;
+            
+            resetScores();
+            collect(0, 0, -1);
+        }
+        
+        /**
+         * Mengosongkan keranjang
+         */
+        public void clear() {
+            for (int i = 0; i < cartSize; i++) {
+                quantity[cartItems[i]] = 0;
+            }
+            cartSize = 0;
+            resetScores();
+        }
+        
+        /**
+         * Mendapatkan recommender pemilik sesi ini
+         * @return RuleRecommender
+         */
+        public RuleRecommender getRecommender() {
+            return RuleRecommender.this;
+        }
+        
+        /**
+         * Mendapatkan rekomendasi teratas untuk isi keranjang saat ini
+         * @param topN Jumlah maksimum rekomendasi
+         * @return List rekomendasi terurut berdasarkan confidence lalu lift
+         */
+        public List<Recommendation> recommend(int topN) {
+            if (topN <= 0 || touchedSize == 0) {
+                return new ArrayList<>();
+            }
+            
+            // Seleksi top-N dengan insertion sort pada array kecil
+            int[] best = new int[Math.min(topN, touchedSize)];
+            int bestSize = 0;
+            for (int i = 0; i < touchedSize; i++) {
+                int item = touched[i];
+                if (quantity[item] > 0) {
+                    continue; // Sudah ada di keranjang
+                }
+                if (bestSize == best.length && !isBetter(item, best[bestSize - 1])) {
+                    continue;
+                }
+                int position = bestSize < best.length ? bestSize++ : bestSize - 1;
+                while (position > 0 && isBetter(item, best[position - 1])) {
+                    best[position] = best[position - 1];
+                    position--;
+                }
+                best[position] = item;
+            }
+            
+            List<Recommendation> result = new ArrayList<>(bestSize);
+            for (int i = 0; i < bestSize; i++) {
+                int item = best[i];
+                result.add(new Recommendation(products[item], bestConfidence[item], bestLift[item], hits[item]));
+            }
+            return result;
+        }
+        
+        /**
+         * Membandingkan skor dua produk
+         */
+        private boolean isBetter(int a, int b) {
+            if (bestConfidence[a] != bestConfidence[b]) {
+                return bestConfidence[a] > bestConfidence[b];
+            }
+            return bestLift[a] > bestLift[b];
+        }
+        
+        /**
+         * Menelusuri trie untuk semua subset keranjang yang berawal dari node
+         * @param node Node trie saat ini
+         * @param from Posisi awal pada cartItems
+         * @param required Indeks produk yang wajib ada di jalur, -1 jika sudah terpenuhi
+         */
+        private void collect(int node, int from, int required) {
+            for (int i = from; i < cartSize; i++) {
+                int item = cartItems[i];
+                if (required >= 0 && item > required) {
+                    return; // Jalur sudah melewati produk wajib
+                }
+                int next = child(node, item);
+                if (next < 0) {
+                    continue;
+                }
+                int stillRequired = item == required ? -1 : required;
+                if (stillRequired < 0) {
+                    applyScores(next);
+                }
+                collect(next, i + 1, stillRequired);
+            }
+        }
+        
+        /**
+         * Menggabungkan skor consequent dari sebuah node
+         * @param node Node trie
+         */
+        private void applyScores(int node) {
+            for (int p = payloadStart[node]; p < payloadStart[node + 1]; p++) {
+                int item = payloadItems[p];
+                if (hits[item] == 0) {
+                    if (touchedSize == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedSize * 2);
+                    }
+                    touched[touchedSize++] = item;
+                }
+                hits[item] += payloadRules[p];
+                if (payloadConfidence[p] > bestConfidence[item] ||
+                    (payloadConfidence[p] == bestConfidence[item] && payloadLift[p] > bestLift[item])) {
+                    bestConfidence[item] = payloadConfidence[p];
+                    bestLift[item] = payloadLift[p];
+                }
+            }
+        }
+        
+        /**
+         * Mereset semua skor
+         */
+        private void resetScores() {
+            for (int i = 0; i < touchedSize; i++) {
+                int item = touched[i];
+                bestConfidence[item] = 0.0;
+                bestLift[item] = 0.0;
+                hits[item] = 0;
+            }
+            touchedSize = 0;
+        }
+    }
+    
+    /**
+     * Node trie sementara selama kompilasi
+     */
+    private static class BuilderNode {
+        private final TreeMap<Integer, BuilderNode> children = new TreeMap<>();
+        private final TreeMap<Integer, double[]> scores = new TreeMap<>();
+        private int index;
+        
+        private void addScore(int item, double confidence, double lift) {
+            double[] score = scores.get(item);
+            if (score == null) {
+                scores.put(item, new double[] {confidence, lift, 1});
+                return;
+            }
+            if (confidence > score[0] || (confidence == score[0] && lift > score[1])) {
+                score[0] = confidence;
+                score[1] = lift;
+            }
+            score[2]++;
+        }
+    }
+}
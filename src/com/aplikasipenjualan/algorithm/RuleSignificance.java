@@ -0,0 +1,338 @@
+package com.aplikasipenjualan.algorithm;
+
+import com.aplikasipenjualan.model.Product;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Uji signifikansi statistik untuk aturan asosiasi.
+ * 
+ * P-value setiap aturan dihitung dari tabel kontingensi 2x2 yang dibentuk
+ * dari support count aturan (uji satu sisi untuk asosiasi positif).
+ * Kontrol family-wise error rate opsional memakai permutasi Westfall-Young
+ * (single-step minP): label consequent diacak, lalu p-value minimum dari
+ * setiap permutasi dipakai untuk menyesuaikan p-value asli. Permutasi
+ * dijalankan paralel di semua core dan bekerja langsung pada
+ * {@link TransactionBitsets}.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class RuleSignificance {
+    
+    /**
+     * Jenis uji statistik untuk tabel kontingensi 2x2
+     */
+    public enum Test {
+        FISHER_EXACT,
+        CHI_SQUARE
+    }
+    
+    private final Test test;
+    
+    /**
+     * Constructor dengan uji Fisher exact
+     */
+    public RuleSignificance() {
+        this(Test.FISHER_EXACT);
+    }
+    
+    /**
+     * Constructor dengan jenis uji tertentu
+     * @param test Jenis uji statistik
+     * @throws IllegalArgumentException jika test null
+     */
+    public RuleSignificance(Test test) {
+        if (test == null) {
+            throw new IllegalArgumentException("Jenis uji tidak boleh null");
+        }
+        this.test = test;
+    }
+    
+    /**
+     * Menghitung p-value untuk setiap aturan dan menyimpannya di Rule
+     * @param rules Daftar aturan dengan support count
+     * @return Array p-value sesuai urutan aturan
+     * @throws IllegalArgumentException jika ada aturan tanpa support count
+     */
+    public double[] computePValues(List<Rule> rules) {
+        double[] pValues = new double[rules.size()];
+        LogFactorials logFactorials = new LogFactorials(maxTotal(rules));
+        
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            pValues[i] = pValue(rule.getRuleCount(), rule.getAntecedentCount(),
+                                rule.getConsequentCount(), rule.getTotalTransactions(), logFactorials);
+            rule.setPValue(pValues[i]);
+        }
+        return pValues;
+    }
+    
+    /**
+     * Menghitung p-value yang disesuaikan dengan permutasi Westfall-Young (minP).
+     * P-value mentah juga dihitung dan disimpan di setiap Rule.
+     * @param rules Daftar aturan dengan support count
+     * @param bitsets Transaksi dalam bentuk bitset, harus sama dengan data mining
+     * @param permutations Jumlah permutasi (minimal 1)
+     * @param seed Seed acak agar hasil dapat direproduksi
+     * @return Array adjusted p-value sesuai urutan aturan
+     * @throws IllegalArgumentException jika parameter tidak valid
+     */
+    public double[] computeAdjustedPValues(List<Rule> rules, TransactionBitsets bitsets,
+                                           int permutations, long seed) {
+        if (bitsets == null) {
+            throw new IllegalArgumentException("Bitset transaksi tidak boleh null");
+        }
+        if (permutations < 1) {
+            throw new IllegalArgumentException("Jumlah permutasi minimal 1");
+        }
+        
+        double[] observed = computePValues(rules);
+        int n = bitsets.getTransactionCount();
+        for (Rule rule : rules) {
+            if (rule.getTotalTransactions() != n) {
+                throw new IllegalArgumentException("Bitset tidak sesuai dengan data aturan");
+            }
+        }
+        
+        // Siapkan bitset antecedent dan consequent unik
+        Map<Set<Product>, Integer> consequentIndex = new HashMap<>();
+        List<long[]> consequentBits = new ArrayList<>();
+        final long[][] antecedentBits = new long[rules.size()][];
+        final int[] consequentOf = new int[rules.size()];
+        final double[][] tails = new double[rules.size()][];
+        final int[] tailOffset = new int[rules.size()];
+        LogFactorials logFactorials = new LogFactorials(n);
+        
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            antecedentBits[i] = bitsets.itemSetBits(rule.getAntecedent());
+            Integer index = consequentIndex.get(rule.getConsequent());
+            if (index == null) {
+                index = consequentBits.size();
+                consequentIndex.put(rule.getConsequent(), index);
+                consequentBits.add(bitsets.itemSetBits(rule.getConsequent()));
+            }
+            consequentOf[i] = index;
+            
+            // Margin tetap selama permutasi, jadi p-value cukup ditabulasi per count
+            int a = rule.getAntecedentCount();
+            int b = rule.getConsequentCount();
+            int low = Math.max(0, a + b - n);
+            int high = Math.min(a, b);
+            tailOffset[i] = low;
+            tails[i] = upperTailTable(low, high, a, b, n, logFactorials);
+        }
+        final long[][] consequents = consequentBits.toArray(new long[0][]);
+        
+        // Jalankan permutasi secara paralel, masing-masing dengan generator sendiri
+        double[] minPs = IntStream.range(0, permutations).parallel().mapToDouble(p -> {
+            SplittableRandom random = new SplittableRandom(seed + p * 0x9E3779B97F4A7C15L);
+            int[] permutation = randomPermutation(n, random);
+            long[][] shuffled = new long[consequents.length][];
+            for (int c = 0; c < consequents.length; c++) {
+                shuffled[c] = permute(consequents[c], permutation, bitsets.getWordCount());
+            }
+            
+            double minP = 1.0;
+            for (int i = 0; i < antecedentBits.length; i++) {
+                int count = TransactionBitsets.intersectionCount(antecedentBits[i], shuffled[consequentOf[i]]);
+                double pValue = tails[i][count - tailOffset[i]];
+                if (pValue < minP) {
+                    minP = pValue;
+                }
+            }
+            return minP;
+        }).toArray();
+        Arrays.sort(minPs);
+        
+        double[] adjusted = new double[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            int atMost = upperBound(minPs, observed[i]);
+            adjusted[i] = (1.0 + atMost) / (1.0 + permutations);
+            rules.get(i).setAdjustedPValue(adjusted[i]);
+        }
+        return adjusted;
+    }
+    
+    /**
+     * Memfilter aturan berdasarkan p-value. Adjusted p-value dipakai jika
+     * tersedia, selain itu p-value mentah.
+     * @param rules Daftar aturan yang sudah diuji
+     * @param alpha Batas signifikansi (0.0 - 1.0)
+     * @return List aturan dengan p-value kurang dari atau sama dengan alpha
+     */
+    public static List<Rule> filterSignificant(List<Rule> rules, double alpha) {
+        List<Rule> result = new ArrayList<>();
+        for (Rule rule : rules) {
+            double pValue = Double.isNaN(rule.getAdjustedPValue()) ? rule.getPValue() : rule.getAdjustedPValue();
+            if (pValue <= alpha) {
+                result.add(rule);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Menghitung p-value satu sisi dari tabel kontingensi 2x2
+     * @param ruleCount Transaksi dengan antecedent dan consequent
+     * @param antecedentCount Transaksi dengan antecedent
+     * @param consequentCount Transaksi dengan consequent
+     * @param total Total transaksi
+     * @param logFactorials Tabel log faktorial minimal sebesar total
+     * @return P-value (0.0 - 1.0)
+     */
+    private double pValue(int ruleCount, int antecedentCount, int consequentCount, int total,
+                          LogFactorials logFactorials) {
+        if (total <= 0) {
+            throw new IllegalArgumentException("Aturan tidak memiliki support count");
+        }
+        if (test == Test.FISHER_EXACT) {
+            return fisherExactUpperTail(ruleCount, antecedentCount, consequentCount, total, logFactorials);
+        }
+        return chiSquareUpperTail(ruleCount, antecedentCount, consequentCount, total);
+    }
+    
+    /**
+     * Menabulasi p-value untuk semua kemungkinan count dengan margin tetap
+     * @return Array p-value untuk count low..high
+     */
+    private double[] upperTailTable(int low, int high, int a, int b, int n, LogFactorials lf) {
+        double[] table = new double[high - low + 1];
+        if (test == Test.FISHER_EXACT) {
+            // Ekor atas dijumlahkan kumulatif dari count tertinggi
+            double logDenominator = lf.logChoose(n, a);
+            double sum = 0.0;
+            for (int x = high; x >= low; x--) {
+                sum += Math.exp(lf.logChoose(b, x) + lf.logChoose(n - b, a - x) - logDenominator);
+                table[x - low] = Math.min(1.0, sum);
+            }
+        } else {
+            for (int x = low; x <= high; x++) {
+                table[x - low] = chiSquareUpperTail(x, a, b, n);
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * Uji Fisher exact satu sisi: P(X >= ruleCount) dengan X berdistribusi hipergeometrik
+     */
+    private static double fisherExactUpperTail(int x, int a, int b, int n, LogFactorials lf) {
+        int high = Math.min(a, b);
+        double logDenominator = lf.logChoose(n, a);
+        double sum = 0.0;
+        for (int k = x; k <= high; k++) {
+            sum += Math.exp(lf.logChoose(b, k) + lf.logChoose(n - b, a - k) - logDenominator);
+        }
+        return Math.min(1.0, sum);
+    }
+    
+    /**
+     * Uji chi-square satu sisi (pendekatan normal dari statistik Pearson, 1 derajat bebas)
+     */
+    private static double chiSquareUpperTail(int x, int a, int b, int n) {
+        double expected = (double) a * b / n;
+        double variance = expected * (n - a) * (n - b) / ((double) n * n);
+        if (variance <= 0.0) {
+            return x > expected ? 0.0 : 1.0;
+        }
+        double z = (x - expected) / Math.sqrt(variance); // z^2 = statistik chi-square Pearson
+        return 0.5 * erfc(z / Math.sqrt(2.0));
+    }
+    
+    /**
+     * Complementary error function (Numerical Recipes, galat relatif < 1.2e-7)
+     */
+    private static double erfc(double x) {
+        double z = Math.abs(x);
+        double t = 1.0 / (1.0 + 0.5 * z);
+        double r = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 +
+                   t * (0.09678418 + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 +
+                   t * (1.48851587 + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? r : 2.0 - r;
+    }
+    
+    /**
+     * Membuat permutasi acak 0..n-1 (Fisher-Yates)
+     */
+    private static int[] randomPermutation(int n, SplittableRandom random) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = temp;
+        }
+        return permutation;
+    }
+    
+    /**
+     * Memindahkan setiap bit i ke posisi permutation[i]
+     */
+    private static long[] permute(long[] bits, int[] permutation, int words) {
+        long[] result = new long[words];
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                int target = permutation[bit];
+                result[target >>> 6] |= 1L << target;
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Jumlah elemen array terurut yang kurang dari atau sama dengan value
+     */
+    private static int upperBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Total transaksi terbesar dari daftar aturan
+     */
+    private static int maxTotal(List<Rule> rules) {
+        int max = 0;
+        for (Rule rule : rules) {
+            max = Math.max(max, rule.getTotalTransactions());
+        }
+        return max;
+    }
+    
+    /**
+     * Tabel log faktorial untuk koefisien binomial
+     */
+    private static class LogFactorials {
+        private final double[] values;
+        
+        private LogFactorials(int n) {
+            values = new double[n + 1];
+            for (int i = 2; i <= n; i++) {
+                values[i] = values[i - 1] + Math.log(i);
+            }
+        }
+        
+        private double logChoose(int n, int k) {
+            if (k < 0 || k > n) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return values[n] - values[k] - values[n - k];
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.aplikasipenjualan.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility untuk mengurutkan aturan asosiasi berdasarkan metrik tertentu.
+ * 
+ * Nilai metrik diambil sekali ke array double primitif, lalu indeks aturan
+ * diurutkan dengan merge sort primitif yang stabil. Tidak ada boxing maupun
+ * rantai Comparator selama pengurutan.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public final class RuleSorter {
+    
+    /**
+     * Constructor private - kelas utility
+     */
+    private RuleSorter() {
+    }
+    
+    /**
+     * Mengurutkan aturan berdasarkan metrik secara descending
+     * @param rules Daftar aturan
+     * @param measure Metrik pengurutan
+     * @return List baru yang sudah terurut
+     */
+    public static List<Rule> sort(List<Rule> rules, RuleMeasure measure) {
+        return sort(rules, measure, true);
+    }
+    
+    /**
+     * Mengurutkan aturan berdasarkan metrik
+     * @param rules Daftar aturan
+     * @param measure Metrik pengurutan
+     * @param descending true untuk urutan menurun
+     * @return List baru yang sudah terurut, urutan asli dipertahankan untuk nilai sama
+     * @throws IllegalArgumentException jika rules atau measure null
+     */
+    public static List<Rule> sort(List<Rule> rules, RuleMeasure measure, boolean descending) {
+        if (rules == null || measure == null) {
+            throw new IllegalArgumentException("Daftar aturan dan metrik tidak boleh null");
+        }
+        
+        int size = rules.size();
+        double[] keys = new double[size];
+        for (int i = 0; i < size; i++) {
+            double value = measure.valueOf(rules.get(i));
+            // Arah urutan diatur dengan negasi kunci, NaN selalu di akhir
+            if (Double.isNaN(value)) {
+                keys[i] = Double.POSITIVE_INFINITY;
+            } else {
+                keys[i] = descending ? -value : value;
+            }
+        }
+        
+        int[] order = sortedIndices(keys);
+        
+        List<Rule> sorted = new ArrayList<>(size);
+        for (int index : order) {
+            sorted.add(rules.get(index));
+        }
+        return sorted;
+    }
+    
+    /**
+     * Mengurutkan indeks berdasarkan kunci ascending (stabil)
+     * @param keys Kunci pengurutan
+     * @return Array indeks terurut
+     */
+    static int[] sortedIndices(double[] keys) {
+        int size = keys.length;
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        int[] buffer = new int[size];
+        
+        // Merge sort bottom-up
+        for (int width = 1; width < size; width *= 2) {
+            for (int left = 0; left < size - width; left += 2 * width) {
+                int middle = left + width;
+                int right = Math.min(left + 2 * width, size);
+                merge(keys, order, buffer, left, middle, right);
+            }
+        }
+        return order;
+    }
+    
+    /**
+     * Menggabungkan dua segmen terurut order[left..middle) dan order[middle..right)
+     */
+    private static void merge(double[] keys, int[] order, int[] buffer, int left, int middle, int right) {
+        if (keys[order[middle - 1]] <= keys[order[middle]]) {
+            return; // Sudah terurut
+        }
+        System.arraycopy(order, left, buffer, left, right - left);
+        int i = left;
+        int j = middle;
+        for (int k = left; k < right; k++) {
+            if (j >= right || (i < middle && keys[buffer[i]] <= keys[buffer[j]])) {
+                order[k] = buffer[i++];
+            } else {
+                order[k] = buffer[j++];
+            }
+        }
+    }
+}
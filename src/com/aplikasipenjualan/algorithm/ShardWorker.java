@@ -0,0 +1,134 @@
+package com.aplikasipenjualan.algorithm;
+
+import com.aplikasipenjualan.model.BasketSource;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Worker mining tersebar yang dijalankan di proses terpisah. Worker terhubung
+ * ke {@link ShardedSupportCounter}, menyimpan shard keranjang yang dikirim
+ * koordinator di array int, lalu menjawab perintah hitung dengan
+ * {@link BasketMiner} atas shard tersebut sampai koordinator menutup koneksi.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public final class ShardWorker {
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private ShardWorker() {
+    }
+    
+    /**
+     * Keranjang satu shard dalam array ID produk dan offset
+     */
+    private static final class ShardBaskets implements BasketSource {
+        private int[] items = new int[1 << 12];
+        private int[] starts = new int[1 << 10];
+        private int itemCount;
+        private int basketCount;
+        
+        void add(DataInputStream in, int length) throws IOException {
+            if (itemCount + length > items.length) {
+                items = Arrays.copyOf(items, Math.max(itemCount + length, items.length * 2));
+            }
+            if (basketCount + 2 > starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            for (int i = 0; i < length; i++) {
+                items[itemCount++] = in.readInt();
+            }
+            starts[++basketCount] = itemCount;
+        }
+        
+        @Override
+        public int getBasketCount() {
+            return basketCount;
+        }
+        
+        @Override
+        public void forEachBasket(BasketVisitor visitor) {
+            IntBuffer buffer = IntBuffer.wrap(items, 0, itemCount).asReadOnlyBuffer();
+            for (int b = 0; b < basketCount; b++) {
+                visitor.visit(buffer, starts[b], starts[b + 1] - starts[b]);
+            }
+        }
+    }
+    
+    /**
+     * Terhubung ke koordinator di mesin yang sama lalu melayani perintah
+     * sampai koordinator selesai
+     * @param port Port koordinator di loopback
+     * @throws IOException jika koneksi gagal atau protokol tidak valid
+     */
+    public static void run(int port) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            serve(socket);
+        }
+    }
+    
+    /**
+     * Melayani perintah koordinator pada socket yang sudah terhubung
+     * @param socket Socket ke koordinator
+     * @throws IOException jika komunikasi gagal atau perintah tidak dikenal
+     */
+    public static void serve(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+        out.writeInt(ShardedSupportCounter.MAGIC);
+        out.writeInt(ShardedSupportCounter.PROTOCOL_VERSION);
+        out.flush();
+        
+        ShardBaskets baskets = new ShardBaskets();
+        BasketMiner miner = new BasketMiner(baskets);
+        while (true) {
+            int command = in.read();
+            switch (command) {
+                case -1:
+                case ShardedSupportCounter.CMD_CLOSE:
+                    return;
+                case ShardedSupportCounter.CMD_BASKETS:
+                    baskets = new ShardBaskets();
+                    for (int length = in.readInt(); length != ShardedSupportCounter.END_OF_BASKETS;
+                         length = in.readInt()) {
+                        if (length < 0) {
+                            throw new IOException("Panjang keranjang tidak valid: " + length);
+                        }
+                        baskets.add(in, length);
+                    }
+                    miner = new BasketMiner(baskets);
+                    out.writeInt(baskets.getBasketCount());
+                    break;
+                case ShardedSupportCounter.CMD_COUNT_ITEMS:
+                    ShardedSupportCounter.writeCounts(out, miner.countItems());
+                    break;
+                case ShardedSupportCounter.CMD_COUNT_CANDIDATES:
+                    ShardedSupportCounter.writeCounts(out, miner.countCandidates(readCandidates(in)));
+                    break;
+                default:
+                    throw new IOException("Perintah koordinator tidak dikenal: " + command);
+            }
+            out.flush();
+        }
+    }
+    
+    private static int[][] readCandidates(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        int size = in.readInt();
+        if (count < 0 || size <= 0) {
+            throw new IOException("Kandidat tidak valid");
+        }
+        int[][] candidates = new int[count][size];
+        for (int[] candidate : candidates) {
+            for (int i = 0; i < size; i++) {
+                candidate[i] = in.readInt();
+            }
+        }
+        return candidates;
+    }
+}
@@ -0,0 +1,263 @@
+package com.aplikasipenjualan.algorithm;
+
+import com.aplikasipenjualan.model.BasketSource;
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Koordinator mining tersebar: keranjang dibagi ke beberapa proses worker
+ * ({@link ShardWorker}) melalui socket lokal, lalu setiap level Apriori
+ * dihitung dengan mengirim kandidat yang sama ke semua worker dan
+ * menjumlahkan support count lokal mereka. Karena setiap keranjang berada di
+ * tepat satu shard, jumlah tersebut sama persis dengan hitungan di satu proses.
+ * 
+ * Protokol biner sederhana di atas DataInput/DataOutputStream: worker membuka
+ * koneksi dengan magic dan versi, lalu menjawab setiap perintah koordinator
+ * secara berurutan. Perintah dikirim ke semua worker sebelum jawaban dibaca
+ * sehingga worker menghitung bersamaan.
+ * 
+ * Kegagalan komunikasi dilaporkan sebagai {@link UncheckedIOException} karena
+ * {@link SupportCounter} dipanggil dari dalam Apriori. Tidak thread-safe.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class ShardedSupportCounter implements SupportCounter, Closeable {
+    
+    /** Magic number "APSH" yang dikirim worker saat terhubung */
+    static final int MAGIC = 0x41505348;
+    /** Versi protokol */
+    static final int PROTOCOL_VERSION = 1;
+    
+    static final byte CMD_CLOSE = 0;
+    static final byte CMD_BASKETS = 1;
+    static final byte CMD_COUNT_ITEMS = 2;
+    static final byte CMD_COUNT_CANDIDATES = 3;
+    
+    /** Penanda akhir aliran keranjang */
+    static final int END_OF_BASKETS = -1;
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final List<Connection> workers;
+    private int basketCount;
+    
+    /**
+     * Koneksi ke satu worker
+     */
+    private static final class Connection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+        }
+    }
+    
+    private ShardedSupportCounter(List<Connection> workers) {
+        this.workers = workers;
+    }
+    
+    /**
+     * Menerima koneksi dari worker yang sudah dijalankan
+     * @param server Server socket tempat worker terhubung
+     * @param workerCount Jumlah worker yang ditunggu
+     * @param timeoutMillis Batas waktu menunggu setiap worker
+     * @return Koordinator yang terhubung ke semua worker
+     * @throws IOException jika worker tidak terhubung atau handshake gagal
+     */
+    public static ShardedSupportCounter accept(ServerSocket server, int workerCount, int timeoutMillis)
+            throws IOException {
+        if (server == null || workerCount <= 0) {
+            throw new IllegalArgumentException("Server socket dan jumlah worker tidak valid");
+        }
+        List<Connection> connections = new ArrayList<>(workerCount);
+        try {
+            server.setSoTimeout(timeoutMillis);
+            while (connections.size() < workerCount) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                connections.add(connection);
+                socket.setSoTimeout(timeoutMillis);
+                if (connection.in.readInt() != MAGIC || connection.in.readInt() != PROTOCOL_VERSION) {
+                    throw new IOException("Handshake worker tidak valid");
+                }
+                socket.setSoTimeout(0);
+            }
+        } catch (IOException e) {
+            for (Connection connection : connections) {
+                connection.socket.close();
+            }
+            throw e;
+        }
+        return new ShardedSupportCounter(connections);
+    }
+    
+    /**
+     * Membagi keranjang ke semua worker secara round-robin. Hanya keranjang
+     * yang sudah ada saat pemanggilan dimulai yang dikirim, dan pembagian
+     * sebelumnya diganti.
+     * @param source Sumber keranjang
+     * @return Jumlah keranjang yang dikirim
+     * @throws IOException jika pengiriman gagal
+     */
+    public int distribute(BasketSource source) throws IOException {
+        if (source == null) {
+            throw new IllegalArgumentException("Sumber keranjang tidak boleh null");
+        }
+        int limit = source.getBasketCount();
+        for (Connection worker : workers) {
+            worker.out.writeByte(CMD_BASKETS);
+        }
+        int[] sent = {0};
+        try {
+            source.forEachBasket((items, offset, length) -> {
+                if (sent[0] >= limit) {
+                    return;
+                }
+                DataOutputStream out = workers.get(sent[0] % workers.size()).out;
+                try {
+                    out.writeInt(length);
+                    for (int i = offset; i < offset + length; i++) {
+                        out.writeInt(items.get(i));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                sent[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (Connection worker : workers) {
+            worker.out.writeInt(END_OF_BASKETS);
+            worker.out.flush();
+        }
+        int total = 0;
+        for (Connection worker : workers) {
+            total += worker.in.readInt();
+        }
+        if (total != sent[0]) {
+            throw new IOException("Worker menerima " + total + " dari " + sent[0] + " keranjang");
+        }
+        basketCount = total;
+        return total;
+    }
+    
+    /**
+     * Mendapatkan jumlah worker
+     * @return Jumlah worker
+     */
+    public int getWorkerCount() {
+        return workers.size();
+    }
+    
+    @Override
+    public int getBasketCount() {
+        return basketCount;
+    }
+    
+    @Override
+    public int[] countItems() {
+        try {
+            for (Connection worker : workers) {
+                worker.out.writeByte(CMD_COUNT_ITEMS);
+                worker.out.flush();
+            }
+            int[] total = new int[0];
+            for (Connection worker : workers) {
+                int[] local = readCounts(worker.in);
+                if (local.length > total.length) {
+                    total = Arrays.copyOf(total, local.length);
+                }
+                for (int id = 0; id < local.length; id++) {
+                    total[id] += local[id];
+                }
+            }
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Worker gagal menghitung item", e);
+        }
+    }
+    
+    @Override
+    public int[] countCandidates(int[][] candidates) {
+        if (candidates.length == 0) {
+            return new int[0];
+        }
+        try {
+            int size = candidates[0].length;
+            for (Connection worker : workers) {
+                worker.out.writeByte(CMD_COUNT_CANDIDATES);
+                worker.out.writeInt(candidates.length);
+                worker.out.writeInt(size);
+                for (int[] candidate : candidates) {
+                    for (int id : candidate) {
+                        worker.out.writeInt(id);
+                    }
+                }
+                worker.out.flush();
+            }
+            int[] total = new int[candidates.length];
+            for (Connection worker : workers) {
+                int[] local = readCounts(worker.in);
+                if (local.length != total.length) {
+                    throw new IOException("Jumlah hasil worker tidak sesuai kandidat");
+                }
+                for (int i = 0; i < local.length; i++) {
+                    total[i] += local[i];
+                }
+            }
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Worker gagal menghitung kandidat", e);
+        }
+    }
+    
+    static int[] readCounts(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Panjang data tidak valid: " + length);
+        }
+        int[] counts = new int[length];
+        for (int i = 0; i < length; i++) {
+            counts[i] = in.readInt();
+        }
+        return counts;
+    }
+    
+    static void writeCounts(DataOutputStream out, int[] counts) throws IOException {
+        out.writeInt(counts.length);
+        for (int count : counts) {
+            out.writeInt(count);
+        }
+    }
+    
+    /**
+     * Menghentikan semua worker lalu menutup koneksi
+     */
+    @Override
+    public void close() {
+        for (Connection worker : workers) {
+            try {
+                worker.out.writeByte(CMD_CLOSE);
+                worker.out.flush();
+            } catch (IOException e) {
+                // Worker sudah berhenti
+            }
+            try {
+                worker.socket.close();
+            } catch (IOException e) {
+                // Diabaikan saat menutup
+            }
+        }
+    }
+}
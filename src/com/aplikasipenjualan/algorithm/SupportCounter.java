@@ -0,0 +1,45 @@
+package com.aplikasipenjualan.algorithm;
+
+/**
+ * Penghitung support count untuk Apriori level-wise atas keranjang berupa ID
+ * produk. Apriori hanya membentuk kandidat dan aturan, sedangkan pemindaian
+ * keranjang diserahkan ke implementasi ini, baik di proses yang sama
+ * ({@link BasketMiner}) maupun tersebar ke beberapa proses
+ * ({@link ShardedSupportCounter}).
+ * 
+ * Semua pemanggilan harus menghitung atas kumpulan keranjang yang sama.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public interface SupportCounter {
+    
+    /**
+     * Mendapatkan jumlah keranjang yang dihitung
+     * @return Jumlah keranjang
+     */
+    int getBasketCount();
+    
+    /**
+     * Menghitung frekuensi setiap produk
+     * @return Array counter dengan indeks ID produk
+     */
+    int[] countItems();
+    
+    /**
+     * Menghitung support count setiap kandidat
+     * @param candidates Kandidat berukuran sama, masing-masing terurut naik
+     *                   dan seluruhnya terurut leksikografis
+     * @return Support count dengan indeks yang sama seperti candidates
+     */
+    int[] countCandidates(int[][] candidates);
+    
+    /**
+     * Menghitung support count satu itemset
+     * @param items ID produk terurut naik
+     * @return Jumlah keranjang yang mengandung semua item
+     */
+    default int countItemSet(int[] items) {
+        return countCandidates(new int[][] {items})[0];
+    }
+}
@@ -0,0 +1,156 @@
+package com.aplikasipenjualan.algorithm;
+
+import com.aplikasipenjualan.model.BasketSource;
+import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.Transaction;
+import java.util.*;
+
+/**
+ * Representasi transaksi dalam bentuk bitset vertikal (tidset).
+ * 
+ * Setiap produk dipetakan ke bitset dengan satu bit per transaksi, sehingga
+ * support sebuah itemset cukup dihitung dengan operasi AND dan popcount
+ * tanpa membaca ulang objek Transaction.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class TransactionBitsets {
+    
+    private final int transactionCount;
+    private final int words;
+    private final Map<Integer, long[]> bitsById;
+    
+    /**
+     * Constructor - meng-encode daftar transaksi menjadi bitset per produk
+     * @param transactions Daftar transaksi
+     * @throws IllegalArgumentException jika transactions null
+     */
+    public TransactionBitsets(List<Transaction> transactions) {
+        if (transactions == null) {
+            throw new IllegalArgumentException("Daftar transaksi tidak boleh null");
+        }
+        this.transactionCount = transactions.size();
+        this.words = (transactionCount + 63) >>> 6;
+        this.bitsById = new HashMap<>();
+        
+        for (int t = 0; t < transactionCount; t++) {
+            for (Product product : transactions.get(t).getProducts()) {
+                long[] bits = bitsById.get(product.getId());
+                if (bits == null) {
+                    bits = new long[words];
+                    bitsById.put(product.getId(), bits);
+                }
+                bits[t >>> 6] |= 1L << t;
+            }
+        }
+    }
+    
+    /**
+     * Constructor - meng-encode keranjang dari sumber berbasis ID produk
+     * @param source Sumber keranjang
+     * @throws IllegalArgumentException jika source null
+     */
+    public TransactionBitsets(BasketSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Sumber keranjang tidak boleh null");
+        }
+        this.transactionCount = source.getBasketCount();
+        this.words = (transactionCount + 63) >>> 6;
+        this.bitsById = new HashMap<>();
+        
+        final int[] t = {0};
+        source.forEachBasket((items, offset, length) -> {
+            if (t[0] >= transactionCount) {
+                return; // Keranjang yang ditambahkan setelah jumlah dibaca
+            }
+            for (int i = offset; i < offset + length; i++) {
+                long[] bits = bitsById.computeIfAbsent(items.get(i), id -> new long[words]);
+                bits[t[0] >>> 6] |= 1L << t[0];
+            }
+            t[0]++;
+        });
+    }
+    
+    /**
+     * Mendapatkan jumlah transaksi yang di-encode
+     * @return Jumlah transaksi
+     */
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+    
+    /**
+     * Mendapatkan jumlah word (long) per bitset
+     * @return Jumlah word
+     */
+    public int getWordCount() {
+        return words;
+    }
+    
+    /**
+     * Membuat bitset transaksi yang mengandung semua produk dalam itemset
+     * @param items Set produk
+     * @return Bitset baru hasil AND, kosong jika ada produk yang tidak pernah muncul
+     */
+    public long[] itemSetBits(Collection<Product> items) {
+        long[] result = new long[words];
+        if (items == null || items.isEmpty()) {
+            return result;
+        }
+        
+        boolean first = true;
+        for (Product product : items) {
+            long[] bits = bitsById.get(product.getId());
+            if (bits == null) {
+                return new long[words];
+            }
+            if (first) {
+                System.arraycopy(bits, 0, result, 0, words);
+                first = false;
+            } else {
+                for (int w = 0; w < words; w++) {
+                    result[w] &= bits[w];
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Menghitung support count sebuah itemset
+     * @param items Set produk
+     * @return Jumlah transaksi yang mengandung semua produk
+     */
+    public int support(Collection<Product> items) {
+        return cardinality(itemSetBits(items));
+    }
+    
+    /**
+     * Menghitung jumlah bit aktif
+     * @param bits Bitset
+     * @return Jumlah bit bernilai 1
+     */
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+    
+    /**
+     * Menghitung jumlah bit aktif pada hasil AND dua bitset
+     * @param a Bitset pertama
+     * @param b Bitset kedua
+     * @return Jumlah bit bernilai 1 pada a AND b
+     */
+    public static int intersectionCount(long[] a, long[] b) {
+        int count = 0;
+        int length = Math.min(a.length, b.length);
+        for (int w = 0; w < length; w++) {
+            count += Long.bitCount(a[w] & b[w]);
+        }
+        return count;
+    }
+}
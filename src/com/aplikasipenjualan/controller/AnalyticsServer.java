@@ -0,0 +1,357 @@
+package com.aplikasipenjualan.controller;
+
+import com.aplikasipenjualan.algorithm.FrequentItemSet;
+import com.aplikasipenjualan.algorithm.Recommendation;
+import com.aplikasipenjualan.algorithm.Rule;
+import com.aplikasipenjualan.algorithm.RuleIndex;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Server HTTP tertanam (com.sun.net.httpserver) yang melayani rekomendasi
+ * keranjang, aturan per produk, dan support itemset dalam JSON untuk web shop
+ * dan kios. Semua endpoint hanya membaca {@link RuleIndex} immutable yang
+ * diambil dari supplier pada setiap request, sehingga hasil mining baru
+ * langsung terlihat tanpa lock.
+ * 
+ * Endpoint (semua GET):
+ * <ul>
+ *   <li>{@code /api/status} - jumlah aturan, itemset, dan transaksi</li>
+ *   <li>{@code /api/recommendations?cart=1,2&limit=5} - rekomendasi keranjang</li>
+ *   <li>{@code /api/rules?product=3&side=antecedent|consequent&limit=10} - aturan per produk</li>
+ *   <li>{@code /api/itemsets?items=1,2} - support itemset, 404 jika tidak frequent</li>
+ * </ul>
+ * 
+ * Request dilayani oleh thread pool tetap berisi thread daemon. Handler hanya
+ * bekerja di memori tanpa I/O yang memblokir, sehingga jumlah thread
+ * secukupnya sebanding dengan jumlah core.
+ * 
+ * Secara default server hanya mendengarkan di alamat loopback karena API
+ * tidak memiliki autentikasi; web shop di host lain harus memilih alamat
+ * secara eksplisit lewat {@link #HOST_PROPERTY} atau opsi {@code --bind}.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class AnalyticsServer {
+    
+    /** System property untuk port server saat aplikasi GUI dijalankan */
+    public static final String PORT_PROPERTY = "aplikasipenjualan.http.port";
+    /** System property untuk alamat bind server, default loopback */
+    public static final String HOST_PROPERTY = "aplikasipenjualan.http.host";
+    /** Jumlah hasil default per request */
+    public static final int DEFAULT_LIMIT = 10;
+    /** Jumlah hasil maksimum per request */
+    public static final int MAX_LIMIT = 1000;
+    
+    private static final int BACKLOG = 256;
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    
+    private final Supplier<RuleIndex> index;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    
+    /**
+     * Handler satu endpoint
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        /**
+         * Menulis respons JSON
+         * @return Kode status HTTP
+         * @throws IllegalArgumentException jika parameter tidak valid (400)
+         */
+        int handle(RuleIndex index, Map<String, String> params, Writer out) throws IOException;
+    }
+    
+    /**
+     * Constructor - membuka socket server, belum melayani request sebelum {@link #start()}
+     * @param index Sumber indeks hasil mining terbaru
+     * @param bindAddress Alamat yang didengarkan, mis. 0.0.0.0 untuk semua interface
+     * @param port Port TCP, 0 untuk port bebas
+     * @param threads Jumlah thread pelayan request
+     * @throws IOException jika port tidak dapat dibuka
+     */
+    public AnalyticsServer(Supplier<RuleIndex> index, InetAddress bindAddress, int port, int threads)
+            throws IOException {
+        if (index == null) {
+            throw new IllegalArgumentException("Sumber indeks tidak boleh null");
+        }
+        if (bindAddress == null) {
+            throw new IllegalArgumentException("Alamat bind tidak boleh null");
+        }
+        if (port < 0 || port > 65535 || threads <= 0) {
+            throw new IllegalArgumentException("Port atau jumlah thread tidak valid");
+        }
+        this.index = index;
+        // Tanpa TCP_NODELAY, respons kecil pada koneksi keep-alive tertahan
+        // Nagle + delayed ACK sekitar 40 ms per request
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(bindAddress, port), BACKLOG);
+        this.executor = Executors.newFixedThreadPool(threads, new ServerThreadFactory());
+        server.setExecutor(executor);
+        register("/api/status", this::status);
+        register("/api/recommendations", this::recommendations);
+        register("/api/rules", this::rules);
+        register("/api/itemsets", this::itemSets);
+    }
+    
+    /**
+     * Constructor di alamat loopback
+     * @param index Sumber indeks hasil mining terbaru
+     * @param port Port TCP, 0 untuk port bebas
+     * @param threads Jumlah thread pelayan request
+     * @throws IOException jika port tidak dapat dibuka
+     */
+    public AnalyticsServer(Supplier<RuleIndex> index, int port, int threads) throws IOException {
+        this(index, InetAddress.getLoopbackAddress(), port, threads);
+    }
+    
+    /**
+     * Constructor dengan jumlah thread sesuai jumlah core
+     * @param index Sumber indeks hasil mining terbaru
+     * @param bindAddress Alamat yang didengarkan
+     * @param port Port TCP, 0 untuk port bebas
+     * @throws IOException jika port tidak dapat dibuka
+     */
+    public AnalyticsServer(Supplier<RuleIndex> index, InetAddress bindAddress, int port) throws IOException {
+        this(index, bindAddress, port, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+    
+    /**
+     * Constructor di alamat loopback dengan jumlah thread sesuai jumlah core
+     * @param index Sumber indeks hasil mining terbaru
+     * @param port Port TCP, 0 untuk port bebas
+     * @throws IOException jika port tidak dapat dibuka
+     */
+    public AnalyticsServer(Supplier<RuleIndex> index, int port) throws IOException {
+        this(index, InetAddress.getLoopbackAddress(), port);
+    }
+    
+    /**
+     * Mengubah alamat bind dari konfigurasi
+     * @param host Nama host atau alamat IP; null atau kosong berarti loopback
+     * @return Alamat yang didengarkan server
+     * @throws IllegalArgumentException jika host tidak dapat di-resolve
+     */
+    public static InetAddress parseBindAddress(String host) {
+        if (host == null || host.trim().isEmpty()) {
+            return InetAddress.getLoopbackAddress();
+        }
+        try {
+            return InetAddress.getByName(host.trim());
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Alamat bind tidak dikenal: " + host);
+        }
+    }
+    
+    /**
+     * Mulai melayani request
+     */
+    public void start() {
+        server.start();
+    }
+    
+    /**
+     * Menghentikan server dan thread pool
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Mendapatkan port yang dipakai server
+     * @return Port TCP
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    /**
+     * Mendapatkan alamat yang didengarkan server
+     * @return Alamat IP dan port
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+    
+    private void register(String path, Endpoint endpoint) {
+        server.createContext(path, exchange -> dispatch(exchange, endpoint));
+    }
+    
+    private void dispatch(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        StringWriter body = new StringWriter(256);
+        int status;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                status = error(body, 405, "Hanya metode GET yang didukung");
+            } else {
+                status = endpoint.handle(index.get(), parseQuery(exchange.getRequestURI().getRawQuery()), body);
+            }
+        } catch (IllegalArgumentException e) {
+            body.getBuffer().setLength(0);
+            status = error(body, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Error melayani " + exchange.getRequestURI() + ": " + e.getMessage());
+            body.getBuffer().setLength(0);
+            status = error(body, 500, "Kesalahan internal server");
+        }
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    private static int error(Writer out, int status, String message) throws IOException {
+        out.write("{\"error\": ");
+        MiningExporter.writeString(out, message != null ? message : "");
+        out.write('}');
+        return status;
+    }
+    
+    private static Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals >= 0 ? pair.substring(0, equals) : pair;
+            String value = equals >= 0 ? pair.substring(equals + 1) : "";
+            params.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return params;
+    }
+    
+    private static int[] parseIds(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Parameter " + name + " wajib diisi");
+        }
+        String[] parts = value.split(",");
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                ids[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("ID produk tidak valid: " + parts[i]);
+            }
+        }
+        return ids;
+    }
+    
+    private static int parseLimit(Map<String, String> params) {
+        String value = params.get("limit");
+        if (value == null) {
+            return DEFAULT_LIMIT;
+        }
+        try {
+            int limit = Integer.parseInt(value.trim());
+            if (limit > 0) {
+                return Math.min(limit, MAX_LIMIT);
+            }
+        } catch (NumberFormatException e) {
+            // Dilaporkan di bawah
+        }
+        throw new IllegalArgumentException("Parameter limit harus bilangan bulat positif: " + value);
+    }
+    
+    private int status(RuleIndex index, Map<String, String> params, Writer out) throws IOException {
+        out.write("{\"rules\": " + index.getRuleCount());
+        out.write(", \"itemsets\": " + index.getItemSetCount());
+        out.write(", \"transactions\": " + index.getTransactionCount() + "}");
+        return 200;
+    }
+    
+    private int recommendations(RuleIndex index, Map<String, String> params, Writer out) throws IOException {
+        List<Recommendation> recommendations = index.recommend(parseIds(params, "cart"), parseLimit(params));
+        out.write("{\"recommendations\": [");
+        for (int i = 0; i < recommendations.size(); i++) {
+            Recommendation recommendation = recommendations.get(i);
+            out.write(i == 0 ? "{\"product\": " : ", {\"product\": ");
+            MiningExporter.writeProduct(out, recommendation.getProduct());
+            out.write(", \"confidence\": ");
+            MiningExporter.writeNumber(out, recommendation.getConfidence());
+            out.write(", \"lift\": ");
+            MiningExporter.writeNumber(out, recommendation.getLift());
+            out.write(", \"rules\": " + recommendation.getRuleCount() + "}");
+        }
+        out.write("]}");
+        return 200;
+    }
+    
+    private int rules(RuleIndex index, Map<String, String> params, Writer out) throws IOException {
+        int[] ids = parseIds(params, "product");
+        if (ids.length != 1) {
+            throw new IllegalArgumentException("Parameter product harus berisi satu ID");
+        }
+        String side = params.getOrDefault("side", "antecedent");
+        List<Rule> rules;
+        if (side.equals("antecedent")) {
+            rules = index.getRulesWithAntecedent(ids[0], parseLimit(params));
+        } else if (side.equals("consequent")) {
+            rules = index.getRulesWithConsequent(ids[0], parseLimit(params));
+        } else {
+            throw new IllegalArgumentException("Parameter side harus antecedent atau consequent");
+        }
+        out.write("{\"product\": " + ids[0] + ", \"side\": \"" + side + "\", \"rules\": [");
+        for (int i = 0; i < rules.size(); i++) {
+            if (i > 0) {
+                out.write(", ");
+            }
+            MiningExporter.writeRule(out, rules.get(i));
+        }
+        out.write("]}");
+        return 200;
+    }
+    
+    private int itemSets(RuleIndex index, Map<String, String> params, Writer out) throws IOException {
+        FrequentItemSet itemSet = index.findItemSet(parseIds(params, "items"));
+        if (itemSet == null) {
+            return error(out, 404, "Itemset tidak frequent");
+        }
+        MiningExporter.writeItemSet(out, itemSet);
+        return 200;
+    }
+    
+    /**
+     * Thread pelayan bertipe daemon agar tidak menahan JVM saat keluar
+     */
+    private static final class ServerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "analytics-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
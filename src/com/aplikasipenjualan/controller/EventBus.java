@@ -0,0 +1,253 @@
+package com.aplikasipenjualan.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Event bus asinkron untuk {@link SalesEvent} yang menggabungkan rentetan
+ * event. {@link #publish} hanya mengantrikan event ke setiap subscriber yang
+ * berminat tanpa menunggu subscriber, sehingga aman dipanggil dari terminal
+ * kasir, thread import, maupun worker mining.
+ * 
+ * Setiap subscriber menerima paling banyak satu {@link Batch} per interval
+ * (default satu frame 60 Hz) berisi semua event yang terkumpul sejak
+ * pengiriman sebelumnya. Pengiriman dijadwalkan oleh satu thread daemon lalu
+ * dijalankan di executor milik subscriber, misalnya
+ * {@code SwingUtilities::invokeLater} untuk komponen Swing, sehingga import
+ * ribuan transaksi hanya memicu beberapa refresh di EDT.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class EventBus implements AutoCloseable {
+    
+    /** Interval pengiriman default, satu frame pada 60 Hz */
+    public static final long FRAME_INTERVAL_MILLIS = 16;
+    
+    private final long intervalNanos;
+    private final ScheduledExecutorService scheduler;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+    
+    /**
+     * Constructor dengan interval satu frame
+     */
+    public EventBus() {
+        this(FRAME_INTERVAL_MILLIS);
+    }
+    
+    /**
+     * Constructor
+     * @param intervalMillis Jarak minimum antar pengiriman ke satu subscriber
+     */
+    public EventBus(long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("Interval tidak boleh negatif");
+        }
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Mendaftarkan subscriber untuk tipe event tertentu
+     * @param executor Executor tempat subscriber dipanggil
+     * @param subscriber Penerima batch event
+     * @param types Tipe event yang diterima, kosong untuk semua tipe
+     * @return Subscription untuk berhenti berlangganan
+     */
+    @SafeVarargs
+    public final Subscription subscribe(Executor executor, Consumer<Batch> subscriber,
+                                        Class<? extends SalesEvent>... types) {
+        if (executor == null || subscriber == null) {
+            throw new IllegalArgumentException("Executor dan subscriber tidak boleh null");
+        }
+        List<Class<? extends SalesEvent>> accepted = new ArrayList<>(types.length);
+        for (Class<? extends SalesEvent> type : types) {
+            accepted.add(type);
+        }
+        Subscription subscription = new Subscription(executor, subscriber, accepted);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+    
+    /**
+     * Mempublikasikan event ke semua subscriber yang berminat. Tidak pernah
+     * memanggil subscriber secara langsung.
+     * @param event Event yang dipublikasikan
+     */
+    public void publish(SalesEvent event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event tidak boleh null");
+        }
+        if (closed) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.accepts(event)) {
+                subscription.offer(event);
+            }
+        }
+    }
+    
+    /**
+     * Menghentikan pengiriman. Event yang belum terkirim dibuang.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        subscriptions.clear();
+        scheduler.shutdownNow();
+    }
+    
+    /**
+     * Langganan satu subscriber beserta antrean event yang belum dikirim
+     */
+    public final class Subscription {
+        private final Executor executor;
+        private final Consumer<Batch> subscriber;
+        private final List<Class<? extends SalesEvent>> types;
+        private final ConcurrentLinkedQueue<SalesEvent> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long lastDelivery;
+        private volatile boolean cancelled;
+        
+        private Subscription(Executor executor, Consumer<Batch> subscriber,
+                             List<Class<? extends SalesEvent>> types) {
+            this.executor = executor;
+            this.subscriber = subscriber;
+            this.types = types;
+            this.lastDelivery = System.nanoTime() - intervalNanos;
+        }
+        
+        private boolean accepts(SalesEvent event) {
+            if (types.isEmpty()) {
+                return true;
+            }
+            for (Class<? extends SalesEvent> type : types) {
+                if (type.isInstance(event)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private void offer(SalesEvent event) {
+            pending.add(event);
+            // Hanya event pertama dalam satu interval yang menjadwalkan pengiriman
+            if (scheduled.compareAndSet(false, true)) {
+                long delay = Math.max(0, lastDelivery + intervalNanos - System.nanoTime());
+                try {
+                    scheduler.schedule(this::dispatch, delay, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Bus sudah ditutup
+                }
+            }
+        }
+        
+        private void dispatch() {
+            try {
+                executor.execute(this::deliver);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+        
+        private void deliver() {
+            // Dicatat sebelum flag dilepas agar event berikutnya menunggu satu interval penuh
+            lastDelivery = System.nanoTime();
+            scheduled.set(false);
+            List<SalesEvent> events = new ArrayList<>();
+            for (SalesEvent event = pending.poll(); event != null; event = pending.poll()) {
+                events.add(event);
+            }
+            if (events.isEmpty() || cancelled) {
+                return;
+            }
+            try {
+                subscriber.accept(new Batch(events));
+            } catch (RuntimeException e) {
+                System.err.println("Error memproses event: " + e.getMessage());
+            }
+        }
+        
+        /**
+         * Berhenti berlangganan. Batch yang sedang dikirim tetap selesai.
+         */
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            pending.clear();
+        }
+    }
+    
+    /**
+     * Event yang terkumpul untuk satu subscriber sejak pengiriman sebelumnya,
+     * terurut sesuai urutan publikasi
+     */
+    public static final class Batch {
+        private final List<SalesEvent> events;
+        
+        private Batch(List<SalesEvent> events) {
+            this.events = Collections.unmodifiableList(events);
+        }
+        
+        /**
+         * Mendapatkan semua event dalam batch
+         * @return Daftar event (tidak dapat diubah)
+         */
+        public List<SalesEvent> getEvents() {
+            return events;
+        }
+        
+        /**
+         * Mendapatkan event dengan tipe tertentu
+         * @param type Tipe event
+         * @return Daftar event bertipe tersebut
+         */
+        public <E extends SalesEvent> List<E> getEvents(Class<E> type) {
+            List<E> result = new ArrayList<>();
+            for (SalesEvent event : events) {
+                if (type.isInstance(event)) {
+                    result.add(type.cast(event));
+                }
+            }
+            return result;
+        }
+        
+        /**
+         * Memeriksa apakah batch berisi event dengan tipe tertentu
+         * @param type Tipe event
+         * @return true jika ada
+         */
+        public boolean contains(Class<? extends SalesEvent> type) {
+            for (SalesEvent event : events) {
+                if (type.isInstance(event)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * Mendapatkan jumlah event yang digabungkan
+         * @return Jumlah event
+         */
+        public int size() {
+            return events.size();
+        }
+    }
+}
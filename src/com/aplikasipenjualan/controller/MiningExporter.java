@@ -0,0 +1,222 @@
+package com.aplikasipenjualan.controller;
+
+import com.aplikasipenjualan.algorithm.FrequentItemSet;
+import com.aplikasipenjualan.algorithm.Rule;
+import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.util.CsvWriter;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Menulis hasil mining (aturan asosiasi dan frequent itemset) ke CSV atau
+ * JSON secara streaming. Dipakai oleh tampilan dan mode batch tanpa GUI.
+ * File berakhiran .gz dikompres dengan gzip.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public final class MiningExporter {
+    
+    private MiningExporter() {
+    }
+    
+    /**
+     * Menulis aturan asosiasi ke CSV
+     * @param rules Aturan yang ditulis
+     * @param file File tujuan
+     * @param gzip true untuk mengompres output dengan gzip
+     * @return Jumlah aturan yang ditulis
+     * @throws IOException jika gagal menulis
+     */
+    public static long writeRulesCsv(List<Rule> rules, File file, boolean gzip) throws IOException {
+        check(rules, file);
+        try (CsvWriter writer = new CsvWriter(file, gzip)) {
+            writer.header("Antecedent", "Consequent", "Confidence", "Support", "Lift", "Interpretasi");
+            for (Rule rule : rules) {
+                writer.joined(rule.getAntecedentNames(), ", ");
+                writer.joined(rule.getConsequentNames(), ", ");
+                writer.field(rule.getConfidence(), 4);
+                writer.field(rule.getSupport(), 4);
+                writer.field(rule.getLift(), 4);
+                writer.quoted(rule.getLiftInterpretation());
+                writer.endRow();
+            }
+            return writer.getRowCount();
+        }
+    }
+    
+    /**
+     * Menulis frequent itemset semua level ke CSV
+     * @param levels Frequent itemset per ukuran
+     * @param file File tujuan
+     * @param gzip true untuk mengompres output dengan gzip
+     * @return Jumlah itemset yang ditulis
+     * @throws IOException jika gagal menulis
+     */
+    public static long writeItemSetsCsv(List<List<FrequentItemSet>> levels, File file, boolean gzip)
+            throws IOException {
+        check(levels, file);
+        try (CsvWriter writer = new CsvWriter(file, gzip)) {
+            writer.header("Itemset", "Ukuran", "Support Count", "Support");
+            for (List<FrequentItemSet> level : levels) {
+                for (FrequentItemSet itemSet : level) {
+                    writer.joined(itemSet.getItems(), Product::getNama, ", ");
+                    writer.field(itemSet.size());
+                    writer.field(itemSet.getSupport());
+                    writer.field(itemSet.getSupportPercentage(), 4);
+                    writer.endRow();
+                }
+            }
+            return writer.getRowCount();
+        }
+    }
+    
+    /**
+     * Menulis aturan asosiasi ke JSON berupa array objek
+     * @param rules Aturan yang ditulis
+     * @param file File tujuan
+     * @param gzip true untuk mengompres output dengan gzip
+     * @return Jumlah aturan yang ditulis
+     * @throws IOException jika gagal menulis
+     */
+    public static long writeRulesJson(List<Rule> rules, File file, boolean gzip) throws IOException {
+        check(rules, file);
+        try (Writer out = openWriter(file, gzip)) {
+            out.write('[');
+            String separator = "\n";
+            for (Rule rule : rules) {
+                out.write(separator);
+                out.write("  ");
+                writeRule(out, rule);
+                separator = ",\n";
+            }
+            out.write(rules.isEmpty() ? "]\n" : "\n]\n");
+        }
+        return rules.size();
+    }
+    
+    /**
+     * Menulis frequent itemset semua level ke JSON berupa array objek
+     * @param levels Frequent itemset per ukuran
+     * @param file File tujuan
+     * @param gzip true untuk mengompres output dengan gzip
+     * @return Jumlah itemset yang ditulis
+     * @throws IOException jika gagal menulis
+     */
+    public static long writeItemSetsJson(List<List<FrequentItemSet>> levels, File file, boolean gzip)
+            throws IOException {
+        check(levels, file);
+        long count = 0;
+        try (Writer out = openWriter(file, gzip)) {
+            out.write('[');
+            for (List<FrequentItemSet> level : levels) {
+                for (FrequentItemSet itemSet : level) {
+                    out.write(count == 0 ? "\n" : ",\n");
+                    out.write("  ");
+                    writeItemSet(out, itemSet);
+                    count++;
+                }
+            }
+            out.write(count == 0 ? "]\n" : "\n]\n");
+        }
+        return count;
+    }
+    
+    private static void check(Object results, File file) {
+        if (results == null) {
+            throw new IllegalArgumentException("Hasil mining tidak boleh null");
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("File tidak boleh null");
+        }
+    }
+    
+    private static Writer openWriter(File file, boolean gzip) throws IOException {
+        OutputStream stream = new FileOutputStream(file);
+        try {
+            stream = gzip ? new GZIPOutputStream(stream, CsvWriter.BUFFER_SIZE)
+                          : new BufferedOutputStream(stream, CsvWriter.BUFFER_SIZE);
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), CsvWriter.BUFFER_SIZE);
+    }
+    
+    /**
+     * Menulis satu aturan sebagai objek JSON
+     */
+    static void writeRule(Writer out, Rule rule) throws IOException {
+        out.write("{\"antecedent\": ");
+        writeProducts(out, rule.getAntecedent());
+        out.write(", \"consequent\": ");
+        writeProducts(out, rule.getConsequent());
+        out.write(", \"support\": ");
+        writeNumber(out, rule.getSupport());
+        out.write(", \"confidence\": ");
+        writeNumber(out, rule.getConfidence());
+        out.write(", \"lift\": ");
+        writeNumber(out, rule.getLift());
+        if (rule.hasSupportCounts()) {
+            out.write(", \"count\": " + rule.getRuleCount());
+            out.write(", \"pValue\": ");
+            writeNumber(out, rule.getPValue());
+        }
+        out.write('}');
+    }
+    
+    /**
+     * Menulis satu frequent itemset sebagai objek JSON
+     */
+    static void writeItemSet(Writer out, FrequentItemSet itemSet) throws IOException {
+        out.write("{\"items\": ");
+        writeProducts(out, itemSet.getItems());
+        out.write(", \"count\": " + itemSet.getSupport());
+        out.write(", \"support\": ");
+        writeNumber(out, itemSet.getSupportPercentage());
+        out.write('}');
+    }
+    
+    static void writeProducts(Writer out, Collection<Product> products) throws IOException {
+        out.write('[');
+        boolean first = true;
+        for (Product product : products) {
+            if (!first) {
+                out.write(", ");
+            }
+            writeProduct(out, product);
+            first = false;
+        }
+        out.write(']');
+    }
+    
+    static void writeProduct(Writer out, Product product) throws IOException {
+        out.write("{\"id\": " + product.getId() + ", \"nama\": ");
+        writeString(out, product.getNama());
+        out.write('}');
+    }
+    
+    static void writeNumber(Writer out, double value) throws IOException {
+        // JSON tidak mengenal NaN dan Infinity (misalnya lift tanpa batas)
+        out.write(Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value));
+    }
+    
+    static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+}
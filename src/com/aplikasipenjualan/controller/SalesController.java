@@ -1,58 +1,156 @@
 package com.aplikasipenjualan.controller;
 
+import com.aplikasipenjualan.algorithm.MiningSnapshot;
+import com.aplikasipenjualan.algorithm.Recommendation;
+import com.aplikasipenjualan.algorithm.Rule;
+import com.aplikasipenjualan.algorithm.RuleIndex;
+import com.aplikasipenjualan.algorithm.RuleRecommender;
+import com.aplikasipenjualan.model.BasketSource;
 import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.ProductCatalog;
+import com.aplikasipenjualan.model.ProductRegistry;
+import com.aplikasipenjualan.model.SalesAggregates;
+import com.aplikasipenjualan.model.SalesCube;
 import com.aplikasipenjualan.model.Transaction;
+import com.aplikasipenjualan.model.TransactionIdGenerator;
+import com.aplikasipenjualan.util.BasketWindow;
+import com.aplikasipenjualan.util.CsvTransactionImporter;
 import com.aplikasipenjualan.util.DataLoader;
+import com.aplikasipenjualan.util.GroupCommitWriter;
+import com.aplikasipenjualan.util.IncrementalBackup;
+import com.aplikasipenjualan.util.SegmentedTransactionLog;
+import com.aplikasipenjualan.util.TransactionCodec;
+import com.aplikasipenjualan.util.TransactionRepository;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Controller untuk mengelola logika penjualan dan transaksi
  * 
+ * Satu controller dapat dipakai bersama oleh banyak terminal kasir. Penambahan
+ * transaksi hanya mengantrikan transaksi tanpa lock eksklusif, lalu thread
+ * penulis menyimpannya dengan group commit. Statistik, halaman transaksi, dan
+ * mining membaca snapshot indeks repository, sedangkan katalog produk
+ * dibaca tanpa lock sehingga pencarian produk tidak pernah menunggu.
+ * Statistik penjualan dan kubus penjualan (tanggal, jam, produk, kategori)
+ * dijaga sebagai agregat berjalan yang diperbarui setiap kali transaksi
+ * ditambah atau dihapus, bukan dihitung ulang dari riwayat.
+ * Setiap perubahan transaksi, katalog, dan hasil mining dipublikasikan
+ * sebagai {@link SalesEvent} melalui {@link #getEventBus()}.
+ * 
  * @author Developer
  * @version 1.0
  */
 public class SalesController {
     
-    private List<Transaction> transactions;
-    private List<Product> availableProducts;
-    private DataLoader dataLoader;
+    private final TransactionRepository transactions;
+    private final ProductCatalog productCatalog;
+    private final DataLoader dataLoader;
+    // Diganti utuh saat dihitung ulang dari riwayat
+    private volatile SalesAggregates statistics;
+    private volatile SalesCube salesCube;
+    // Read lock untuk penambahan dan penghapusan, write lock selama agregat dihitung ulang
+    private final ReadWriteLock aggregatesLock = new ReentrantReadWriteLock();
+    private final EventBus eventBus;
+    private volatile RuleIndex ruleIndex;
+    private MiningSnapshot miningSnapshot;
+    private boolean miningSnapshotLoaded;
+    private AnalyticsServer analyticsServer;
     
     /**
      * Constructor
      */
     public SalesController() {
-        this.transactions = new ArrayList<>();
-        this.availableProducts = new ArrayList<>();
+        this.productCatalog = new ProductCatalog();
         this.dataLoader = new DataLoader();
+        initializeNodeId();
+        this.eventBus = new EventBus();
+        this.ruleIndex = RuleIndex.EMPTY;
+        this.statistics = new SalesAggregates();
         initializeDefaultProducts();
-        loadTransactions();
+        this.transactions = loadTransactions();
+        SalesCube savedCube = loadSalesCube();
+        this.salesCube = savedCube != null ? savedCube : new SalesCube();
+        rebuildAggregates(savedCube == null);
+    }
+    
+    /**
+     * Mengatur generator ID transaksi dengan ID node terminal yang tersimpan
+     * @throws IllegalArgumentException jika ID node yang dikonfigurasi tidak valid
+     */
+    private void initializeNodeId() {
+        try {
+            TransactionIdGenerator.setDefault(new TransactionIdGenerator(dataLoader.loadNodeId()));
+        } catch (IOException e) {
+            System.err.println("Error memuat ID node terminal: " + e.getMessage());
+        }
     }
     
     /**
      * Inisialisasi produk default untuk demo
      */
     private void initializeDefaultProducts() {
-        availableProducts.add(new Product(1, "Roti Tawar", "Makanan", 15000));
-        availableProducts.add(new Product(2, "Susu UHT", "Minuman", 8000));
-        availableProducts.add(new Product(3, "Telur Ayam", "Protein", 25000));
-        availableProducts.add(new Product(4, "Minyak Goreng", "Bumbu", 18000));
-        availableProducts.add(new Product(5, "Beras Premium", "Makanan Pokok", 45000));
-        availableProducts.add(new Product(6, "Gula Pasir", "Bumbu", 12000));
-        availableProducts.add(new Product(7, "Kopi Instan", "Minuman", 22000));
-        availableProducts.add(new Product(8, "Teh Celup", "Minuman", 15000));
-        availableProducts.add(new Product(9, "Sabun Mandi", "Kebersihan", 8500));
-        availableProducts.add(new Product(10, "Pasta Gigi", "Kebersihan", 12500));
+        productCatalog.addAll(getDefaultProducts());
+    }
+    
+    /**
+     * Mendapatkan daftar produk default, juga dipakai sebagai katalog mode batch
+     * @return Produk default
+     */
+    public static List<Product> getDefaultProducts() {
+        return Arrays.asList(
+            new Product(1, "Roti Tawar", "Makanan", 15000),
+            new Product(2, "Susu UHT", "Minuman", 8000),
+            new Product(3, "Telur Ayam", "Protein", 25000),
+            new Product(4, "Minyak Goreng", "Bumbu", 18000),
+            new Product(5, "Beras Premium", "Makanan Pokok", 45000),
+            new Product(6, "Gula Pasir", "Bumbu", 12000),
+            new Product(7, "Kopi Instan", "Minuman", 22000),
+            new Product(8, "Teh Celup", "Minuman", 15000),
+            new Product(9, "Sabun Mandi", "Kebersihan", 8500),
+            new Product(10, "Pasta Gigi", "Kebersihan", 12500)
+        );
     }
     
     /**
-     * Menambah transaksi baru
+     * Menambah transaksi baru dan menunggu sampai tersimpan
      * @param transaction Transaksi yang akan ditambahkan
-     * @return true jika berhasil ditambahkan
+     * @return true jika tersimpan di log (termasuk jika fsync-nya gagal), false jika gagal ditulis
      * @throws IllegalArgumentException jika transaksi tidak valid
      */
     public boolean addTransaction(Transaction transaction) {
+        CompletableFuture<Void> saved = addTransactionAsync(transaction);
+        try {
+            saved.join();
+        } catch (CompletionException e) {
+            // Error sudah dicatat oleh addTransactionAsync
+            return unwrap(e) instanceof GroupCommitWriter.NotDurableException;
+        }
+        return true;
+    }
+    
+    /**
+     * Menambah transaksi baru tanpa menunggu penyimpanan ke disk. Transaksi
+     * langsung terlihat di repository, sedangkan penyimpanannya dilakukan
+     * oleh thread penulis dengan group commit.
+     * @param transaction Transaksi yang akan ditambahkan
+     * @return Future yang selesai saat transaksi sudah tersimpan, atau gagal dengan error penyimpanan;
+     *         {@link GroupCommitWriter.NotDurableException} berarti transaksi tetap tersimpan di log
+     * @throws IllegalArgumentException jika transaksi tidak valid
+     */
+    public CompletableFuture<Void> addTransactionAsync(Transaction transaction) {
         if (transaction == null) {
             throw new IllegalArgumentException("Transaksi tidak boleh null");
         }
@@ -61,19 +159,160 @@ public class SalesController {
             throw new IllegalArgumentException("Transaksi tidak valid");
         }
         
-        boolean added = transactions.add(transaction);
-        if (added) {
-            saveTransactions();
+        // Agregat diisi sebelum submit karena kegagalan bisa dilaporkan thread penulis
+        // lebih dulu. Transaksi yang gagal ditulis dibuang dari repository, begitu juga
+        // dari agregat, kecuali sudah dihapus selama menunggu. Jika hanya fsync yang
+        // gagal, transaksi sudah ada di log dan tetap dihitung. Pembatalan tidak
+        // memakai lock agregat karena penghitungan ulang menunggu antrian penulis kosong.
+        CompletableFuture<Void> saved;
+        aggregatesLock.readLock().lock();
+        try {
+            statistics.add(transaction);
+            salesCube.add(transaction);
+            saved = dataLoader.appendTransactionAsync(transaction, () -> {
+                statistics.remove(transaction);
+                salesCube.remove(transaction);
+                eventBus.publish(new SalesEvent.TransactionRemoved(Collections.singletonList(transaction)));
+            });
+        } finally {
+            aggregatesLock.readLock().unlock();
         }
-        return added;
+        eventBus.publish(new SalesEvent.TransactionAdded(Collections.singletonList(transaction)));
+        return persist(saved, "Error menyimpan transaksi: ");
     }
     
     /**
-     * Mendapatkan semua transaksi
-     * @return Daftar semua transaksi
+     * Mendapatkan semua transaksi. Seluruh riwayat dibaca dari disk ke memori,
+     * sehingga untuk tampilan gunakan {@link #getTransactionPage} dan untuk
+     * perhitungan gunakan {@link #getTransactions()}.
+     * @return Daftar semua transaksi terurut berdasarkan tanggal
      */
     public List<Transaction> getAllTransactions() {
-        return new ArrayList<>(transactions);
+        List<Transaction> result = new ArrayList<>(transactions.size());
+        try {
+            for (Transaction transaction : transactions) {
+                result.add(transaction);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error membaca transaksi: " + e.getMessage());
+        }
+        return result;
+    }
+    
+    /**
+     * Import riwayat transaksi dari file CSV/TSV (misalnya dari sistem POS lama).
+     * File dibaca streaming dan transaksinya langsung terlihat di repository
+     * sambil ditulis bertahap oleh thread penulis.
+     * @param file File CSV atau TSV
+     * @return Laporan import
+     * @throws IOException jika file gagal dibaca atau transaksi gagal disimpan
+     */
+    public CsvTransactionImporter.Report importTransactionsFromCSV(File file) throws IOException {
+        try {
+            return importTransactionsLocked(file);
+        } catch (IOException | RuntimeException e) {
+            // Sebagian batch mungkin sudah dibuang dari repository
+            rebuildAggregates(true);
+            eventBus.publish(new SalesEvent.TransactionsReloaded());
+            throw e;
+        }
+    }
+    
+    /**
+     * Import sambil memegang read lock agregat. Batch diantrikan dulu oleh
+     * DataLoader baru kemudian dihitung, sehingga penghitungan ulang agregat
+     * harus menunggu sampai seluruh import selesai.
+     */
+    private CsvTransactionImporter.Report importTransactionsLocked(File file) throws IOException {
+        aggregatesLock.readLock().lock();
+        try {
+            return dataLoader.importTransactionsFromCSV(file, productCatalog.getProducts(), batch -> {
+                for (Transaction transaction : batch) {
+                    statistics.add(transaction);
+                    salesCube.add(transaction);
+                }
+                eventBus.publish(new SalesEvent.TransactionAdded(batch));
+            });
+        } finally {
+            aggregatesLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Export seluruh riwayat transaksi ke CSV secara streaming dari disk
+     * @param file File tujuan
+     * @param gzip true untuk mengompres output dengan gzip
+     * @return Jumlah transaksi yang ditulis
+     * @throws IOException jika gagal menulis
+     */
+    public long exportTransactionsToCSV(File file, boolean gzip) throws IOException {
+        return dataLoader.exportTransactionsToCSV(transactions, file, gzip);
+    }
+    
+    /**
+     * Export aturan asosiasi ke CSV
+     * @param rules Aturan yang di-export
+     * @param file File tujuan
+     * @param gzip true untuk mengompres output dengan gzip
+     * @return Jumlah aturan yang ditulis
+     * @throws IOException jika gagal menulis
+     */
+    public long exportRulesToCSV(List<Rule> rules, File file, boolean gzip) throws IOException {
+        return MiningExporter.writeRulesCsv(rules, file, gzip);
+    }
+    
+    /**
+     * Mendapatkan transaksi untuk dibaca bertahap dari disk
+     * @return Iterable transaksi terurut berdasarkan tanggal
+     */
+    public Iterable<Transaction> getTransactions() {
+        return transactions;
+    }
+    
+    /**
+     * Mendapatkan satu halaman riwayat transaksi
+     * @param offset Posisi awal halaman
+     * @param limit Jumlah maksimum transaksi dalam halaman
+     * @param newestFirst true untuk urutan dari yang terbaru
+     * @return Transaksi dalam halaman, kosong jika gagal dibaca
+     */
+    public List<Transaction> getTransactionPage(int offset, int limit, boolean newestFirst) {
+        try {
+            return transactions.getPage(offset, limit, newestFirst);
+        } catch (IOException e) {
+            System.err.println("Error membaca riwayat transaksi: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Mendapatkan transaksi dalam rentang tanggal. Hanya record di rentang
+     * tersebut yang dibaca, dari segmen bulan yang bersangkutan.
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return Iterable transaksi terurut berdasarkan tanggal
+     * @throws IllegalArgumentException jika tanggal null atau from setelah to
+     */
+    public Iterable<Transaction> getTransactionsBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Tanggal tidak boleh null");
+        }
+        return transactions.getRange(TransactionCodec.toEpochMillis(from.atStartOfDay()),
+                                     TransactionCodec.toEpochMillis(to.plusDays(1).atStartOfDay()));
+    }
+    
+    /**
+     * Menghitung transaksi dalam rentang tanggal tanpa membaca record
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return Jumlah transaksi
+     */
+    public int countTransactionsBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Tanggal tidak boleh null");
+        }
+        return transactions.countRange(TransactionCodec.toEpochMillis(from.atStartOfDay()),
+                                       TransactionCodec.toEpochMillis(to.plusDays(1).atStartOfDay()));
     }
     
     /**
@@ -82,10 +321,12 @@ public class SalesController {
      * @return Transaksi jika ditemukan, null jika tidak
      */
     public Transaction getTransactionById(String transactionId) {
-        return transactions.stream()
-                          .filter(t -> t.getTransactionId().equals(transactionId))
-                          .findFirst()
-                          .orElse(null);
+        try {
+            return transactions.findById(transactionId);
+        } catch (IOException e) {
+            System.err.println("Error mencari transaksi: " + e.getMessage());
+            return null;
+        }
     }
     
     /**
@@ -94,11 +335,27 @@ public class SalesController {
      * @return true jika berhasil dihapus
      */
     public boolean removeTransaction(String transactionId) {
-        boolean removed = transactions.removeIf(t -> t.getTransactionId().equals(transactionId));
-        if (removed) {
-            saveTransactions();
+        List<Transaction> removed;
+        aggregatesLock.readLock().lock();
+        try {
+            removed = transactions.remove(transactionId);
+            for (Transaction transaction : removed) {
+                statistics.remove(transaction);
+                salesCube.remove(transaction);
+            }
+        } catch (IOException e) {
+            System.err.println("Error menghapus transaksi: " + e.getMessage());
+            return false;
+        } finally {
+            aggregatesLock.readLock().unlock();
         }
-        return removed;
+        if (removed.isEmpty()) {
+            return false;
+        }
+        eventBus.publish(new SalesEvent.TransactionRemoved(removed));
+        persist(dataLoader.appendTransactionRemovalAsync(transactionId),
+                "Error menyimpan penghapusan transaksi: ");
+        return true;
     }
     
     /**
@@ -106,7 +363,7 @@ public class SalesController {
      * @return Daftar produk yang tersedia
      */
     public List<Product> getAvailableProducts() {
-        return new ArrayList<>(availableProducts);
+        return productCatalog.getProducts();
     }
     
     /**
@@ -124,14 +381,11 @@ public class SalesController {
             throw new IllegalArgumentException("Produk tidak valid");
         }
         
-        // Cek apakah ID sudah ada
-        boolean idExists = availableProducts.stream()
-                                          .anyMatch(p -> p.getId() == product.getId());
-        if (idExists) {
+        if (!productCatalog.add(product)) {
             throw new IllegalArgumentException("ID produk sudah ada: " + product.getId());
         }
-        
-        return availableProducts.add(product);
+        eventBus.publish(new SalesEvent.CatalogChanged(product));
+        return true;
     }
     
     /**
@@ -140,10 +394,7 @@ public class SalesController {
      * @return Produk jika ditemukan, null jika tidak
      */
     public Product getProductById(int productId) {
-        return availableProducts.stream()
-                               .filter(p -> p.getId() == productId)
-                               .findFirst()
-                               .orElse(null);
+        return productCatalog.get(productId);
     }
     
     /**
@@ -152,14 +403,7 @@ public class SalesController {
      * @return Daftar produk yang cocok
      */
     public List<Product> searchProductsByName(String nama) {
-        if (nama == null || nama.trim().isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        String searchTerm = nama.toLowerCase().trim();
-        return availableProducts.stream()
-                               .filter(p -> p.getNama().toLowerCase().contains(searchTerm))
-                               .collect(Collectors.toList());
+        return productCatalog.searchByName(nama);
     }
     
     /**
@@ -168,13 +412,7 @@ public class SalesController {
      * @return Daftar produk dalam kategori tersebut
      */
     public List<Product> getProductsByCategory(String kategori) {
-        if (kategori == null || kategori.trim().isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        return availableProducts.stream()
-                               .filter(p -> p.getKategori().equalsIgnoreCase(kategori.trim()))
-                               .collect(Collectors.toList());
+        return productCatalog.getByCategory(kategori);
     }
     
     /**
@@ -182,63 +420,422 @@ public class SalesController {
      * @return Daftar kategori unik
      */
     public List<String> getAllCategories() {
-        return availableProducts.stream()
-                               .map(Product::getKategori)
-                               .distinct()
-                               .sorted()
-                               .collect(Collectors.toList());
+        return productCatalog.getCategories();
     }
     
     /**
-     * Mendapatkan statistik penjualan
+     * Mendapatkan agregat penjualan (jumlah transaksi, pendapatan, item) tanpa
+     * membaca riwayat transaksi
+     * @return Snapshot agregat
+     */
+    public SalesAggregates.Snapshot getSalesAggregates() {
+        return statistics.snapshot();
+    }
+    
+    /**
+     * Mendapatkan statistik penjualan, termasuk jumlah transaksi yang tidak
+     * masuk kubus penjualan jika ada
      * @return String berisi statistik
      */
     public String getSalesStatistics() {
-        int totalTransactions = transactions.size();
-        double totalRevenue = transactions.stream()
-                                        .mapToDouble(Transaction::getTotalHarga)
-                                        .sum();
-        
-        int totalItems = transactions.stream()
-                                   .mapToInt(Transaction::getItemCount)
-                                   .sum();
-        
-        double averageTransaction = totalTransactions > 0 ? totalRevenue / totalTransactions : 0;
-        
-        return String.format(
-            "Statistik Penjualan:\n" +
-            "Total Transaksi: %d\n" +
-            "Total Pendapatan: Rp %.2f\n" +
-            "Total Item Terjual: %d\n" +
-            "Rata-rata per Transaksi: Rp %.2f",
-            totalTransactions, totalRevenue, totalItems, averageTransaction
-        );
+        String result = getSalesAggregates().toString();
+        long skipped = salesCube.getSkippedTransactions();
+        if (skipped > 0) {
+            result += "\n" + skipped + " transaksi di luar rentang " + SalesCube.MAX_MONTHS +
+                      " bulan kubus penjualan, tidak termasuk di roll-up";
+        }
+        return result;
+    }
+    
+    /**
+     * Mendapatkan kubus penjualan untuk roll-up per tanggal, jam, produk, dan
+     * kategori tanpa membaca riwayat transaksi. Transaksi yang tidak masuk
+     * kubus dihitung di {@link SalesCube#getSkippedTransactions()}.
+     * @return Kubus penjualan (thread-safe)
+     */
+    public SalesCube getSalesCube() {
+        return salesCube;
+    }
+    
+    /**
+     * Menghitung ulang agregat penjualan dari seluruh riwayat dalam satu kali
+     * baca, dipakai saat riwayat berubah di luar penambahan dan penghapusan biasa.
+     * Agregat baru dibangun terpisah lalu dipasang sekaligus, sehingga jika
+     * riwayat gagal dibaca agregat lama tetap utuh, bukan setengah terisi.
+     * Selama dihitung ulang, penambahan dan penghapusan menunggu, dan transaksi
+     * yang masih diantrikan ditunggu sampai ditulis atau dibuang.
+     * @param includeCube true untuk mengisi ulang kubus penjualan juga
+     */
+    private void rebuildAggregates(boolean includeCube) {
+        aggregatesLock.writeLock().lock();
+        try {
+            try {
+                dataLoader.flushTransactionsAsync().join();
+            } catch (CompletionException e) {
+                // Penulisan yang gagal sudah dibuang dari repository dan agregat
+            }
+            SalesAggregates rebuiltStatistics = new SalesAggregates();
+            SalesCube rebuiltCube = includeCube ? new SalesCube() : null;
+            try {
+                for (Transaction transaction : transactions) {
+                    rebuiltStatistics.add(transaction);
+                    if (rebuiltCube != null) {
+                        rebuiltCube.add(transaction);
+                    }
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Error membaca transaksi, agregat lama dipertahankan: " + e.getMessage());
+                return;
+            }
+            statistics = rebuiltStatistics;
+            if (rebuiltCube != null) {
+                salesCube = rebuiltCube;
+                if (rebuiltCube.getSkippedTransactions() > 0) {
+                    System.err.println("Peringatan: " + rebuiltCube.getSkippedTransactions() +
+                                       " transaksi di luar rentang kubus penjualan");
+                }
+            }
+        } finally {
+            aggregatesLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Memuat kubus penjualan yang disimpan saat aplikasi terakhir ditutup
+     * @return Kubus, atau null jika belum ada atau riwayat sudah berubah sejak disimpan
+     */
+    private SalesCube loadSalesCube() {
+        try {
+            byte[] data = dataLoader.loadSalesCube();
+            if (data == null) {
+                return null;
+            }
+            SalesCube cube = SalesCube.fromBytes(data);
+            return cube.isValidFor(dataLoader.getDatasetVersion()) ? cube : null;
+        } catch (IOException e) {
+            System.err.println("Error memuat kubus penjualan: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Menyimpan kubus penjualan setelah semua transaksi yang diantrikan ditulis,
+     * sehingga versi dataset yang dicatat sesuai dengan isi kubus
+     */
+    private void saveSalesCube() {
+        try {
+            dataLoader.flushTransactionsAsync().join();
+            dataLoader.saveSalesCube(salesCube.toBytes(dataLoader.getDatasetVersion()));
+        } catch (IOException | CompletionException e) {
+            System.err.println("Error menyimpan kubus penjualan: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Memperbarui aturan asosiasi yang dipakai untuk rekomendasi cross-sell
+     * dan API HTTP. Frequent itemset dari hasil mining terakhir tetap dipakai.
+     * @param rules Daftar aturan hasil analisis, null untuk mengosongkan
+     */
+    public void updateRecommendationRules(List<Rule> rules) {
+        RuleIndex current = ruleIndex;
+        RuleIndex updated = current.withRules(rules);
+        if (updated != current) {
+            this.ruleIndex = updated;
+            eventBus.publish(new SalesEvent.MiningFinished(updated));
+        }
+    }
+    
+    /**
+     * Mendapatkan recommender dari aturan asosiasi terakhir
+     * @return RuleRecommender (tidak pernah null)
+     */
+    public RuleRecommender getRuleRecommender() {
+        return ruleIndex.getRecommender();
+    }
+    
+    /**
+     * Mendapatkan indeks hasil mining terakhir untuk layanan baca
+     * @return RuleIndex (tidak pernah null)
+     */
+    public RuleIndex getRuleIndex() {
+        return ruleIndex;
+    }
+    
+    /**
+     * Mendapatkan rekomendasi produk untuk isi keranjang
+     * @param cart Daftar produk dalam keranjang
+     * @param topN Jumlah maksimum rekomendasi
+     * @return List rekomendasi produk
+     */
+    public List<Recommendation> getRecommendations(List<Product> cart, int topN) {
+        return ruleIndex.getRecommender().recommend(cart, topN);
     }
     
     /**
-     * Menyimpan transaksi ke file
+     * Mendapatkan sumber keranjang ter-memory-map untuk mining tanpa membuat
+     * objek Transaction
+     * @return Sumber keranjang, atau null jika store tidak dapat dibuka
      */
-    private void saveTransactions() {
+    public BasketSource getBasketSource() {
         try {
-            dataLoader.saveTransactions(transactions);
+            return dataLoader.getBasketStore();
         } catch (Exception e) {
-            System.err.println("Error menyimpan transaksi: " + e.getMessage());
+            System.err.println("Error membuka basket store: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Mendapatkan keranjang transaksi dalam rentang tanggal untuk mining per periode
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return Sumber keranjang, atau null jika transaksi gagal dibaca
+     */
+    public BasketSource getBasketSource(LocalDate from, LocalDate to) {
+        try {
+            return new BasketWindow(getTransactionsBetween(from, to));
+        } catch (RuntimeException e) {
+            System.err.println("Error membaca transaksi periode: " + e.getMessage());
+            return null;
         }
     }
     
     /**
-     * Memuat transaksi dari file
+     * Mengarsipkan transaksi bulan-bulan sebelum bulan yang diberikan. Segmen
+     * bulanan dipindahkan utuh ke data/archive tanpa menyentuh data terbaru,
+     * lalu agregat dan kubus penjualan dihitung ulang dari sisa riwayat.
+     * @param month Bulan pertama yang dipertahankan
+     * @return Jumlah segmen yang diarsipkan, -1 jika gagal
      */
-    private void loadTransactions() {
+    public int archiveTransactionsBefore(YearMonth month) {
         try {
-            List<Transaction> loadedTransactions = dataLoader.loadTransactions();
-            if (loadedTransactions != null) {
-                this.transactions = loadedTransactions;
+            int archived = dataLoader.archiveTransactionsBefore(month);
+            if (archived > 0) {
+                rebuildAggregates(true);
+                eventBus.publish(new SalesEvent.TransactionsReloaded());
             }
+            return archived;
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error mengarsipkan transaksi: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    /**
+     * Mendapatkan informasi segmen bulanan transaksi
+     * @return Daftar segmen, kosong jika direktori tidak dapat dibuka
+     */
+    public List<SegmentedTransactionLog.SegmentInfo> getTransactionSegments() {
+        try {
+            return dataLoader.getTransactionSegments();
+        } catch (IOException e) {
+            System.err.println("Error membaca segmen transaksi: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Membuat backup inkremental transaksi. Hanya data yang ditambahkan sejak
+     * backup terakhir yang disalin.
+     * @return Manifest backup, atau null jika belum ada data atau backup gagal
+     */
+    public IncrementalBackup.Manifest backupTransactions() {
+        try {
+            return dataLoader.backupTransactions();
+        } catch (IOException e) {
+            System.err.println("Error membuat backup transaksi: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Mendapatkan daftar backup transaksi
+     * @return Daftar backup dari yang terlama, kosong jika tidak dapat dibaca
+     */
+    public List<IncrementalBackup.Manifest> getTransactionBackups() {
+        try {
+            return dataLoader.getTransactionBackups();
+        } catch (IOException e) {
+            System.err.println("Error membaca daftar backup: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Memulihkan riwayat transaksi ke kondisi saat backup dibuat
+     * @param backupName Nama backup
+     * @return true jika berhasil dipulihkan
+     */
+    public boolean restoreTransactionsBackup(String backupName) {
+        try {
+            dataLoader.restoreTransactionsBackup(backupName);
+            rebuildAggregates(true);
+            eventBus.publish(new SalesEvent.TransactionsReloaded());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error memulihkan backup transaksi: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Mendapatkan versi data transaksi untuk menandai hasil analisis
+     * @return Versi dataset, -1 jika log tidak dapat dibaca
+     */
+    public long getDatasetVersion() {
+        try {
+            return dataLoader.getDatasetVersion();
+        } catch (IOException e) {
+            System.err.println("Error membaca versi data transaksi: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    /**
+     * Mendapatkan snapshot hasil analisis terakhir. Snapshot dibaca dari disk
+     * pada pemanggilan pertama dan hanya dikembalikan jika data transaksi
+     * belum berubah sejak analisis tersebut.
+     * @return Snapshot yang masih berlaku, atau null jika tidak ada
+     */
+    public synchronized MiningSnapshot getMiningSnapshot() {
+        if (!miningSnapshotLoaded) {
+            miningSnapshotLoaded = true;
+            try {
+                byte[] data = dataLoader.loadMiningSnapshot();
+                if (data != null) {
+                    miningSnapshot = MiningSnapshot.fromBytes(data);
+                    if (miningSnapshot.isValidFor(getDatasetVersion())) {
+                        ruleIndex = RuleIndex.of(miningSnapshot);
+                        eventBus.publish(new SalesEvent.MiningFinished(ruleIndex));
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error memuat snapshot analisis: " + e.getMessage());
+            }
+        }
+        if (miningSnapshot != null && !miningSnapshot.isValidFor(getDatasetVersion())) {
+            return null;
+        }
+        return miningSnapshot;
+    }
+    
+    /**
+     * Menyimpan snapshot hasil analisis agar dapat ditampilkan lagi setelah
+     * aplikasi dibuka ulang. Kegagalan hanya dicatat karena hasil analisis
+     * di memori tetap dapat dipakai.
+     * @param snapshot Snapshot hasil analisis
+     */
+    public synchronized void saveMiningSnapshot(MiningSnapshot snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot tidak boleh null");
+        }
+        miningSnapshot = snapshot;
+        miningSnapshotLoaded = true;
+        ruleIndex = RuleIndex.of(snapshot);
+        eventBus.publish(new SalesEvent.MiningFinished(ruleIndex));
+        try {
+            dataLoader.saveMiningSnapshot(snapshot.toBytes());
+        } catch (IOException e) {
+            System.err.println("Error menyimpan snapshot analisis: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Menghapus snapshot hasil analisis
+     */
+    public synchronized void clearMiningSnapshot() {
+        miningSnapshot = null;
+        miningSnapshotLoaded = true;
+        if (!dataLoader.deleteMiningSnapshot()) {
+            System.err.println("Gagal menghapus snapshot analisis");
+        }
+    }
+    
+    /**
+     * Mendapatkan produk untuk hasil mining berdasarkan ID. Produk dicari di
+     * kamus produk transaksi lalu di daftar produk yang tersedia.
+     * @param productId ID produk
+     * @return Produk, atau null jika tidak ditemukan
+     */
+    public Product getMiningProduct(int productId) {
+        try {
+            Product product = dataLoader.getDictionaryProduct(productId);
+            if (product != null) {
+                return product;
+            }
+        } catch (Exception e) {
+            System.err.println("Error membaca kamus produk: " + e.getMessage());
+        }
+        return getProductById(productId);
+    }
+    
+    /**
+     * Mencatat error penyimpanan asinkron
+     * @param future Future penyimpanan
+     * @param message Awalan pesan error
+     * @return Future yang sama
+     */
+    private CompletableFuture<Void> persist(CompletableFuture<Void> future, String message) {
+        future.whenComplete((ignored, error) -> {
+            if (error != null) {
+                System.err.println(message + unwrap(error).getMessage());
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * Mengambil error asli dari CompletionException
+     */
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+    
+    /**
+     * Mengatur kebijakan fsync penyimpanan transaksi
+     * @param policy Kebijakan fsync
+     * @param intervalMillis Interval fsync untuk kebijakan INTERVAL
+     */
+    public void configurePersistence(GroupCommitWriter.SyncPolicy policy, long intervalMillis) {
+        dataLoader.setSyncPolicy(policy, intervalMillis);
+    }
+    
+    /**
+     * Mendapatkan laporan penghematan memori dari produk yang dipakai bersama
+     * @return Snapshot laporan registry produk
+     */
+    public ProductRegistry.Report getProductRegistryReport() {
+        return ProductRegistry.getReport();
+    }
+    
+    /**
+     * Mendapatkan metrik penyimpanan asinkron (antrian, batch, lag durabilitas)
+     * @return Snapshot metrik
+     */
+    public GroupCommitWriter.Metrics getPersistenceMetrics() {
+        return dataLoader.getPersistenceMetrics();
+    }
+    
+    /**
+     * Membuka repository transaksi dari file. Hanya indeks riwayat yang dimuat,
+     * transaksi dibaca dari disk saat dibutuhkan.
+     * @return Repository transaksi
+     */
+    private TransactionRepository loadTransactions() {
+        try {
+            return dataLoader.openRepository();
         } catch (Exception e) {
             System.err.println("Error memuat transaksi: " + e.getMessage());
-            // Jika gagal memuat, gunakan list kosong
-            this.transactions = new ArrayList<>();
+            // Simpan salinan log yang gagal dibaca, lalu mulai dengan riwayat kosong
+            if (dataLoader.transactionsFileExists()
+                    && (!dataLoader.backupTransactionsFile() || !dataLoader.deleteTransactionsFile())) {
+                throw new IllegalStateException("Log transaksi tidak dapat dibuka: " + e.getMessage(), e);
+            }
+            try {
+                return dataLoader.openRepository();
+            } catch (Exception retry) {
+                throw new IllegalStateException("Log transaksi tidak dapat dibuka: " + retry.getMessage(), retry);
+            }
         }
     }
     
@@ -246,8 +843,24 @@ public class SalesController {
      * Membersihkan semua data transaksi
      */
     public void clearAllTransactions() {
-        transactions.clear();
-        saveTransactions();
+        aggregatesLock.readLock().lock();
+        try {
+            transactions.clear();
+            statistics.clear();
+            salesCube.clear();
+        } finally {
+            aggregatesLock.readLock().unlock();
+        }
+        eventBus.publish(new SalesEvent.TransactionsReloaded());
+        persist(dataLoader.saveTransactionsAsync(new ArrayList<>()), "Error menyimpan transaksi: ");
+    }
+    
+    /**
+     * Mendapatkan event bus tempat perubahan data dipublikasikan
+     * @return EventBus milik controller
+     */
+    public EventBus getEventBus() {
+        return eventBus;
     }
     
     /**
@@ -257,4 +870,57 @@ public class SalesController {
     public int getTransactionCount() {
         return transactions.size();
     }
+    
+    /**
+     * Menjalankan server HTTP rekomendasi dan analitik di alamat loopback
+     * (lihat {@link #startAnalyticsServer(InetAddress, int)})
+     * @param port Port TCP, 0 untuk port bebas
+     * @return Port yang dipakai server
+     * @throws IOException jika port tidak dapat dibuka
+     * @throws IllegalStateException jika server sudah berjalan
+     */
+    public int startAnalyticsServer(int port) throws IOException {
+        return startAnalyticsServer(InetAddress.getLoopbackAddress(), port).getPort();
+    }
+    
+    /**
+     * Menjalankan server HTTP rekomendasi dan analitik yang selalu melayani
+     * hasil mining terbaru (lihat {@link AnalyticsServer})
+     * @param bindAddress Alamat yang didengarkan
+     * @param port Port TCP, 0 untuk port bebas
+     * @return Alamat dan port yang dipakai server
+     * @throws IOException jika port tidak dapat dibuka
+     * @throws IllegalStateException jika server sudah berjalan
+     */
+    public synchronized InetSocketAddress startAnalyticsServer(InetAddress bindAddress, int port)
+            throws IOException {
+        if (analyticsServer != null) {
+            throw new IllegalStateException("Server analitik sudah berjalan");
+        }
+        AnalyticsServer server = new AnalyticsServer(this::getRuleIndex, bindAddress, port);
+        server.start();
+        analyticsServer = server;
+        return server.getAddress();
+    }
+    
+    /**
+     * Menghentikan server HTTP jika sedang berjalan
+     */
+    public synchronized void stopAnalyticsServer() {
+        if (analyticsServer != null) {
+            analyticsServer.stop();
+            analyticsServer = null;
+        }
+    }
+    
+    /**
+     * Menyimpan kubus penjualan lalu menutup penyimpanan transaksi, dipanggil
+     * saat aplikasi ditutup setelah terminal berhenti menambah transaksi
+     */
+    public void close() {
+        stopAnalyticsServer();
+        saveSalesCube();
+        dataLoader.close();
+        eventBus.close();
+    }
 }
@@ -0,0 +1,148 @@
+package com.aplikasipenjualan.controller;
+
+import com.aplikasipenjualan.algorithm.RuleIndex;
+import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.Transaction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Event perubahan data penjualan yang dipublikasikan {@link SalesController}
+ * melalui {@link EventBus}. Setiap jenis perubahan adalah subclass tersendiri
+ * sehingga subscriber memilih event berdasarkan tipenya.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public abstract class SalesEvent {
+    
+    private final long timestamp;
+    
+    private SalesEvent() {
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    /**
+     * Mendapatkan waktu event dipublikasikan
+     * @return Waktu dalam milidetik epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    private static List<Transaction> copyOf(List<Transaction> transactions) {
+        if (transactions == null) {
+            throw new IllegalArgumentException("Daftar transaksi tidak boleh null");
+        }
+        return Collections.unmodifiableList(new ArrayList<>(transactions));
+    }
+    
+    /**
+     * Transaksi baru ditambahkan, baik satu penjualan maupun satu batch import
+     */
+    public static final class TransactionAdded extends SalesEvent {
+        private final List<Transaction> transactions;
+        
+        /**
+         * Constructor
+         * @param transactions Transaksi yang ditambahkan
+         */
+        public TransactionAdded(List<Transaction> transactions) {
+            this.transactions = copyOf(transactions);
+        }
+        
+        /**
+         * Mendapatkan transaksi yang ditambahkan
+         * @return Daftar transaksi (tidak dapat diubah)
+         */
+        public List<Transaction> getTransactions() {
+            return transactions;
+        }
+    }
+    
+    /**
+     * Transaksi dihapus dari riwayat
+     */
+    public static final class TransactionRemoved extends SalesEvent {
+        private final List<Transaction> transactions;
+        
+        /**
+         * Constructor
+         * @param transactions Transaksi yang dihapus
+         */
+        public TransactionRemoved(List<Transaction> transactions) {
+            this.transactions = copyOf(transactions);
+        }
+        
+        /**
+         * Mendapatkan transaksi yang dihapus
+         * @return Daftar transaksi (tidak dapat diubah)
+         */
+        public List<Transaction> getTransactions() {
+            return transactions;
+        }
+    }
+    
+    /**
+     * Seluruh riwayat transaksi berubah sekaligus (dikosongkan, dipulihkan dari
+     * backup, atau sebagian diarsipkan) sehingga subscriber perlu membaca ulang
+     */
+    public static final class TransactionsReloaded extends SalesEvent {
+        
+        /**
+         * Constructor
+         */
+        public TransactionsReloaded() {
+        }
+    }
+    
+    /**
+     * Katalog produk berubah
+     */
+    public static final class CatalogChanged extends SalesEvent {
+        private final Product product;
+        
+        /**
+         * Constructor
+         * @param product Produk yang ditambahkan
+         */
+        public CatalogChanged(Product product) {
+            this.product = product;
+        }
+        
+        /**
+         * Mendapatkan produk yang ditambahkan
+         * @return Produk
+         */
+        public Product getProduct() {
+            return product;
+        }
+    }
+    
+    /**
+     * Hasil mining baru (aturan dan frequent itemset) sudah dipublikasikan
+     */
+    public static final class MiningFinished extends SalesEvent {
+        private final RuleIndex ruleIndex;
+        
+        /**
+         * Constructor
+         * @param ruleIndex Indeks hasil mining yang baru
+         */
+        public MiningFinished(RuleIndex ruleIndex) {
+            if (ruleIndex == null) {
+                throw new IllegalArgumentException("Indeks aturan tidak boleh null");
+            }
+            this.ruleIndex = ruleIndex;
+        }
+        
+        /**
+         * Mendapatkan indeks hasil mining yang baru
+         * @return RuleIndex
+         */
+        public RuleIndex getRuleIndex() {
+            return ruleIndex;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.aplikasipenjualan.model;
+
+import java.nio.IntBuffer;
+
+/**
+ * Sumber keranjang belanja dalam bentuk ID produk (int), untuk algoritma
+ * yang cukup membaca isi transaksi tanpa membuat objek Transaction dan Product.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public interface BasketSource {
+    
+    /**
+     * Callback untuk setiap keranjang
+     */
+    interface BasketVisitor {
+        /**
+         * Dipanggil untuk setiap keranjang. ID produk terurut naik dan unik,
+         * berada di items[offset] sampai items[offset + length - 1]. Buffer hanya
+         * valid selama callback berjalan dan tidak boleh diubah.
+         * @param items Buffer berisi ID produk
+         * @param offset Indeks absolut ID produk pertama
+         * @param length Jumlah produk dalam keranjang
+         */
+        void visit(IntBuffer items, int offset, int length);
+    }
+    
+    /**
+     * Mendapatkan jumlah keranjang
+     * @return Jumlah keranjang (transaksi)
+     */
+    int getBasketCount();
+    
+    /**
+     * Memindai semua keranjang secara berurutan
+     * @param visitor Callback untuk setiap keranjang
+     */
+    void forEachBasket(BasketVisitor visitor);
+}
@@ -16,6 +16,7 @@ public class Product implements Serializable {
     private String nama;
     private String kategori;
     private double harga;
+    private transient int hash; // Cache hashCode, 0 berarti belum dihitung
     
     /**
      * Constructor default
@@ -52,6 +53,7 @@ public class Product implements Serializable {
      */
     public void setId(int id) {
         this.id = id;
+        this.hash = 0;
     }
     
     /**
@@ -68,6 +70,7 @@ public class Product implements Serializable {
      */
     public void setNama(String nama) {
         this.nama = nama;
+        this.hash = 0;
     }
     
     /**
@@ -84,6 +87,7 @@ public class Product implements Serializable {
      */
     public void setKategori(String kategori) {
         this.kategori = kategori;
+        this.hash = 0;
     }
     
     /**
@@ -104,6 +108,7 @@ public class Product implements Serializable {
             throw new IllegalArgumentException("Harga harus lebih dari 0");
         }
         this.harga = harga;
+        this.hash = 0;
     }
     
     /**
@@ -129,7 +134,29 @@ public class Product implements Serializable {
     
     @Override
     public int hashCode() {
-        return Objects.hash(id, nama, kategori, harga);
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(id, nama, kategori, harga);
+            hash = h;
+        }
+        return h;
+    }
+    
+    /**
+     * Mengganti nama dan kategori dengan string bersama yang equals,
+     * dipakai oleh {@link ProductRegistry}
+     */
+    void shareStrings(String sharedNama, String sharedKategori) {
+        this.nama = sharedNama;
+        this.kategori = sharedKategori;
+    }
+    
+    /**
+     * Produk hasil deserialisasi diganti instance kanonik dari {@link ProductRegistry}
+     * @return Instance kanonik
+     */
+    private Object readResolve() {
+        return ProductRegistry.intern(this);
     }
     
     @Override
@@ -0,0 +1,324 @@
+package com.aplikasipenjualan.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Katalog produk dengan indeks yang diperbarui setiap kali produk ditambahkan:
+ * peta ID bertipe int primitif (open addressing), indeks trigram dari nama
+ * yang sudah di-case-fold untuk pencarian substring, dan multimap kategori.
+ * Produk disimpan sesuai urutan penambahan, dan semua hasil pencarian
+ * mengikuti urutan tersebut.
+ * 
+ * Pencarian nama mengambil daftar posting trigram query yang paling pendek,
+ * lalu memeriksa setiap kandidat dengan nama yang sudah di-fold. Query yang
+ * lebih pendek dari satu trigram dicocokkan langsung terhadap nama yang
+ * sudah di-fold tanpa membuat string baru per produk.
+ * 
+ * Semua array dan daftar posting hanya ditambah di akhir dengan kapasitas
+ * yang berlipat ganda, sehingga penambahan produk berbiaya amortized konstan.
+ * Penambahan disalurkan satu per satu di bawah lock, lalu jumlah produk
+ * dipublikasikan melalui satu field volatile. Pembacaan tidak memakai lock:
+ * pembaca hanya melihat produk dengan indeks di bawah jumlah yang
+ * dipublikasikan, sehingga banyak terminal dapat mencari produk bersamaan
+ * dan tidak pernah melihat produk yang indeksnya belum lengkap.
+ * 
+ * Produk di katalog tidak boleh diubah melalui setter setelah ditambahkan,
+ * karena indeks tidak diperbarui.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class ProductCatalog {
+    
+    private static final int GRAM_LENGTH = 3;
+    private static final int INITIAL_CAPACITY = 16;
+    
+    // Daftar posting per trigram nama dan per kategori yang sudah di-fold
+    private final Map<Long, Postings> nameGrams = new ConcurrentHashMap<>();
+    private final Map<String, Postings> categoryIndex = new ConcurrentHashMap<>();
+    private volatile State state;
+    
+    /**
+     * Isi katalog yang terlihat oleh pembaca. Array dipakai bersama dengan
+     * state berikutnya dan hanya diisi di atas {@code size}, atau diganti
+     * salinan yang lebih besar saat penuh.
+     */
+    private static final class State {
+        private final int size;
+        private final Product[] products;
+        private final String[] foldedNames;
+        // Peta ID: idKeys berisi ID, idSlots berisi indeks produk + 1 (0 berarti kosong)
+        private final int[] idKeys;
+        private final int[] idSlots;
+        private final List<String> categories;
+        
+        State(int size, Product[] products, String[] foldedNames, int[] idKeys, int[] idSlots,
+              List<String> categories) {
+            this.size = size;
+            this.products = products;
+            this.foldedNames = foldedNames;
+            this.idKeys = idKeys;
+            this.idSlots = idSlots;
+            this.categories = categories;
+        }
+        
+        int indexOf(int id) {
+            int index = idSlots[slotOf(idKeys, idSlots, id)] - 1;
+            // Slot produk yang belum dipublikasikan diabaikan
+            return index < size ? index : -1;
+        }
+    }
+    
+    /**
+     * Daftar posting berisi indeks produk, selalu terurut naik. Hanya ditambah
+     * oleh penulis; pembaca membaca count lalu items sehingga selalu melihat
+     * paling sedikit count entri pertama.
+     */
+    private static final class Postings {
+        private volatile int[] items = new int[4];
+        private volatile int count;
+        
+        void add(int index) {
+            int size = count;
+            int[] current = items;
+            if (size > 0 && current[size - 1] == index) {
+                return;
+            }
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+                items = current;
+            }
+            current[size] = index;
+            count = size + 1;
+        }
+    }
+    
+    /**
+     * Constructor - membuat katalog kosong
+     */
+    public ProductCatalog() {
+        this.state = new State(0, new Product[INITIAL_CAPACITY], new String[INITIAL_CAPACITY],
+                               new int[INITIAL_CAPACITY * 2], new int[INITIAL_CAPACITY * 2],
+                               Collections.emptyList());
+    }
+    
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+    
+    private static long gramKey(String folded, int start) {
+        return ((long) folded.charAt(start) << 32) | ((long) folded.charAt(start + 1) << 16)
+               | folded.charAt(start + 2);
+    }
+    
+    private static int slotOf(int[] idKeys, int[] idSlots, int id) {
+        int mask = idKeys.length - 1;
+        int hash = id * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (idSlots[slot] != 0 && idKeys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    /**
+     * Menambahkan produk dan memperbarui semua indeks
+     * @param product Produk yang ditambahkan
+     * @return true jika ditambahkan, false jika ID sudah ada
+     * @throws IllegalArgumentException jika produk, nama, atau kategorinya null
+     */
+    public boolean add(Product product) {
+        return addAll(Collections.singletonList(product)) == 1;
+    }
+    
+    /**
+     * Menambahkan banyak produk dan mempublikasikannya sekaligus. Produk
+     * dengan ID yang sudah ada (atau muncul lebih awal di koleksi) dilewati.
+     * @param products Produk yang ditambahkan
+     * @return Jumlah produk yang ditambahkan
+     * @throws IllegalArgumentException jika ada produk, nama, atau kategori yang null;
+     *         dalam hal ini tidak ada produk yang ditambahkan
+     */
+    public synchronized int addAll(Collection<? extends Product> products) {
+        if (products == null) {
+            throw new IllegalArgumentException("Daftar produk tidak boleh null");
+        }
+        for (Product product : products) {
+            if (product == null || product.getNama() == null || product.getKategori() == null) {
+                throw new IllegalArgumentException("Produk, nama, dan kategori tidak boleh null");
+            }
+        }
+        State current = state;
+        int size = current.size;
+        Product[] productArray = current.products;
+        String[] foldedNames = current.foldedNames;
+        int[] idKeys = current.idKeys;
+        int[] idSlots = current.idSlots;
+        List<String> categories = current.categories;
+        
+        for (Product product : products) {
+            int slot = slotOf(idKeys, idSlots, product.getId());
+            if (idSlots[slot] != 0) {
+                continue;
+            }
+            if ((size + 1) * 2 > idKeys.length) {
+                // Rehash ke tabel baru; tabel lama tetap utuh untuk pembaca
+                int[] newKeys = new int[idKeys.length * 2];
+                int[] newSlots = new int[idSlots.length * 2];
+                for (int i = 0; i < idKeys.length; i++) {
+                    if (idSlots[i] != 0) {
+                        int target = slotOf(newKeys, newSlots, idKeys[i]);
+                        newKeys[target] = idKeys[i];
+                        newSlots[target] = idSlots[i];
+                    }
+                }
+                idKeys = newKeys;
+                idSlots = newSlots;
+                slot = slotOf(idKeys, idSlots, product.getId());
+            }
+            if (size == productArray.length) {
+                productArray = Arrays.copyOf(productArray, size * 2);
+                foldedNames = Arrays.copyOf(foldedNames, size * 2);
+            }
+            
+            int index = size++;
+            String folded = fold(product.getNama());
+            productArray[index] = product;
+            foldedNames[index] = folded;
+            idKeys[slot] = product.getId();
+            idSlots[slot] = index + 1;
+            for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+                nameGrams.computeIfAbsent(gramKey(folded, i), key -> new Postings()).add(index);
+            }
+            categoryIndex.computeIfAbsent(fold(product.getKategori()), key -> new Postings()).add(index);
+            int position = Collections.binarySearch(categories, product.getKategori());
+            if (position < 0) {
+                List<String> newCategories = new ArrayList<>(categories.size() + 1);
+                newCategories.addAll(categories);
+                newCategories.add(-position - 1, product.getKategori());
+                categories = Collections.unmodifiableList(newCategories);
+            }
+        }
+        int added = size - current.size;
+        if (added > 0) {
+            state = new State(size, productArray, foldedNames, idKeys, idSlots, categories);
+        }
+        return added;
+    }
+    
+    /**
+     * Mencari produk berdasarkan ID
+     * @param id ID produk
+     * @return Produk, atau null jika tidak ada
+     */
+    public Product get(int id) {
+        State current = state;
+        int index = current.indexOf(id);
+        return index >= 0 ? current.products[index] : null;
+    }
+    
+    /**
+     * Cek apakah ID produk sudah ada
+     * @param id ID produk
+     * @return true jika sudah ada
+     */
+    public boolean contains(int id) {
+        return state.indexOf(id) >= 0;
+    }
+    
+    /**
+     * Mencari produk yang namanya mengandung teks (case insensitive)
+     * @param query Teks yang dicari, spasi di awal dan akhir diabaikan
+     * @return Produk yang cocok sesuai urutan penambahan
+     */
+    public List<Product> searchByName(String query) {
+        List<Product> result = new ArrayList<>();
+        if (query == null || query.trim().isEmpty()) {
+            return result;
+        }
+        State current = state;
+        String term = fold(query.trim());
+        if (term.length() < GRAM_LENGTH) {
+            for (int i = 0; i < current.size; i++) {
+                if (current.foldedNames[i].contains(term)) {
+                    result.add(current.products[i]);
+                }
+            }
+            return result;
+        }
+        
+        Postings candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            Postings postings = nameGrams.get(gramKey(term, i));
+            if (postings == null) {
+                return result;
+            }
+            if (candidates == null || postings.count < candidates.count) {
+                candidates = postings;
+            }
+        }
+        int count = candidates.count;
+        int[] items = candidates.items;
+        for (int i = 0; i < count && items[i] < current.size; i++) {
+            int index = items[i];
+            if (current.foldedNames[index].contains(term)) {
+                result.add(current.products[index]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Mendapatkan produk dalam satu kategori (case insensitive)
+     * @param kategori Kategori, spasi di awal dan akhir diabaikan
+     * @return Produk dalam kategori sesuai urutan penambahan
+     */
+    public List<Product> getByCategory(String kategori) {
+        List<Product> result = new ArrayList<>();
+        if (kategori == null) {
+            return result;
+        }
+        State current = state;
+        Postings postings = categoryIndex.get(fold(kategori.trim()));
+        if (postings != null) {
+            int count = postings.count;
+            int[] items = postings.items;
+            for (int i = 0; i < count && items[i] < current.size; i++) {
+                result.add(current.products[items[i]]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Mendapatkan semua kategori unik
+     * @return Daftar kategori terurut
+     */
+    public List<String> getCategories() {
+        return new ArrayList<>(state.categories);
+    }
+    
+    /**
+     * Mendapatkan semua produk
+     * @return Salinan daftar produk sesuai urutan penambahan
+     */
+    public List<Product> getProducts() {
+        State current = state;
+        return new ArrayList<>(Arrays.asList(current.products).subList(0, current.size));
+    }
+    
+    /**
+     * Mendapatkan jumlah produk
+     * @return Jumlah produk
+     */
+    public int size() {
+        return state.size;
+    }
+}
@@ -0,0 +1,148 @@
+package com.aplikasipenjualan.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry flyweight untuk produk. Setiap kombinasi atribut produk (ID, nama,
+ * kategori, harga) hanya memiliki satu instance kanonik, sehingga transaksi
+ * yang memuat produk yang sama berbagi objek Product dan string nama/kategori
+ * yang sama.
+ * 
+ * Instance kanonik dipakai bersama oleh banyak transaksi dan tidak boleh
+ * diubah melalui setter setelah didaftarkan.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public final class ProductRegistry {
+    
+    // Perkiraan ukuran objek dengan compressed oops
+    private static final int PRODUCT_SHALLOW_BYTES = 32;
+    private static final int STRING_SHALLOW_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    
+    private static final ConcurrentMap<Product, Product> PRODUCTS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, String> STRINGS = new ConcurrentHashMap<>();
+    private static final AtomicLong REQUESTS = new AtomicLong();
+    private static final AtomicLong DUPLICATES = new AtomicLong();
+    private static final AtomicLong BYTES_SAVED = new AtomicLong();
+    
+    private ProductRegistry() {
+    }
+    
+    /**
+     * Mendapatkan instance kanonik untuk produk. Produk yang belum terdaftar
+     * menjadi instance kanonik, dengan nama dan kategori diganti string
+     * yang dipakai bersama.
+     * @param product Produk
+     * @return Instance kanonik yang equals dengan product, atau null jika product null
+     */
+    public static Product intern(Product product) {
+        if (product == null) {
+            return null;
+        }
+        REQUESTS.incrementAndGet();
+        Product canonical = PRODUCTS.get(product);
+        if (canonical == product) {
+            return canonical;
+        }
+        if (canonical == null) {
+            String nama = internString(product.getNama());
+            String kategori = internString(product.getKategori());
+            product.shareStrings(nama, kategori);
+            canonical = PRODUCTS.putIfAbsent(product, product);
+            if (canonical == null) {
+                return product;
+            }
+        }
+        DUPLICATES.incrementAndGet();
+        BYTES_SAVED.addAndGet(estimateSize(product));
+        return canonical;
+    }
+    
+    /**
+     * Mengganti string dengan instance bersama yang equals
+     */
+    private static String internString(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = STRINGS.putIfAbsent(value, value);
+        if (shared == null) {
+            return value;
+        }
+        if (shared != value) {
+            BYTES_SAVED.addAndGet(estimateSize(value));
+        }
+        return shared;
+    }
+    
+    private static long estimateSize(Product product) {
+        return PRODUCT_SHALLOW_BYTES + estimateSize(product.getNama()) + estimateSize(product.getKategori());
+    }
+    
+    private static long estimateSize(String value) {
+        return value == null ? 0 : STRING_SHALLOW_BYTES + ARRAY_HEADER_BYTES + 2L * value.length();
+    }
+    
+    /**
+     * Mendapatkan laporan penggunaan registry
+     * @return Snapshot laporan
+     */
+    public static Report getReport() {
+        return new Report(PRODUCTS.size(), STRINGS.size(), REQUESTS.get(), DUPLICATES.get(), BYTES_SAVED.get());
+    }
+    
+    /**
+     * Snapshot laporan penghematan memori registry
+     */
+    public static final class Report {
+        private final int uniqueProducts;
+        private final int sharedStrings;
+        private final long requests;
+        private final long duplicates;
+        private final long bytesSaved;
+        
+        private Report(int uniqueProducts, int sharedStrings, long requests, long duplicates, long bytesSaved) {
+            this.uniqueProducts = uniqueProducts;
+            this.sharedStrings = sharedStrings;
+            this.requests = requests;
+            this.duplicates = duplicates;
+            this.bytesSaved = bytesSaved;
+        }
+        
+        /** @return Jumlah instance produk kanonik */
+        public int getUniqueProducts() {
+            return uniqueProducts;
+        }
+        
+        /** @return Jumlah string nama/kategori yang dipakai bersama */
+        public int getSharedStrings() {
+            return sharedStrings;
+        }
+        
+        /** @return Jumlah pemanggilan intern */
+        public long getRequests() {
+            return requests;
+        }
+        
+        /** @return Jumlah produk duplikat yang diganti instance kanonik */
+        public long getDuplicates() {
+            return duplicates;
+        }
+        
+        /** @return Perkiraan memori yang dihemat dalam bytes */
+        public long getBytesSaved() {
+            return bytesSaved;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Produk unik: %d, string bersama: %d, duplikat dihindari: %d dari %d, "
+                                 + "perkiraan memori dihemat: %d KB",
+                                 uniqueProducts, sharedStrings, duplicates, requests, bytesSaved / 1024);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.aplikasipenjualan.model;
+
+/**
+ * Agregat penjualan berjalan (jumlah transaksi, pendapatan, dan item) yang
+ * diperbarui dalam O(1) setiap kali transaksi ditambah atau dihapus, sehingga
+ * statistik tidak perlu membaca ulang seluruh riwayat.
+ * 
+ * Pendapatan dijumlahkan dengan compensated summation (varian Neumaier dari
+ * Kahan) agar galat pembulatan tidak menumpuk setelah jutaan penambahan dan
+ * pengurangan. Saat transaksi terakhir dihapus, pendapatan kembali tepat nol.
+ * 
+ * Thread-safe; {@link #snapshot()} mengembalikan nilai yang konsisten satu
+ * sama lain.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class SalesAggregates {
+    
+    private long transactionCount;
+    private long totalItems;
+    private double revenue;
+    private double compensation;
+    
+    /**
+     * Nilai agregat pada satu waktu
+     */
+    public static final class Snapshot {
+        private final long transactionCount;
+        private final double totalRevenue;
+        private final long totalItems;
+        
+        private Snapshot(long transactionCount, double totalRevenue, long totalItems) {
+            this.transactionCount = transactionCount;
+            this.totalRevenue = totalRevenue;
+            this.totalItems = totalItems;
+        }
+        
+        /** @return Jumlah transaksi */
+        public long getTransactionCount() {
+            return transactionCount;
+        }
+        
+        /** @return Total pendapatan */
+        public double getTotalRevenue() {
+            return totalRevenue;
+        }
+        
+        /** @return Total item terjual */
+        public long getTotalItems() {
+            return totalItems;
+        }
+        
+        /** @return Rata-rata pendapatan per transaksi, 0 jika belum ada transaksi */
+        public double getAverageTransaction() {
+            return transactionCount > 0 ? totalRevenue / transactionCount : 0;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(
+                "Statistik Penjualan:\n" +
+                "Total Transaksi: %d\n" +
+                "Total Pendapatan: Rp %.2f\n" +
+                "Total Item Terjual: %d\n" +
+                "Rata-rata per Transaksi: Rp %.2f",
+                transactionCount, totalRevenue, totalItems, getAverageTransaction()
+            );
+        }
+    }
+    
+    /**
+     * Menambahkan satu transaksi ke agregat
+     * @param transaction Transaksi
+     * @throws IllegalArgumentException jika transaksi null
+     */
+    public synchronized void add(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaksi tidak boleh null");
+        }
+        transactionCount++;
+        totalItems += transaction.getItemCount();
+        addRevenue(transaction.getTotalHarga());
+    }
+    
+    /**
+     * Mengurangi satu transaksi dari agregat
+     * @param transaction Transaksi yang sebelumnya ditambahkan
+     * @throws IllegalArgumentException jika transaksi null
+     */
+    public synchronized void remove(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaksi tidak boleh null");
+        }
+        transactionCount--;
+        totalItems -= transaction.getItemCount();
+        if (transactionCount == 0) {
+            revenue = 0;
+            compensation = 0;
+        } else {
+            addRevenue(-transaction.getTotalHarga());
+        }
+    }
+    
+    private void addRevenue(double value) {
+        double sum = revenue + value;
+        if (Math.abs(revenue) >= Math.abs(value)) {
+            compensation += (revenue - sum) + value;
+        } else {
+            compensation += (value - sum) + revenue;
+        }
+        revenue = sum;
+    }
+    
+    /**
+     * Mengosongkan agregat
+     */
+    public synchronized void clear() {
+        transactionCount = 0;
+        totalItems = 0;
+        revenue = 0;
+        compensation = 0;
+    }
+    
+    /**
+     * Mendapatkan nilai agregat saat ini
+     * @return Snapshot agregat
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(transactionCount, revenue + compensation, totalItems);
+    }
+}
@@ -0,0 +1,1029 @@
+package com.aplikasipenjualan.model;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Kubus agregasi penjualan dengan dimensi tanggal, jam, produk, dan kategori.
+ * Setiap sel (tanggal, jam, produk) menyimpan jumlah unit dan pendapatan, dan
+ * diperbarui saat transaksi masuk sehingga pertanyaan seperti "pendapatan
+ * kategori Minuman bulan ini" tidak perlu membaca riwayat transaksi.
+ * 
+ * Sel disimpan jarang (sparse): satu blok per bulan yang baru dialokasikan
+ * saat bulan tersebut pertama kali ada penjualan, berisi baris per (hari, jam)
+ * yang hanya memuat produk yang terjual pada jam itu dalam array primitif
+ * terurut berdasarkan slot produk, ditambah satu baris total per hari.
+ * Memori sebanding dengan jumlah sel yang terisi, bukan hari x jam x jumlah
+ * produk. Di atasnya ada Fenwick tree
+ * (binary indexed tree) per bulan: satu untuk setiap produk yang pernah
+ * terjual dan satu per jam. Total rentang tanggal dihitung dari bulan-bulan
+ * penuh di Fenwick tree dalam O(log bulan), ditambah hari-hari di bulan awal
+ * dan akhir yang tidak penuh dari sel (paling banyak 62 hari). Kategori
+ * adalah atribut produk, sehingga roll-up kategori menjumlahkan produk di
+ * dalamnya. Rentang bulan dan jumlah produk tumbuh dua kali lipat saat penuh.
+ * 
+ * Rentang bulan tidak terikat tahun tertentu, tetapi paling lebar
+ * {@value #MAX_MONTHS} bulan. Transaksi yang akan melebarkan rentang
+ * melewati batas itu (misalnya tanggal salah ketik tahun 1800 di samping
+ * penjualan tahun ini) tidak pernah ditolak, karena transaksinya sudah
+ * tersimpan, tetapi dilewati dan dihitung di {@link #getSkippedTransactions()}
+ * sehingga selisih dengan statistik penjualan terlihat. Kategori produk
+ * diambil dari kemunculan pertama ID produk. Thread-safe.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class SalesCube {
+    
+    /** Magic number "APSC" di awal data kubus */
+    public static final int MAGIC = 0x41505343;
+    /** Versi format data kubus */
+    public static final int FORMAT_VERSION = 3;
+    /** Jumlah jam dalam satu hari */
+    public static final int HOURS = 24;
+    /** Rentang bulan maksimum antara penjualan terlama dan terbaru di kubus */
+    public static final int MAX_MONTHS = 1 << 11;
+    
+    private static final int DAYS_PER_BLOCK = 31;
+    private static final int ROWS_PER_BLOCK = DAYS_PER_BLOCK * HOURS;
+    private static final int INITIAL_MONTHS = 16;
+    private static final int INITIAL_PRODUCTS = 16;
+    // Bulan yang dapat ditampung, dengan jarak ke batas LocalDate untuk ruang kosong rentang
+    private static final long MIN_MONTH = (Year.MIN_VALUE + MAX_MONTHS) * 12L;
+    private static final long MAX_MONTH = (Year.MAX_VALUE - MAX_MONTHS) * 12L;
+    
+    private long datasetVersion = -1;
+    
+    // Produk per slot, dan peta ID -> slot + 1 dengan open addressing
+    private int[] productIds;
+    private int[] productCategories;
+    private int productCount;
+    private int[] slotKeys;
+    private int[] slotValues;
+    
+    private String[] categoryNames;
+    private int categoryCount;
+    private final Map<String, Integer> categoryIndex;
+    
+    // Transaksi yang dilewati, per ID transaksi dan bulan, agar penghapusannya juga dilewati
+    private final Map<String, Integer> skipped;
+    private long skippedTransactions;
+    
+    // Bulan pertama (tahun * 12 + bulan - 1) dan jumlah bulan yang dialokasikan, selalu pangkat dua
+    private long firstMonth;
+    private int monthCapacity;
+    private boolean empty;
+    
+    // Blok per bulan, null sampai ada penjualan
+    private Block[] blocks;
+    // Fenwick tree per slot produk: node 1..monthCapacity
+    private long[][] productTreeUnits;
+    private double[][] productTreeRevenue;
+    // Fenwick tree per jam untuk semua produk: node * HOURS + jam
+    private long[] hourTreeUnits;
+    private double[] hourTreeRevenue;
+    
+    /**
+     * Total unit dan pendapatan untuk satu hasil query
+     */
+    public static final class Cell {
+        private final long units;
+        private final double revenue;
+        
+        Cell(long units, double revenue) {
+            this.units = units;
+            this.revenue = revenue;
+        }
+        
+        /** @return Jumlah unit terjual */
+        public long getUnits() {
+            return units;
+        }
+        
+        /** @return Pendapatan */
+        public double getRevenue() {
+            return revenue;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d unit, Rp %.2f", units, revenue);
+        }
+    }
+    
+    /**
+     * Sel satu (hari, jam): hanya produk yang terjual, terurut berdasarkan slot
+     */
+    private static final class Row {
+        private int[] slots;
+        private int[] units;
+        private double[] revenue;
+        private int size;
+        private long totalUnits;
+        private double totalRevenue;
+        
+        Row(int capacity) {
+            slots = new int[capacity];
+            units = new int[capacity];
+            revenue = new double[capacity];
+        }
+        
+        int indexOf(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot);
+        }
+        
+        /**
+         * Menambah atau mengurangi unit produk
+         * @return false jika pengurangan untuk produk yang tidak ada di baris ini
+         */
+        boolean add(int slot, int count, double value) {
+            int index = indexOf(slot);
+            if (index < 0) {
+                if (count < 0) {
+                    return false;
+                }
+                index = -index - 1;
+                if (size == slots.length) {
+                    int capacity = size * 2;
+                    slots = Arrays.copyOf(slots, capacity);
+                    units = Arrays.copyOf(units, capacity);
+                    revenue = Arrays.copyOf(revenue, capacity);
+                }
+                System.arraycopy(slots, index, slots, index + 1, size - index);
+                System.arraycopy(units, index, units, index + 1, size - index);
+                System.arraycopy(revenue, index, revenue, index + 1, size - index);
+                slots[index] = slot;
+                units[index] = 0;
+                revenue[index] = 0;
+                size++;
+            }
+            units[index] += count;
+            revenue[index] += value;
+            totalUnits += count;
+            totalRevenue += value;
+            if (units[index] == 0) {
+                // Sel yang habis dibuang agar baris tetap hanya berisi produk terjual
+                size--;
+                System.arraycopy(slots, index + 1, slots, index, size - index);
+                System.arraycopy(units, index + 1, units, index, size - index);
+                System.arraycopy(revenue, index + 1, revenue, index, size - index);
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Sel satu bulan: baris per (hari - 1) * HOURS + jam dan total per hari - 1,
+     * masing-masing null sampai ada penjualan
+     */
+    private static final class Block {
+        private final Row[] hours = new Row[ROWS_PER_BLOCK];
+        private final Row[] days = new Row[DAYS_PER_BLOCK];
+        
+        /**
+         * Mendapatkan baris total hari, dibuat jika belum ada
+         */
+        Row day(int day) {
+            if (days[day] == null) {
+                days[day] = new Row(4);
+            }
+            return days[day];
+        }
+    }
+    
+    /**
+     * Rentang query: hari-hari di bulan awal dan akhir yang tidak penuh dibaca
+     * dari sel, bulan penuh di antaranya dari Fenwick tree
+     */
+    private static final class Span {
+        private LocalDate headFrom;
+        private LocalDate headTo;
+        private LocalDate tailFrom;
+        private LocalDate tailTo;
+        private int lower;
+        private int upper;
+    }
+    
+    /**
+     * Constructor - membuat kubus kosong
+     */
+    public SalesCube() {
+        this.categoryIndex = new HashMap<>();
+        this.skipped = new HashMap<>();
+        clear();
+    }
+    
+    /**
+     * Mengosongkan kubus
+     */
+    public synchronized void clear() {
+        productIds = new int[INITIAL_PRODUCTS];
+        productCategories = new int[INITIAL_PRODUCTS];
+        productTreeUnits = new long[INITIAL_PRODUCTS][];
+        productTreeRevenue = new double[INITIAL_PRODUCTS][];
+        productCount = 0;
+        slotKeys = new int[INITIAL_PRODUCTS * 2];
+        slotValues = new int[INITIAL_PRODUCTS * 2];
+        categoryNames = new String[4];
+        categoryCount = 0;
+        categoryIndex.clear();
+        skipped.clear();
+        skippedTransactions = 0;
+        firstMonth = 0;
+        empty = true;
+        monthCapacity = INITIAL_MONTHS;
+        blocks = new Block[INITIAL_MONTHS];
+        rebuildTrees();
+    }
+    
+    /**
+     * Menambahkan transaksi ke kubus
+     * @param transaction Transaksi
+     * @throws IllegalArgumentException jika transaksi null
+     */
+    public synchronized void add(Transaction transaction) {
+        apply(transaction, 1);
+    }
+    
+    /**
+     * Mengurangi transaksi yang sebelumnya ditambahkan dari kubus
+     * @param transaction Transaksi
+     * @throws IllegalArgumentException jika transaksi null
+     */
+    public synchronized void remove(Transaction transaction) {
+        apply(transaction, -1);
+    }
+    
+    /**
+     * Mendapatkan jumlah transaksi yang tidak masuk kubus karena tanggalnya
+     * di luar rentang {@link #MAX_MONTHS} bulan
+     * @return Jumlah transaksi yang dilewati
+     */
+    public synchronized long getSkippedTransactions() {
+        return skippedTransactions;
+    }
+    
+    private void apply(Transaction transaction, int sign) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaksi tidak boleh null");
+        }
+        LocalDateTime tanggal = transaction.getTanggal();
+        if (tanggal == null || transaction.getProducts().isEmpty()) {
+            return;
+        }
+        LocalDate date = tanggal.toLocalDate();
+        long epochMonth = epochMonth(date);
+        String skipKey = transaction.getTransactionId() + "@" + epochMonth;
+        if (sign > 0 && !ensureMonth(epochMonth)) {
+            skipped.merge(skipKey, 1, Integer::sum);
+            skippedTransactions++;
+            return;
+        }
+        if (sign < 0 && skipped.containsKey(skipKey)) {
+            skipped.computeIfPresent(skipKey, (key, count) -> count > 1 ? count - 1 : null);
+            skippedTransactions--;
+            return;
+        }
+        if (sign < 0 && (empty || epochMonth < firstMonth || epochMonth >= firstMonth + monthCapacity)) {
+            return;
+        }
+        int month = (int) (epochMonth - firstMonth);
+        int hour = tanggal.getHour();
+        int day = date.getDayOfMonth() - 1;
+        Block block = blocks[month];
+        if (block == null) {
+            if (sign < 0) {
+                return;
+            }
+            block = new Block();
+            blocks[month] = block;
+        }
+        Row row = block.hours[day * HOURS + hour];
+        if (row == null) {
+            if (sign < 0) {
+                return;
+            }
+            row = new Row(4);
+            block.hours[day * HOURS + hour] = row;
+        }
+        Row dayRow = block.day(day);
+        for (Product product : transaction.getProducts()) {
+            int slot = sign > 0 ? slotFor(product) : slotOf(product.getId());
+            if (slot < 0) {
+                continue;
+            }
+            double revenue = sign * product.getHarga();
+            if (!row.add(slot, sign, revenue)) {
+                continue;
+            }
+            dayRow.add(slot, sign, revenue);
+            long[] treeUnits = productTreeUnits[slot];
+            double[] treeRevenue = productTreeRevenue[slot];
+            for (int node = month + 1; node <= monthCapacity; node += node & -node) {
+                treeUnits[node] += sign;
+                treeRevenue[node] += revenue;
+                hourTreeUnits[node * HOURS + hour] += sign;
+                hourTreeRevenue[node * HOURS + hour] += revenue;
+            }
+        }
+    }
+    
+    private static long epochMonth(LocalDate date) {
+        return date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+    
+    private static LocalDate monthStart(long epochMonth) {
+        return LocalDate.of((int) Math.floorDiv(epochMonth, 12L), (int) Math.floorMod(epochMonth, 12L) + 1, 1);
+    }
+    
+    private int hashSlot(int id) {
+        int mask = slotKeys.length - 1;
+        int hash = id * 0x9E3779B9;
+        int index = (hash ^ (hash >>> 16)) & mask;
+        while (slotValues[index] != 0 && slotKeys[index] != id) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+    
+    private int slotOf(int productId) {
+        return slotValues[hashSlot(productId)] - 1;
+    }
+    
+    private int slotFor(Product product) {
+        int index = hashSlot(product.getId());
+        if (slotValues[index] != 0) {
+            return slotValues[index] - 1;
+        }
+        if (productCount == productIds.length) {
+            growProducts(productIds.length * 2);
+        }
+        if ((productCount + 1) * 2 > slotKeys.length) {
+            rehashSlots(slotKeys.length * 2);
+        }
+        int slot = productCount++;
+        productIds[slot] = product.getId();
+        productCategories[slot] = categoryFor(product.getKategori() != null ? product.getKategori() : "");
+        productTreeUnits[slot] = new long[monthCapacity + 1];
+        productTreeRevenue[slot] = new double[monthCapacity + 1];
+        index = hashSlot(product.getId());
+        slotKeys[index] = product.getId();
+        slotValues[index] = slot + 1;
+        return slot;
+    }
+    
+    private void growProducts(int capacity) {
+        productIds = Arrays.copyOf(productIds, capacity);
+        productCategories = Arrays.copyOf(productCategories, capacity);
+        productTreeUnits = Arrays.copyOf(productTreeUnits, capacity);
+        productTreeRevenue = Arrays.copyOf(productTreeRevenue, capacity);
+    }
+    
+    private void rehashSlots(int capacity) {
+        slotKeys = new int[capacity];
+        slotValues = new int[capacity];
+        for (int slot = 0; slot < productCount; slot++) {
+            int index = hashSlot(productIds[slot]);
+            slotKeys[index] = productIds[slot];
+            slotValues[index] = slot + 1;
+        }
+    }
+    
+    private int categoryFor(String kategori) {
+        Integer index = categoryIndex.get(kategori);
+        if (index != null) {
+            return index;
+        }
+        if (categoryCount == categoryNames.length) {
+            categoryNames = Arrays.copyOf(categoryNames, categoryCount * 2);
+        }
+        categoryNames[categoryCount] = kategori;
+        categoryIndex.put(kategori, categoryCount);
+        return categoryCount++;
+    }
+    
+    /**
+     * Memastikan bulan masuk rentang yang dialokasikan. Saat rentang diperluas,
+     * ruang kosong dibagi ke kedua sisi agar import riwayat ke arah mana pun
+     * tidak menyusun ulang blok terus-menerus.
+     * @return false jika bulan tidak dapat ditampung tanpa melewati {@link #MAX_MONTHS}
+     */
+    private boolean ensureMonth(long epochMonth) {
+        if (epochMonth < MIN_MONTH || epochMonth > MAX_MONTH) {
+            return false;
+        }
+        if (empty) {
+            firstMonth = epochMonth - monthCapacity / 2;
+            empty = false;
+            return true;
+        }
+        if (epochMonth >= firstMonth && epochMonth < firstMonth + monthCapacity) {
+            return true;
+        }
+        long from = Math.min(firstMonth, epochMonth);
+        long to = Math.max(firstMonth + monthCapacity - 1, epochMonth);
+        if (to - from + 1 > MAX_MONTHS) {
+            // Ruang kosong di tepi rentang boleh dilepas, hanya bulan berisi penjualan yang wajib muat
+            int lowest = 0;
+            while (lowest < monthCapacity && blocks[lowest] == null) {
+                lowest++;
+            }
+            int highest = monthCapacity - 1;
+            while (highest > lowest && blocks[highest] == null) {
+                highest--;
+            }
+            from = lowest < monthCapacity ? Math.min(firstMonth + lowest, epochMonth) : epochMonth;
+            to = lowest < monthCapacity ? Math.max(firstMonth + highest, epochMonth) : epochMonth;
+            if (to - from + 1 > MAX_MONTHS) {
+                return false;
+            }
+        }
+        int capacity = monthCapacity;
+        while (capacity < to - from + 1) {
+            capacity *= 2;
+        }
+        long slack = capacity - (to - from + 1);
+        long newFirstMonth = epochMonth == from ? from - slack / 2 : from;
+        relayout(newFirstMonth, capacity);
+        return true;
+    }
+    
+    /**
+     * Memindahkan blok ke rentang bulan baru (hanya referensi yang disalin),
+     * lalu membangun ulang Fenwick tree
+     */
+    private void relayout(long newFirstMonth, int capacity) {
+        Block[] oldBlocks = blocks;
+        int shift = (int) (firstMonth - newFirstMonth);
+        blocks = new Block[capacity];
+        for (int month = 0; month < oldBlocks.length; month++) {
+            if (oldBlocks[month] != null) {
+                blocks[month + shift] = oldBlocks[month];
+            }
+        }
+        firstMonth = newFirstMonth;
+        monthCapacity = capacity;
+        rebuildTrees();
+    }
+    
+    /**
+     * Membangun Fenwick tree dari sel dalam O(sel + bulan x produk)
+     */
+    private void rebuildTrees() {
+        int nodes = monthCapacity + 1;
+        hourTreeUnits = new long[nodes * HOURS];
+        hourTreeRevenue = new double[nodes * HOURS];
+        for (int slot = 0; slot < productCount; slot++) {
+            productTreeUnits[slot] = new long[nodes];
+            productTreeRevenue[slot] = new double[nodes];
+        }
+        for (int month = 0; month < monthCapacity; month++) {
+            Block block = blocks[month];
+            if (block == null) {
+                continue;
+            }
+            int node = month + 1;
+            for (int index = 0; index < ROWS_PER_BLOCK; index++) {
+                Row row = block.hours[index];
+                if (row != null) {
+                    hourTreeUnits[node * HOURS + index % HOURS] += row.totalUnits;
+                    hourTreeRevenue[node * HOURS + index % HOURS] += row.totalRevenue;
+                }
+            }
+            for (Row row : block.days) {
+                for (int i = 0; row != null && i < row.size; i++) {
+                    productTreeUnits[row.slots[i]][node] += row.units[i];
+                    productTreeRevenue[row.slots[i]][node] += row.revenue[i];
+                }
+            }
+        }
+        for (int node = 1; node <= monthCapacity; node++) {
+            int parent = node + (node & -node);
+            if (parent <= monthCapacity) {
+                for (int slot = 0; slot < productCount; slot++) {
+                    productTreeUnits[slot][parent] += productTreeUnits[slot][node];
+                    productTreeRevenue[slot][parent] += productTreeRevenue[slot][node];
+                }
+                for (int hour = 0; hour < HOURS; hour++) {
+                    hourTreeUnits[parent * HOURS + hour] += hourTreeUnits[node * HOURS + hour];
+                    hourTreeRevenue[parent * HOURS + hour] += hourTreeRevenue[node * HOURS + hour];
+                }
+            }
+        }
+    }
+    
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Tanggal tidak boleh null");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Tanggal awal tidak boleh setelah tanggal akhir");
+        }
+    }
+    
+    private static void checkHour(int hour) {
+        if (hour < 0 || hour >= HOURS) {
+            throw new IllegalArgumentException("Jam harus 0 sampai 23");
+        }
+    }
+    
+    /**
+     * Memecah rentang tanggal menjadi bulan penuh dan sisa hari di kedua ujung,
+     * setelah dipotong ke rentang bulan yang dialokasikan
+     */
+    private Span span(LocalDate from, LocalDate to) {
+        Span span = new Span();
+        if (empty) {
+            return span;
+        }
+        LocalDate windowStart = monthStart(firstMonth);
+        LocalDate windowEnd = monthStart(firstMonth + monthCapacity).minusDays(1);
+        if (to.isBefore(windowStart) || from.isAfter(windowEnd)) {
+            return span;
+        }
+        if (from.isBefore(windowStart)) {
+            from = windowStart;
+        }
+        if (to.isAfter(windowEnd)) {
+            to = windowEnd;
+        }
+        int lower = (int) (epochMonth(from) - firstMonth);
+        int upper = (int) (epochMonth(to) - firstMonth) + 1;
+        if (from.getDayOfMonth() != 1) {
+            LocalDate monthEnd = from.withDayOfMonth(from.lengthOfMonth());
+            span.headFrom = from;
+            span.headTo = to.isBefore(monthEnd) ? to : monthEnd;
+            lower++;
+        }
+        if (to.getDayOfMonth() != to.lengthOfMonth() && upper > lower) {
+            span.tailFrom = to.withDayOfMonth(1);
+            span.tailTo = to;
+            upper--;
+        }
+        span.lower = lower;
+        span.upper = Math.max(lower, upper);
+        return span;
+    }
+    
+    private static long rangeSum(long[] tree, int stride, int offset, int lower, int upper) {
+        long sum = 0;
+        for (int node = upper; node > 0; node -= node & -node) {
+            sum += tree[node * stride + offset];
+        }
+        for (int node = lower; node > 0; node -= node & -node) {
+            sum -= tree[node * stride + offset];
+        }
+        return sum;
+    }
+    
+    private static double rangeSum(double[] tree, int stride, int offset, int lower, int upper) {
+        double sum = 0;
+        for (int node = upper; node > 0; node -= node & -node) {
+            sum += tree[node * stride + offset];
+        }
+        for (int node = lower; node > 0; node -= node & -node) {
+            sum -= tree[node * stride + offset];
+        }
+        return sum;
+    }
+    
+    /**
+     * Menjumlahkan penjualan per jam dalam rentang
+     */
+    private void hourTotals(Span span, long[] units, double[] revenue) {
+        for (int hour = 0; hour < HOURS; hour++) {
+            units[hour] += rangeSum(hourTreeUnits, HOURS, hour, span.lower, span.upper);
+            revenue[hour] += rangeSum(hourTreeRevenue, HOURS, hour, span.lower, span.upper);
+        }
+        addDaysByHour(span.headFrom, span.headTo, units, revenue);
+        addDaysByHour(span.tailFrom, span.tailTo, units, revenue);
+    }
+    
+    private void addDaysByHour(LocalDate from, LocalDate to, long[] units, double[] revenue) {
+        Block block = from != null ? blocks[(int) (epochMonth(from) - firstMonth)] : null;
+        if (block == null) {
+            return;
+        }
+        for (int index = (from.getDayOfMonth() - 1) * HOURS; index < to.getDayOfMonth() * HOURS; index++) {
+            Row row = block.hours[index];
+            if (row != null) {
+                units[index % HOURS] += row.totalUnits;
+                revenue[index % HOURS] += row.totalRevenue;
+            }
+        }
+    }
+    
+    /**
+     * Menjumlahkan penjualan per slot produk dalam rentang
+     * @param onlySlot Slot yang dihitung, atau -1 untuk semua produk
+     */
+    private void productTotals(Span span, int onlySlot, long[] units, double[] revenue) {
+        int first = onlySlot >= 0 ? onlySlot : 0;
+        int last = onlySlot >= 0 ? onlySlot + 1 : productCount;
+        for (int slot = first; slot < last; slot++) {
+            units[slot] += rangeSum(productTreeUnits[slot], 1, 0, span.lower, span.upper);
+            revenue[slot] += rangeSum(productTreeRevenue[slot], 1, 0, span.lower, span.upper);
+        }
+        addDaysByProduct(span.headFrom, span.headTo, onlySlot, units, revenue);
+        addDaysByProduct(span.tailFrom, span.tailTo, onlySlot, units, revenue);
+    }
+    
+    private void addDaysByProduct(LocalDate from, LocalDate to, int onlySlot, long[] units, double[] revenue) {
+        Block block = from != null ? blocks[(int) (epochMonth(from) - firstMonth)] : null;
+        if (block == null) {
+            return;
+        }
+        for (int day = from.getDayOfMonth() - 1; day < to.getDayOfMonth(); day++) {
+            Row row = block.days[day];
+            if (row == null) {
+                continue;
+            }
+            if (onlySlot >= 0) {
+                int i = row.indexOf(onlySlot);
+                if (i >= 0) {
+                    units[onlySlot] += row.units[i];
+                    revenue[onlySlot] += row.revenue[i];
+                }
+                continue;
+            }
+            for (int i = 0; i < row.size; i++) {
+                units[row.slots[i]] += row.units[i];
+                revenue[row.slots[i]] += row.revenue[i];
+            }
+        }
+    }
+    
+    /**
+     * Mendapatkan total semua penjualan dalam rentang tanggal
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return Total unit dan pendapatan
+     * @throws IllegalArgumentException jika rentang tidak valid
+     */
+    public synchronized Cell getTotal(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        long[] units = new long[HOURS];
+        double[] revenue = new double[HOURS];
+        hourTotals(span(from, to), units, revenue);
+        long totalUnits = 0;
+        double totalRevenue = 0;
+        for (int hour = 0; hour < HOURS; hour++) {
+            totalUnits += units[hour];
+            totalRevenue += revenue[hour];
+        }
+        return new Cell(totalUnits, totalRevenue);
+    }
+    
+    /**
+     * Mendapatkan total penjualan satu produk dalam rentang tanggal
+     * @param productId ID produk
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return Total unit dan pendapatan, nol jika produk belum pernah terjual
+     * @throws IllegalArgumentException jika rentang tidak valid
+     */
+    public synchronized Cell getProductTotal(int productId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        int slot = slotOf(productId);
+        if (slot < 0) {
+            return new Cell(0, 0);
+        }
+        long[] units = new long[productCount];
+        double[] revenue = new double[productCount];
+        productTotals(span(from, to), slot, units, revenue);
+        return new Cell(units[slot], revenue[slot]);
+    }
+    
+    /**
+     * Mendapatkan total penjualan satu kategori dalam rentang tanggal
+     * @param kategori Kategori (sama persis dengan kategori produk)
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return Total unit dan pendapatan, nol jika kategori tidak dikenal
+     * @throws IllegalArgumentException jika rentang tidak valid
+     */
+    public synchronized Cell getCategoryTotal(String kategori, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        Integer category = categoryIndex.get(kategori);
+        if (category == null) {
+            return new Cell(0, 0);
+        }
+        long[] units = new long[productCount];
+        double[] revenue = new double[productCount];
+        productTotals(span(from, to), -1, units, revenue);
+        long totalUnits = 0;
+        double totalRevenue = 0;
+        for (int slot = 0; slot < productCount; slot++) {
+            if (productCategories[slot] == category) {
+                totalUnits += units[slot];
+                totalRevenue += revenue[slot];
+            }
+        }
+        return new Cell(totalUnits, totalRevenue);
+    }
+    
+    /**
+     * Mendapatkan total penjualan pada satu jam, untuk semua hari dalam rentang
+     * @param hour Jam 0 sampai 23
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return Total unit dan pendapatan
+     * @throws IllegalArgumentException jika jam atau rentang tidak valid
+     */
+    public synchronized Cell getHourTotal(int hour, LocalDate from, LocalDate to) {
+        checkHour(hour);
+        checkRange(from, to);
+        long[] units = new long[HOURS];
+        double[] revenue = new double[HOURS];
+        hourTotals(span(from, to), units, revenue);
+        return new Cell(units[hour], revenue[hour]);
+    }
+    
+    /**
+     * Mendapatkan satu sel kubus
+     * @param date Tanggal
+     * @param hour Jam 0 sampai 23
+     * @param productId ID produk
+     * @return Unit dan pendapatan produk pada jam tersebut
+     * @throws IllegalArgumentException jika tanggal null atau jam tidak valid
+     */
+    public synchronized Cell getCell(LocalDate date, int hour, int productId) {
+        if (date == null) {
+            throw new IllegalArgumentException("Tanggal tidak boleh null");
+        }
+        checkHour(hour);
+        long month = epochMonth(date) - firstMonth;
+        int slot = slotOf(productId);
+        if (empty || slot < 0 || month < 0 || month >= monthCapacity || blocks[(int) month] == null) {
+            return new Cell(0, 0);
+        }
+        Row row = blocks[(int) month].hours[(date.getDayOfMonth() - 1) * HOURS + hour];
+        int index = row != null ? row.indexOf(slot) : -1;
+        return index >= 0 ? new Cell(row.units[index], row.revenue[index]) : new Cell(0, 0);
+    }
+    
+    /**
+     * Roll-up per produk dalam rentang tanggal
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return Total per ID produk untuk produk yang terjual, sesuai urutan pertama kali terjual
+     * @throws IllegalArgumentException jika rentang tidak valid
+     */
+    public synchronized Map<Integer, Cell> rollUpByProduct(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        long[] units = new long[productCount];
+        double[] revenue = new double[productCount];
+        productTotals(span(from, to), -1, units, revenue);
+        Map<Integer, Cell> result = new LinkedHashMap<>();
+        for (int slot = 0; slot < productCount; slot++) {
+            if (units[slot] != 0) {
+                result.put(productIds[slot], new Cell(units[slot], revenue[slot]));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Roll-up per kategori dalam rentang tanggal
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return Total per kategori yang terjual, terurut berdasarkan nama kategori
+     * @throws IllegalArgumentException jika rentang tidak valid
+     */
+    public synchronized Map<String, Cell> rollUpByCategory(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        long[] productUnits = new long[productCount];
+        double[] productRevenue = new double[productCount];
+        productTotals(span(from, to), -1, productUnits, productRevenue);
+        long[] units = new long[categoryCount];
+        double[] revenue = new double[categoryCount];
+        for (int slot = 0; slot < productCount; slot++) {
+            units[productCategories[slot]] += productUnits[slot];
+            revenue[productCategories[slot]] += productRevenue[slot];
+        }
+        Map<String, Cell> result = new TreeMap<>();
+        for (int category = 0; category < categoryCount; category++) {
+            if (units[category] != 0) {
+                result.put(categoryNames[category], new Cell(units[category], revenue[category]));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Roll-up per jam dalam rentang tanggal
+     * @param from Tanggal awal (inklusif)
+     * @param to Tanggal akhir (inklusif)
+     * @return 24 total, indeks array adalah jam
+     * @throws IllegalArgumentException jika rentang tidak valid
+     */
+    public synchronized Cell[] rollUpByHour(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        long[] units = new long[HOURS];
+        double[] revenue = new double[HOURS];
+        hourTotals(span(from, to), units, revenue);
+        Cell[] result = new Cell[HOURS];
+        for (int hour = 0; hour < HOURS; hour++) {
+            result[hour] = new Cell(units[hour], revenue[hour]);
+        }
+        return result;
+    }
+    
+    /**
+     * Cek apakah kubus masih sesuai dengan data transaksi saat ini
+     * @param currentDatasetVersion Versi dataset saat ini
+     * @return true jika kubus dibuat dari versi dataset yang sama
+     */
+    public synchronized boolean isValidFor(long currentDatasetVersion) {
+        return datasetVersion >= 0 && datasetVersion == currentDatasetVersion;
+    }
+    
+    /**
+     * Encode kubus ke bentuk biner. Hanya baris jam dan sel yang terisi yang
+     * ditulis, total harian dan Fenwick tree dibangun ulang saat dibaca.
+     * @param currentDatasetVersion Versi dataset yang diwakili kubus
+     * @return Bytes kubus
+     * @throws IOException jika encode gagal
+     */
+    public synchronized byte[] toBytes(long currentDatasetVersion) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(currentDatasetVersion);
+        out.writeLong(firstMonth);
+        out.writeInt(empty ? 0 : monthCapacity);
+        out.writeInt(skipped.size());
+        for (Map.Entry<String, Integer> entry : skipped.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+        
+        out.writeInt(categoryCount);
+        for (int category = 0; category < categoryCount; category++) {
+            out.writeUTF(categoryNames[category]);
+        }
+        out.writeInt(productCount);
+        for (int slot = 0; slot < productCount; slot++) {
+            out.writeInt(productIds[slot]);
+            out.writeInt(productCategories[slot]);
+        }
+        
+        int rows = 0;
+        for (Block block : blocks) {
+            for (int index = 0; block != null && index < ROWS_PER_BLOCK; index++) {
+                if (block.hours[index] != null && block.hours[index].size > 0) {
+                    rows++;
+                }
+            }
+        }
+        out.writeInt(rows);
+        for (int month = 0; month < monthCapacity; month++) {
+            Block block = blocks[month];
+            for (int index = 0; block != null && index < ROWS_PER_BLOCK; index++) {
+                Row row = block.hours[index];
+                if (row == null || row.size == 0) {
+                    continue;
+                }
+                out.writeInt(month);
+                out.writeInt(index); // (hari - 1) * HOURS + jam
+                out.writeInt(row.size);
+                for (int i = 0; i < row.size; i++) {
+                    out.writeInt(row.slots[i]);
+                    out.writeInt(row.units[i]);
+                    out.writeDouble(row.revenue[i]);
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Decode kubus dari bentuk biner
+     * @param data Bytes kubus
+     * @return Kubus
+     * @throws IOException jika data bukan kubus yang valid atau versinya tidak didukung
+     */
+    public static SalesCube fromBytes(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        SalesCube cube = new SalesCube();
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Bukan data kubus penjualan");
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Versi kubus penjualan tidak didukung: " + version);
+            }
+            long datasetVersion = in.readLong();
+            long firstMonth = in.readLong();
+            int months = in.readInt();
+            if (months != 0 && (months < INITIAL_MONTHS || months > MAX_MONTHS || Integer.bitCount(months) != 1)) {
+                throw new IOException("Rentang bulan kubus tidak valid: " + months);
+            }
+            if (months != 0 && (firstMonth < MIN_MONTH - MAX_MONTHS
+                    || firstMonth + months > MAX_MONTH + MAX_MONTHS)) {
+                throw new IOException("Bulan awal kubus tidak valid: " + firstMonth);
+            }
+            int skippedKeys = readCount(in, data.length);
+            for (int i = 0; i < skippedKeys; i++) {
+                String key = in.readUTF();
+                int count = in.readInt();
+                if (count <= 0 || cube.skipped.put(key, count) != null) {
+                    throw new IOException("Transaksi kubus yang dilewati tidak valid: " + key);
+                }
+                cube.skippedTransactions += count;
+            }
+            
+            int categories = readCount(in, data.length);
+            for (int category = 0; category < categories; category++) {
+                cube.categoryFor(in.readUTF());
+            }
+            int products = readCount(in, data.length);
+            int width = INITIAL_PRODUCTS;
+            while (width < products) {
+                width *= 2;
+            }
+            cube.growProducts(width);
+            cube.rehashSlots(width * 2);
+            for (int slot = 0; slot < products; slot++) {
+                int id = in.readInt();
+                int category = in.readInt();
+                if (category < 0 || category >= categories || cube.slotOf(id) >= 0) {
+                    throw new IOException("Produk kubus tidak valid: " + id);
+                }
+                cube.productIds[slot] = id;
+                cube.productCategories[slot] = category;
+                cube.productCount = slot + 1;
+                int index = cube.hashSlot(id);
+                cube.slotKeys[index] = id;
+                cube.slotValues[index] = slot + 1;
+            }
+            
+            if (months > 0) {
+                cube.empty = false;
+                cube.firstMonth = firstMonth;
+                cube.monthCapacity = months;
+                cube.blocks = new Block[months];
+            }
+            int rows = readCount(in, data.length);
+            for (int i = 0; i < rows; i++) {
+                int month = in.readInt();
+                int index = in.readInt();
+                int size = in.readInt();
+                if (month < 0 || month >= cube.monthCapacity || index < 0 || index >= ROWS_PER_BLOCK
+                        || index / HOURS >= monthStart(firstMonth + month).lengthOfMonth()
+                        || size <= 0 || size > products) {
+                    throw new IOException("Baris kubus tidak valid");
+                }
+                Block block = cube.blocks[month];
+                if (block == null) {
+                    block = new Block();
+                    cube.blocks[month] = block;
+                }
+                if (block.hours[index] != null) {
+                    throw new IOException("Baris kubus ganda");
+                }
+                Row row = new Row(size);
+                Row dayRow = block.day(index / HOURS);
+                for (int cell = 0; cell < size; cell++) {
+                    int slot = in.readInt();
+                    int units = in.readInt();
+                    if (slot < 0 || slot >= products || (cell > 0 && slot <= row.slots[cell - 1]) || units <= 0) {
+                        throw new IOException("Sel kubus tidak valid");
+                    }
+                    double revenue = in.readDouble();
+                    row.slots[cell] = slot;
+                    row.units[cell] = units;
+                    row.revenue[cell] = revenue;
+                    row.totalUnits += units;
+                    row.totalRevenue += revenue;
+                    dayRow.add(slot, units, revenue);
+                }
+                row.size = size;
+                block.hours[index] = row;
+            }
+            cube.rebuildTrees();
+            cube.datasetVersion = datasetVersion;
+            return cube;
+        } catch (EOFException e) {
+            throw new IOException("Data kubus penjualan terpotong", e);
+        }
+    }
+    
+    private static int readCount(DataInputStream in, int limit) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > limit) {
+            throw new IOException("Jumlah elemen tidak valid: " + count);
+        }
+        return count;
+    }
+}
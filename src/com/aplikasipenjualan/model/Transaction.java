@@ -39,16 +39,17 @@ public class Transaction implements Serializable {
     public Transaction(String transactionId, LocalDateTime tanggal, List<Product> products) {
         this.transactionId = transactionId;
         this.tanggal = tanggal;
-        this.products = products != null ? new ArrayList<>(products) : new ArrayList<>();
+        this.products = internAll(products);
         calculateTotalHarga();
     }
     
     /**
-     * Generate ID transaksi otomatis
+     * Generate ID transaksi otomatis dengan {@link TransactionIdGenerator}, sehingga
+     * dua transaksi pada milidetik yang sama atau di terminal lain tetap berbeda
      * @return ID transaksi unik
      */
     private String generateTransactionId() {
-        return "TRX" + System.currentTimeMillis();
+        return TransactionIdGenerator.getDefault().nextTransactionId();
     }
     
     /**
@@ -96,7 +97,7 @@ public class Transaction implements Serializable {
      * @param products Daftar produk
      */
     public void setProducts(List<Product> products) {
-        this.products = products != null ? new ArrayList<>(products) : new ArrayList<>();
+        this.products = internAll(products);
         calculateTotalHarga();
     }
     
@@ -112,10 +113,23 @@ public class Transaction implements Serializable {
         if (!product.isValid()) {
             throw new IllegalArgumentException("Produk tidak valid");
         }
-        this.products.add(product);
+        this.products.add(ProductRegistry.intern(product));
         calculateTotalHarga();
     }
     
+    /**
+     * Menyalin daftar produk dengan instance kanonik dari {@link ProductRegistry}
+     */
+    private static List<Product> internAll(List<Product> products) {
+        List<Product> result = new ArrayList<>(products != null ? products.size() : 0);
+        if (products != null) {
+            for (Product product : products) {
+                result.add(ProductRegistry.intern(product));
+            }
+        }
+        return result;
+    }
+    
     /**
      * Menghapus produk dari transaksi
      * @param product Produk yang akan dihapus
@@ -0,0 +1,234 @@
+package com.aplikasipenjualan.model;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator ID transaksi gaya Snowflake. Setiap ID adalah long 63 bit:
+ * [41 bit milidetik sejak 2024-01-01 UTC][10 bit ID node/terminal][12 bit urutan].
+ * ID dari satu generator selalu naik, dan dua terminal dengan ID node berbeda
+ * tidak pernah menghasilkan ID yang sama.
+ * 
+ * ID node generator default diatur saat aplikasi dimulai (lihat
+ * {@link #setDefault}); ID node tidak pernah ditebak dari nama host atau
+ * proses karena dua terminal dapat bertabrakan dan membuat ID yang sama.
+ * 
+ * Generator bebas lock: waktu dan urutan terakhir disimpan dalam satu
+ * AtomicLong. Jika urutan dalam satu milidetik habis (lebih dari 4096 ID),
+ * waktu logis maju ke milidetik berikutnya tanpa menunggu jam; jam yang
+ * mundur juga tidak pernah menghasilkan ID yang lebih kecil.
+ * 
+ * Bentuk teksnya "TRX-" diikuti 13 digit base-36, sehingga urutan teks sama
+ * dengan urutan angkanya.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public final class TransactionIdGenerator {
+    
+    /** Awal waktu ID: 2024-01-01T00:00:00Z dalam epoch millis */
+    public static final long EPOCH = 1704067200000L;
+    /** ID node terbesar */
+    public static final int MAX_NODE_ID = (1 << 10) - 1;
+    /** Awalan bentuk teks ID */
+    public static final String PREFIX = "TRX-";
+    /** System property untuk ID node default */
+    public static final String NODE_PROPERTY = "aplikasipenjualan.node";
+    
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TIMESTAMP = (1L << 41) - 1;
+    private static final int TEXT_DIGITS = 13;
+    private static final int RADIX = 36;
+    
+    private static volatile TransactionIdGenerator defaultGenerator;
+    
+    private final int nodeId;
+    // (milidetik sejak EPOCH << SEQUENCE_BITS) | urutan, untuk ID terakhir
+    private final AtomicLong state = new AtomicLong(-1);
+    
+    /**
+     * Constructor
+     * @param nodeId ID terminal, 0 sampai {@link #MAX_NODE_ID}
+     * @throws IllegalArgumentException jika nodeId di luar rentang
+     */
+    public TransactionIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("ID node harus 0 sampai " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+    
+    /**
+     * Mendapatkan generator default. Aplikasi mengaturnya saat dimulai dengan
+     * ID node terminal yang tersimpan (lihat DataLoader#loadNodeId). Jika
+     * belum diatur, ID node diambil dari system property {@value #NODE_PROPERTY},
+     * atau dipilih acak untuk proses ini saja.
+     * @return Generator bersama untuk aplikasi ini
+     * @throws IllegalArgumentException jika system property bukan ID node yang valid
+     */
+    public static TransactionIdGenerator getDefault() {
+        TransactionIdGenerator generator = defaultGenerator;
+        if (generator == null) {
+            synchronized (TransactionIdGenerator.class) {
+                if (defaultGenerator == null) {
+                    int configured = configuredNodeId();
+                    defaultGenerator = new TransactionIdGenerator(configured >= 0 ? configured : randomNodeId());
+                }
+                generator = defaultGenerator;
+            }
+        }
+        return generator;
+    }
+    
+    /**
+     * Mengganti generator default, dipanggil saat aplikasi dimulai sebelum
+     * transaksi baru dibuat
+     * @param generator Generator dengan ID node terminal ini
+     */
+    public static void setDefault(TransactionIdGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("Generator tidak boleh null");
+        }
+        defaultGenerator = generator;
+    }
+    
+    /**
+     * Membaca ID node dari system property {@value #NODE_PROPERTY}
+     * @return ID node, atau -1 jika property tidak diisi
+     * @throws IllegalArgumentException jika nilai property bukan ID node yang valid
+     */
+    public static int configuredNodeId() {
+        String configured = System.getProperty(NODE_PROPERTY);
+        if (configured == null) {
+            return -1;
+        }
+        try {
+            return parseNodeId(configured);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("System property " + NODE_PROPERTY + " tidak valid: "
+                                               + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Mengubah teks menjadi ID node
+     * @param value Teks angka 0 sampai {@link #MAX_NODE_ID}
+     * @return ID node
+     * @throws IllegalArgumentException jika teks bukan ID node yang valid
+     */
+    public static int parseNodeId(String value) {
+        String text = value != null ? value.trim() : "";
+        int nodeId = -1;
+        try {
+            nodeId = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            // Dilaporkan di bawah
+        }
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("ID node harus angka 0 sampai " + MAX_NODE_ID + ": " + text);
+        }
+        return nodeId;
+    }
+    
+    /**
+     * Memilih ID node acak untuk terminal baru
+     * @return ID node 0 sampai {@link #MAX_NODE_ID}
+     */
+    public static int randomNodeId() {
+        return new SecureRandom().nextInt(MAX_NODE_ID + 1);
+    }
+    
+    /**
+     * Menghasilkan ID berikutnya
+     * @return ID transaksi sebagai long positif
+     * @throws IllegalStateException jika rentang waktu ID sudah habis
+     */
+    public long nextId() {
+        final long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long next = state.updateAndGet(last -> Math.max(now, last + 1));
+        long timestamp = next >>> SEQUENCE_BITS;
+        if (timestamp > MAX_TIMESTAMP) {
+            throw new IllegalStateException("Rentang waktu ID transaksi sudah habis");
+        }
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS)
+               | (next & SEQUENCE_MASK);
+    }
+    
+    /**
+     * Menghasilkan ID berikutnya dalam bentuk teks
+     * @return ID transaksi, misalnya TRX-0A1B2C3D4E5F6
+     */
+    public String nextTransactionId() {
+        return format(nextId());
+    }
+    
+    /**
+     * Getter untuk ID node
+     * @return ID node
+     */
+    public int getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * Mengubah ID ke bentuk teks dengan lebar tetap
+     * @param id ID transaksi
+     * @return Teks ID
+     * @throws IllegalArgumentException jika id negatif
+     */
+    public static String format(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID transaksi tidak boleh negatif");
+        }
+        char[] text = new char[PREFIX.length() + TEXT_DIGITS];
+        PREFIX.getChars(0, PREFIX.length(), text, 0);
+        for (int i = text.length - 1; i >= PREFIX.length(); i--) {
+            text[i] = Character.toUpperCase(Character.forDigit((int) (id % RADIX), RADIX));
+            id /= RADIX;
+        }
+        return new String(text);
+    }
+    
+    /**
+     * Mengubah teks ID kembali ke long
+     * @param transactionId Teks ID
+     * @return ID transaksi, atau -1 jika teks bukan ID dari generator ini
+     *         (misalnya ID lama TRX&lt;millis&gt; atau ID hasil import)
+     */
+    public static long parse(String transactionId) {
+        if (transactionId == null || transactionId.length() != PREFIX.length() + TEXT_DIGITS
+                || !transactionId.startsWith(PREFIX)) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < transactionId.length(); i++) {
+            char c = transactionId.charAt(i);
+            int digit = Character.digit(c, RADIX);
+            if (digit < 0 || Character.isLowerCase(c) || id > (Long.MAX_VALUE - digit) / RADIX) {
+                return -1;
+            }
+            id = id * RADIX + digit;
+        }
+        return id;
+    }
+    
+    /**
+     * Mendapatkan waktu pembuatan ID
+     * @param id ID transaksi
+     * @return Epoch millis
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+    
+    /**
+     * Mendapatkan ID node pembuat ID
+     * @param id ID transaksi
+     * @return ID node
+     */
+    public static int nodeOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,418 @@
+package com.aplikasipenjualan.util;
+
+import com.aplikasipenjualan.model.BasketSource;
+import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.Transaction;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Penyimpanan keranjang belanja berbasis segmen file yang di-memory-map.
+ * 
+ * Setiap segmen berisi header (magic + versi) lalu deretan record
+ * [jumlah item int][ID produk int...] dengan ID terurut dan unik. Pemindaian
+ * membaca langsung dari {@link MappedByteBuffer} sehingga tidak ada objek
+ * Transaction atau Product yang dibuat dan data tidak harus muat di heap.
+ * 
+ * Nama segmen memuat nomor generasi. Rebuild menulis generasi baru lalu
+ * menghapus generasi lama, sehingga segmen yang masih di-map tidak perlu
+ * dipotong atau ditimpa.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class BasketStore implements BasketSource, Closeable {
+    
+    private static final Logger LOGGER = Logger.getLogger(BasketStore.class.getName());
+    
+    /** Magic number "APBS" di awal segmen */
+    public static final int MAGIC = 0x41504253;
+    /** Versi format segmen */
+    public static final int VERSION = 1;
+    /** Ukuran header segmen dalam bytes */
+    public static final int HEADER_SIZE = 8;
+    /** Ukuran maksimum default satu segmen */
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+    
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)-(\\d+)\\.bin");
+    
+    private final File directory;
+    private final long segmentSize;
+    private final List<Segment> segments;
+    private FileChannel activeChannel;
+    private int generation;
+    private int basketCount;
+    
+    /**
+     * Satu file segmen beserta mapping terakhirnya
+     */
+    private static final class Segment {
+        private final File file;
+        private long size;
+        private int basketCount;
+        private MappedByteBuffer mapped;
+        
+        private Segment(File file) {
+            this.file = file;
+        }
+    }
+    
+    /**
+     * Constructor dengan ukuran segmen default
+     * @param directory Direktori segmen
+     * @throws IOException jika segmen tidak dapat dibuka
+     */
+    public BasketStore(File directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+    
+    /**
+     * Constructor - membuka segmen generasi terbaru dan memulihkan ekor yang terpotong
+     * @param directory Direktori segmen
+     * @param segmentSize Ukuran maksimum satu segmen dalam bytes
+     * @throws IOException jika segmen tidak dapat dibuka
+     * @throws IllegalArgumentException jika parameter tidak valid
+     */
+    public BasketStore(File directory, long segmentSize) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Direktori tidak boleh null");
+        }
+        if (segmentSize < HEADER_SIZE + 8 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Ukuran segmen tidak valid: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.segments = new ArrayList<>();
+        
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Gagal membuat direktori: " + directory);
+        }
+        open();
+    }
+    
+    /**
+     * Membuka semua segmen generasi terbaru
+     */
+    private void open() throws IOException {
+        File[] files = directory.listFiles();
+        int[] indexCounts = new int[0];
+        generation = 0;
+        if (files != null) {
+            for (File file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+                if (matcher.matches()) {
+                    generation = Math.max(generation, Integer.parseInt(matcher.group(1)));
+                }
+            }
+            deleteOlderGenerations(files);
+            for (File file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+                if (matcher.matches() && Integer.parseInt(matcher.group(1)) == generation) {
+                    int index = Integer.parseInt(matcher.group(2));
+                    indexCounts = Arrays.copyOf(indexCounts, Math.max(indexCounts.length, index + 1));
+                    indexCounts[index]++;
+                }
+            }
+        }
+        
+        // Segmen harus bernomor berurutan dari 0
+        for (int index = 0; index < indexCounts.length && indexCounts[index] > 0; index++) {
+            Segment segment = new Segment(segmentFile(generation, index));
+            recoverSegment(segment);
+            segments.add(segment);
+            basketCount += segment.basketCount;
+        }
+        if (segments.isEmpty()) {
+            segments.add(createSegment(generation, 0));
+        }
+        openActiveChannel();
+    }
+    
+    /**
+     * Membaca ulang record segmen dan memotong record terakhir yang tidak lengkap
+     */
+    private void recoverSegment(Segment segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.file.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                writeHeader(channel);
+                segment.size = HEADER_SIZE;
+                return;
+            }
+            
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Bukan segmen keranjang yang valid: " + segment.file);
+            }
+            
+            long position = HEADER_SIZE;
+            int baskets = 0;
+            while (position + 4 <= fileSize) {
+                int length = buffer.getInt((int) position);
+                long next = position + 4 + 4L * length;
+                if (length < 0 || next > fileSize) {
+                    break;
+                }
+                position = next;
+                baskets++;
+            }
+            
+            if (position != fileSize) {
+                LOGGER.warning(String.format("Segmen %s terpotong, %d bytes dibuang",
+                               segment.file.getName(), fileSize - position));
+                channel.truncate(position);
+            }
+            segment.size = position;
+            segment.basketCount = baskets;
+        }
+    }
+    
+    /**
+     * Membuat file segmen baru berisi header saja
+     */
+    private Segment createSegment(int segmentGeneration, int index) throws IOException {
+        Segment segment = new Segment(segmentFile(segmentGeneration, index));
+        try (FileChannel channel = FileChannel.open(segment.file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(channel);
+        }
+        segment.size = HEADER_SIZE;
+        return segment;
+    }
+    
+    private void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        channel.truncate(0);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+    
+    private void openActiveChannel() throws IOException {
+        Segment active = segments.get(segments.size() - 1);
+        activeChannel = FileChannel.open(active.file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+    
+    private File segmentFile(int segmentGeneration, int index) {
+        return new File(directory, String.format("segment-%d-%05d.bin", segmentGeneration, index));
+    }
+    
+    /**
+     * Menghapus segmen dari generasi lama (best-effort, file yang masih di-map
+     * pada beberapa sistem operasi baru dapat dihapus setelah mapping dilepas)
+     */
+    private void deleteOlderGenerations(File[] files) {
+        for (File file : files) {
+            Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+            if (matcher.matches() && Integer.parseInt(matcher.group(1)) < generation && !file.delete()) {
+                LOGGER.fine("Segmen lama belum dapat dihapus: " + file.getName());
+            }
+        }
+    }
+    
+    /**
+     * Mendapatkan keranjang (ID produk unik dan terurut) dari transaksi
+     * @param transaction Transaksi
+     * @return Array ID produk
+     */
+    public static int[] basketOf(Transaction transaction) {
+        List<Product> products = transaction.getProducts();
+        int[] ids = new int[products.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = products.get(i).getId();
+        }
+        return normalize(ids);
+    }
+    
+    /**
+     * Mengurutkan dan membuang ID duplikat
+     */
+    private static int[] normalize(int[] ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] < 0) {
+                throw new IllegalArgumentException("ID produk tidak boleh negatif: " + sorted[i]);
+            }
+            if (size == 0 || sorted[size - 1] != sorted[i]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+    
+    /**
+     * Menambahkan keranjang dari transaksi
+     * @param transaction Transaksi
+     * @throws IOException jika gagal menulis
+     */
+    public void append(Transaction transaction) throws IOException {
+        append(basketOf(transaction));
+    }
+    
+    /**
+     * Menambahkan satu keranjang di akhir segmen aktif. Segmen baru dibuat
+     * jika segmen aktif sudah penuh.
+     * @param productIds ID produk (akan diurutkan dan dibuat unik)
+     * @throws IOException jika gagal menulis
+     * @throws IllegalArgumentException jika ada ID negatif atau keranjang terlalu besar
+     */
+    public synchronized void append(int[] productIds) throws IOException {
+        int[] ids = normalize(productIds);
+        long recordSize = 4L * (ids.length + 1);
+        if (HEADER_SIZE + recordSize > segmentSize) {
+            throw new IllegalArgumentException("Keranjang terlalu besar untuk satu segmen");
+        }
+        
+        Segment active = segments.get(segments.size() - 1);
+        if (active.size + recordSize > segmentSize) {
+            activeChannel.force(false);
+            activeChannel.close();
+            active = createSegment(generation, segments.size());
+            segments.add(active);
+            openActiveChannel();
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate((int) recordSize);
+        buffer.putInt(ids.length);
+        for (int id : ids) {
+            buffer.putInt(id);
+        }
+        buffer.flip();
+        long position = active.size;
+        while (buffer.hasRemaining()) {
+            position += activeChannel.write(buffer, position);
+        }
+        active.size = position;
+        active.basketCount++;
+        basketCount++;
+    }
+    
+    /**
+     * Menulis ulang seluruh isi store dari transaksi ke generasi segmen baru.
+     * Transaksi cukup dapat diiterasi, misalnya dibaca bertahap dari repository.
+     * @param transactions Transaksi sumber
+     * @throws IOException jika gagal menulis
+     */
+    public synchronized void rebuild(Iterable<Transaction> transactions) throws IOException {
+        if (transactions == null) {
+            throw new IllegalArgumentException("Daftar transaksi tidak boleh null");
+        }
+        activeChannel.close();
+        segments.clear();
+        basketCount = 0;
+        generation++;
+        
+        segments.add(createSegment(generation, 0));
+        openActiveChannel();
+        for (Transaction transaction : transactions) {
+            append(transaction);
+        }
+        activeChannel.force(false);
+        
+        File[] files = directory.listFiles();
+        if (files != null) {
+            deleteOlderGenerations(files);
+        }
+        LOGGER.info("Basket store dibangun ulang: " + basketCount + " keranjang");
+    }
+    
+    @Override
+    public synchronized int getBasketCount() {
+        return basketCount;
+    }
+    
+    /**
+     * Memindai semua keranjang langsung dari buffer yang di-map. Keranjang yang
+     * ditambahkan selama pemindaian tidak ikut dipindai.
+     * @param visitor Callback untuk setiap keranjang
+     * @throws UncheckedIOException jika segmen gagal di-map
+     */
+    @Override
+    public void forEachBasket(BasketVisitor visitor) {
+        List<Segment> snapshot;
+        List<Long> sizes = new ArrayList<>();
+        synchronized (this) {
+            snapshot = new ArrayList<>(segments);
+            for (Segment segment : snapshot) {
+                sizes.add(segment.size);
+            }
+        }
+        
+        for (int s = 0; s < snapshot.size(); s++) {
+            IntBuffer items = map(snapshot.get(s), sizes.get(s)).asIntBuffer();
+            int end = (int) (sizes.get(s) / 4);
+            int position = HEADER_SIZE / 4;
+            while (position < end) {
+                int length = items.get(position);
+                visitor.visit(items, position + 1, length);
+                position += 1 + length;
+            }
+        }
+    }
+    
+    /**
+     * Mendapatkan mapping read-only segmen yang mencakup minimal size bytes
+     */
+    private MappedByteBuffer map(Segment segment, long size) {
+        synchronized (segment) {
+            if (segment.mapped == null || segment.mapped.capacity() < size) {
+                try (FileChannel channel = FileChannel.open(segment.file.toPath(), StandardOpenOption.READ)) {
+                    segment.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Gagal memetakan segmen: " + segment.file, e);
+                }
+            }
+            return segment.mapped;
+        }
+    }
+    
+    /**
+     * Mendapatkan jumlah segmen
+     * @return Jumlah segmen generasi aktif
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+    
+    /**
+     * Mendapatkan total ukuran data semua segmen
+     * @return Ukuran dalam bytes
+     */
+    public synchronized long getSizeInBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.size;
+        }
+        return total;
+    }
+    
+    /**
+     * Memaksa data segmen aktif ke disk
+     * @throws IOException jika gagal sinkronisasi
+     */
+    public synchronized void sync() throws IOException {
+        activeChannel.force(false);
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (activeChannel.isOpen()) {
+            activeChannel.force(false);
+            activeChannel.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.aplikasipenjualan.util;
+
+import com.aplikasipenjualan.model.BasketSource;
+import com.aplikasipenjualan.model.Transaction;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Keranjang belanja untuk satu rentang tanggal, disimpan di heap dengan
+ * layout yang sama seperti record {@link BasketStore}: [jumlah item][ID produk...].
+ * Dipakai untuk mining per periode, sehingga hanya transaksi dalam rentang
+ * (dan hanya segmen bulan yang bersangkutan) yang dibaca.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class BasketWindow implements BasketSource {
+    
+    private final int[] items;
+    private final int size;
+    private final int basketCount;
+    
+    /**
+     * Constructor - membangun keranjang dari transaksi dalam rentang
+     * @param transactions Transaksi dalam rentang tanggal
+     */
+    public BasketWindow(Iterable<Transaction> transactions) {
+        if (transactions == null) {
+            throw new IllegalArgumentException("Daftar transaksi tidak boleh null");
+        }
+        int[] buffer = new int[1024];
+        int used = 0;
+        int count = 0;
+        for (Transaction transaction : transactions) {
+            int[] basket = BasketStore.basketOf(transaction);
+            if (used + 1 + basket.length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, used + 1 + basket.length));
+            }
+            buffer[used++] = basket.length;
+            System.arraycopy(basket, 0, buffer, used, basket.length);
+            used += basket.length;
+            count++;
+        }
+        this.items = buffer;
+        this.size = used;
+        this.basketCount = count;
+    }
+    
+    @Override
+    public int getBasketCount() {
+        return basketCount;
+    }
+    
+    @Override
+    public void forEachBasket(BasketVisitor visitor) {
+        IntBuffer buffer = IntBuffer.wrap(items, 0, size).asReadOnlyBuffer();
+        int position = 0;
+        while (position < size) {
+            int length = items[position];
+            visitor.visit(buffer, position + 1, length);
+            position += 1 + length;
+        }
+    }
+}
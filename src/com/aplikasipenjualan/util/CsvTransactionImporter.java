@@ -0,0 +1,517 @@
+package com.aplikasipenjualan.util;
+
+import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.ProductRegistry;
+import com.aplikasipenjualan.model.Transaction;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Import riwayat transaksi dari file CSV/TSV berukuran besar secara streaming.
+ * 
+ * File dibaca baris per baris dan dikelompokkan menjadi chunk. Setiap chunk
+ * di-parse paralel oleh thread pool, lalu hasilnya ditulis ke penyimpanan
+ * transaksi sebagai batch sesuai urutan file. Jumlah chunk dan batch yang
+ * sedang diproses dibatasi, sehingga memori yang dipakai tidak bergantung
+ * pada ukuran file.
+ * 
+ * Format yang didukung sama dengan hasil {@link DataLoader#exportTransactionsToCSV}:
+ * baris header, lalu per baris ID transaksi, tanggal, dan daftar produk yang
+ * dipisahkan ';'. Kolom dicari dari nama header (ID/Transaction ID, Tanggal/Date,
+ * Produk/Products); delimiter tab dipakai jika header mengandung tab dan file
+ * berakhiran .gz didekompres dengan gzip. Produk
+ * ditulis sebagai nama atau ID dan dicocokkan dengan katalog; baris dengan
+ * produk yang tidak dikenal ditolak. Import tidak memeriksa duplikasi ID
+ * terhadap transaksi yang sudah ada.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class CsvTransactionImporter {
+    
+    private static final Logger LOGGER = Logger.getLogger(CsvTransactionImporter.class.getName());
+    
+    /** Jumlah baris per chunk parsing dan per batch penulisan */
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+    /** Jumlah contoh baris ditolak yang disimpan di laporan */
+    public static final int MAX_REJECTED_SAMPLES = 20;
+    
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final DateTimeFormatter EXPORT_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private static final DateTimeFormatter ISO_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd[ ]['T']HH:mm[:ss]");
+    
+    private final Map<Integer, Product> productsById;
+    private final Map<String, Product> productsByName;
+    private final int threads;
+    private final int chunkSize;
+    
+    /**
+     * Penulis batch transaksi hasil parsing
+     */
+    public interface BatchWriter {
+        /**
+         * Menulis satu batch transaksi
+         * @param batch Transaksi dalam urutan file
+         * @return Future yang selesai setelah batch tersimpan
+         */
+        CompletableFuture<Void> write(List<Transaction> batch);
+    }
+    
+    /**
+     * Constructor
+     * @param catalog Produk yang dapat direferensikan dengan nama atau ID
+     * @param threads Jumlah thread parsing
+     * @param chunkSize Jumlah baris per chunk
+     * @throws IllegalArgumentException jika parameter tidak valid
+     */
+    public CsvTransactionImporter(Collection<Product> catalog, int threads, int chunkSize) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Katalog produk tidak boleh null");
+        }
+        if (threads <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Jumlah thread dan ukuran chunk harus lebih dari 0");
+        }
+        this.productsById = new HashMap<>();
+        this.productsByName = new HashMap<>();
+        for (Product product : catalog) {
+            Product canonical = ProductRegistry.intern(product);
+            productsById.putIfAbsent(canonical.getId(), canonical);
+            productsByName.putIfAbsent(canonical.getNama().trim().toLowerCase(), canonical);
+        }
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Constructor dengan jumlah thread sesuai jumlah prosesor
+     * @param catalog Produk yang dapat direferensikan dengan nama atau ID
+     */
+    public CsvTransactionImporter(Collection<Product> catalog) {
+        this(catalog, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * Import file ke penyimpanan transaksi
+     * @param file File CSV atau TSV (UTF-8)
+     * @param writer Penulis batch
+     * @return Laporan import
+     * @throws IOException jika file gagal dibaca atau batch gagal ditulis
+     */
+    public Report importFile(File file, BatchWriter writer) throws IOException {
+        if (file == null || writer == null) {
+            throw new IllegalArgumentException("File dan penulis tidak boleh null");
+        }
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new ParserThreadFactory());
+        Deque<Future<Chunk>> parsing = new ArrayDeque<>();
+        Deque<CompletableFuture<Void>> writing = new ArrayDeque<>();
+        Report report = new Report(file.length());
+        
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(open(file), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return report.finish(start);
+            }
+            if (header.startsWith("\uFEFF")) {
+                header = header.substring(1);
+            }
+            Layout layout = Layout.fromHeader(header);
+            long lineNumber = 1;
+            if (!layout.hasHeader) {
+                parsing.add(pool.submit(new ParseTask(layout, lineNumber, new String[] {header})));
+            }
+            
+            String[] lines = new String[chunkSize];
+            int count = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines[count++] = line;
+                if (count == chunkSize) {
+                    parsing.add(pool.submit(new ParseTask(layout, lineNumber + 1, lines)));
+                    lineNumber += count;
+                    lines = new String[chunkSize];
+                    count = 0;
+                    // Batasi chunk yang menunggu agar pembacaan tidak mendahului penulisan terlalu jauh
+                    while (parsing.size() >= threads * 2) {
+                        drain(parsing.poll(), writer, writing, report);
+                    }
+                }
+            }
+            if (count > 0) {
+                parsing.add(pool.submit(new ParseTask(layout, lineNumber + 1, Arrays.copyOf(lines, count))));
+            }
+            while (!parsing.isEmpty()) {
+                drain(parsing.poll(), writer, writing, report);
+            }
+            while (!writing.isEmpty()) {
+                await(writing.poll());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        report.finish(start);
+        LOGGER.info("Import " + file + " selesai: " + report);
+        return report;
+    }
+    
+    /**
+     * Membuka file, didekompres jika berakhiran .gz (hasil export dengan gzip)
+     */
+    private static InputStream open(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            return file.getName().endsWith(".gz") ? new GZIPInputStream(in, READ_BUFFER_SIZE) : in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Mengambil hasil parsing satu chunk, lalu menulis transaksinya. Paling
+     * banyak dua batch menunggu ditulis agar transaksi yang tertahan di memori terbatas.
+     */
+    private void drain(Future<Chunk> future, BatchWriter writer, Deque<CompletableFuture<Void>> writing,
+                       Report report) throws IOException {
+        Chunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import dibatalkan");
+        } catch (ExecutionException e) {
+            throw new IOException("Gagal mem-parse file import", e.getCause());
+        }
+        report.add(chunk);
+        if (!chunk.transactions.isEmpty()) {
+            writing.add(writer.write(chunk.transactions));
+            while (writing.size() > 2) {
+                await(writing.poll());
+            }
+        }
+    }
+    
+    private static void await(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import dibatalkan");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Gagal menyimpan transaksi import", cause);
+        }
+    }
+    
+    /**
+     * Posisi kolom dan delimiter file
+     */
+    private static final class Layout {
+        private final char delimiter;
+        private final boolean hasHeader;
+        private final int idColumn;
+        private final int dateColumn;
+        private final int productsColumn;
+        
+        private Layout(char delimiter, boolean hasHeader, int idColumn, int dateColumn, int productsColumn) {
+            this.delimiter = delimiter;
+            this.hasHeader = hasHeader;
+            this.idColumn = idColumn;
+            this.dateColumn = dateColumn;
+            this.productsColumn = productsColumn;
+        }
+        
+        /**
+         * Menentukan layout dari baris pertama. Tanpa header yang dikenali,
+         * dipakai urutan kolom hasil export.
+         */
+        static Layout fromHeader(String header) {
+            char delimiter = header.indexOf('\t') >= 0 ? '\t' : ',';
+            List<String> columns = new ArrayList<>();
+            if (!splitFields(header, delimiter, columns)) {
+                return new Layout(delimiter, false, 0, 1, 4);
+            }
+            int id = -1;
+            int date = -1;
+            int products = -1;
+            for (int i = 0; i < columns.size(); i++) {
+                String name = columns.get(i).trim().toLowerCase();
+                if (id < 0 && (name.equals("id") || name.equals("transaction id") || name.equals("id transaksi"))) {
+                    id = i;
+                } else if (date < 0 && (name.equals("tanggal") || name.equals("date"))) {
+                    date = i;
+                } else if (products < 0 && (name.equals("produk") || name.equals("products"))) {
+                    products = i;
+                }
+            }
+            if (id < 0 || date < 0 || products < 0) {
+                return new Layout(delimiter, false, 0, 1, columns.size() > 4 ? 4 : 2);
+            }
+            return new Layout(delimiter, true, id, date, products);
+        }
+    }
+    
+    /**
+     * Hasil parsing satu chunk
+     */
+    private static final class Chunk {
+        private final List<Transaction> transactions = new ArrayList<>();
+        private final List<String> rejectedSamples = new ArrayList<>();
+        private int lines;
+        private int rejected;
+    }
+    
+    /**
+     * Parsing satu chunk baris di thread pool
+     */
+    private final class ParseTask implements Callable<Chunk> {
+        private final Layout layout;
+        private final long firstLine;
+        private final String[] lines;
+        
+        ParseTask(Layout layout, long firstLine, String[] lines) {
+            this.layout = layout;
+            this.firstLine = firstLine;
+            this.lines = lines;
+        }
+        
+        @Override
+        public Chunk call() {
+            Chunk chunk = new Chunk();
+            List<String> fields = new ArrayList<>();
+            for (int i = 0; i < lines.length; i++) {
+                String line = lines[i];
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                chunk.lines++;
+                String error = parseLine(line, fields, chunk.transactions);
+                if (error != null) {
+                    chunk.rejected++;
+                    if (chunk.rejectedSamples.size() < MAX_REJECTED_SAMPLES) {
+                        chunk.rejectedSamples.add("Baris " + (firstLine + i) + ": " + error);
+                    }
+                }
+            }
+            return chunk;
+        }
+        
+        /**
+         * Parsing satu baris
+         * @return null jika berhasil, atau alasan penolakan
+         */
+        private String parseLine(String line, List<String> fields, List<Transaction> out) {
+            fields.clear();
+            if (!splitFields(line, layout.delimiter, fields)) {
+                return "tanda kutip tidak ditutup";
+            }
+            int required = Math.max(layout.idColumn, Math.max(layout.dateColumn, layout.productsColumn));
+            if (fields.size() <= required) {
+                return "jumlah kolom kurang (" + fields.size() + ")";
+            }
+            String id = fields.get(layout.idColumn).trim();
+            if (id.isEmpty()) {
+                return "ID transaksi kosong";
+            }
+            LocalDateTime tanggal = parseDate(fields.get(layout.dateColumn).trim());
+            if (tanggal == null) {
+                return "tanggal tidak valid: " + fields.get(layout.dateColumn);
+            }
+            
+            List<Product> products = new ArrayList<>();
+            String items = fields.get(layout.productsColumn);
+            int from = 0;
+            while (from <= items.length()) {
+                int end = items.indexOf(';', from);
+                if (end < 0) {
+                    end = items.length();
+                }
+                String token = items.substring(from, end).trim();
+                if (!token.isEmpty()) {
+                    Product product = resolve(token);
+                    if (product == null) {
+                        return "produk tidak dikenal: " + token;
+                    }
+                    products.add(product);
+                }
+                from = end + 1;
+            }
+            if (products.isEmpty()) {
+                return "transaksi tanpa produk";
+            }
+            out.add(new Transaction(id, tanggal, products));
+            return null;
+        }
+    }
+    
+    /**
+     * Mencari produk dari ID (jika token berupa angka) atau nama
+     */
+    private Product resolve(String token) {
+        boolean numeric = token.length() <= 9;
+        for (int i = 0; i < token.length() && numeric; i++) {
+            numeric = Character.isDigit(token.charAt(i));
+        }
+        if (numeric) {
+            Product product = productsById.get(Integer.parseInt(token));
+            if (product != null) {
+                return product;
+            }
+        }
+        return productsByName.get(token.toLowerCase());
+    }
+    
+    /**
+     * Parsing tanggal format export (dd/MM/yyyy HH:mm:ss) atau ISO
+     * (yyyy-MM-dd, yyyy-MM-dd HH:mm[:ss], yyyy-MM-ddTHH:mm[:ss])
+     */
+    private static LocalDateTime parseDate(String value) {
+        try {
+            if (value.length() > 2 && value.charAt(2) == '/') {
+                return LocalDateTime.parse(value, EXPORT_DATE);
+            }
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            return LocalDateTime.parse(value, ISO_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Memecah satu baris menjadi field. Field boleh diapit tanda kutip ganda
+     * dengan "" sebagai kutip di dalamnya.
+     * @return false jika tanda kutip tidak ditutup
+     */
+    static boolean splitFields(String line, char delimiter, List<String> fields) {
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return !quoted;
+    }
+    
+    /**
+     * Thread parsing bertipe daemon agar tidak menahan JVM saat keluar
+     */
+    private static final class ParserThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "csv-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+    
+    /**
+     * Laporan hasil import
+     */
+    public static final class Report {
+        private final long fileSize;
+        private final List<String> rejectedSamples = new ArrayList<>();
+        private long lines;
+        private long imported;
+        private long rejected;
+        private long elapsedMillis;
+        
+        private Report(long fileSize) {
+            this.fileSize = fileSize;
+        }
+        
+        private void add(Chunk chunk) {
+            lines += chunk.lines;
+            imported += chunk.transactions.size();
+            rejected += chunk.rejected;
+            for (String sample : chunk.rejectedSamples) {
+                if (rejectedSamples.size() < MAX_REJECTED_SAMPLES) {
+                    rejectedSamples.add(sample);
+                }
+            }
+        }
+        
+        private Report finish(long startNanos) {
+            elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+            return this;
+        }
+        
+        /** @return Jumlah baris data yang dibaca */
+        public long getLines() {
+            return lines;
+        }
+        
+        /** @return Jumlah transaksi yang berhasil diimport */
+        public long getImported() {
+            return imported;
+        }
+        
+        /** @return Jumlah baris yang ditolak */
+        public long getRejected() {
+            return rejected;
+        }
+        
+        /** @return Contoh baris yang ditolak beserta alasannya */
+        public List<String> getRejectedSamples() {
+            return Collections.unmodifiableList(rejectedSamples);
+        }
+        
+        /** @return Lama import dalam milidetik */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+        
+        /** @return Throughput dalam baris per detik */
+        public double getRowsPerSecond() {
+            return lines * 1000.0 / elapsedMillis;
+        }
+        
+        /** @return Throughput dalam MB per detik */
+        public double getMegabytesPerSecond() {
+            return fileSize / (1024.0 * 1024.0) * 1000.0 / elapsedMillis;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d baris, %d diimport, %d ditolak, %d ms (%.0f baris/detik, %.1f MB/detik)",
+                                 lines, imported, rejected, elapsedMillis,
+                                 getRowsPerSecond(), getMegabytesPerSecond());
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.aplikasipenjualan.util;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Penulis CSV streaming dengan buffer besar. Angka dan tanggal diformat
+ * langsung ke buffer karakter tanpa String.format, sehingga tidak ada objek
+ * yang dibuat per baris dan memori tetap konstan berapa pun jumlah barisnya.
+ * Angka desimal selalu memakai titik, tidak bergantung pada locale.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class CsvWriter implements Closeable {
+    
+    /** Ukuran buffer karakter */
+    public static final int BUFFER_SIZE = 1 << 16;
+    
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L
+    };
+    
+    // Batas nilai * 10^decimals yang masih dibulatkan dengan aritmetika long
+    private static final double EXACT_SCALED_LIMIT = 1e12;
+    private static final double TIE_TOLERANCE = 1e-6;
+    
+    private final Writer out;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final char[] digits = new char[20];
+    private int position;
+    private boolean rowStarted;
+    private long rows;
+    
+    /**
+     * Constructor - membuka file tujuan
+     * @param file File tujuan
+     * @param gzip true untuk mengompres output dengan gzip
+     * @throws IOException jika file tidak dapat dibuka
+     */
+    public CsvWriter(File file, boolean gzip) throws IOException {
+        OutputStream stream = new FileOutputStream(file);
+        try {
+            stream = gzip ? new GZIPOutputStream(stream, BUFFER_SIZE)
+                          : new BufferedOutputStream(stream, BUFFER_SIZE);
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        // Buffer ada di sisi karakter, encoder hanya menerima blok besar
+        this.out = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Menulis satu baris header
+     * @param columns Nama kolom
+     * @throws IOException jika gagal menulis
+     */
+    public void header(String... columns) throws IOException {
+        for (String column : columns) {
+            field(column);
+        }
+        endRow();
+        rows--;
+    }
+    
+    /**
+     * Menulis field teks; diapit tanda kutip hanya jika mengandung delimiter,
+     * tanda kutip, atau baris baru
+     * @param value Nilai field, null ditulis kosong
+     * @throws IOException jika gagal menulis
+     */
+    public void field(String value) throws IOException {
+        separator();
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (needsQuotes) {
+            writeQuoted(value);
+        } else {
+            write(value);
+        }
+    }
+    
+    /**
+     * Menulis field teks yang selalu diapit tanda kutip
+     * @param value Nilai field
+     * @throws IOException jika gagal menulis
+     */
+    public void quoted(String value) throws IOException {
+        separator();
+        writeQuoted(value != null ? value : "");
+    }
+    
+    /**
+     * Menulis beberapa nilai sebagai satu field berkutip, digabung dengan pemisah
+     * @param values Nilai yang digabung
+     * @param delimiter Pemisah antar nilai
+     * @throws IOException jika gagal menulis
+     */
+    public void joined(Iterable<String> values, String delimiter) throws IOException {
+        joined(values, Function.identity(), delimiter);
+    }
+    
+    /**
+     * Menulis teks dari beberapa objek sebagai satu field berkutip, tanpa
+     * membuat list teks perantara
+     * @param values Objek yang digabung
+     * @param text Fungsi pengambil teks dari objek
+     * @param delimiter Pemisah antar nilai
+     * @param <T> Tipe objek
+     * @throws IOException jika gagal menulis
+     */
+    public <T> void joined(Iterable<T> values, Function<? super T, String> text, String delimiter)
+            throws IOException {
+        separator();
+        put('"');
+        boolean first = true;
+        for (T value : values) {
+            if (!first) {
+                writeEscaped(delimiter);
+            }
+            writeEscaped(text.apply(value));
+            first = false;
+        }
+        put('"');
+    }
+    
+    /**
+     * Menulis field bilangan bulat
+     * @param value Nilai
+     * @throws IOException jika gagal menulis
+     */
+    public void field(long value) throws IOException {
+        separator();
+        writeLong(value);
+    }
+    
+    /**
+     * Menulis field desimal dengan jumlah digit pecahan tetap (pembulatan half-up)
+     * @param value Nilai
+     * @param decimals Jumlah digit di belakang titik, 0 sampai 9
+     * @throws IOException jika gagal menulis
+     * @throws IllegalArgumentException jika decimals di luar rentang
+     */
+    public void field(double value, int decimals) throws IOException {
+        if (decimals < 0 || decimals >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Jumlah digit desimal harus 0 sampai 9");
+        }
+        separator();
+        long scale = POWERS_OF_TEN[decimals];
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            write(Double.toString(value));
+            return;
+        }
+        double product = Math.abs(value) * scale;
+        double fraction = product - Math.floor(product);
+        if (product >= EXACT_SCALED_LIMIT || Math.abs(fraction - 0.5) < TIE_TOLERANCE) {
+            // Perkalian tidak presisi atau tepat di tengah (misalnya 1.005), bulatkan dari
+            // representasi desimalnya seperti String.format
+            write(new BigDecimal(Double.toString(value)).setScale(decimals, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+        long scaled = Math.round(product);
+        if (value < 0 && scaled != 0) {
+            put('-');
+        }
+        writeLong(scaled / scale);
+        if (decimals > 0) {
+            put('.');
+            long fractionDigits = scaled % scale;
+            for (int i = decimals - 1; i >= 0; i--) {
+                put((char) ('0' + fractionDigits / POWERS_OF_TEN[i] % 10));
+            }
+        }
+    }
+    
+    /**
+     * Menulis field tanggal dengan format dd/MM/yyyy HH:mm:ss, sama dengan
+     * format tampilan transaksi
+     * @param value Tanggal, null ditulis kosong
+     * @throws IOException jika gagal menulis
+     */
+    public void field(LocalDateTime value) throws IOException {
+        separator();
+        if (value == null) {
+            return;
+        }
+        twoDigits(value.getDayOfMonth());
+        put('/');
+        twoDigits(value.getMonthValue());
+        put('/');
+        writeLong(value.getYear());
+        put(' ');
+        twoDigits(value.getHour());
+        put(':');
+        twoDigits(value.getMinute());
+        put(':');
+        twoDigits(value.getSecond());
+    }
+    
+    /**
+     * Mengakhiri baris
+     * @throws IOException jika gagal menulis
+     */
+    public void endRow() throws IOException {
+        put('\n');
+        rowStarted = false;
+        rows++;
+    }
+    
+    /**
+     * Mendapatkan jumlah baris data yang sudah ditulis (tanpa header)
+     * @return Jumlah baris
+     */
+    public long getRowCount() {
+        return rows;
+    }
+    
+    private void separator() throws IOException {
+        if (rowStarted) {
+            put(',');
+        }
+        rowStarted = true;
+    }
+    
+    private void writeQuoted(String value) throws IOException {
+        put('"');
+        writeEscaped(value);
+        put('"');
+    }
+    
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put('"');
+            }
+            put(c);
+        }
+    }
+    
+    private void write(String value) throws IOException {
+        int length = value.length();
+        int offset = 0;
+        while (offset < length) {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            int chunk = Math.min(length - offset, buffer.length - position);
+            value.getChars(offset, offset + chunk, buffer, position);
+            position += chunk;
+            offset += chunk;
+        }
+    }
+    
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            write(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start; i < digits.length; i++) {
+            put(digits[i]);
+        }
+    }
+    
+    private void twoDigits(int value) throws IOException {
+        put((char) ('0' + value / 10));
+        put((char) ('0' + value % 10));
+    }
+    
+    private void put(char c) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = c;
+    }
+    
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+    
+    /**
+     * Menulis sisa buffer lalu menutup file (dan menyelesaikan stream gzip)
+     * @throws IOException jika gagal menulis
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+}
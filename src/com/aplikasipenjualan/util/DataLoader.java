@@ -1,9 +1,24 @@
 package com.aplikasipenjualan.util;
 
+import com.aplikasipenjualan.model.Product;
 import com.aplikasipenjualan.model.Transaction;
+import com.aplikasipenjualan.model.TransactionIdGenerator;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -18,6 +33,32 @@ public class DataLoader {
     private static final Logger LOGGER = Logger.getLogger(DataLoader.class.getName());
     private static final String DATA_DIRECTORY = "data";
     private static final String TRANSACTIONS_FILE = DATA_DIRECTORY + File.separator + "transactions.dat";
+    private static final String TRANSACTION_LOG_FILE = DATA_DIRECTORY + File.separator + "transactions.log";
+    private static final String TRANSACTION_SEGMENT_DIRECTORY = DATA_DIRECTORY + File.separator + "transactions";
+    private static final String TRANSACTION_ARCHIVE_DIRECTORY = DATA_DIRECTORY + File.separator + "archive";
+    private static final String BACKUP_DIRECTORY = DATA_DIRECTORY + File.separator + "backups";
+    private static final String PRODUCT_DICTIONARY_FILE = DATA_DIRECTORY + File.separator + "products.dict";
+    private static final String BASKET_DIRECTORY = DATA_DIRECTORY + File.separator + "baskets";
+    private static final String MINING_SNAPSHOT_FILE = DATA_DIRECTORY + File.separator + "mining.snapshot";
+    private static final String SALES_CUBE_FILE = DATA_DIRECTORY + File.separator + "sales.cube";
+    private static final String NODE_ID_FILE = DATA_DIRECTORY + File.separator + "node.id";
+    private static final String DATASET_GENERATION_FILE = DATA_DIRECTORY + File.separator + "dataset.generation";
+    // Versi dataset: generasi di bit atas, ukuran log di 40 bit bawah
+    private static final int DATASET_SIZE_BITS = 40;
+    
+    private SegmentedTransactionLog transactionLog;
+    private ProductDictionary productDictionary;
+    private TransactionCodec transactionCodec;
+    private BasketStore basketStore;
+    private IncrementalBackup backup;
+    // Dibaca tanpa lock oleh thread terminal saat mengantrikan transaksi
+    private volatile TransactionRepository repository;
+    private boolean basketStoreStale;
+    private volatile GroupCommitWriter writer;
+    private GroupCommitWriter.SyncPolicy syncPolicy = GroupCommitWriter.SyncPolicy.EVERY_COMMIT;
+    private long syncIntervalMillis = GroupCommitWriter.DEFAULT_SYNC_INTERVAL_MILLIS;
+    // Dibaca dari file saat pertama kali dibutuhkan
+    private long datasetGeneration = -1;
     
     /**
      * Constructor - membuat direktori data jika belum ada
@@ -42,54 +83,997 @@ public class DataLoader {
     }
     
     /**
-     * Menyimpan daftar transaksi ke file
+     * Mendapatkan log transaksi bersegmen, membukanya jika belum terbuka
+     * @return Log transaksi
+     * @throws IOException jika direktori segmen tidak dapat dibuka
+     */
+    private synchronized SegmentedTransactionLog getTransactionLog() throws IOException {
+        if (transactionLog == null) {
+            recoverSegmentDirectory();
+            transactionLog = new SegmentedTransactionLog(new File(TRANSACTION_SEGMENT_DIRECTORY));
+        }
+        return transactionLog;
+    }
+    
+    /**
+     * Menyelesaikan penggantian direktori segmen yang terputus. Direktori
+     * sementara hanya dipindahkan setelah semua segmennya selesai ditulis,
+     * sehingga direktori sementara yang tertinggal tanpa direktori utama
+     * berarti penggantian sudah siap diselesaikan.
+     */
+    private void recoverSegmentDirectory() throws IOException {
+        File directory = new File(TRANSACTION_SEGMENT_DIRECTORY);
+        File tempDirectory = new File(TRANSACTION_SEGMENT_DIRECTORY + ".tmp");
+        if (!directory.exists() && tempDirectory.isDirectory()) {
+            Files.move(tempDirectory.toPath(), directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.warning("Penggantian segmen transaksi yang terputus diselesaikan");
+        }
+        deleteDirectory(tempDirectory);
+        deleteDirectory(new File(TRANSACTION_SEGMENT_DIRECTORY + ".old"));
+    }
+    
+    private static void deleteDirectory(File directory) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            Files.deleteIfExists(file.toPath());
+        }
+        Files.deleteIfExists(directory.toPath());
+    }
+    
+    /**
+     * Mendapatkan codec transaksi beserta kamus produknya, memuat kamus jika belum dimuat
+     * @return Codec transaksi
+     * @throws IOException jika kamus produk tidak valid
+     */
+    private synchronized TransactionCodec getTransactionCodec() throws IOException {
+        if (transactionCodec == null) {
+            productDictionary = new ProductDictionary(new File(PRODUCT_DICTIONARY_FILE));
+            transactionCodec = new TransactionCodec(productDictionary);
+        }
+        return transactionCodec;
+    }
+    
+    /**
+     * Mendapatkan produk dari kamus produk transaksi
+     * @param productId ID produk
+     * @return Produk, atau null jika belum pernah tercatat di transaksi
+     * @throws IOException jika kamus produk tidak valid
+     */
+    public synchronized Product getDictionaryProduct(int productId) throws IOException {
+        getTransactionCodec();
+        return productDictionary.get(productId);
+    }
+    
+    /**
+     * Membuka repository transaksi di atas log bersegmen. File lama
+     * (transactions.dat atau log tunggal transactions.log) dimigrasikan ke
+     * segmen bulanan terlebih dahulu, lalu semua segmen diindeks tanpa membuat
+     * objek Transaction. Segmen yang record matinya lebih banyak dari transaksi
+     * aktifnya dikompaksi tanpa menyentuh segmen lain.
+     * @return Repository transaksi
+     * @throws IOException jika log tidak dapat dibuka atau diindeks
+     * @throws ClassNotFoundException jika file lama tidak dapat dideserialisasi
+     */
+    public synchronized TransactionRepository openRepository() throws IOException, ClassNotFoundException {
+        if (repository == null) {
+            File logFile = new File(TRANSACTION_LOG_FILE);
+            File legacyFile = new File(TRANSACTIONS_FILE);
+            if (logFile.exists()) {
+                migrateSingleLog(logFile);
+            } else if (legacyFile.exists()) {
+                convertLegacyTransactions(legacyFile);
+            }
+            
+            repository = new TransactionRepository(this, this::readTransactionPayload, getTransactionCodec());
+            try {
+                compactSegments(indexTransactionLog());
+            } catch (IOException | RuntimeException e) {
+                repository = null;
+                LOGGER.log(Level.SEVERE, "Error mengindeks transaksi dari direktori: " + TRANSACTION_SEGMENT_DIRECTORY, e);
+                throw e;
+            }
+            LOGGER.info("Berhasil mengindeks " + repository.size() + " transaksi dari "
+                        + getTransactionLog().getSegments().size() + " segmen");
+        }
+        return repository;
+    }
+    
+    /**
+     * Membaca payload record transaksi dari log untuk repository
+     */
+    private synchronized byte[] readTransactionPayload(long position) throws IOException {
+        return getTransactionLog().readRecord(position, TransactionLog.RECORD_ADD);
+    }
+    
+    /**
+     * Memecah log tunggal (versi 1 atau 2) menjadi segmen bulanan secara
+     * streaming. Pemindaian pertama mengumpulkan tombstone, pemindaian kedua
+     * menulis record yang masih hidup ke segmen bulannya; record versi 1
+     * di-encode ulang ke format biner. Segmen yang tertinggal dari migrasi
+     * yang terputus diganti, dan log lama diganti namanya menjadi .migrated.
+     * @param logFile File transactions.log
+     * @throws IOException jika log lama tidak dapat dibaca atau segmen gagal ditulis
+     */
+    private void migrateSingleLog(File logFile) throws IOException {
+        final Map<String, Long> tombstones = new HashMap<>();
+        final int[] migrated = {0};
+        SegmentedTransactionLog segments = getTransactionLog();
+        segments.deleteAll();
+        
+        try (TransactionLog source = new TransactionLog(logFile)) {
+            final int version = source.getVersion();
+            source.replay((offset, type, payload) -> {
+                if (type == TransactionLog.RECORD_REMOVE) {
+                    tombstones.put(new String(payload, StandardCharsets.UTF_8), offset);
+                }
+            });
+            source.replay((offset, type, payload) -> {
+                if (type != TransactionLog.RECORD_ADD) {
+                    return;
+                }
+                byte[] record = version >= 2 ? payload : getTransactionCodec().encode(decodeTransaction(payload, version));
+                Long removedAt = tombstones.get(TransactionCodec.readTransactionId(record));
+                if (removedAt == null || removedAt < offset) {
+                    long timestamp = TransactionCodec.readTimestamp(record);
+                    segments.append(SegmentedTransactionLog.segmentKey(timestamp), TransactionLog.RECORD_ADD,
+                                    record, false);
+                    migrated[0]++;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error migrasi log transaksi: " + logFile, e);
+            throw e;
+        }
+        
+        saveProductDictionaryIfDirty();
+        segments.sync();
+        File renamed = new File(logFile.getPath() + ".migrated");
+        if (!logFile.renameTo(renamed)) {
+            throw new IOException("Gagal mengganti nama log lama: " + logFile);
+        }
+        LOGGER.info("Berhasil memecah " + migrated[0] + " transaksi ke " + segments.getSegments().size()
+                    + " segmen bulanan");
+    }
+    
+    /**
+     * Membangun ulang indeks repository dari semua segmen. Hanya ID dan tanggal
+     * record yang dibaca; record ADD dianggap mati jika ada tombstone untuk
+     * ID-nya di posisi setelahnya dalam segmen yang sama. Rentang tanggal
+     * setiap segmen diisi ulang dari transaksi yang masih hidup.
+     * @return Kunci segmen yang record matinya lebih banyak dari transaksi aktifnya
+     * @throws IOException jika log gagal dibaca
+     */
+    private synchronized List<Integer> indexTransactionLog() throws IOException {
+        final long[][] entries = {new long[1024], new long[1024]};
+        final int[][] idHashes = {new int[1024]};
+        final int[] count = {0};
+        final Map<Integer, Map<String, Long>> tombstones = new TreeMap<>();
+        final Map<Integer, int[]> records = new TreeMap<>(); // segmen -> {ADD, tombstone}
+        
+        SegmentedTransactionLog log = getTransactionLog();
+        log.replay((position, type, payload) -> {
+            Integer segment = SegmentedTransactionLog.segmentOf(position);
+            int[] segmentRecords = records.computeIfAbsent(segment, key -> new int[2]);
+            switch (type) {
+                case TransactionLog.RECORD_ADD:
+                    if (count[0] == entries[0].length) {
+                        entries[0] = Arrays.copyOf(entries[0], count[0] * 2);
+                        entries[1] = Arrays.copyOf(entries[1], count[0] * 2);
+                        idHashes[0] = Arrays.copyOf(idHashes[0], count[0] * 2);
+                    }
+                    entries[0][count[0]] = TransactionCodec.readTimestamp(payload);
+                    entries[1][count[0]] = position;
+                    idHashes[0][count[0]] = TransactionCodec.readTransactionId(payload).hashCode();
+                    count[0]++;
+                    segmentRecords[0]++;
+                    break;
+                case TransactionLog.RECORD_REMOVE:
+                    tombstones.computeIfAbsent(segment, key -> new HashMap<>())
+                              .put(new String(payload, StandardCharsets.UTF_8), position);
+                    segmentRecords[1]++;
+                    break;
+                default:
+                    throw new IOException("Tipe record tidak dikenal: " + type);
+            }
+        });
+        
+        // Pemindaian kedua hanya untuk segmen yang punya tombstone, dan hanya membaca ID record ADD.
+        // Posisi hasil replay terurut naik, sehingga indeks entri dicari dengan binary search.
+        final boolean[] dead = new boolean[count[0]];
+        for (Map.Entry<Integer, Map<String, Long>> segment : tombstones.entrySet()) {
+            final Map<String, Long> removed = segment.getValue();
+            log.replay(segment.getKey(), (position, type, payload) -> {
+                if (type == TransactionLog.RECORD_ADD) {
+                    Long removedAt = removed.get(TransactionCodec.readTransactionId(payload));
+                    if (removedAt != null && removedAt > position) {
+                        dead[Arrays.binarySearch(entries[1], 0, count[0], position)] = true;
+                    }
+                }
+            });
+        }
+        
+        Map<Integer, Integer> liveRecords = new HashMap<>();
+        int live = 0;
+        for (int i = 0; i < count[0]; i++) {
+            if (!dead[i]) {
+                int segment = SegmentedTransactionLog.segmentOf(entries[1][i]);
+                log.includeTimestamp(segment, entries[0][i]);
+                liveRecords.merge(segment, 1, Integer::sum);
+                entries[0][live] = entries[0][i];
+                entries[1][live] = entries[1][i];
+                idHashes[0][live] = idHashes[0][i];
+                live++;
+            }
+        }
+        repository.reset(entries[0], entries[1], idHashes[0], live);
+        
+        List<Integer> compactable = new ArrayList<>();
+        for (Map.Entry<Integer, int[]> segment : records.entrySet()) {
+            int segmentLive = liveRecords.getOrDefault(segment.getKey(), 0);
+            int segmentDead = segment.getValue()[0] - segmentLive + segment.getValue()[1];
+            if (segmentDead > segmentLive) {
+                compactable.add(segment.getKey());
+            }
+        }
+        return compactable;
+    }
+    
+    /**
+     * Kompaksi segmen tanpa memuat transaksi: payload record yang masih hidup
+     * disalin apa adanya ke segmen baru sesuai urutan aslinya. Segmen lain
+     * tidak disentuh; setelah itu log diindeks ulang.
+     * @param segmentKeys Kunci segmen yang dikompaksi
+     * @throws IOException jika kompaksi gagal
+     */
+    private synchronized void compactSegments(List<Integer> segmentKeys) throws IOException {
+        if (segmentKeys.isEmpty()) {
+            return;
+        }
+        advanceDatasetGeneration();
+        // Kunci segmen ada di bit atas posisi, jadi posisi satu segmen berdampingan setelah diurutkan
+        long[] livePositions = repository.committedOffsets();
+        Arrays.sort(livePositions);
+        SegmentedTransactionLog log = getTransactionLog();
+        for (int key : segmentKeys) {
+            int from = 0;
+            while (from < livePositions.length && SegmentedTransactionLog.segmentOf(livePositions[from]) < key) {
+                from++;
+            }
+            int to = from;
+            while (to < livePositions.length && SegmentedTransactionLog.segmentOf(livePositions[to]) == key) {
+                to++;
+            }
+            log.compact(key, Arrays.copyOfRange(livePositions, from, to));
+        }
+        basketStoreStale = true;
+        indexTransactionLog();
+    }
+    
+    /**
+     * Memindahkan segmen bulan-bulan sebelum bulan yang diberikan ke direktori
+     * arsip (data/archive). Segmen bulan terbaru tidak dibuka maupun ditulis.
+     * Bulan yang diarsipkan lebih dari sekali disimpan sebagai file arsip terpisah.
+     * Kamus produk tetap menyimpan semua produk, sehingga segmen arsip masih
+     * dapat dibaca.
+     * @param month Bulan pertama yang dipertahankan
+     * @return Jumlah segmen yang diarsipkan
+     * @throws IOException jika segmen gagal dipindahkan
+     * @throws ClassNotFoundException jika file lama tidak dapat dideserialisasi
+     */
+    public synchronized int archiveTransactionsBefore(YearMonth month) throws IOException, ClassNotFoundException {
+        if (month == null) {
+            throw new IllegalArgumentException("Bulan tidak boleh null");
+        }
+        TransactionRepository transactions = openRepository();
+        int cutoff = SegmentedTransactionLog.segmentKey(
+                TransactionCodec.toEpochMillis(month.atDay(1).atStartOfDay()));
+        SegmentedTransactionLog log = getTransactionLog();
+        File archiveDirectory = new File(TRANSACTION_ARCHIVE_DIRECTORY);
+        int archived = 0;
+        int dropped = 0;
+        for (SegmentedTransactionLog.SegmentInfo segment : log.getSegments()) {
+            int key = segment.getKey();
+            if (key != SegmentedTransactionLog.UNDATED_SEGMENT && key < cutoff) {
+                if (archived == 0) {
+                    advanceDatasetGeneration();
+                }
+                log.archive(key, archiveDirectory);
+                dropped += transactions.dropSegment(key);
+                archived++;
+            }
+        }
+        if (archived > 0) {
+            basketStoreStale = true;
+            LOGGER.info("Berhasil mengarsipkan " + archived + " segmen (" + dropped + " transaksi) sebelum " + month);
+        }
+        return archived;
+    }
+    
+    /**
+     * Mendapatkan informasi segmen transaksi beserta rentang tanggalnya
+     * @return Daftar segmen, terurut dari bulan terlama
+     * @throws IOException jika direktori segmen tidak dapat dibuka
+     */
+    public synchronized List<SegmentedTransactionLog.SegmentInfo> getTransactionSegments() throws IOException {
+        return getTransactionLog().getSegments();
+    }
+    
+    /**
+     * Mendapatkan basket store untuk mining. Store dibangun ulang dari repository
+     * jika ada penghapusan sejak pembangunan terakhir atau jumlah keranjangnya
+     * tidak sama dengan jumlah transaksi yang sudah tersimpan.
+     * @return Basket store yang sinkron dengan log transaksi
+     * @throws IOException jika store gagal dibuka atau dibangun ulang
+     * @throws ClassNotFoundException jika file lama tidak dapat dideserialisasi
+     */
+    public synchronized BasketStore getBasketStore() throws IOException, ClassNotFoundException {
+        TransactionRepository transactions = openRepository();
+        if (basketStore == null) {
+            basketStore = new BasketStore(new File(BASKET_DIRECTORY));
+        }
+        if (basketStoreStale || basketStore.getBasketCount() != transactions.getCommittedCount()) {
+            basketStore.rebuild(transactions.committedTransactions());
+            basketStoreStale = false;
+        }
+        return basketStore;
+    }
+    
+    /**
+     * Mendapatkan versi dataset transaksi. Setiap penambahan atau penghapusan
+     * transaksi menambah ukuran log, sedangkan kompaksi, pengarsipan,
+     * pemulihan backup, dan penulisan ulang yang bisa memperkecil log lebih
+     * dulu menaikkan generasi dataset yang disimpan di data/dataset.generation.
+     * Versi adalah generasi di bit atas dan ukuran log di bit bawah, sehingga
+     * selalu naik dan tidak pernah kembali ke nilai lama meskipun ukuran log
+     * sama dengan ukuran sebelum diarsipkan.
+     * @return Versi dataset
+     * @throws IOException jika log atau file generasi tidak dapat dibaca
+     */
+    public synchronized long getDatasetVersion() throws IOException {
+        return (getDatasetGeneration() << DATASET_SIZE_BITS) | getTransactionLog().size();
+    }
+    
+    private long getDatasetGeneration() throws IOException {
+        if (datasetGeneration < 0) {
+            File file = new File(DATASET_GENERATION_FILE);
+            long generation = 0;
+            if (file.exists()) {
+                String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+                try {
+                    generation = Long.parseLong(text);
+                } catch (NumberFormatException e) {
+                    generation = -1;
+                }
+                if (generation < 0) {
+                    throw new IOException("File " + DATASET_GENERATION_FILE + " tidak valid: " + text);
+                }
+            }
+            datasetGeneration = generation;
+        }
+        return datasetGeneration;
+    }
+    
+    /**
+     * Menaikkan generasi dataset sebelum log dipotong atau ditulis ulang.
+     * Generasi disimpan lebih dulu, sehingga jika proses berhenti di tengah
+     * jalan versi tetap berubah dan kubus atau snapshot lama tidak dipakai.
+     */
+    private void advanceDatasetGeneration() throws IOException {
+        long generation = getDatasetGeneration() + 1;
+        writeAtomically(new File(DATASET_GENERATION_FILE),
+                        (generation + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        datasetGeneration = generation;
+    }
+    
+    /**
+     * Menyimpan snapshot hasil analisis secara atomik
+     * @param data Bytes snapshot
+     * @throws IOException jika gagal menyimpan
+     */
+    public void saveMiningSnapshot(byte[] data) throws IOException {
+        if (data == null) {
+            throw new IllegalArgumentException("Data snapshot tidak boleh null");
+        }
+        writeAtomically(new File(MINING_SNAPSHOT_FILE), data);
+        LOGGER.info("Snapshot hasil analisis disimpan: " + data.length + " bytes");
+    }
+    
+    private static void writeAtomically(File file, byte[] data) throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+            fos.write(data);
+            fos.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), file.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Memuat snapshot hasil analisis terakhir
+     * @return Bytes snapshot, atau null jika belum ada
+     * @throws IOException jika gagal membaca
+     */
+    public byte[] loadMiningSnapshot() throws IOException {
+        File file = new File(MINING_SNAPSHOT_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        return Files.readAllBytes(file.toPath());
+    }
+    
+    /**
+     * Menghapus snapshot hasil analisis
+     * @return true jika snapshot tidak ada lagi
+     */
+    public boolean deleteMiningSnapshot() {
+        File file = new File(MINING_SNAPSHOT_FILE);
+        return !file.exists() || file.delete();
+    }
+    
+    /**
+     * Menyimpan kubus agregasi penjualan secara atomik
+     * @param data Bytes kubus
+     * @throws IOException jika gagal menyimpan
+     */
+    public void saveSalesCube(byte[] data) throws IOException {
+        if (data == null) {
+            throw new IllegalArgumentException("Data kubus tidak boleh null");
+        }
+        writeAtomically(new File(SALES_CUBE_FILE), data);
+        LOGGER.info("Kubus penjualan disimpan: " + data.length + " bytes");
+    }
+    
+    /**
+     * Menentukan ID node terminal untuk {@link TransactionIdGenerator}. System
+     * property {@value TransactionIdGenerator#NODE_PROPERTY} didahulukan; jika
+     * tidak diisi, ID dibaca dari file node.id di direktori data. File dibuat
+     * dengan ID acak saat pertama kali dibutuhkan sehingga terminal tetap
+     * memakai ID yang sama setelah dibuka ulang. ID acak dapat bertabrakan
+     * antar terminal, jadi instalasi dengan banyak terminal sebaiknya mengisi
+     * property atau file ini secara eksplisit.
+     * @return ID node
+     * @throws IOException jika file ID node gagal dibaca atau ditulis
+     * @throws IllegalArgumentException jika property atau isi file bukan ID node yang valid
+     */
+    public synchronized int loadNodeId() throws IOException {
+        int configured = TransactionIdGenerator.configuredNodeId();
+        if (configured >= 0) {
+            return configured;
+        }
+        File file = new File(NODE_ID_FILE);
+        if (file.exists()) {
+            String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            try {
+                return TransactionIdGenerator.parseNodeId(text);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("File " + NODE_ID_FILE + " tidak valid: " + e.getMessage(), e);
+            }
+        }
+        int nodeId = TransactionIdGenerator.randomNodeId();
+        writeAtomically(file, (nodeId + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        LOGGER.info("ID node terminal dibuat: " + nodeId + " (" + NODE_ID_FILE + ")");
+        return nodeId;
+    }
+    
+    /**
+     * Memuat kubus agregasi penjualan terakhir
+     * @return Bytes kubus, atau null jika belum ada
+     * @throws IOException jika gagal membaca
+     */
+    public byte[] loadSalesCube() throws IOException {
+        File file = new File(SALES_CUBE_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        return Files.readAllBytes(file.toPath());
+    }
+    
+    /**
+     * Menambahkan keranjang transaksi ke basket store jika sudah dibuka.
+     * Store hanya turunan dari log, sehingga kegagalan cukup menandai store
+     * untuk dibangun ulang.
+     */
+    private void appendBasket(Transaction transaction) {
+        if (basketStore == null || basketStoreStale) {
+            return;
+        }
+        try {
+            basketStore.append(transaction);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Gagal menambahkan keranjang, store akan dibangun ulang", e);
+            basketStoreStale = true;
+        }
+    }
+    
+    /**
+     * Menyimpan kamus produk jika ada produk baru. Harus dipanggil sebelum
+     * record yang mereferensikan produk tersebut ditulis ke log.
+     * @throws IOException jika gagal menyimpan kamus
+     */
+    private void saveProductDictionaryIfDirty() throws IOException {
+        if (productDictionary != null && productDictionary.isDirty()) {
+            productDictionary.save();
+        }
+    }
+    
+    /**
+     * Mendapatkan penulis group commit, menjalankannya jika belum ada
+     * @return Penulis latar belakang
+     */
+    private GroupCommitWriter getWriter() {
+        GroupCommitWriter current = writer;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (writer == null) {
+                writer = new GroupCommitWriter("transaction-writer", this::syncTransactionLog,
+                                               syncPolicy, syncIntervalMillis,
+                                               GroupCommitWriter.DEFAULT_MAX_BATCH_SIZE);
+            }
+            return writer;
+        }
+    }
+    
+    /**
+     * Mengatur kebijakan fsync untuk penulisan asinkron
+     * @param policy Kebijakan fsync
+     * @param intervalMillis Interval fsync untuk {@link GroupCommitWriter.SyncPolicy#INTERVAL}
+     * @throws IllegalArgumentException jika parameter tidak valid
+     */
+    public synchronized void setSyncPolicy(GroupCommitWriter.SyncPolicy policy, long intervalMillis) {
+        if (writer != null) {
+            writer.setSyncPolicy(policy, intervalMillis);
+        } else if (policy == null || intervalMillis <= 0) {
+            throw new IllegalArgumentException("Kebijakan sync tidak valid");
+        }
+        this.syncPolicy = policy;
+        this.syncIntervalMillis = intervalMillis;
+    }
+    
+    /**
+     * Mendapatkan metrik penulisan asinkron (antrian, ukuran batch, lag durabilitas)
+     * @return Snapshot metrik penulis
+     */
+    public GroupCommitWriter.Metrics getPersistenceMetrics() {
+        return getWriter().getMetrics();
+    }
+    
+    /**
+     * Mengantrikan penanda di belakang semua penulisan yang sudah diantrikan
+     * @return Future yang selesai saat semua penulisan sebelumnya sudah di disk
+     */
+    public CompletableFuture<Void> flushTransactionsAsync() {
+        return getWriter().flush();
+    }
+    
+    /**
+     * Fsync segmen yang ditulis dalam satu group commit. Lock hanya dipegang
+     * untuk mengambil log, sehingga pembaca repository tidak menunggu fsync.
+     */
+    private void syncTransactionLog() throws IOException {
+        SegmentedTransactionLog log;
+        synchronized (this) {
+            log = transactionLog;
+        }
+        if (log != null) {
+            log.sync();
+        }
+    }
+    
+    /**
+     * Menambahkan satu transaksi ke akhir log dan menunggu sampai tersimpan di disk
+     * @param transaction Transaksi yang akan disimpan
+     * @throws IOException jika terjadi error saat menyimpan
+     */
+    public void appendTransaction(Transaction transaction) throws IOException {
+        writeTransaction(transaction, true, () -> { });
+    }
+    
+    /**
+     * Mengantrikan transaksi ke penulis latar belakang. Jika repository sudah
+     * dibuka, transaksi langsung terlihat di repository selama menunggu ditulis.
+     * @param transaction Transaksi yang akan disimpan
+     * @return Future yang selesai setelah transaksi di-commit sesuai kebijakan fsync
+     */
+    public CompletableFuture<Void> appendTransactionAsync(Transaction transaction) {
+        return appendTransactionAsync(transaction, () -> { });
+    }
+    
+    /**
+     * Mengantrikan transaksi seperti {@link #appendTransactionAsync(Transaction)},
+     * sambil memberi tahu jika penulisannya gagal dan transaksi dibuang dari
+     * repository. Transaksi yang sudah dihapus selama menunggu tidak dilaporkan lagi.
+     * @param transaction Transaksi yang akan disimpan
+     * @param discarded Dipanggil di thread penulis sebelum future gagal
+     * @return Future yang selesai setelah transaksi di-commit sesuai kebijakan fsync
+     */
+    public CompletableFuture<Void> appendTransactionAsync(Transaction transaction, Runnable discarded) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaksi tidak boleh null");
+        }
+        if (discarded == null) {
+            throw new IllegalArgumentException("Listener tidak boleh null");
+        }
+        TransactionRepository current = repository;
+        if (current != null) {
+            current.addPending(transaction);
+        }
+        return getWriter().submit(() -> writeTransaction(transaction, false, discarded));
+    }
+    
+    /**
+     * Mengantrikan satu batch transaksi sebagai satu tugas penulis, sehingga
+     * seluruh batch ditulis dalam satu group commit. Transaksi langsung terlihat
+     * di repository selama menunggu ditulis.
+     * @param transactions Transaksi yang akan disimpan
+     * @return Future yang selesai setelah batch di-commit sesuai kebijakan fsync
+     */
+    public CompletableFuture<Void> appendTransactionsAsync(List<Transaction> transactions) {
+        if (transactions == null) {
+            throw new IllegalArgumentException("Daftar transaksi tidak boleh null");
+        }
+        List<Transaction> batch = new ArrayList<>(transactions);
+        TransactionRepository current = repository;
+        if (current != null) {
+            for (Transaction transaction : batch) {
+                current.addPending(transaction);
+            }
+        }
+        return getWriter().submit(() -> writeTransactions(batch));
+    }
+    
+    private synchronized void writeTransactions(List<Transaction> batch) throws IOException {
+        long[] positions = new long[batch.size()];
+        int written = 0;
+        try {
+            while (written < batch.size()) {
+                positions[written] = appendTransactionRecord(batch.get(written), false);
+                written++;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Sisa batch tidak akan ditulis, jangan biarkan tertahan di antrian repository
+            for (int i = written; i < batch.size() && repository != null; i++) {
+                repository.discard(batch.get(i));
+            }
+            throw e;
+        } finally {
+            if (repository != null) {
+                repository.commitAll(batch.subList(0, written), positions);
+            }
+            for (int i = 0; i < written; i++) {
+                appendBasket(batch.get(i));
+            }
+        }
+    }
+    
+    /**
+     * Import riwayat transaksi dari file CSV/TSV secara streaming dan paralel.
+     * Produk dicocokkan dengan katalog dan kamus produk transaksi; setiap chunk
+     * yang selesai di-parse ditulis sebagai satu batch melalui penulis latar belakang.
+     * @param file File CSV atau TSV
+     * @param catalog Katalog produk yang berlaku
+     * @return Laporan import (throughput dan baris yang ditolak)
+     * @throws IOException jika file gagal dibaca atau transaksi gagal disimpan
+     */
+    public CsvTransactionImporter.Report importTransactionsFromCSV(File file, Collection<Product> catalog)
+            throws IOException {
+        return importTransactionsFromCSV(file, catalog, batch -> { });
+    }
+    
+    /**
+     * Import riwayat transaksi dari file CSV/TSV seperti
+     * {@link #importTransactionsFromCSV(File, Collection)}, sambil memberi tahu
+     * setiap batch yang sudah diantrikan ke penulis
+     * @param file File CSV atau TSV
+     * @param catalog Katalog produk yang berlaku
+     * @param queued Dipanggil untuk setiap batch setelah terlihat di repository
+     * @return Laporan import (throughput dan baris yang ditolak)
+     * @throws IOException jika file gagal dibaca atau transaksi gagal disimpan
+     */
+    public CsvTransactionImporter.Report importTransactionsFromCSV(File file, Collection<Product> catalog,
+                                                                  Consumer<List<Transaction>> queued)
+            throws IOException {
+        if (queued == null) {
+            throw new IllegalArgumentException("Listener batch tidak boleh null");
+        }
+        if (file == null || !file.isFile()) {
+            throw new IllegalArgumentException("File import tidak ditemukan: " + file);
+        }
+        if (catalog == null) {
+            throw new IllegalArgumentException("Katalog produk tidak boleh null");
+        }
+        List<Product> products = new ArrayList<>(catalog);
+        synchronized (this) {
+            getTransactionCodec();
+            products.addAll(productDictionary.getProducts());
+        }
+        CsvTransactionImporter importer = new CsvTransactionImporter(products);
+        return importer.importFile(file, batch -> {
+            CompletableFuture<Void> written = appendTransactionsAsync(batch);
+            queued.accept(batch);
+            return written;
+        });
+    }
+    
+    /**
+     * Menulis record transaksi ke log dan keranjangnya ke basket store
+     * @param transaction Transaksi
+     * @param sync true untuk fsync sebelum kembali
+     * @param discarded Dipanggil jika gagal dan transaksi masih di antrian repository
+     * @throws IOException jika terjadi error saat menyimpan
+     */
+    private synchronized void writeTransaction(Transaction transaction, boolean sync, Runnable discarded)
+            throws IOException {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaksi tidak boleh null");
+        }
+        long position;
+        try {
+            position = appendTransactionRecord(transaction, sync);
+        } catch (IOException | RuntimeException e) {
+            if (repository == null || repository.discard(transaction)) {
+                discarded.run();
+            }
+            throw e;
+        }
+        if (repository != null) {
+            repository.commit(transaction, position);
+        }
+        appendBasket(transaction);
+    }
+    
+    /**
+     * Menulis record transaksi ke segmen bulannya. Jika gagal, pemanggil
+     * membuang transaksi dari antrian repository.
+     * @return Posisi record
+     */
+    private long appendTransactionRecord(Transaction transaction, boolean sync) throws IOException {
+        SegmentedTransactionLog log = getTransactionLog();
+        byte[] payload = getTransactionCodec().encode(transaction);
+        saveProductDictionaryIfDirty();
+        long timestamp = TransactionCodec.toEpochMillis(transaction.getTanggal());
+        int segment = SegmentedTransactionLog.segmentKey(timestamp);
+        long position = log.append(segment, TransactionLog.RECORD_ADD, payload, sync);
+        log.includeTimestamp(segment, timestamp);
+        return position;
+    }
+    
+    /**
+     * Menambahkan tombstone penghapusan transaksi ke segmen tempat transaksi tersimpan
+     * @param transactionId ID transaksi yang dihapus
+     * @throws IOException jika terjadi error saat menyimpan
+     */
+    public void appendTransactionRemoval(String transactionId) throws IOException {
+        writeTransactionRemoval(transactionId, true);
+    }
+    
+    /**
+     * Mengantrikan tombstone penghapusan transaksi ke penulis latar belakang
+     * @param transactionId ID transaksi yang dihapus
+     * @return Future yang selesai setelah tombstone di-commit sesuai kebijakan fsync
+     */
+    public CompletableFuture<Void> appendTransactionRemovalAsync(String transactionId) {
+        if (transactionId == null) {
+            throw new IllegalArgumentException("ID transaksi tidak boleh null");
+        }
+        return getWriter().submit(() -> writeTransactionRemoval(transactionId, false));
+    }
+    
+    private synchronized void writeTransactionRemoval(String transactionId, boolean sync) throws IOException {
+        if (transactionId == null) {
+            throw new IllegalArgumentException("ID transaksi tidak boleh null");
+        }
+        int[] segments = repository != null ? repository.takeRemovedSegments(transactionId) : null;
+        if (segments == null) {
+            segments = findSegmentsContaining(transactionId);
+        }
+        SegmentedTransactionLog log = getTransactionLog();
+        byte[] payload = transactionId.getBytes(StandardCharsets.UTF_8);
+        for (int segment : segments) {
+            log.append(segment, TransactionLog.RECORD_REMOVE, payload, sync);
+        }
+        basketStoreStale = true;
+    }
+    
+    /**
+     * Mencari segmen yang memuat record ADD dengan ID tertentu, untuk
+     * penghapusan yang tidak melalui repository
+     */
+    private int[] findSegmentsContaining(String transactionId) throws IOException {
+        final Set<Integer> segments = new TreeSet<>();
+        getTransactionLog().replay((position, type, payload) -> {
+            if (type == TransactionLog.RECORD_ADD
+                    && transactionId.equals(TransactionCodec.readTransactionId(payload))) {
+                segments.add(SegmentedTransactionLog.segmentOf(position));
+            }
+        });
+        int[] keys = new int[segments.size()];
+        int i = 0;
+        for (int key : segments) {
+            keys[i++] = key;
+        }
+        return keys;
+    }
+    
+    /**
+     * Mengantrikan penulisan ulang log (kompaksi) ke penulis latar belakang,
+     * sehingga berurutan dengan penulisan lain yang sudah diantrikan
+     * @param transactions Daftar transaksi yang akan disimpan
+     * @return Future yang selesai setelah log ditulis ulang
+     */
+    public CompletableFuture<Void> saveTransactionsAsync(List<Transaction> transactions) {
+        if (transactions == null) {
+            throw new IllegalArgumentException("Daftar transaksi tidak boleh null");
+        }
+        List<Transaction> snapshot = new ArrayList<>(transactions);
+        return getWriter().submit(() -> saveTransactions(snapshot));
+    }
+    
+    /**
+     * Menulis ulang semua segmen sehingga hanya berisi daftar transaksi yang
+     * diberikan (kompaksi). Segmen baru ditulis ke direktori sementara, lalu
+     * direktori segmen diganti; penggantian yang terputus diselesaikan saat
+     * log dibuka kembali.
      * @param transactions Daftar transaksi yang akan disimpan
      * @throws IOException jika terjadi error saat menyimpan
      */
-    public void saveTransactions(List<Transaction> transactions) throws IOException {
+    public synchronized void saveTransactions(List<Transaction> transactions) throws IOException {
         if (transactions == null) {
             throw new IllegalArgumentException("Daftar transaksi tidak boleh null");
         }
         
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new BufferedOutputStream(new FileOutputStream(TRANSACTIONS_FILE)))) {
+        File tempDirectory = new File(TRANSACTION_SEGMENT_DIRECTORY + ".tmp");
+        
+        try {
+            getTransactionLog(); // Menyelesaikan penggantian sebelumnya jika ada
+            deleteDirectory(tempDirectory);
+            try (SegmentedTransactionLog compacted = new SegmentedTransactionLog(tempDirectory)) {
+                for (Transaction transaction : transactions) {
+                    long timestamp = TransactionCodec.toEpochMillis(transaction.getTanggal());
+                    compacted.append(SegmentedTransactionLog.segmentKey(timestamp), TransactionLog.RECORD_ADD,
+                                     getTransactionCodec().encode(transaction), false);
+                }
+                compacted.sync();
+            }
+            saveProductDictionaryIfDirty();
             
-            oos.writeObject(transactions);
-            oos.flush();
+            replaceSegmentDirectory();
+            basketStoreStale = true;
+            if (repository != null) {
+                indexTransactionLog();
+            }
             LOGGER.info("Berhasil menyimpan " + transactions.size() + " transaksi ke file");
-            
+        
         } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Error menyimpan transaksi ke file: " + TRANSACTIONS_FILE, e);
+            LOGGER.log(Level.SEVERE, "Error menyimpan transaksi ke direktori: " + TRANSACTION_SEGMENT_DIRECTORY, e);
             throw e;
         }
     }
     
     /**
-     * Memuat daftar transaksi dari file
-     * @return Daftar transaksi yang dimuat dari file
+     * Mengganti direktori segmen dengan direktori sementara yang sudah lengkap
+     * ditulis. Log yang terbuka ditutup lebih dulu dan dibuka ulang saat dibutuhkan.
+     */
+    private void replaceSegmentDirectory() throws IOException {
+        advanceDatasetGeneration();
+        File directory = new File(TRANSACTION_SEGMENT_DIRECTORY);
+        File tempDirectory = new File(TRANSACTION_SEGMENT_DIRECTORY + ".tmp");
+        File oldDirectory = new File(TRANSACTION_SEGMENT_DIRECTORY + ".old");
+        if (transactionLog != null) {
+            transactionLog.close();
+            transactionLog = null;
+        }
+        if (directory.exists()) {
+            Files.move(directory.toPath(), oldDirectory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(tempDirectory.toPath(), directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        deleteDirectory(oldDirectory);
+    }
+    
+    /**
+     * Memuat semua transaksi ke memori melalui repository. File lama dimigrasikan
+     * dan segmen dikompaksi seperti pada {@link #openRepository()}.
+     * @return Daftar transaksi dalam urutan tanggal
      * @throws IOException jika terjadi error saat memuat
      * @throws ClassNotFoundException jika class tidak ditemukan saat deserialisasi
      */
+    public synchronized List<Transaction> loadTransactions() throws IOException, ClassNotFoundException {
+        List<Transaction> transactions = new ArrayList<>();
+        try {
+            for (Transaction transaction : openRepository()) {
+                transactions.add(transaction);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        LOGGER.info("Berhasil memuat " + transactions.size() + " transaksi dari file");
+        return transactions;
+    }
+    
+    /**
+     * Mengonversi file transaksi lama (satu objek List hasil serialisasi) ke
+     * segmen bulanan. Isi segmen yang ada diganti dan file lama diganti namanya
+     * menjadi .migrated.
+     * @param legacyFile File transactions.dat
+     * @return Daftar transaksi dari file lama
+     * @throws IOException jika terjadi error saat membaca atau menulis
+     * @throws ClassNotFoundException jika class tidak ditemukan saat deserialisasi
+     */
     @SuppressWarnings("unchecked")
-    public List<Transaction> loadTransactions() throws IOException, ClassNotFoundException {
-        File file = new File(TRANSACTIONS_FILE);
-        
-        if (!file.exists()) {
-            LOGGER.info("File transaksi tidak ditemukan, mengembalikan list kosong");
-            return new ArrayList<>();
+    public synchronized List<Transaction> convertLegacyTransactions(File legacyFile)
+            throws IOException, ClassNotFoundException {
+        if (legacyFile == null) {
+            throw new IllegalArgumentException("File tidak boleh null");
         }
-        
+        List<Transaction> transactions;
         try (ObjectInputStream ois = new ObjectInputStream(
-                new BufferedInputStream(new FileInputStream(file)))) {
-            
-            List<Transaction> transactions = (List<Transaction>) ois.readObject();
-            LOGGER.info("Berhasil memuat " + transactions.size() + " transaksi dari file");
-            return transactions;
-            
+                new BufferedInputStream(new FileInputStream(legacyFile)))) {
+            transactions = (List<Transaction>) ois.readObject();
         } catch (IOException | ClassNotFoundException e) {
-            LOGGER.log(Level.SEVERE, "Error memuat transaksi dari file: " + TRANSACTIONS_FILE, e);
+            LOGGER.log(Level.SEVERE, "Error memuat transaksi dari file: " + legacyFile, e);
             throw e;
         }
+        
+        saveTransactions(transactions);
+        File migrated = new File(legacyFile.getPath() + ".migrated");
+        if (!legacyFile.renameTo(migrated)) {
+            LOGGER.warning("Gagal mengganti nama file lama: " + legacyFile);
+        }
+        LOGGER.info("Berhasil migrasi " + transactions.size() + " transaksi ke: " + TRANSACTION_SEGMENT_DIRECTORY);
+        return transactions;
+    }
+    
+    /**
+     * Decode payload record menjadi transaksi
+     * @param payload Bytes record
+     * @param version Versi format log sumber
+     * @return Transaksi
+     * @throws IOException jika payload tidak valid
+     */
+    private Transaction decodeTransaction(byte[] payload, int version) throws IOException {
+        if (version >= 2) {
+            return getTransactionCodec().decode(payload);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (Transaction) ois.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Record transaksi tidak valid", e);
+        }
+    }
+    
+    /**
+     * Menunggu semua penulisan di antrian selesai lalu menutup log transaksi
+     */
+    public void close() {
+        GroupCommitWriter current;
+        synchronized (this) {
+            current = writer;
+            writer = null;
+        }
+        // Jangan tahan lock selama menunggu, thread penulis membutuhkannya
+        if (current != null) {
+            current.close();
+        }
+        closeFiles();
+    }
+    
+    private synchronized void closeFiles() {
+        if (transactionLog != null) {
+            transactionLog.close();
+            transactionLog = null;
+        }
+        if (basketStore != null) {
+            try {
+                basketStore.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error menutup basket store", e);
+            }
+            basketStore = null;
+        }
     }
     
     /**
@@ -111,102 +1095,254 @@ public class DataLoader {
         if (!csvFile.endsWith(".csv")) {
             csvFile += ".csv";
         }
+        exportTransactionsToCSV(transactions, new File(csvFile), false);
+    }
+    
+    /**
+     * Export transaksi ke file CSV secara streaming. Transaksi dibaca satu per
+     * satu dari iterable (misalnya repository) dan ditulis lewat {@link CsvWriter},
+     * sehingga memori tetap konstan untuk jutaan baris.
+     * @param transactions Transaksi yang di-export
+     * @param file File tujuan
+     * @param gzip true untuk mengompres output dengan gzip
+     * @return Jumlah transaksi yang ditulis
+     * @throws IOException jika terjadi error saat menyimpan
+     */
+    public long exportTransactionsToCSV(Iterable<Transaction> transactions, File file, boolean gzip)
+            throws IOException {
+        if (transactions == null) {
+            throw new IllegalArgumentException("Daftar transaksi tidak boleh null");
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("File tidak boleh null");
+        }
         
-        try (PrintWriter writer = new PrintWriter(new FileWriter(csvFile))) {
-            // Header CSV
-            writer.println("Transaction ID,Tanggal,Jumlah Item,Total Harga,Produk");
-            
-            // Data transaksi
+        try (CsvWriter writer = new CsvWriter(file, gzip)) {
+            writer.header("Transaction ID", "Tanggal", "Jumlah Item", "Total Harga", "Produk");
             for (Transaction transaction : transactions) {
-                StringBuilder productNames = new StringBuilder();
-                transaction.getProducts().forEach(product -> {
-                    if (productNames.length() > 0) {
-                        productNames.append(";");
-                    }
-                    productNames.append(product.getNama());
-                });
-                
-                writer.printf("%s,%s,%d,%.2f,\"%s\"%n",
-                    transaction.getTransactionId(),
-                    transaction.getFormattedDate(),
-                    transaction.getItemCount(),
-                    transaction.getTotalHarga(),
-                    productNames.toString()
-                );
+                writer.field(transaction.getTransactionId());
+                writer.field(transaction.getTanggal());
+                writer.field(transaction.getItemCount());
+                writer.field(transaction.getTotalHarga(), 2);
+                writer.joined(transaction.getProducts(), Product::getNama, ";");
+                writer.endRow();
             }
-            
-            LOGGER.info("Berhasil export " + transactions.size() + " transaksi ke CSV: " + csvFile);
-            
+            LOGGER.info("Berhasil export " + writer.getRowCount() + " transaksi ke CSV: " + file);
+            return writer.getRowCount();
+        
         } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Error export transaksi ke CSV: " + csvFile, e);
+            LOGGER.log(Level.SEVERE, "Error export transaksi ke CSV: " + file, e);
             throw e;
+        } catch (UncheckedIOException e) {
+            LOGGER.log(Level.SEVERE, "Error membaca transaksi untuk export: " + file, e);
+            throw e.getCause();
         }
     }
     
     /**
-     * Menghapus file transaksi
+     * Menghapus semua segmen transaksi beserta log tunggal lama jika masih ada
      * @return true jika berhasil dihapus
      */
     public boolean deleteTransactionsFile() {
-        File file = new File(TRANSACTIONS_FILE);
-        if (file.exists()) {
-            boolean deleted = file.delete();
+        close();
+        synchronized (this) {
+            boolean deleted;
+            try {
+                advanceDatasetGeneration();
+                deleted = getTransactionLog().deleteAll();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Gagal membuka direktori segmen transaksi", e);
+                deleted = false;
+            }
+            File singleLog = new File(TRANSACTION_LOG_FILE);
+            deleted &= !singleLog.exists() || singleLog.delete();
             if (deleted) {
-                LOGGER.info("File transaksi berhasil dihapus: " + TRANSACTIONS_FILE);
+                if (repository != null) {
+                    repository.clear();
+                }
+                LOGGER.info("File transaksi berhasil dihapus: " + TRANSACTION_SEGMENT_DIRECTORY);
             } else {
-                LOGGER.warning("Gagal menghapus file transaksi: " + TRANSACTIONS_FILE);
+                LOGGER.warning("Gagal menghapus file transaksi: " + TRANSACTION_SEGMENT_DIRECTORY);
             }
             return deleted;
         }
-        return true; // File tidak ada, dianggap berhasil
     }
     
     /**
      * Mengecek apakah file transaksi ada
-     * @return true jika file ada
+     * @return true jika ada segmen transaksi atau log tunggal lama
      */
-    public boolean transactionsFileExists() {
-        return new File(TRANSACTIONS_FILE).exists();
+    public synchronized boolean transactionsFileExists() {
+        try {
+            return !getTransactionLog().isEmpty() || new File(TRANSACTION_LOG_FILE).exists();
+        } catch (IOException e) {
+            return new File(TRANSACTION_LOG_FILE).exists();
+        }
     }
     
     /**
-     * Mendapatkan ukuran file transaksi dalam bytes
-     * @return Ukuran file dalam bytes, -1 jika file tidak ada
+     * Mendapatkan total ukuran segmen transaksi dalam bytes
+     * @return Ukuran dalam bytes, -1 jika belum ada segmen
      */
-    public long getTransactionsFileSize() {
-        File file = new File(TRANSACTIONS_FILE);
-        return file.exists() ? file.length() : -1;
+    public synchronized long getTransactionsFileSize() {
+        try {
+            SegmentedTransactionLog log = getTransactionLog();
+            return log.isEmpty() ? -1 : log.size();
+        } catch (IOException e) {
+            return -1;
+        }
     }
     
     /**
-     * Membuat backup file transaksi
+     * Membuat backup inkremental transaksi, lihat {@link #backupTransactions()}
      * @return true jika backup berhasil dibuat
      */
     public boolean backupTransactionsFile() {
-        File sourceFile = new File(TRANSACTIONS_FILE);
-        if (!sourceFile.exists()) {
-            LOGGER.warning("File transaksi tidak ada, tidak dapat membuat backup");
+        try {
+            return backupTransactions() != null;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error membuat backup file transaksi", e);
             return false;
         }
+    }
+    
+    /**
+     * Membuat backup inkremental segmen transaksi dan kamus produk ke
+     * data/backups. Hanya bytes yang ditambahkan sejak backup terakhir yang
+     * disalin dan dikompresi, sehingga waktunya sebanding dengan data baru.
+     * Segmen yang dikompaksi sejak backup terakhir disalin penuh. Log tunggal
+     * lama ikut di-backup jika belum dimigrasikan. Lock hanya dipegang selama
+     * file sumber dibuka, sehingga penulisan tidak menunggu kompresi dan fsync backup.
+     * @return Manifest backup, atau null jika belum ada file transaksi
+     * @throws IOException jika backup gagal
+     */
+    public IncrementalBackup.Manifest backupTransactions() throws IOException {
+        List<IncrementalBackup.Source> sources = openBackupSources();
+        if (sources == null) {
+            return null;
+        }
+        try {
+            return getBackup().backup(sources);
+        } finally {
+            closeBackupSources(sources);
+        }
+    }
+    
+    /**
+     * Membuka file yang di-backup beserta panjangnya saat ini
+     * @return Sumber backup yang sudah dibuka, atau null jika belum ada file transaksi
+     */
+    private synchronized List<IncrementalBackup.Source> openBackupSources() throws IOException {
+        SegmentedTransactionLog log = getTransactionLog();
+        File singleLog = new File(TRANSACTION_LOG_FILE);
+        if (log.isEmpty() && !singleLog.exists()) {
+            LOGGER.warning("File transaksi tidak ada, tidak dapat membuat backup");
+            return null;
+        }
         
-        String backupFileName = TRANSACTIONS_FILE + ".backup." + System.currentTimeMillis();
-        File backupFile = new File(backupFileName);
-        
-        try (FileInputStream fis = new FileInputStream(sourceFile);
-             FileOutputStream fos = new FileOutputStream(backupFile)) {
-            
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = fis.read(buffer)) > 0) {
-                fos.write(buffer, 0, length);
+        // Panjang segmen diambil setelah sync, sehingga backup berhenti di batas record
+        log.sync();
+        saveProductDictionaryIfDirty();
+        List<IncrementalBackup.Source> sources = new ArrayList<>();
+        try {
+            for (SegmentedTransactionLog.SegmentInfo segment : log.getSegments()) {
+                sources.add(new IncrementalBackup.Source(segment.getFile().getName(), segment.getFile(),
+                                                         segment.getSizeInBytes()));
+            }
+            for (File file : new File[] {singleLog, new File(PRODUCT_DICTIONARY_FILE)}) {
+                if (file.exists()) {
+                    sources.add(new IncrementalBackup.Source(file.getName(), file, file.length()));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            closeBackupSources(sources);
+            throw e;
+        }
+        return sources;
+    }
+    
+    private static void closeBackupSources(List<IncrementalBackup.Source> sources) {
+        for (IncrementalBackup.Source source : sources) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error menutup file sumber backup", e);
+            }
+        }
+    }
+    
+    private synchronized IncrementalBackup getBackup() throws IOException {
+        if (backup == null) {
+            backup = new IncrementalBackup(new File(BACKUP_DIRECTORY));
+        }
+        return backup;
+    }
+    
+    /**
+     * Mendapatkan semua backup transaksi
+     * @return Daftar manifest, terurut dari backup terlama
+     * @throws IOException jika direktori backup tidak dapat dibaca
+     */
+    public List<IncrementalBackup.Manifest> getTransactionBackups() throws IOException {
+        return getBackup().getManifests();
+    }
+    
+    /**
+     * Menghapus backup lama beserta chunk yang tidak lagi dipakai
+     * @param keep Jumlah backup terbaru yang dipertahankan
+     * @return Jumlah backup yang dihapus
+     * @throws IOException jika gagal menghapus
+     */
+    public int pruneTransactionBackups(int keep) throws IOException {
+        return getBackup().prune(keep);
+    }
+    
+    /**
+     * Memulihkan transaksi ke kondisi saat backup dibuat. Segmen disusun ulang
+     * di direktori sementara lalu menggantikan direktori segmen, seperti pada
+     * {@link #saveTransactions(List)}. Produk dari kamus backup ditambahkan ke
+     * kamus saat ini; entri yang sudah ada tidak diubah. Repository yang sudah
+     * terbuka diindeks ulang.
+     * @param backupName Nama backup
+     * @throws IOException jika backup tidak lengkap atau gagal dipulihkan
+     */
+    public void restoreTransactionsBackup(String backupName) throws IOException {
+        // Tunggu penulisan yang masih diantrikan sebelum segmen diganti
+        close();
+        synchronized (this) {
+            IncrementalBackup.Manifest manifest = getBackup().getManifest(backupName);
+            if (manifest == null) {
+                throw new IllegalArgumentException("Backup tidak ditemukan: " + backupName);
             }
+            getTransactionLog(); // Menyelesaikan penggantian sebelumnya jika ada
+            File tempDirectory = new File(TRANSACTION_SEGMENT_DIRECTORY + ".tmp");
+            deleteDirectory(tempDirectory);
+            getBackup().restore(manifest, tempDirectory);
             
-            LOGGER.info("Backup berhasil dibuat: " + backupFileName);
-            return true;
+            File restoredDictionary = new File(tempDirectory, new File(PRODUCT_DICTIONARY_FILE).getName());
+            if (restoredDictionary.exists()) {
+                getTransactionCodec();
+                for (Product product : new ProductDictionary(restoredDictionary).getProducts()) {
+                    productDictionary.register(product);
+                }
+                saveProductDictionaryIfDirty();
+                Files.delete(restoredDictionary.toPath());
+            }
+            File logFile = new File(TRANSACTION_LOG_FILE);
+            File restoredLog = new File(tempDirectory, logFile.getName());
+            if (restoredLog.exists()) {
+                Files.move(restoredLog.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
             
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Error membuat backup file transaksi", e);
-            return false;
+            replaceSegmentDirectory();
+            basketStoreStale = true;
+            if (repository != null) {
+                if (logFile.exists()) {
+                    migrateSingleLog(logFile);
+                }
+                compactSegments(indexTransactionLog());
+            }
+            LOGGER.info("Transaksi dipulihkan dari backup " + manifest);
         }
     }
     
@@ -214,24 +1350,34 @@ public class DataLoader {
      * Mendapatkan informasi file transaksi
      * @return String berisi informasi file
      */
-    public String getFileInfo() {
-        File file = new File(TRANSACTIONS_FILE);
-        if (!file.exists()) {
+    public synchronized String getFileInfo() {
+        List<SegmentedTransactionLog.SegmentInfo> segments;
+        try {
+            segments = getTransactionLog().getSegments();
+        } catch (IOException e) {
+            return "Direktori transaksi tidak dapat dibuka: " + e.getMessage();
+        }
+        if (segments.isEmpty()) {
             return "File transaksi tidak ditemukan";
         }
         
+        File directory = new File(TRANSACTION_SEGMENT_DIRECTORY);
         return String.format(
             "Informasi File Transaksi:\n" +
             "Lokasi: %s\n" +
             "Ukuran: %d bytes\n" +
+            "Jumlah segmen: %d (%s s/d %s)\n" +
             "Terakhir dimodifikasi: %s\n" +
             "Dapat dibaca: %s\n" +
             "Dapat ditulis: %s",
-            file.getAbsolutePath(),
-            file.length(),
-            new java.util.Date(file.lastModified()),
-            file.canRead() ? "Ya" : "Tidak",
-            file.canWrite() ? "Ya" : "Tidak"
+            directory.getAbsolutePath(),
+            transactionLog.size(),
+            segments.size(),
+            segments.get(0).getName(),
+            segments.get(segments.size() - 1).getName(),
+            new java.util.Date(directory.lastModified()),
+            directory.canRead() ? "Ya" : "Tidak",
+            directory.canWrite() ? "Ya" : "Tidak"
         );
     }
 }
@@ -0,0 +1,478 @@
+package com.aplikasipenjualan.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Penulis latar belakang dengan group commit.
+ * 
+ * Semua penulisan diantrikan ke satu thread penulis. Thread tersebut mengambil
+ * sebanyak mungkin penulisan yang sedang menunggu (hingga batas batch),
+ * menjalankannya tanpa fsync, lalu melakukan satu fsync untuk seluruh batch
+ * sesuai {@link SyncPolicy}. Urutan penulisan selalu sama dengan urutan submit.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class GroupCommitWriter implements Closeable {
+    
+    private static final Logger LOGGER = Logger.getLogger(GroupCommitWriter.class.getName());
+    
+    /** Ukuran batch maksimum default */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    /** Interval fsync default untuk {@link SyncPolicy#INTERVAL} */
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 200;
+    
+    /**
+     * Kebijakan fsync setelah batch ditulis
+     */
+    public enum SyncPolicy {
+        /** Fsync setiap batch, future selesai setelah data ada di disk */
+        EVERY_COMMIT,
+        /** Fsync paling lama setiap interval, future selesai setelah data ditulis ke OS */
+        INTERVAL,
+        /** Tidak pernah fsync secara eksplisit, diserahkan ke sistem operasi */
+        NEVER
+    }
+    
+    /**
+     * Satu operasi penulisan yang dijalankan di thread penulis
+     */
+    public interface WriteTask {
+        /**
+         * Menjalankan penulisan tanpa fsync
+         * @throws IOException jika penulisan gagal
+         */
+        void write() throws IOException;
+    }
+    
+    /**
+     * Aksi fsync untuk seluruh batch
+     */
+    public interface SyncAction {
+        /**
+         * Memaksa semua data yang sudah ditulis ke disk
+         * @throws IOException jika sinkronisasi gagal
+         */
+        void sync() throws IOException;
+    }
+    
+    /**
+     * Penulisan sudah masuk ke log tetapi fsync-nya gagal. Data tetap tersimpan
+     * (dan ikut fsync berikutnya), hanya belum dipastikan ada di disk, sehingga
+     * pemanggil tidak boleh memperlakukannya sebagai penulisan yang gagal.
+     */
+    public static class NotDurableException extends IOException {
+        
+        private static final long serialVersionUID = 1L;
+        
+        /**
+         * @param cause Error fsync
+         */
+        public NotDurableException(Throwable cause) {
+            super("Data sudah ditulis tetapi belum dipastikan tersimpan di disk: " + cause.getMessage(), cause);
+        }
+    }
+    
+    /**
+     * Snapshot metrik penulis
+     */
+    public static final class Metrics {
+        private final int pendingWrites;
+        private final long committedWrites;
+        private final long failedWrites;
+        private final long commits;
+        private final long syncs;
+        private final int maxBatchSize;
+        private final double averageBatchSize;
+        private final double averageCommitLatencyMillis;
+        private final long maxCommitLatencyMillis;
+        private final int unsyncedWrites;
+        private final long durabilityLagMillis;
+        
+        private Metrics(GroupCommitWriter writer, long now) {
+            this.pendingWrites = writer.queue.size();
+            this.committedWrites = writer.committedWrites;
+            this.failedWrites = writer.failedWrites;
+            this.commits = writer.commits;
+            this.syncs = writer.syncs;
+            this.maxBatchSize = writer.largestBatch;
+            this.averageBatchSize = commits > 0 ? (double) (committedWrites + failedWrites) / commits : 0.0;
+            this.averageCommitLatencyMillis = committedWrites > 0
+                    ? writer.totalLatencyNanos / 1e6 / committedWrites : 0.0;
+            this.maxCommitLatencyMillis = TimeUnit.NANOSECONDS.toMillis(writer.maxLatencyNanos);
+            this.unsyncedWrites = writer.unsyncedWrites;
+            this.durabilityLagMillis = writer.unsyncedWrites > 0
+                    ? TimeUnit.NANOSECONDS.toMillis(now - writer.oldestUnsyncedNanos) : 0;
+        }
+        
+        /** @return Jumlah penulisan yang masih di antrian */
+        public int getPendingWrites() {
+            return pendingWrites;
+        }
+        
+        /** @return Jumlah penulisan yang berhasil */
+        public long getCommittedWrites() {
+            return committedWrites;
+        }
+        
+        /** @return Jumlah penulisan yang gagal */
+        public long getFailedWrites() {
+            return failedWrites;
+        }
+        
+        /** @return Jumlah batch yang sudah di-commit */
+        public long getCommits() {
+            return commits;
+        }
+        
+        /** @return Jumlah fsync yang dilakukan */
+        public long getSyncs() {
+            return syncs;
+        }
+        
+        /** @return Ukuran batch terbesar */
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+        
+        /** @return Rata-rata jumlah penulisan per batch */
+        public double getAverageBatchSize() {
+            return averageBatchSize;
+        }
+        
+        /** @return Rata-rata waktu dari submit sampai future selesai (ms) */
+        public double getAverageCommitLatencyMillis() {
+            return averageCommitLatencyMillis;
+        }
+        
+        /** @return Waktu terlama dari submit sampai future selesai (ms) */
+        public long getMaxCommitLatencyMillis() {
+            return maxCommitLatencyMillis;
+        }
+        
+        /** @return Jumlah penulisan yang sudah ditulis tetapi belum di-fsync */
+        public int getUnsyncedWrites() {
+            return unsyncedWrites;
+        }
+        
+        /** @return Umur penulisan tertua yang belum di-fsync (ms), 0 jika semua sudah di disk */
+        public long getDurabilityLagMillis() {
+            return durabilityLagMillis;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Antrian: %d, Commit: %d (rata-rata %.1f/batch), Fsync: %d, " +
+                               "Latensi rata-rata: %.1f ms, Belum di disk: %d (lag %d ms), Gagal: %d",
+                               pendingWrites, commits, averageBatchSize, syncs,
+                               averageCommitLatencyMillis, unsyncedWrites, durabilityLagMillis, failedWrites);
+        }
+    }
+    
+    /**
+     * Penulisan di antrian beserta future-nya
+     */
+    private static final class PendingWrite {
+        private final WriteTask task;
+        private final CompletableFuture<Void> future;
+        private final long submittedNanos;
+        private final boolean forceSync;
+        
+        private PendingWrite(WriteTask task, boolean forceSync) {
+            this.task = task;
+            this.future = new CompletableFuture<>();
+            this.submittedNanos = System.nanoTime();
+            this.forceSync = forceSync;
+        }
+    }
+    
+    private final SyncAction syncAction;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingWrite> queue;
+    private final Thread writerThread;
+    private volatile SyncPolicy syncPolicy;
+    private volatile long syncIntervalMillis;
+    private volatile boolean closed;
+    
+    // Metrik, hanya diubah oleh thread penulis dan dibaca di bawah lock
+    private long committedWrites;
+    private long failedWrites;
+    private long commits;
+    private long syncs;
+    private int largestBatch;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+    private int unsyncedWrites;
+    private long oldestUnsyncedNanos;
+    private long lastSyncNanos;
+    private final List<PendingWrite> awaitingSync;
+    
+    /**
+     * Constructor dengan ukuran batch dan interval default
+     * @param name Nama thread penulis
+     * @param syncAction Aksi fsync
+     * @param syncPolicy Kebijakan fsync
+     */
+    public GroupCommitWriter(String name, SyncAction syncAction, SyncPolicy syncPolicy) {
+        this(name, syncAction, syncPolicy, DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+    
+    /**
+     * Constructor - langsung menjalankan thread penulis (daemon)
+     * @param name Nama thread penulis
+     * @param syncAction Aksi fsync
+     * @param syncPolicy Kebijakan fsync
+     * @param syncIntervalMillis Interval fsync untuk {@link SyncPolicy#INTERVAL}
+     * @param maxBatchSize Jumlah penulisan maksimum per batch
+     * @throws IllegalArgumentException jika parameter tidak valid
+     */
+    public GroupCommitWriter(String name, SyncAction syncAction, SyncPolicy syncPolicy,
+                             long syncIntervalMillis, int maxBatchSize) {
+        if (syncAction == null) {
+            throw new IllegalArgumentException("Aksi sync tidak boleh null");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Ukuran batch harus lebih dari 0");
+        }
+        this.syncAction = syncAction;
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new LinkedBlockingQueue<>();
+        this.awaitingSync = new ArrayList<>();
+        setSyncPolicy(syncPolicy, syncIntervalMillis);
+        
+        this.writerThread = new Thread(this::runWriter, name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+    
+    /**
+     * Mengubah kebijakan fsync, berlaku mulai batch berikutnya
+     * @param syncPolicy Kebijakan fsync
+     * @param syncIntervalMillis Interval fsync untuk {@link SyncPolicy#INTERVAL}
+     * @throws IllegalArgumentException jika parameter tidak valid
+     */
+    public void setSyncPolicy(SyncPolicy syncPolicy, long syncIntervalMillis) {
+        if (syncPolicy == null) {
+            throw new IllegalArgumentException("Kebijakan sync tidak boleh null");
+        }
+        if (syncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval sync harus lebih dari 0");
+        }
+        this.syncPolicy = syncPolicy;
+        this.syncIntervalMillis = syncIntervalMillis;
+    }
+    
+    /**
+     * Getter untuk kebijakan fsync
+     * @return Kebijakan fsync
+     */
+    public SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+    
+    /**
+     * Mengantrikan penulisan
+     * @param task Penulisan
+     * @return Future yang selesai saat penulisan sudah di-commit sesuai kebijakan fsync
+     * @throws IllegalStateException jika penulis sudah ditutup
+     */
+    public CompletableFuture<Void> submit(WriteTask task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task tidak boleh null");
+        }
+        return enqueue(new PendingWrite(task, false));
+    }
+    
+    /**
+     * Mengantrikan penanda yang memaksa fsync setelah semua penulisan sebelumnya
+     * @return Future yang selesai saat semua penulisan sebelumnya sudah di disk
+     */
+    public CompletableFuture<Void> flush() {
+        return enqueue(new PendingWrite(() -> { }, true));
+    }
+    
+    private synchronized CompletableFuture<Void> enqueue(PendingWrite write) {
+        if (closed) {
+            throw new IllegalStateException("Penulis sudah ditutup");
+        }
+        queue.add(write);
+        return write.future;
+    }
+    
+    private synchronized boolean isDrained() {
+        return closed && queue.isEmpty();
+    }
+    
+    /**
+     * Loop thread penulis
+     */
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>();
+        while (true) {
+            try {
+                PendingWrite first = queue.poll(pollTimeoutMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (isDrained()) {
+                        syncPending(true);
+                        return;
+                    }
+                    syncPending(false);
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                commit(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error tidak terduga di thread penulis", e);
+                for (PendingWrite write : batch) {
+                    write.future.completeExceptionally(e);
+                }
+                batch.clear();
+            }
+        }
+    }
+    
+    private long pollTimeoutMillis() {
+        if (closed) {
+            return 10;
+        }
+        return syncPolicy == SyncPolicy.INTERVAL ? syncIntervalMillis : 1000;
+    }
+    
+    /**
+     * Menjalankan satu batch lalu fsync sesuai kebijakan
+     */
+    private void commit(List<PendingWrite> batch) {
+        List<PendingWrite> written = new ArrayList<>(batch.size());
+        boolean forceSync = false;
+        for (PendingWrite write : batch) {
+            try {
+                write.task.write();
+                written.add(write);
+                forceSync |= write.forceSync;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Penulisan gagal", e);
+                synchronized (this) {
+                    failedWrites++;
+                }
+                write.future.completeExceptionally(e);
+            }
+        }
+        
+        long now = System.nanoTime();
+        synchronized (this) {
+            commits++;
+            largestBatch = Math.max(largestBatch, batch.size());
+            if (unsyncedWrites == 0 && !written.isEmpty()) {
+                oldestUnsyncedNanos = written.get(0).submittedNanos;
+            }
+            unsyncedWrites += written.size();
+        }
+        
+        SyncPolicy policy = syncPolicy;
+        if (policy == SyncPolicy.EVERY_COMMIT || forceSync) {
+            awaitingSync.addAll(written);
+            syncPending(true);
+        } else {
+            // Data sudah ada di page cache OS; lag durabilitas tercatat di metrik
+            for (PendingWrite write : written) {
+                complete(write, now);
+            }
+            syncPending(false);
+        }
+    }
+    
+    /**
+     * Melakukan fsync jika dipaksa atau interval sudah lewat
+     */
+    private void syncPending(boolean force) {
+        boolean due;
+        synchronized (this) {
+            if (unsyncedWrites == 0 && awaitingSync.isEmpty()) {
+                return;
+            }
+            due = force || (syncPolicy == SyncPolicy.INTERVAL
+                    && System.nanoTime() - lastSyncNanos >= TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis));
+        }
+        if (!due) {
+            return;
+        }
+        
+        try {
+            syncAction.sync();
+            long now = System.nanoTime();
+            synchronized (this) {
+                syncs++;
+                lastSyncNanos = now;
+                unsyncedWrites = 0;
+            }
+            for (PendingWrite write : awaitingSync) {
+                complete(write, now);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Record sudah ada di log, jadi jangan laporkan sebagai gagal ditulis;
+            // unsyncedWrites tidak direset sehingga fsync dicoba lagi
+            LOGGER.log(Level.SEVERE, "Fsync gagal", e);
+            NotDurableException notDurable = new NotDurableException(e);
+            synchronized (this) {
+                committedWrites += awaitingSync.size();
+            }
+            for (PendingWrite write : awaitingSync) {
+                write.future.completeExceptionally(notDurable);
+            }
+        }
+        awaitingSync.clear();
+    }
+    
+    private void complete(PendingWrite write, long now) {
+        long latency = now - write.submittedNanos;
+        synchronized (this) {
+            committedWrites++;
+            totalLatencyNanos += latency;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+        }
+        write.future.complete(null);
+    }
+    
+    /**
+     * Mendapatkan snapshot metrik penulis
+     * @return Metrik saat ini
+     */
+    public synchronized Metrics getMetrics() {
+        return new Metrics(this, System.nanoTime());
+    }
+    
+    /**
+     * Menutup penulis setelah semua penulisan di antrian selesai dan di-fsync
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            LOGGER.warning("Thread penulis belum selesai setelah 30 detik");
+        }
+    }
+}
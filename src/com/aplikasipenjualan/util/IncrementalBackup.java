@@ -0,0 +1,491 @@
+package com.aplikasipenjualan.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Backup inkremental untuk file yang umumnya hanya ditambah di akhir, seperti
+ * segmen log transaksi. Setiap backup hanya menyalin bagian file yang bertambah
+ * sejak backup sebelumnya ke chunk gzip baru, langsung dari FileChannel sumber
+ * dengan transferTo. File yang awal atau akhir bagian lamanya berubah
+ * (misalnya setelah kompaksi atau kamus produk disimpan ulang) disalin penuh.
+ * 
+ * Setiap backup ditutup dengan manifest yang mencatat panjang setiap file dan
+ * daftar chunk penyusunnya, sehingga satu manifest cukup untuk memulihkan
+ * semua file ke kondisi saat backup tersebut dibuat. Chunk dipakai bersama
+ * oleh beberapa manifest, dan manifest baru ditulis setelah semua chunknya
+ * selesai sehingga backup yang terputus tidak pernah terlihat.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class IncrementalBackup {
+    
+    private static final Logger LOGGER = Logger.getLogger(IncrementalBackup.class.getName());
+    
+    /** Akhiran file manifest */
+    public static final String MANIFEST_SUFFIX = ".manifest";
+    
+    private static final String CHUNK_DIRECTORY = "chunks";
+    private static final String CHUNK_SUFFIX = ".gz";
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Jumlah bytes di awal dan di akhir bagian lama yang dibandingkan
+    private static final int FINGERPRINT_BYTES = 4096;
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    
+    private final File directory;
+    private final File chunkDirectory;
+    
+    /**
+     * File yang akan di-backup beserta panjang yang disalin. File dibuka saat
+     * Source dibuat, sehingga yang disalin tetap isi file tersebut walaupun
+     * setelahnya diganti lewat rename (kompaksi, arsip, simpan atomik).
+     */
+    public static final class Source implements Closeable {
+        private final String name;
+        private final FileChannel channel;
+        private final long length;
+        
+        /**
+         * Constructor
+         * @param name Nama file di dalam backup, tanpa pemisah direktori
+         * @param file File sumber
+         * @param length Panjang yang disalin; bytes setelahnya diabaikan
+         * @throws IOException jika file tidak dapat dibuka
+         */
+        public Source(String name, File file, long length) throws IOException {
+            checkName(name);
+            if (file == null) {
+                throw new IllegalArgumentException("File sumber tidak boleh null");
+            }
+            if (length < 0) {
+                throw new IllegalArgumentException("Panjang file tidak boleh negatif");
+            }
+            this.name = name;
+            this.length = length;
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+    
+    /**
+     * Potongan file terkompresi di direktori chunk
+     */
+    private static final class Chunk {
+        private final String file;
+        private final long offset;
+        private final long length;
+        
+        Chunk(String file, long offset, long length) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+    
+    /**
+     * Satu file di dalam manifest
+     */
+    public static final class Entry {
+        private final String name;
+        private final long length;
+        private final long fingerprint;
+        private final List<Chunk> chunks;
+        
+        private Entry(String name, long length, long fingerprint, List<Chunk> chunks) {
+            this.name = name;
+            this.length = length;
+            this.fingerprint = fingerprint;
+            this.chunks = chunks;
+        }
+        
+        /** @return Nama file */
+        public String getName() {
+            return name;
+        }
+        
+        /** @return Panjang file saat backup dibuat */
+        public long getLength() {
+            return length;
+        }
+        
+        /** @return Jumlah chunk penyusun file */
+        public int getChunkCount() {
+            return chunks.size();
+        }
+    }
+    
+    /**
+     * Manifest satu backup (point-in-time)
+     */
+    public static final class Manifest {
+        private final String name;
+        private final long createdAt;
+        private final Map<String, Entry> entries;
+        private long copiedBytes;
+        
+        private Manifest(String name, long createdAt) {
+            this.name = name;
+            this.createdAt = createdAt;
+            this.entries = new LinkedHashMap<>();
+        }
+        
+        /** @return Nama backup, juga dipakai untuk memulihkannya */
+        public String getName() {
+            return name;
+        }
+        
+        /** @return Waktu pembuatan backup (epoch millis) */
+        public long getCreatedAt() {
+            return createdAt;
+        }
+        
+        /** @return File di dalam backup */
+        public List<Entry> getEntries() {
+            return new ArrayList<>(entries.values());
+        }
+        
+        /** @return Total panjang semua file saat backup dibuat */
+        public long getTotalBytes() {
+            long total = 0;
+            for (Entry entry : entries.values()) {
+                total += entry.length;
+            }
+            return total;
+        }
+        
+        /** @return Bytes yang benar-benar disalin oleh backup ini */
+        public long getCopiedBytes() {
+            return copiedBytes;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s (%d file, %d bytes, %d bytes baru)",
+                                 name, entries.size(), getTotalBytes(), copiedBytes);
+        }
+    }
+    
+    /**
+     * Constructor - membuat direktori backup jika belum ada
+     * @param directory Direktori backup
+     * @throws IOException jika direktori tidak dapat dibuat
+     */
+    public IncrementalBackup(File directory) throws IOException {
+        this.directory = directory;
+        this.chunkDirectory = new File(directory, CHUNK_DIRECTORY);
+        if (!chunkDirectory.isDirectory() && !chunkDirectory.mkdirs()) {
+            throw new IOException("Gagal membuat direktori backup: " + directory);
+        }
+    }
+    
+    private static void checkName(String name) {
+        if (name == null || name.isEmpty() || name.startsWith(".")
+                || name.indexOf('/') >= 0 || name.indexOf('\\') >= 0 || name.indexOf(' ') >= 0) {
+            throw new IllegalArgumentException("Nama file backup tidak valid: " + name);
+        }
+    }
+    
+    /**
+     * Membuat backup baru. File yang sudah ada di backup terakhir dan hanya
+     * bertambah di akhir disalin sebagian, file lain disalin penuh.
+     * @param sources File yang di-backup; tetap terbuka dan ditutup oleh pemanggil
+     * @return Manifest backup baru
+     * @throws IOException jika gagal menyalin; chunk yang sudah ditulis dihapus
+     */
+    public synchronized Manifest backup(List<Source> sources) throws IOException {
+        if (sources == null) {
+            throw new IllegalArgumentException("Daftar file tidak boleh null");
+        }
+        List<Manifest> manifests = getManifests();
+        Manifest previous = manifests.isEmpty() ? null : manifests.get(manifests.size() - 1);
+        Manifest manifest = new Manifest(newName(), System.currentTimeMillis());
+        List<File> written = new ArrayList<>();
+        
+        try {
+            for (Source source : sources) {
+                FileChannel channel = source.channel;
+                long length = Math.min(source.length, channel.size());
+                Entry last = previous != null ? previous.entries.get(source.name) : null;
+                List<Chunk> chunks = new ArrayList<>();
+                long from = 0;
+                if (last != null && last.length <= length
+                        && fingerprint(channel, last.length) == last.fingerprint) {
+                    chunks.addAll(last.chunks);
+                    from = last.length;
+                }
+                if (from < length) {
+                    File chunkFile = new File(chunkDirectory, source.name + "." + manifest.name + CHUNK_SUFFIX);
+                    written.add(chunkFile);
+                    copyToChunk(channel, from, length - from, chunkFile);
+                    chunks.add(new Chunk(chunkFile.getName(), from, length - from));
+                    manifest.copiedBytes += length - from;
+                }
+                manifest.entries.put(source.name,
+                                     new Entry(source.name, length, fingerprint(channel, length), chunks));
+            }
+            writeManifest(manifest);
+        } catch (IOException | RuntimeException e) {
+            for (File file : written) {
+                Files.deleteIfExists(file.toPath());
+            }
+            throw e;
+        }
+        LOGGER.info("Backup " + manifest + " selesai");
+        return manifest;
+    }
+    
+    private String newName() {
+        long time = System.currentTimeMillis();
+        String name;
+        do {
+            name = NAME_FORMAT.format(Instant.ofEpochMilli(time++).atZone(ZoneId.systemDefault()));
+        } while (new File(directory, name + MANIFEST_SUFFIX).exists());
+        return name;
+    }
+    
+    /**
+     * Sidik bagian awal dan akhir [0, length) beserta panjangnya. Untuk file
+     * yang hanya ditambah di akhir, sidik ini tidak berubah selama bagian
+     * tersebut tidak ditulis ulang.
+     */
+    private static long fingerprint(FileChannel channel, long length) throws IOException {
+        CRC32 crc = new CRC32();
+        int head = (int) Math.min(length, FINGERPRINT_BYTES);
+        crc.update(read(channel, 0, head));
+        long tailStart = Math.max(head, length - FINGERPRINT_BYTES);
+        crc.update(read(channel, tailStart, (int) (length - tailStart)));
+        return (crc.getValue() << 32) ^ length;
+    }
+    
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("File berubah selama backup");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+    
+    private static void copyToChunk(FileChannel source, long offset, long length, File chunkFile)
+            throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(chunkFile)) {
+            GZIPOutputStream out = new GZIPOutputStream(fos, BUFFER_SIZE);
+            WritableByteChannel target = Channels.newChannel(out);
+            long copied = 0;
+            while (copied < length) {
+                long transferred = source.transferTo(offset + copied, length - copied, target);
+                if (transferred <= 0) {
+                    throw new EOFException("File berubah selama backup");
+                }
+                copied += transferred;
+            }
+            out.finish();
+            fos.getFD().sync();
+        }
+    }
+    
+    private void writeManifest(Manifest manifest) throws IOException {
+        File file = new File(directory, manifest.name + MANIFEST_SUFFIX);
+        File tempFile = new File(directory, manifest.name + MANIFEST_SUFFIX + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tempFile);
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(fos, StandardCharsets.UTF_8))) {
+            out.println("# Backup transaksi " + manifest.name);
+            out.println("created " + manifest.createdAt);
+            out.println("copied " + manifest.copiedBytes);
+            for (Entry entry : manifest.entries.values()) {
+                out.println("file " + entry.name + " " + entry.length + " " + entry.fingerprint);
+                for (Chunk chunk : entry.chunks) {
+                    out.println("chunk " + chunk.file + " " + chunk.offset + " " + chunk.length);
+                }
+            }
+            out.flush();
+            if (out.checkError()) {
+                throw new IOException("Gagal menulis manifest: " + file);
+            }
+            fos.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private Manifest readManifest(File file) throws IOException {
+        String name = file.getName().substring(0, file.getName().length() - MANIFEST_SUFFIX.length());
+        Manifest manifest = null;
+        Entry entry = null;
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(" ");
+                if (parts[0].equals("created") && parts.length == 2 && manifest == null) {
+                    manifest = new Manifest(name, Long.parseLong(parts[1]));
+                } else if (parts[0].equals("copied") && parts.length == 2 && manifest != null) {
+                    manifest.copiedBytes = Long.parseLong(parts[1]);
+                } else if (parts[0].equals("file") && parts.length == 4 && manifest != null) {
+                    checkName(parts[1]);
+                    entry = new Entry(parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                                      new ArrayList<>());
+                    manifest.entries.put(entry.name, entry);
+                } else if (parts[0].equals("chunk") && parts.length == 4 && entry != null) {
+                    checkName(parts[1]);
+                    entry.chunks.add(new Chunk(parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3])));
+                } else {
+                    throw new IOException("Baris manifest tidak valid: " + line);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Manifest backup tidak valid: " + file, e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage() + " di " + file, e);
+        }
+        if (manifest == null) {
+            throw new IOException("Manifest backup kosong: " + file);
+        }
+        return manifest;
+    }
+    
+    /**
+     * Mendapatkan semua backup, terurut dari yang paling lama
+     * @return Daftar manifest
+     * @throws IOException jika ada manifest yang tidak valid
+     */
+    public synchronized List<Manifest> getManifests() throws IOException {
+        File[] files = directory.listFiles((dir, fileName) -> fileName.endsWith(MANIFEST_SUFFIX));
+        List<Manifest> manifests = new ArrayList<>();
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                manifests.add(readManifest(file));
+            }
+        }
+        return manifests;
+    }
+    
+    /**
+     * Mendapatkan satu backup berdasarkan namanya
+     * @param name Nama backup
+     * @return Manifest, atau null jika tidak ada
+     * @throws IOException jika manifest tidak valid
+     */
+    public synchronized Manifest getManifest(String name) throws IOException {
+        checkName(name);
+        File file = new File(directory, name + MANIFEST_SUFFIX);
+        return file.exists() ? readManifest(file) : null;
+    }
+    
+    /**
+     * Memulihkan semua file dari satu backup ke direktori tujuan. Setiap file
+     * disusun ulang dari chunk-nya lalu diperiksa panjang dan sidiknya.
+     * @param manifest Manifest backup
+     * @param targetDirectory Direktori tujuan; file dengan nama yang sama ditimpa
+     * @throws IOException jika chunk hilang, rusak, atau tidak cocok dengan manifest
+     */
+    public synchronized void restore(Manifest manifest, File targetDirectory) throws IOException {
+        if (manifest == null) {
+            throw new IllegalArgumentException("Manifest tidak boleh null");
+        }
+        if (!targetDirectory.isDirectory() && !targetDirectory.mkdirs()) {
+            throw new IOException("Gagal membuat direktori tujuan: " + targetDirectory);
+        }
+        for (Entry entry : manifest.entries.values()) {
+            File target = new File(targetDirectory, entry.name);
+            try (FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.READ,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Chunk chunk : entry.chunks) {
+                    copyFromChunk(new File(chunkDirectory, chunk.file), chunk, out);
+                }
+                if (out.size() != entry.length || fingerprint(out, entry.length) != entry.fingerprint) {
+                    throw new IOException("File hasil pemulihan tidak cocok dengan manifest: " + entry.name);
+                }
+                out.force(true);
+            }
+        }
+        LOGGER.info("Backup " + manifest.name + " dipulihkan ke " + targetDirectory);
+    }
+    
+    private static void copyFromChunk(File chunkFile, Chunk chunk, FileChannel target) throws IOException {
+        try (InputStream in = new GZIPInputStream(new FileInputStream(chunkFile), BUFFER_SIZE)) {
+            ReadableByteChannel source = Channels.newChannel(in);
+            long copied = 0;
+            while (copied < chunk.length) {
+                long transferred = target.transferFrom(source, chunk.offset + copied, chunk.length - copied);
+                if (transferred <= 0) {
+                    throw new EOFException("Chunk backup terpotong: " + chunk.file);
+                }
+                copied += transferred;
+            }
+            // Membaca sampai akhir stream memeriksa CRC gzip
+            if (in.read() != -1) {
+                throw new IOException("Chunk backup lebih panjang dari manifest: " + chunk.file);
+            }
+        }
+    }
+    
+    /**
+     * Menghapus backup lama dan chunk yang tidak lagi dipakai oleh backup yang tersisa
+     * @param keep Jumlah backup terbaru yang dipertahankan, minimal 1
+     * @return Jumlah backup yang dihapus
+     * @throws IOException jika manifest tidak valid atau file gagal dihapus
+     */
+    public synchronized int prune(int keep) throws IOException {
+        if (keep < 1) {
+            throw new IllegalArgumentException("Jumlah backup yang dipertahankan minimal 1");
+        }
+        List<Manifest> manifests = getManifests();
+        int removed = Math.max(0, manifests.size() - keep);
+        for (Manifest manifest : manifests.subList(0, removed)) {
+            Files.deleteIfExists(new File(directory, manifest.name + MANIFEST_SUFFIX).toPath());
+        }
+        Set<String> referenced = new HashSet<>();
+        for (Manifest manifest : manifests.subList(removed, manifests.size())) {
+            for (Entry entry : manifest.entries.values()) {
+                for (Chunk chunk : entry.chunks) {
+                    referenced.add(chunk.file);
+                }
+            }
+        }
+        File[] chunkFiles = chunkDirectory.listFiles();
+        if (chunkFiles != null) {
+            for (File file : chunkFiles) {
+                if (!referenced.contains(file.getName())) {
+                    Files.deleteIfExists(file.toPath());
+                }
+            }
+        }
+        return removed;
+    }
+    
+    /**
+     * Getter untuk direktori backup
+     * @return Direktori backup
+     */
+    public File getDirectory() {
+        return directory;
+    }
+}
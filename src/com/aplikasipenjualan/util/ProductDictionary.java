@@ -0,0 +1,160 @@
+package com.aplikasipenjualan.util;
+
+import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.ProductRegistry;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Kamus produk untuk format transaksi biner. Record transaksi hanya
+ * menyimpan ID produk, sedangkan nama, kategori, dan harga disimpan
+ * sekali di file kamus ini.
+ * 
+ * Format file: magic + versi, jumlah entri (varint), lalu per entri
+ * [id varint][nama UTF][kategori UTF][harga double].
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class ProductDictionary {
+    
+    private static final Logger LOGGER = Logger.getLogger(ProductDictionary.class.getName());
+    
+    /** Magic number "APPD" di awal file */
+    public static final int MAGIC = 0x41505044;
+    /** Versi format file */
+    public static final int VERSION = 1;
+    
+    private final File file;
+    private final Map<Integer, Product> products;
+    private boolean dirty;
+    
+    /**
+     * Constructor - memuat kamus dari file jika sudah ada
+     * @param file File kamus produk
+     * @throws IOException jika file ada tetapi tidak valid
+     */
+    public ProductDictionary(File file) throws IOException {
+        this.file = file;
+        this.products = new LinkedHashMap<>();
+        if (file.exists()) {
+            load();
+        }
+    }
+    
+    /**
+     * Memuat seluruh entri dari file
+     */
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Bukan file kamus produk: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Versi kamus produk tidak didukung: " + version);
+            }
+            
+            long count = TransactionCodec.readVarLong(in);
+            for (long i = 0; i < count; i++) {
+                int id = TransactionCodec.zigZagDecode(TransactionCodec.readVarLong(in));
+                String nama = in.readUTF();
+                String kategori = in.readUTF();
+                double harga = in.readDouble();
+                products.put(id, ProductRegistry.intern(new Product(id, nama, kategori, harga)));
+            }
+        } catch (EOFException e) {
+            throw new IOException("Kamus produk terpotong: " + file, e);
+        }
+        LOGGER.info("Berhasil memuat " + products.size() + " produk dari kamus");
+    }
+    
+    /**
+     * Mendapatkan produk berdasarkan ID
+     * @param id ID produk
+     * @return Produk, atau null jika tidak ada di kamus
+     */
+    public synchronized Product get(int id) {
+        return products.get(id);
+    }
+    
+    /**
+     * Mendapatkan semua produk di kamus
+     * @return Salinan daftar produk sesuai urutan pendaftaran
+     */
+    public synchronized List<Product> getProducts() {
+        return new ArrayList<>(products.values());
+    }
+    
+    /**
+     * Mendaftarkan produk ke kamus. Produk baru ditambahkan, sedangkan produk
+     * dengan ID yang sudah ada hanya cocok jika semua atributnya sama.
+     * @param product Produk yang didaftarkan
+     * @return true jika produk dapat direferensikan hanya dengan ID-nya,
+     *         false jika atributnya berbeda dari entri kamus
+     */
+    public synchronized boolean register(Product product) {
+        Product existing = products.get(product.getId());
+        if (existing == null) {
+            products.put(product.getId(), ProductRegistry.intern(product));
+            dirty = true;
+            return true;
+        }
+        return existing.equals(product);
+    }
+    
+    /**
+     * Cek apakah ada entri baru yang belum disimpan
+     * @return true jika kamus perlu disimpan
+     */
+    public synchronized boolean isDirty() {
+        return dirty;
+    }
+    
+    /**
+     * Mendapatkan jumlah produk di kamus
+     * @return Jumlah entri
+     */
+    public synchronized int size() {
+        return products.size();
+    }
+    
+    /**
+     * Menyimpan kamus ke file sementara lalu memindahkannya secara atomik
+     * @throws IOException jika gagal menyimpan
+     */
+    public synchronized void save() throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tempFile);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            TransactionCodec.writeVarLong(out, products.size());
+            for (Product product : products.values()) {
+                TransactionCodec.writeVarLong(out, TransactionCodec.zigZagEncode(product.getId()));
+                out.writeUTF(product.getNama());
+                out.writeUTF(product.getKategori());
+                out.writeDouble(product.getHarga());
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), file.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        dirty = false;
+    }
+    
+    /**
+     * Getter untuk file kamus
+     * @return File kamus
+     */
+    public File getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,494 @@
+package com.aplikasipenjualan.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Log transaksi yang dipartisi per bulan. Setiap bulan disimpan sebagai
+ * {@link TransactionLog} tersendiri (yyyy-MM.log), dan transaksi tanpa tanggal
+ * disimpan di undated.log. Tombstone penghapusan selalu ditulis ke segmen yang
+ * sama dengan record transaksinya, sehingga setiap segmen dapat dikompaksi atau
+ * diarsipkan tanpa menyentuh segmen lain.
+ * 
+ * Posisi record dikodekan dalam satu long: kunci segmen di bit atas dan
+ * offset di dalam segmen di 40 bit bawah. Segmen hanya dibuka saat pertama
+ * kali dibaca atau ditulis, sehingga query rentang tanggal hanya membuka
+ * segmen yang relevan. Setiap segmen juga menyimpan tanggal minimum dan
+ * maksimum transaksinya sebagai indeks rentang.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class SegmentedTransactionLog implements Closeable {
+    
+    private static final Logger LOGGER = Logger.getLogger(SegmentedTransactionLog.class.getName());
+    
+    /** Kunci segmen untuk transaksi tanpa tanggal */
+    public static final int UNDATED_SEGMENT = 0;
+    
+    private static final int OFFSET_BITS = 40;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final String UNDATED_NAME = "undated";
+    private static final String SUFFIX = ".log";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("(\\d{4})-(\\d{2})\\.log");
+    
+    private final File directory;
+    private final TreeMap<Integer, Segment> segments;
+    private final Set<Segment> unsynced;
+    
+    /**
+     * Callback untuk setiap record saat segmen diputar ulang
+     */
+    public interface RecordHandler {
+        /**
+         * Dipanggil untuk setiap record yang valid
+         * @param position Posisi record (kunci segmen dan offset)
+         * @param type Tipe record
+         * @param payload Isi record
+         * @throws IOException jika payload tidak dapat diproses
+         */
+        void onRecord(long position, byte type, byte[] payload) throws IOException;
+    }
+    
+    /**
+     * Satu partisi bulanan
+     */
+    private static final class Segment {
+        private final int key;
+        private final File file;
+        private volatile TransactionLog log; // Dibaca tanpa lock oleh sync()
+        private long minTimestamp = Long.MAX_VALUE;
+        private long maxTimestamp = Long.MIN_VALUE;
+        
+        Segment(int key, File file) {
+            this.key = key;
+            this.file = file;
+        }
+    }
+    
+    /**
+     * Snapshot informasi satu segmen
+     */
+    public static final class SegmentInfo {
+        private final int key;
+        private final File file;
+        private final long sizeInBytes;
+        private final long minTimestamp;
+        private final long maxTimestamp;
+        
+        private SegmentInfo(Segment segment) {
+            this.key = segment.key;
+            this.file = segment.file;
+            this.sizeInBytes = segment.log != null ? segment.log.size() : segment.file.length();
+            this.minTimestamp = segment.minTimestamp;
+            this.maxTimestamp = segment.maxTimestamp;
+        }
+        
+        /** @return Kunci segmen */
+        public int getKey() {
+            return key;
+        }
+        
+        /** @return Nama segmen, yyyy-MM atau undated */
+        public String getName() {
+            return segmentName(key);
+        }
+        
+        /** @return File segmen */
+        public File getFile() {
+            return file;
+        }
+        
+        /** @return Ukuran segmen dalam bytes */
+        public long getSizeInBytes() {
+            return sizeInBytes;
+        }
+        
+        /** @return Tanggal transaksi paling awal (epoch millis), Long.MAX_VALUE jika belum diindeks */
+        public long getMinTimestamp() {
+            return minTimestamp;
+        }
+        
+        /** @return Tanggal transaksi paling akhir (epoch millis), Long.MIN_VALUE jika belum diindeks */
+        public long getMaxTimestamp() {
+            return maxTimestamp;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%s (%d bytes)", getName(), sizeInBytes);
+        }
+    }
+    
+    /**
+     * Constructor - mendaftar segmen yang sudah ada tanpa membukanya
+     * @param directory Direktori segmen
+     * @throws IOException jika direktori tidak dapat dibuat
+     */
+    public SegmentedTransactionLog(File directory) throws IOException {
+        this.directory = directory;
+        this.segments = new TreeMap<>();
+        this.unsynced = new HashSet<>();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Gagal membuat direktori segmen: " + directory);
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                int key = parseSegmentKey(file.getName());
+                if (key >= 0) {
+                    segments.put(key, new Segment(key, file));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Mendapatkan kunci segmen untuk tanggal transaksi
+     * @param timestamp Epoch millis UTC, Long.MIN_VALUE untuk transaksi tanpa tanggal
+     * @return Kunci segmen (tahun * 12 + bulan), 0 untuk tanpa tanggal
+     */
+    public static int segmentKey(long timestamp) {
+        if (timestamp == NO_DATE) {
+            return UNDATED_SEGMENT;
+        }
+        YearMonth month = YearMonth.from(Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC));
+        return month.getYear() * 12 + month.getMonthValue();
+    }
+    
+    /**
+     * Mendapatkan nama segmen dari kuncinya
+     * @param key Kunci segmen
+     * @return yyyy-MM atau undated
+     */
+    public static String segmentName(int key) {
+        if (key == UNDATED_SEGMENT) {
+            return UNDATED_NAME;
+        }
+        return String.format("%04d-%02d", (key - 1) / 12, (key - 1) % 12 + 1);
+    }
+    
+    private static int parseSegmentKey(String fileName) {
+        if (fileName.equals(UNDATED_NAME + SUFFIX)) {
+            return UNDATED_SEGMENT;
+        }
+        Matcher matcher = SEGMENT_NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            return -1;
+        }
+        int month = Integer.parseInt(matcher.group(2));
+        if (month < 1 || month > 12) {
+            return -1;
+        }
+        return Integer.parseInt(matcher.group(1)) * 12 + month;
+    }
+    
+    /**
+     * Mendapatkan kunci segmen dari posisi record
+     * @param position Posisi record
+     * @return Kunci segmen
+     */
+    public static int segmentOf(long position) {
+        return (int) (position >>> OFFSET_BITS);
+    }
+    
+    private static long position(int key, long offset) {
+        if (offset > OFFSET_MASK) {
+            throw new IllegalStateException("Segmen terlalu besar: " + segmentName(key));
+        }
+        return ((long) key << OFFSET_BITS) | offset;
+    }
+    
+    /**
+     * Mendapatkan segmen yang sudah ada, membuka lognya jika belum terbuka
+     */
+    private TransactionLog open(int key) throws IOException {
+        Segment segment = segments.get(key);
+        if (segment == null) {
+            throw new IOException("Segmen tidak ada: " + segmentName(key));
+        }
+        return open(segment);
+    }
+    
+    private TransactionLog open(Segment segment) throws IOException {
+        if (segment.log == null) {
+            segment.log = new TransactionLog(segment.file);
+            if (segment.log.getVersion() < TransactionLog.VERSION) {
+                segment.log.close();
+                segment.log = null;
+                throw new IOException("Segmen dengan format lama tidak didukung: " + segment.file);
+            }
+        }
+        return segment.log;
+    }
+    
+    /**
+     * Menambahkan record ke segmen, membuat segmen baru jika belum ada
+     * @param key Kunci segmen
+     * @param type Tipe record
+     * @param payload Isi record
+     * @param sync true untuk memaksa data ke disk sebelum kembali
+     * @return Posisi record
+     * @throws IOException jika gagal menulis
+     */
+    public synchronized long append(int key, byte type, byte[] payload, boolean sync) throws IOException {
+        Segment segment = segments.get(key);
+        if (segment == null) {
+            segment = new Segment(key, new File(directory, segmentName(key) + SUFFIX));
+            segments.put(key, segment);
+        }
+        TransactionLog log = open(segment);
+        long position = position(key, log.append(type, payload, sync));
+        if (!sync) {
+            unsynced.add(segment);
+        }
+        return position;
+    }
+    
+    /**
+     * Memperluas rentang tanggal segmen dengan tanggal transaksi
+     * @param key Kunci segmen
+     * @param timestamp Epoch millis
+     */
+    public synchronized void includeTimestamp(int key, long timestamp) {
+        Segment segment = segments.get(key);
+        if (segment != null && timestamp != NO_DATE) {
+            segment.minTimestamp = Math.min(segment.minTimestamp, timestamp);
+            segment.maxTimestamp = Math.max(segment.maxTimestamp, timestamp);
+        }
+    }
+    
+    /**
+     * Membaca satu record berdasarkan posisinya
+     * @param position Posisi record
+     * @param expectedType Tipe record yang diharapkan
+     * @return Payload record
+     * @throws IOException jika posisi tidak valid
+     */
+    public synchronized byte[] readRecord(long position, byte expectedType) throws IOException {
+        return open(segmentOf(position)).readRecord(position & OFFSET_MASK, expectedType);
+    }
+    
+    /**
+     * Memutar ulang semua segmen berurutan dari bulan terlama. Rentang tanggal
+     * setiap segmen direset dan harus diisi ulang dengan {@link #includeTimestamp}.
+     * @param handler Callback untuk setiap record
+     * @return Jumlah record valid
+     * @throws IOException jika gagal membaca atau handler gagal
+     */
+    public synchronized int replay(RecordHandler handler) throws IOException {
+        int records = 0;
+        for (Segment segment : segments.values()) {
+            segment.minTimestamp = Long.MAX_VALUE;
+            segment.maxTimestamp = Long.MIN_VALUE;
+            records += replay(segment, handler);
+        }
+        return records;
+    }
+    
+    /**
+     * Memutar ulang satu segmen
+     * @param key Kunci segmen
+     * @param handler Callback untuk setiap record
+     * @return Jumlah record valid, 0 jika segmen tidak ada
+     * @throws IOException jika gagal membaca atau handler gagal
+     */
+    public synchronized int replay(int key, RecordHandler handler) throws IOException {
+        Segment segment = segments.get(key);
+        return segment != null ? replay(segment, handler) : 0;
+    }
+    
+    private int replay(Segment segment, RecordHandler handler) throws IOException {
+        final int key = segment.key;
+        return open(segment).replay((offset, type, payload) -> handler.onRecord(position(key, offset), type, payload));
+    }
+    
+    /**
+     * Menulis ulang satu segmen sehingga hanya berisi record ADD pada posisi
+     * yang diberikan. Payload disalin apa adanya dan segmen lain tidak disentuh.
+     * @param key Kunci segmen
+     * @param livePositions Posisi record yang dipertahankan, terurut naik
+     * @throws IOException jika kompaksi gagal
+     */
+    public synchronized void compact(int key, long[] livePositions) throws IOException {
+        Segment segment = segments.get(key);
+        if (segment == null) {
+            return;
+        }
+        TransactionLog log = open(segment);
+        File tempFile = new File(segment.file.getPath() + ".tmp");
+        Files.deleteIfExists(tempFile.toPath());
+        try (TransactionLog compacted = new TransactionLog(tempFile)) {
+            for (long position : livePositions) {
+                compacted.append(TransactionLog.RECORD_ADD,
+                                 log.readRecord(position & OFFSET_MASK, TransactionLog.RECORD_ADD), false);
+            }
+        }
+        log.close();
+        segment.log = null;
+        unsynced.remove(segment);
+        Files.move(tempFile.toPath(), segment.file.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.info("Segmen " + segmentName(key) + " dikompaksi menjadi " + livePositions.length + " transaksi");
+    }
+    
+    /**
+     * Memindahkan satu segmen ke direktori arsip. Arsip yang sudah ada tidak
+     * pernah ditimpa: jika bulan yang sama diarsipkan lagi (misalnya karena ada
+     * transaksi susulan), segmennya disimpan sebagai 2024-01.2.log, 2024-01.3.log, dst.
+     * @param key Kunci segmen
+     * @param archiveDirectory Direktori tujuan
+     * @return File segmen di arsip, atau null jika segmen tidak ada
+     * @throws IOException jika gagal memindahkan
+     */
+    public synchronized File archive(int key, File archiveDirectory) throws IOException {
+        Segment segment = segments.get(key);
+        if (segment == null) {
+            return null;
+        }
+        if (!archiveDirectory.isDirectory() && !archiveDirectory.mkdirs()) {
+            throw new IOException("Gagal membuat direktori arsip: " + archiveDirectory);
+        }
+        closeSegment(segment);
+        File target = new File(archiveDirectory, segment.file.getName());
+        for (int copy = 2; target.exists(); copy++) {
+            target = new File(archiveDirectory, segmentName(key) + "." + copy + SUFFIX);
+        }
+        Files.move(segment.file.toPath(), target.toPath());
+        segments.remove(key);
+        LOGGER.info("Segmen " + segmentName(key) + " diarsipkan ke " + target);
+        return target;
+    }
+    
+    /**
+     * Menghapus semua segmen
+     * @return true jika semua file segmen berhasil dihapus
+     */
+    public synchronized boolean deleteAll() {
+        boolean deleted = true;
+        for (Segment segment : segments.values()) {
+            closeSegment(segment);
+            deleted &= !segment.file.exists() || segment.file.delete();
+        }
+        segments.clear();
+        return deleted;
+    }
+    
+    /**
+     * Mendapatkan informasi semua segmen, terurut dari bulan terlama
+     * @return Daftar informasi segmen
+     */
+    public synchronized List<SegmentInfo> getSegments() {
+        List<SegmentInfo> result = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+            result.add(new SegmentInfo(segment));
+        }
+        return result;
+    }
+    
+    /**
+     * Mendapatkan segmen yang rentang tanggalnya beririsan dengan [from, to]
+     * @param from Epoch millis awal (inklusif)
+     * @param to Epoch millis akhir (inklusif)
+     * @return Daftar informasi segmen
+     */
+    public synchronized List<SegmentInfo> getSegmentsBetween(long from, long to) {
+        List<SegmentInfo> result = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+            if (segment.minTimestamp <= to && segment.maxTimestamp >= from) {
+                result.add(new SegmentInfo(segment));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Cek apakah ada segmen
+     * @return true jika belum ada segmen sama sekali
+     */
+    public synchronized boolean isEmpty() {
+        return segments.isEmpty();
+    }
+    
+    /**
+     * Mendapatkan total ukuran semua segmen
+     * @return Ukuran dalam bytes
+     */
+    public synchronized long size() {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.log != null ? segment.log.size() : segment.file.length();
+        }
+        return total;
+    }
+    
+    /**
+     * Getter untuk direktori segmen
+     * @return Direktori segmen
+     */
+    public File getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * Memaksa data semua segmen yang ditulis tanpa sync ke disk. Fsync
+     * dilakukan di luar lock log, sehingga pembacaan dan penulisan ke segmen
+     * lain tidak tertahan selama fsync.
+     * @throws IOException jika gagal sinkronisasi
+     */
+    public void sync() throws IOException {
+        List<Segment> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(unsynced);
+            unsynced.clear();
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            TransactionLog log = pending.get(i).log;
+            try {
+                if (log != null) {
+                    log.sync();
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    for (Segment segment : pending.subList(i, pending.size())) {
+                        if (segment.log != null) {
+                            unsynced.add(segment);
+                        }
+                    }
+                }
+                throw e;
+            }
+        }
+    }
+    
+    private void closeSegment(Segment segment) {
+        if (segment.log != null) {
+            try {
+                segment.log.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error menutup segmen " + segmentName(segment.key), e);
+            }
+            segment.log = null;
+        }
+        unsynced.remove(segment);
+    }
+    
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            closeSegment(segment);
+        }
+    }
+}
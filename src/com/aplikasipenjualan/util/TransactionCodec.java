@@ -0,0 +1,235 @@
+package com.aplikasipenjualan.util;
+
+import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.Transaction;
+import java.io.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoder/decoder biner ringkas untuk transaksi.
+ * 
+ * Format record: [id transaksi UTF][tanggal epoch millis varint zigzag]
+ * [jumlah run varint], lalu per run [ref produk varint][kuantitas varint].
+ * Ref produk adalah (zigzag(id) << 1) | flag; jika flag bernilai 1 atribut
+ * produk ditulis langsung setelah ref karena berbeda dari entri kamus
+ * (misalnya harga sudah berubah). Produk yang sama dan berurutan digabung
+ * menjadi satu run sehingga urutan produk tetap terjaga.
+ * 
+ * Tanggal disimpan dalam presisi milidetik dengan offset UTC.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class TransactionCodec {
+    
+    private static final long NO_DATE = Long.MIN_VALUE;
+    
+    private final ProductDictionary dictionary;
+    
+    /**
+     * Constructor
+     * @param dictionary Kamus produk yang direferensikan oleh record
+     * @throws IllegalArgumentException jika dictionary null
+     */
+    public TransactionCodec(ProductDictionary dictionary) {
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Kamus produk tidak boleh null");
+        }
+        this.dictionary = dictionary;
+    }
+    
+    /**
+     * Encode transaksi. Produk yang belum ada di kamus akan didaftarkan,
+     * sehingga pemanggil harus menyimpan kamus jika {@link ProductDictionary#isDirty()}
+     * sebelum record ditulis.
+     * @param transaction Transaksi
+     * @return Bytes hasil encode
+     * @throws IOException jika encode gagal
+     */
+    public byte[] encode(Transaction transaction) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        
+        out.writeUTF(transaction.getTransactionId());
+        writeVarLong(out, zigZagEncode(toEpochMillis(transaction.getTanggal())));
+        
+        List<Product> products = transaction.getProducts();
+        int runs = 0;
+        for (int i = 0; i < products.size(); i++) {
+            if (i == 0 || !products.get(i).equals(products.get(i - 1))) {
+                runs++;
+            }
+        }
+        writeVarLong(out, runs);
+        
+        int i = 0;
+        while (i < products.size()) {
+            Product product = products.get(i);
+            int quantity = 1;
+            while (i + quantity < products.size() && products.get(i + quantity).equals(product)) {
+                quantity++;
+            }
+            
+            boolean inline = !dictionary.register(product);
+            writeVarLong(out, (zigZagEncode(product.getId()) << 1) | (inline ? 1 : 0));
+            if (inline) {
+                out.writeUTF(product.getNama());
+                out.writeUTF(product.getKategori());
+                out.writeDouble(product.getHarga());
+            }
+            writeVarLong(out, quantity);
+            i += quantity;
+        }
+        
+        out.flush();
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Decode record menjadi transaksi
+     * @param payload Bytes hasil encode
+     * @return Transaksi
+     * @throws IOException jika record tidak valid atau produk tidak ada di kamus
+     */
+    public Transaction decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        try {
+            String transactionId = in.readUTF();
+            long millis = zigZagDecodeLong(readVarLong(in));
+            LocalDateTime tanggal = millis != NO_DATE
+                    ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC)
+                    : null;
+            
+            long runs = readVarLong(in);
+            List<Product> products = new ArrayList<>();
+            for (long r = 0; r < runs; r++) {
+                long ref = readVarLong(in);
+                int id = zigZagDecode(ref >>> 1);
+                Product product;
+                if ((ref & 1) != 0) {
+                    product = new Product(id, in.readUTF(), in.readUTF(), in.readDouble());
+                } else {
+                    product = dictionary.get(id);
+                    if (product == null) {
+                        throw new IOException("Produk dengan ID " + id + " tidak ada di kamus");
+                    }
+                }
+                
+                long quantity = readVarLong(in);
+                if (quantity < 1 || quantity > payload.length * 8L) {
+                    throw new IOException("Kuantitas tidak valid: " + quantity);
+                }
+                for (long q = 0; q < quantity; q++) {
+                    products.add(product);
+                }
+            }
+            return new Transaction(transactionId, tanggal, products);
+        
+        } catch (EOFException | IllegalArgumentException e) {
+            throw new IOException("Record transaksi tidak valid", e);
+        }
+    }
+    
+    /**
+     * Membaca ID transaksi dari record tanpa decode produknya
+     * @param payload Bytes hasil encode
+     * @return ID transaksi
+     * @throws IOException jika record tidak valid
+     */
+    public static String readTransactionId(byte[] payload) throws IOException {
+        try {
+            return new DataInputStream(new ByteArrayInputStream(payload)).readUTF();
+        } catch (EOFException e) {
+            throw new IOException("Record transaksi tidak valid", e);
+        }
+    }
+    
+    /**
+     * Membaca tanggal transaksi dari record tanpa decode produknya
+     * @param payload Bytes hasil encode
+     * @return Tanggal dalam epoch millis UTC, {@link Long#MIN_VALUE} jika tanpa tanggal
+     * @throws IOException jika record tidak valid
+     */
+    public static long readTimestamp(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        try {
+            in.skipBytes(in.readUnsignedShort());
+            return zigZagDecodeLong(readVarLong(in));
+        } catch (EOFException e) {
+            throw new IOException("Record transaksi tidak valid", e);
+        }
+    }
+    
+    /**
+     * Mengubah tanggal transaksi ke epoch millis UTC seperti yang disimpan di record
+     * @param tanggal Tanggal transaksi, boleh null
+     * @return Epoch millis, {@link Long#MIN_VALUE} jika tanggal null
+     */
+    public static long toEpochMillis(LocalDateTime tanggal) {
+        return tanggal != null ? tanggal.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_DATE;
+    }
+    
+    /**
+     * Menulis bilangan tak bertanda dalam format varint (7 bit per byte)
+     * @param out Output
+     * @param value Nilai (diperlakukan sebagai unsigned)
+     * @throws IOException jika gagal menulis
+     */
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+    
+    /**
+     * Membaca bilangan varint
+     * @param in Input
+     * @return Nilai
+     * @throws IOException jika varint terlalu panjang atau input habis
+     */
+    public static long readVarLong(DataInput in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Varint terlalu panjang");
+    }
+    
+    /**
+     * Zigzag encode agar bilangan negatif kecil tetap pendek sebagai varint
+     * @param value Nilai bertanda
+     * @return Nilai zigzag
+     */
+    public static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    /**
+     * Zigzag decode untuk nilai long
+     * @param value Nilai zigzag
+     * @return Nilai bertanda
+     */
+    public static long zigZagDecodeLong(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    /**
+     * Zigzag decode untuk nilai int
+     * @param value Nilai zigzag
+     * @return Nilai bertanda
+     */
+    public static int zigZagDecode(long value) {
+        return (int) zigZagDecodeLong(value);
+    }
+}
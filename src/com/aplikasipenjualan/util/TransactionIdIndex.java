@@ -0,0 +1,138 @@
+package com.aplikasipenjualan.util;
+
+import java.util.Arrays;
+
+/**
+ * Indeks hash dari ID transaksi ke posisi record di log. Yang disimpan
+ * hanya hashCode ID dan posisinya (12 bytes per transaksi, open addressing
+ * tanpa objek per entri), sehingga kandidat yang ditemukan harus dicocokkan
+ * dengan ID di record-nya. Satu ID boleh memiliki beberapa posisi.
+ * 
+ * Tidak thread-safe; dilindungi lock milik {@link TransactionRepository}.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+final class TransactionIdIndex {
+    
+    private static final long EMPTY = -1L;
+    private static final long DELETED = -2L;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long[] NO_POSITIONS = new long[0];
+    
+    private int[] hashes;
+    private long[] positions;
+    private int size;
+    private int used; // Entri ditambah slot DELETED
+    
+    TransactionIdIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+    
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        positions = new long[capacity];
+        Arrays.fill(positions, EMPTY);
+        size = 0;
+        used = 0;
+    }
+    
+    private int firstSlot(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return (mixed ^ (mixed >>> 16)) & (positions.length - 1);
+    }
+    
+    /**
+     * Menambahkan satu entri
+     * @param hash hashCode ID transaksi
+     * @param position Posisi record
+     */
+    void add(int hash, long position) {
+        if ((used + 1) * 2 > positions.length) {
+            // Perbesar hanya jika entri hidup yang memenuhi tabel, bukan slot DELETED
+            rehash((size + 1) * 4 > positions.length ? positions.length * 2 : positions.length);
+        }
+        int mask = positions.length - 1;
+        int slot = firstSlot(hash);
+        while (positions[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (positions[slot] == EMPTY) {
+            used++;
+        }
+        hashes[slot] = hash;
+        positions[slot] = position;
+        size++;
+    }
+    
+    /**
+     * Mendapatkan posisi semua entri dengan hash yang sama
+     * @param hash hashCode ID transaksi
+     * @return Posisi kandidat, kosong jika tidak ada
+     */
+    long[] candidates(int hash) {
+        long[] result = NO_POSITIONS;
+        int mask = positions.length - 1;
+        for (int slot = firstSlot(hash); positions[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (positions[slot] >= 0 && hashes[slot] == hash) {
+                result = Arrays.copyOf(result, result.length + 1);
+                result[result.length - 1] = positions[slot];
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Menghapus satu entri
+     * @param hash hashCode ID transaksi
+     * @param position Posisi record
+     * @return true jika entri ditemukan
+     */
+    boolean remove(int hash, long position) {
+        int mask = positions.length - 1;
+        for (int slot = firstSlot(hash); positions[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (positions[slot] == position && hashes[slot] == hash) {
+                positions[slot] = DELETED;
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Menghapus semua entri dari satu segmen log
+     * @param segmentKey Kunci segmen
+     */
+    void removeSegment(int segmentKey) {
+        for (int slot = 0; slot < positions.length; slot++) {
+            if (positions[slot] >= 0 && SegmentedTransactionLog.segmentOf(positions[slot]) == segmentKey) {
+                positions[slot] = DELETED;
+                size--;
+            }
+        }
+    }
+    
+    private void rehash(int capacity) {
+        int[] oldHashes = hashes;
+        long[] oldPositions = positions;
+        allocate(capacity);
+        for (int slot = 0; slot < oldPositions.length; slot++) {
+            if (oldPositions[slot] >= 0) {
+                add(oldHashes[slot], oldPositions[slot]);
+            }
+        }
+    }
+    
+    /**
+     * Mengosongkan indeks dan menyiapkan kapasitas untuk sejumlah entri
+     * @param expected Perkiraan jumlah entri
+     */
+    void clear(int expected) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < expected * 4L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+}
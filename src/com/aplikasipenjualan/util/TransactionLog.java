@@ -0,0 +1,306 @@
+package com.aplikasipenjualan.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Log transaksi append-only dengan record berprefiks panjang dan checksum.
+ * 
+ * Format file: header (magic + versi), lalu deretan record
+ * [panjang int][crc32 int][tipe byte][payload]. Panjang mencakup byte tipe
+ * dan payload, sedangkan CRC32 dihitung dari tipe dan payload. Record yang
+ * terpotong atau rusak di ekor file (misalnya karena aplikasi mati saat
+ * menulis) dibuang ketika log diputar ulang.
+ *
+ * Versi 1 berisi payload hasil serialisasi Java, versi 2 berisi payload
+ * {@link TransactionCodec}. Log versi lama tetap dapat dibaca.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class TransactionLog implements Closeable {
+    
+    private static final Logger LOGGER = Logger.getLogger(TransactionLog.class.getName());
+    
+    /** Magic number "APLG" di awal file */
+    public static final int MAGIC = 0x41504C47;
+    /** Versi format file untuk log baru */
+    public static final int VERSION = 2;
+    /** Versi tertua yang masih dapat dibaca */
+    public static final int MIN_VERSION = 1;
+    /** Ukuran header file dalam bytes */
+    public static final int HEADER_SIZE = 8;
+    
+    /** Record transaksi baru */
+    public static final byte RECORD_ADD = 1;
+    /** Tombstone penghapusan transaksi */
+    public static final byte RECORD_REMOVE = 2;
+    
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+    
+    private final File file;
+    private final FileChannel channel;
+    private final int version;
+    private long position;
+    
+    /**
+     * Callback untuk setiap record saat log diputar ulang
+     */
+    public interface RecordHandler {
+        /**
+         * Dipanggil untuk setiap record yang valid
+         * @param offset Offset record di dalam file
+         * @param type Tipe record
+         * @param payload Isi record
+         * @throws IOException jika payload tidak dapat diproses
+         */
+        void onRecord(long offset, byte type, byte[] payload) throws IOException;
+    }
+    
+    /**
+     * Constructor - membuka log, membuat file baru dengan header jika belum ada
+     * @param file File log
+     * @throws IOException jika file tidak dapat dibuka atau header tidak valid
+     */
+    public TransactionLog(File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                // File baru atau header terpotong saat pembuatan
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                writeFully(header, 0);
+                channel.force(true);
+                this.version = VERSION;
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                    // Baca sampai header penuh
+                }
+                header.flip();
+                if (header.getInt() != MAGIC) {
+                    throw new IOException("Bukan file log transaksi: " + file);
+                }
+                int fileVersion = header.getInt();
+                if (fileVersion < MIN_VERSION || fileVersion > VERSION) {
+                    throw new IOException("Versi log transaksi tidak didukung: " + fileVersion);
+                }
+                this.version = fileVersion;
+            }
+            this.position = channel.size();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Menambahkan satu record di akhir log
+     * @param type Tipe record
+     * @param payload Isi record
+     * @param sync true untuk memaksa data ke disk sebelum kembali
+     * @return Offset record di dalam file
+     * @throws IOException jika gagal menulis
+     */
+    public synchronized long append(byte type, byte[] payload, boolean sync) throws IOException {
+        byte[] data = payload != null ? payload : new byte[0];
+        if (data.length + 1 > MAX_RECORD_SIZE) {
+            throw new IOException("Record terlalu besar: " + data.length + " bytes");
+        }
+        
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(data, 0, data.length);
+        
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + 1 + data.length);
+        buffer.putInt(data.length + 1);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(type);
+        buffer.put(data);
+        buffer.flip();
+        
+        long offset = position;
+        writeFully(buffer, offset);
+        position += RECORD_HEADER_SIZE + 1 + data.length;
+        if (sync) {
+            channel.force(false);
+        }
+        return offset;
+    }
+    
+    /**
+     * Memutar ulang semua record valid dari awal log. Jika ditemukan record
+     * terpotong atau checksum tidak cocok, log dipotong pada record valid terakhir.
+     * @param handler Callback untuk setiap record
+     * @return Jumlah record valid
+     * @throws IOException jika gagal membaca atau handler gagal
+     */
+    public synchronized int replay(RecordHandler handler) throws IOException {
+        int records = 0;
+        long goodOffset = HEADER_SIZE;
+        String problem = null;
+        
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file), 64 * 1024))) {
+            in.skipBytes(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break; // Akhir log yang bersih
+                }
+                try {
+                    if (length < 1 || length > MAX_RECORD_SIZE) {
+                        problem = "panjang record tidak valid (" + length + ")";
+                        break;
+                    }
+                    int checksum = in.readInt();
+                    byte type = in.readByte();
+                    byte[] payload = new byte[length - 1];
+                    in.readFully(payload);
+                    
+                    crc.reset();
+                    crc.update(type);
+                    crc.update(payload, 0, payload.length);
+                    if ((int) crc.getValue() != checksum) {
+                        problem = "checksum tidak cocok";
+                        break;
+                    }
+                    
+                    handler.onRecord(goodOffset, type, payload);
+                    records++;
+                    goodOffset += RECORD_HEADER_SIZE + length;
+                } catch (EOFException e) {
+                    problem = "record terpotong";
+                    break;
+                }
+            }
+        }
+        
+        if (problem != null || goodOffset != channel.size()) {
+            LOGGER.warning(String.format("Log transaksi rusak di offset %d (%s), %d bytes dibuang",
+                           goodOffset, problem != null ? problem : "data sisa", channel.size() - goodOffset));
+            channel.truncate(goodOffset);
+            channel.force(true);
+        }
+        position = goodOffset;
+        return records;
+    }
+    
+    /**
+     * Membaca satu record pada offset tertentu tanpa memutar ulang log
+     * @param offset Offset record, seperti dikembalikan oleh {@link #append} atau replay
+     * @param expectedType Tipe record yang diharapkan
+     * @return Payload record
+     * @throws IOException jika offset tidak menunjuk ke record valid dengan tipe tersebut
+     */
+    public synchronized byte[] readRecord(long offset, byte expectedType) throws IOException {
+        if (offset < HEADER_SIZE || offset + RECORD_HEADER_SIZE + 1 > position) {
+            throw new IOException("Offset record di luar log: " + offset);
+        }
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE + 1);
+        readFully(header, offset);
+        header.flip();
+        int length = header.getInt();
+        int checksum = header.getInt();
+        byte type = header.get();
+        if (length < 1 || offset + RECORD_HEADER_SIZE + length > position) {
+            throw new IOException("Panjang record tidak valid di offset " + offset);
+        }
+        if (type != expectedType) {
+            throw new IOException("Tipe record di offset " + offset + " adalah " + type
+                                  + ", bukan " + expectedType);
+        }
+        
+        ByteBuffer payload = ByteBuffer.allocate(length - 1);
+        readFully(payload, offset + RECORD_HEADER_SIZE + 1);
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload.array(), 0, payload.capacity());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Checksum record tidak cocok di offset " + offset);
+        }
+        return payload.array();
+    }
+    
+    /**
+     * Memaksa semua data yang sudah ditulis ke disk. Tidak memegang monitor
+     * log, sehingga pembacaan record tidak menunggu fsync selesai.
+     * @throws IOException jika gagal sinkronisasi
+     */
+    public void sync() throws IOException {
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // Log ditutup bersamaan; close() sudah memaksa data ke disk
+        }
+    }
+    
+    /**
+     * Mendapatkan ukuran log dalam bytes
+     * @return Ukuran log
+     */
+    public synchronized long size() {
+        return position;
+    }
+    
+    /**
+     * Getter untuk versi format log
+     * @return Versi dari header file
+     */
+    public int getVersion() {
+        return version;
+    }
+    
+    /**
+     * Getter untuk file log
+     * @return File log
+     */
+    public File getFile() {
+        return file;
+    }
+    
+    /**
+     * Menulis seluruh isi buffer pada offset tertentu
+     */
+    private void writeFully(ByteBuffer buffer, long offset) throws IOException {
+        long target = offset;
+        while (buffer.hasRemaining()) {
+            target += channel.write(buffer, target);
+        }
+    }
+    
+    /**
+     * Membaca sampai buffer penuh dari offset tertentu
+     */
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        long source = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, source);
+            if (read < 0) {
+                throw new EOFException("Record terpotong di offset " + offset);
+            }
+            source += read;
+        }
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+}
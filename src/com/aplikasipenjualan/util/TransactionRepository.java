@@ -0,0 +1,643 @@
+package com.aplikasipenjualan.util;
+
+import com.aplikasipenjualan.model.Transaction;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Repository transaksi yang membaca riwayat langsung dari log di disk.
+ * 
+ * Yang disimpan di memori hanya indeks (tanggal dan posisi record di
+ * {@link SegmentedTransactionLog}) yang terurut berdasarkan tanggal,
+ * ditambah transaksi yang sudah diantrikan tetapi belum ditulis oleh thread
+ * penulis. Objek Transaction hanya dibuat untuk halaman yang diminta atau
+ * saat iterasi berjalan, sehingga memori tidak bertambah seiring panjang
+ * riwayat. Karena indeks terurut berdasarkan
+ * tanggal, query rentang tanggal hanya membaca record di rentang tersebut
+ * dan hanya membuka segmen bulan yang bersangkutan. Pencarian dan
+ * penghapusan berdasarkan ID memakai {@link TransactionIdIndex}, sehingga
+ * hanya record kandidat yang dibaca. Pencarian berbiaya O(1), sedangkan
+ * penghapusan tetap O(n) karena entri indeks tanggal digeser (lihat
+ * {@link #remove}).
+ * 
+ * Semua operasi memakai lock milik {@link DataLoader} yang juga melindungi
+ * log, sehingga offset tidak pernah dibaca saat log sedang dikompaksi.
+ * Pengecualiannya adalah pencatatan transaksi yang baru diantrikan: antrian
+ * tersebut bebas lock, sehingga banyak terminal dapat menambah transaksi
+ * tanpa menunggu thread penulis yang sedang memegang lock.
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public class TransactionRepository implements Iterable<Transaction> {
+    
+    /**
+     * Pembaca payload record ADD berdasarkan offset
+     */
+    interface PayloadReader {
+        byte[] read(long offset) throws IOException;
+    }
+    
+    private final Object lock;
+    private final PayloadReader reader;
+    private final TransactionCodec codec;
+    private long[] timestamps = new long[0];
+    private long[] offsets = new long[0];
+    private int size;
+    private final Queue<Transaction> pending = new ConcurrentLinkedQueue<>();
+    private final Map<String, Set<Integer>> removedSegments = new HashMap<>();
+    private final TransactionIdIndex ids = new TransactionIdIndex();
+    private int generation;
+    
+    /**
+     * Constructor, hanya dibuat oleh DataLoader
+     * @param lock Lock bersama dengan log transaksi
+     * @param reader Pembaca payload dari log
+     * @param codec Codec untuk decode payload
+     */
+    TransactionRepository(Object lock, PayloadReader reader, TransactionCodec codec) {
+        this.lock = lock;
+        this.reader = reader;
+        this.codec = codec;
+    }
+    
+    /**
+     * Mengganti seluruh indeks, dipanggil setelah log diindeks ulang.
+     * Transaksi yang masih menunggu penulisan tetap dipertahankan.
+     * @param newTimestamps Tanggal setiap record (epoch millis)
+     * @param newOffsets Offset setiap record, berpasangan dengan newTimestamps
+     * @param newIdHashes hashCode ID setiap record, berpasangan dengan newTimestamps
+     * @param count Jumlah entri yang valid
+     */
+    void reset(long[] newTimestamps, long[] newOffsets, int[] newIdHashes, int count) {
+        synchronized (lock) {
+            ids.clear(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(newIdHashes[i], newOffsets[i]);
+            }
+            sortByDate(newTimestamps, newOffsets, count);
+            this.timestamps = newTimestamps;
+            this.offsets = newOffsets;
+            this.size = count;
+            generation++;
+        }
+    }
+    
+    /**
+     * Mencatat transaksi yang sudah diantrikan ke penulis tetapi belum ada di
+     * log. Tidak memakai lock repository.
+     * @param transaction Transaksi
+     */
+    void addPending(Transaction transaction) {
+        pending.add(transaction);
+    }
+    
+    /**
+     * Memindahkan transaksi dari antrian ke indeks setelah record-nya ditulis.
+     * Transaksi yang sudah dihapus atau dikosongkan selama menunggu diabaikan,
+     * karena tombstone atau kompaksinya menyusul di log.
+     * @param transaction Transaksi
+     * @param offset Offset record di log
+     */
+    void commit(Transaction transaction, long offset) {
+        synchronized (lock) {
+            if (removePending(transaction)) {
+                insert(TransactionCodec.toEpochMillis(transaction.getTanggal()), offset);
+                ids.add(transaction.getTransactionId().hashCode(), offset);
+            }
+        }
+    }
+    
+    /**
+     * Memindahkan satu batch transaksi dari antrian ke indeks setelah record-nya
+     * ditulis. Entri baru diurutkan lalu digabung dengan indeks dalam satu kali
+     * jalan, sehingga batch besar dengan tanggal acak (misalnya hasil import)
+     * tidak menggeser array untuk setiap transaksi.
+     * @param batch Transaksi yang sudah ditulis
+     * @param positions Posisi record di log, berpasangan dengan batch
+     */
+    void commitAll(List<Transaction> batch, long[] positions) {
+        synchronized (lock) {
+            Set<Transaction> inBatch = Collections.newSetFromMap(new IdentityHashMap<>());
+            inBatch.addAll(batch);
+            Set<Transaction> waiting = Collections.newSetFromMap(new IdentityHashMap<>());
+            Iterator<Transaction> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                if (inBatch.contains(transaction) && waiting.add(transaction)) {
+                    iterator.remove();
+                }
+            }
+            
+            long[] newTimestamps = new long[waiting.size()];
+            long[] newPositions = new long[waiting.size()];
+            int count = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                if (waiting.remove(batch.get(i))) {
+                    newTimestamps[count] = TransactionCodec.toEpochMillis(batch.get(i).getTanggal());
+                    newPositions[count] = positions[i];
+                    ids.add(batch.get(i).getTransactionId().hashCode(), positions[i]);
+                    count++;
+                }
+            }
+            sortByDate(newTimestamps, newPositions, count);
+            merge(newTimestamps, newPositions, count);
+        }
+    }
+    
+    /**
+     * Menggabungkan entri terurut ke indeks dari belakang, tanpa array sementara
+     */
+    private void merge(long[] newTimestamps, long[] newPositions, int count) {
+        if (count == 0) {
+            return;
+        }
+        if (size + count > offsets.length) {
+            int capacity = Math.max(size + count, size + (size >> 1));
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+        }
+        int existing = size - 1;
+        int added = count - 1;
+        for (int target = size + count - 1; added >= 0; target--) {
+            if (existing >= 0 && compare(timestamps[existing], offsets[existing],
+                                         newTimestamps[added], newPositions[added]) > 0) {
+                timestamps[target] = timestamps[existing];
+                offsets[target] = offsets[existing--];
+            } else {
+                timestamps[target] = newTimestamps[added];
+                offsets[target] = newPositions[added--];
+            }
+        }
+        size += count;
+    }
+    
+    /**
+     * Membuang transaksi dari antrian karena penulisannya gagal
+     * @param transaction Transaksi
+     * @return true jika transaksi masih di antrian, false jika sudah dihapus atau dikosongkan
+     */
+    boolean discard(Transaction transaction) {
+        synchronized (lock) {
+            return removePending(transaction);
+        }
+    }
+    
+    /**
+     * Membuang transaksi dari antrian berdasarkan identitas objek; equals
+     * tidak dipakai karena dua transaksi boleh memiliki ID yang sama
+     */
+    private boolean removePending(Transaction transaction) {
+        Iterator<Transaction> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == transaction) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Menyisipkan entri pada posisinya menurut (tanggal, offset)
+     */
+    private void insert(long timestamp, long offset) {
+        if (size == offsets.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+        }
+        // Transaksi baru hampir selalu yang terbaru, jadi cari dari belakang
+        int index = size;
+        while (index > 0 && compare(timestamps[index - 1], offsets[index - 1], timestamp, offset) > 0) {
+            index--;
+        }
+        System.arraycopy(timestamps, index, timestamps, index + 1, size - index);
+        System.arraycopy(offsets, index, offsets, index + 1, size - index);
+        timestamps[index] = timestamp;
+        offsets[index] = offset;
+        size++;
+    }
+    
+    /**
+     * Indeks entri (tanggal, offset) di indeks terurut, -1 jika tidak ada
+     */
+    private int indexOf(long timestamp, long offset) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int result = compare(timestamps[middle], offsets[middle], timestamp, offset);
+            if (result < 0) {
+                low = middle + 1;
+            } else if (result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Membuang entri dengan menggeser sisa indeks, O(n)
+     */
+    private void removeAt(int index) {
+        System.arraycopy(timestamps, index + 1, timestamps, index, size - index - 1);
+        System.arraycopy(offsets, index + 1, offsets, index, size - index - 1);
+        size--;
+    }
+    
+    /**
+     * Mendapatkan jumlah transaksi, termasuk yang belum ditulis ke disk
+     * @return Jumlah transaksi
+     */
+    public int size() {
+        synchronized (lock) {
+            return size + pending.size();
+        }
+    }
+    
+    /**
+     * Mendapatkan jumlah transaksi yang sudah ada di log
+     * @return Jumlah transaksi tersimpan
+     */
+    public int getCommittedCount() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+    
+    /**
+     * Mendapatkan satu halaman riwayat transaksi yang terurut berdasarkan tanggal
+     * @param offset Posisi awal halaman (0 = transaksi pertama menurut urutan)
+     * @param limit Jumlah maksimum transaksi dalam halaman
+     * @param newestFirst true untuk urutan dari yang terbaru
+     * @return Transaksi dalam halaman, kosong jika offset di luar jumlah transaksi
+     * @throws IOException jika record gagal dibaca
+     * @throws IllegalArgumentException jika offset negatif atau limit tidak positif
+     */
+    public List<Transaction> getPage(int offset, int limit, boolean newestFirst) throws IOException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset halaman tidak boleh negatif");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Ukuran halaman harus lebih dari 0");
+        }
+        synchronized (lock) {
+            List<Transaction> waiting = new ArrayList<>(pending);
+            int total = size + waiting.size();
+            int end = (int) Math.min(total, (long) offset + limit);
+            List<Transaction> page = new ArrayList<>(Math.max(0, end - offset));
+            for (int i = offset; i < end; i++) {
+                int position = newestFirst ? total - 1 - i : i;
+                // Posisi setelah indeks adalah transaksi yang belum ditulis
+                page.add(position >= size ? waiting.get(position - size)
+                                          : codec.decode(reader.read(offsets[position])));
+            }
+            return page;
+        }
+    }
+    
+    /**
+     * Mencari transaksi berdasarkan ID melalui indeks hash ID. Hanya record
+     * kandidat yang hash ID-nya sama yang dibaca dari log. Jika ada beberapa
+     * transaksi dengan ID yang sama, yang paling akhir menurut urutan tanggal
+     * yang dikembalikan.
+     * @param transactionId ID transaksi
+     * @return Transaksi, atau null jika tidak ditemukan
+     * @throws IOException jika record gagal dibaca
+     */
+    public Transaction findById(String transactionId) throws IOException {
+        if (transactionId == null) {
+            return null;
+        }
+        synchronized (lock) {
+            Transaction waiting = null;
+            for (Transaction transaction : pending) {
+                if (transactionId.equals(transaction.getTransactionId())) {
+                    waiting = transaction;
+                }
+            }
+            if (waiting != null) {
+                return waiting;
+            }
+            byte[] found = null;
+            long foundTimestamp = 0;
+            long foundPosition = 0;
+            for (long position : ids.candidates(transactionId.hashCode())) {
+                byte[] payload = reader.read(position);
+                if (transactionId.equals(TransactionCodec.readTransactionId(payload))) {
+                    long timestamp = TransactionCodec.readTimestamp(payload);
+                    if (found == null || compare(timestamp, position, foundTimestamp, foundPosition) > 0) {
+                        found = payload;
+                        foundTimestamp = timestamp;
+                        foundPosition = position;
+                    }
+                }
+            }
+            return found != null ? codec.decode(found) : null;
+        }
+    }
+    
+    /**
+     * Menghapus transaksi dari indeks. Record dicari melalui indeks hash ID
+     * dan entrinya dicari dengan binary search di indeks tanggal, lalu entri
+     * setelahnya digeser satu posisi dengan System.arraycopy. Penggeseran ini
+     * O(n) (sekitar 1 ms untuk 300 ribu transaksi) tetapi menjaga indeks
+     * tanggal tetap rapat, sehingga halaman dan rentang tanggal dapat diakses
+     * langsung berdasarkan posisi tanpa melewati tombstone. Pemanggil
+     * tetap harus menulis tombstone ke log agar penghapusan bertahan setelah
+     * aplikasi dibuka ulang; segmen tujuan tombstone dicatat sampai diambil
+     * dengan {@link #takeRemovedSegments}.
+     * @param transactionId ID transaksi
+     * @return Transaksi yang dihapus, kosong jika tidak ada
+     * @throws IOException jika record gagal dibaca
+     */
+    public List<Transaction> remove(String transactionId) throws IOException {
+        List<Transaction> removed = new ArrayList<>();
+        if (transactionId == null) {
+            return removed;
+        }
+        synchronized (lock) {
+            Set<Integer> segments = new TreeSet<>();
+            Iterator<Transaction> waiting = pending.iterator();
+            while (waiting.hasNext()) {
+                Transaction transaction = waiting.next();
+                if (transactionId.equals(transaction.getTransactionId())) {
+                    waiting.remove();
+                    removed.add(transaction);
+                    segments.add(SegmentedTransactionLog.segmentKey(
+                            TransactionCodec.toEpochMillis(transaction.getTanggal())));
+                }
+            }
+            int hash = transactionId.hashCode();
+            for (long position : ids.candidates(hash)) {
+                byte[] payload = reader.read(position);
+                if (transactionId.equals(TransactionCodec.readTransactionId(payload))) {
+                    int index = indexOf(TransactionCodec.readTimestamp(payload), position);
+                    if (index < 0) {
+                        throw new IllegalStateException("Indeks ID tidak sinkron dengan indeks tanggal");
+                    }
+                    removeAt(index);
+                    ids.remove(hash, position);
+                    segments.add(SegmentedTransactionLog.segmentOf(position));
+                    removed.add(codec.decode(payload));
+                }
+            }
+            if (segments.isEmpty()) {
+                return removed;
+            }
+            Set<Integer> previous = removedSegments.get(transactionId);
+            if (previous != null) {
+                segments.addAll(previous);
+            }
+            removedSegments.put(transactionId, segments);
+            return removed;
+        }
+    }
+    
+    /**
+     * Mengambil segmen tempat transaksi yang dihapus tersimpan, untuk
+     * menentukan segmen tujuan tombstone-nya
+     * @param transactionId ID transaksi
+     * @return Kunci segmen, atau null jika penghapusan tidak tercatat
+     */
+    int[] takeRemovedSegments(String transactionId) {
+        synchronized (lock) {
+            Set<Integer> segments = removedSegments.remove(transactionId);
+            if (segments == null) {
+                return null;
+            }
+            int[] keys = new int[segments.size()];
+            int i = 0;
+            for (int key : segments) {
+                keys[i++] = key;
+            }
+            return keys;
+        }
+    }
+    
+    /**
+     * Membuang semua entri dari satu segmen, dipanggil setelah segmen diarsipkan
+     * @param segmentKey Kunci segmen
+     * @return Jumlah entri yang dibuang
+     */
+    int dropSegment(int segmentKey) {
+        synchronized (lock) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (SegmentedTransactionLog.segmentOf(offsets[i]) != segmentKey) {
+                    timestamps[kept] = timestamps[i];
+                    offsets[kept] = offsets[i];
+                    kept++;
+                }
+            }
+            int dropped = size - kept;
+            size = kept;
+            ids.removeSegment(segmentKey);
+            generation++;
+            return dropped;
+        }
+    }
+    
+    /**
+     * Iterasi transaksi dengan tanggal dalam rentang [from, to), termasuk
+     * transaksi yang belum ditulis. Batas rentang dicari dengan binary search
+     * pada indeks, sehingga hanya record di rentang tersebut yang dibaca.
+     * @param from Tanggal awal dalam epoch millis (inklusif)
+     * @param to Tanggal akhir dalam epoch millis (eksklusif)
+     * @return Iterable transaksi dalam urutan tanggal
+     * @throws IllegalArgumentException jika from lebih besar dari to
+     */
+    public Iterable<Transaction> getRange(long from, long to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Tanggal awal tidak boleh setelah tanggal akhir");
+        }
+        return () -> new TransactionIterator(true, from, to);
+    }
+    
+    /**
+     * Menghitung transaksi dengan tanggal dalam rentang [from, to) tanpa membaca record
+     * @param from Tanggal awal dalam epoch millis (inklusif)
+     * @param to Tanggal akhir dalam epoch millis (eksklusif)
+     * @return Jumlah transaksi
+     */
+    public int countRange(long from, long to) {
+        synchronized (lock) {
+            int count = Math.max(0, lowerBound(to) - lowerBound(from));
+            for (Transaction transaction : pending) {
+                if (inRange(transaction, from, to)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+    
+    /**
+     * Indeks entri pertama dengan tanggal >= timestamp
+     */
+    private int lowerBound(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    private static boolean inRange(Transaction transaction, long from, long to) {
+        long timestamp = TransactionCodec.toEpochMillis(transaction.getTanggal());
+        return timestamp >= from && timestamp < to;
+    }
+    
+    /**
+     * Mengosongkan indeks dan antrian. Pemanggil tetap harus mengosongkan log.
+     */
+    public void clear() {
+        synchronized (lock) {
+            pending.clear();
+            removedSegments.clear();
+            ids.clear(0);
+            size = 0;
+            generation++;
+        }
+    }
+    
+    /**
+     * Mendapatkan salinan posisi record yang sudah di log dalam urutan tanggal
+     * @return Posisi record
+     */
+    long[] committedOffsets() {
+        synchronized (lock) {
+            return Arrays.copyOf(offsets, size);
+        }
+    }
+    
+    /**
+     * Iterasi hanya transaksi yang sudah ada di log, untuk membangun turunan
+     * log seperti basket store
+     * @return Iterable transaksi tersimpan dalam urutan tanggal
+     */
+    public Iterable<Transaction> committedTransactions() {
+        return () -> new TransactionIterator(false, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+    
+    /**
+     * Iterasi semua transaksi dalam urutan tanggal, diikuti transaksi yang
+     * belum ditulis. Transaksi dibaca dari disk satu per satu.
+     * @return Iterator yang melempar {@link UncheckedIOException} jika record gagal
+     *         dibaca dan {@link ConcurrentModificationException} jika log dikompaksi
+     *         selama iterasi
+     */
+    @Override
+    public Iterator<Transaction> iterator() {
+        return new TransactionIterator(true, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+    
+    /**
+     * Iterator atas snapshot posisi dalam rentang tanggal saat iterator dibuat
+     */
+    private final class TransactionIterator implements Iterator<Transaction> {
+        private final long[] snapshot;
+        private final List<Transaction> waiting;
+        private final int expectedGeneration;
+        private int index;
+        
+        TransactionIterator(boolean includePending, long from, long to) {
+            synchronized (lock) {
+                boolean all = from == Long.MIN_VALUE && to == Long.MAX_VALUE;
+                int start = all ? 0 : lowerBound(from);
+                int end = all ? size : Math.max(start, lowerBound(to));
+                this.snapshot = Arrays.copyOfRange(offsets, start, end);
+                this.waiting = new ArrayList<>();
+                if (includePending) {
+                    for (Transaction transaction : pending) {
+                        if (all || inRange(transaction, from, to)) {
+                            waiting.add(transaction);
+                        }
+                    }
+                }
+                this.expectedGeneration = generation;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return index < snapshot.length + waiting.size();
+        }
+        
+        @Override
+        public Transaction next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int position = index++;
+            if (position >= snapshot.length) {
+                return waiting.get(position - snapshot.length);
+            }
+            synchronized (lock) {
+                if (generation != expectedGeneration) {
+                    throw new ConcurrentModificationException("Log transaksi berubah selama iterasi");
+                }
+                try {
+                    return codec.decode(reader.read(snapshot[position]));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+    
+    private static int compare(long timestampA, long offsetA, long timestampB, long offsetB) {
+        int result = Long.compare(timestampA, timestampB);
+        return result != 0 ? result : Long.compare(offsetA, offsetB);
+    }
+    
+    /**
+     * Mengurutkan pasangan (tanggal, offset) dengan merge sort. Log biasanya
+     * sudah hampir terurut, sehingga array yang sudah terurut dilewati.
+     */
+    private static void sortByDate(long[] times, long[] positions, int count) {
+        boolean sorted = true;
+        for (int i = 1; i < count && sorted; i++) {
+            sorted = compare(times[i - 1], positions[i - 1], times[i], positions[i]) <= 0;
+        }
+        if (!sorted) {
+            mergeSort(times, positions, Arrays.copyOf(times, count), Arrays.copyOf(positions, count), 0, count);
+        }
+    }
+    
+    /**
+     * Mengurutkan [from, to) dari array sumber ke array tujuan
+     */
+    private static void mergeSort(long[] times, long[] positions, long[] timesCopy, long[] positionsCopy,
+                                  int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(timesCopy, positionsCopy, times, positions, from, middle);
+        mergeSort(timesCopy, positionsCopy, times, positions, middle, to);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle
+                    && compare(timesCopy[left], positionsCopy[left], timesCopy[right], positionsCopy[right]) <= 0)) {
+                times[i] = timesCopy[left];
+                positions[i] = positionsCopy[left++];
+            } else {
+                times[i] = timesCopy[right];
+                positions[i] = positionsCopy[right++];
+            }
+        }
+    }
+}
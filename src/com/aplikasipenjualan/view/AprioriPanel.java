@@ -2,9 +2,12 @@ package com.aplikasipenjualan.view;
 
 import com.aplikasipenjualan.algorithm.Apriori;
 import com.aplikasipenjualan.algorithm.FrequentItemSet;
+import com.aplikasipenjualan.algorithm.MiningSnapshot;
 import com.aplikasipenjualan.algorithm.Rule;
+import com.aplikasipenjualan.algorithm.RuleMeasure;
+import com.aplikasipenjualan.algorithm.RuleSorter;
 import com.aplikasipenjualan.controller.SalesController;
-import com.aplikasipenjualan.model.Transaction;
+import com.aplikasipenjualan.model.BasketSource;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
@@ -27,6 +30,8 @@ public class AprioriPanel extends JPanel {
     private SalesController salesController;
     private JSpinner minSupportSpinner;
     private JSpinner minConfidenceSpinner;
+    private JCheckBox significanceCheckBox;
+    private JCheckBox nonRedundantCheckBox;
     private JButton analyzeButton;
     private JButton exportButton;
     private JButton clearResultsButton;
@@ -34,13 +39,19 @@ public class AprioriPanel extends JPanel {
     private DefaultTableModel frequentItemsTableModel;
     private JTable rulesTable;
     private DefaultTableModel rulesTableModel;
+    private JComboBox<RuleMeasure> sortMeasureComboBox;
     private JTextArea analysisResultArea;
     private JProgressBar progressBar;
     private JLabel statusLabel;
     
+    // Constants
+    private static final double SIGNIFICANCE_ALPHA = 0.05;
+    private static final int SIGNIFICANCE_PERMUTATIONS = 1000;
+    
     // Data
     private Apriori aprioriAlgorithm;
     private List<Rule> currentRules;
+    private long resultsDatasetVersion = -1;
     
     /**
      * Constructor
@@ -54,6 +65,7 @@ public class AprioriPanel extends JPanel {
         setupLayout();
         setupEventHandlers();
         refreshData();
+        loadSavedResults();
     }
     
     /**
@@ -71,6 +83,17 @@ public class AprioriPanel extends JPanel {
         JSpinner.NumberEditor confidenceEditor = new JSpinner.NumberEditor(minConfidenceSpinner, "0.00");
         minConfidenceSpinner.setEditor(confidenceEditor);
         
+        // Non-redundant rule basis
+        nonRedundantCheckBox = new JCheckBox("Hanya aturan non-redundan");
+        nonRedundantCheckBox.setOpaque(false);
+        nonRedundantCheckBox.setToolTipText("Basis aturan minimal dari closed itemset dan generator-nya");
+        
+        // Significance filter
+        significanceCheckBox = new JCheckBox("Hanya aturan signifikan (p \u2264 0.05)");
+        significanceCheckBox.setOpaque(false);
+        significanceCheckBox.setToolTipText("Uji Fisher exact dengan koreksi permutasi (" +
+                                            SIGNIFICANCE_PERMUTATIONS + " permutasi)");
+        
         // Buttons
         analyzeButton = new JButton("Jalankan Analisis");
         analyzeButton.setBackground(new Color(46, 204, 113));
@@ -110,6 +133,10 @@ public class AprioriPanel extends JPanel {
         rulesTable = new JTable(rulesTableModel);
         setupTable(rulesTable);
         
+        // Rule sort measure
+        sortMeasureComboBox = new JComboBox<>(RuleMeasure.values());
+        sortMeasureComboBox.setSelectedItem(RuleMeasure.CONFIDENCE);
+        
         // Analysis result area
         analysisResultArea = new JTextArea(8, 40);
         analysisResultArea.setEditable(false);
@@ -212,6 +239,13 @@ public class AprioriPanel extends JPanel {
         confidenceHelpLabel.setForeground(Color.GRAY);
         panel.add(confidenceHelpLabel, gbc);
         
+        // Significance filter
+        gbc.gridx = 2; gbc.gridy = 1; gbc.gridwidth = 2;
+        panel.add(nonRedundantCheckBox, gbc);
+        
+        gbc.gridx = 4; gbc.gridwidth = 2;
+        panel.add(significanceCheckBox, gbc);
+        
         // Buttons
         gbc.gridx = 0; gbc.gridy = 1; gbc.gridwidth = 2;
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -280,6 +314,12 @@ public class AprioriPanel extends JPanel {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
+        // Sort panel
+        JPanel sortPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        sortPanel.add(new JLabel("Urutkan berdasarkan:"));
+        sortPanel.add(sortMeasureComboBox);
+        panel.add(sortPanel, BorderLayout.NORTH);
+        
         JScrollPane scrollPane = new JScrollPane(rulesTable);
         scrollPane.setPreferredSize(new Dimension(0, 300));
         panel.add(scrollPane, BorderLayout.CENTER);
@@ -349,6 +389,14 @@ public class AprioriPanel extends JPanel {
             }
         });
         
+        // Sort measure change
+        sortMeasureComboBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                sortRules();
+            }
+        });
+        
         // Double click on rules table for details
         rulesTable.addMouseListener(new java.awt.event.MouseAdapter() {
             @Override
@@ -365,8 +413,7 @@ public class AprioriPanel extends JPanel {
      */
     private void runAnalysis() {
         // Validasi data transaksi
-        List<Transaction> transactions = salesController.getAllTransactions();
-        if (transactions.isEmpty()) {
+        if (salesController.getTransactionCount() == 0) {
             JOptionPane.showMessageDialog(this,
                 "Tidak ada data transaksi untuk dianalisis!\n" +
                 "Silakan input beberapa transaksi terlebih dahulu.",
@@ -378,6 +425,9 @@ public class AprioriPanel extends JPanel {
         // Validasi parameter
         double minSupport = (Double) minSupportSpinner.getValue();
         double minConfidence = (Double) minConfidenceSpinner.getValue();
+        boolean significantOnly = significanceCheckBox.isSelected();
+        Apriori.RuleGenerationMode ruleMode = nonRedundantCheckBox.isSelected()
+                ? Apriori.RuleGenerationMode.NON_REDUNDANT : Apriori.RuleGenerationMode.ALL;
         
         if (minSupport <= 0 || minSupport > 1) {
             JOptionPane.showMessageDialog(this,
@@ -397,20 +447,41 @@ public class AprioriPanel extends JPanel {
         
         // Jalankan analisis di background thread
         SwingWorker<Void, String> worker = new SwingWorker<Void, String>() {
+            private long datasetVersion;
+            
             @Override
             protected Void doInBackground() throws Exception {
                 publish("Memulai analisis...");
                 
-                // Setup algoritma
-                aprioriAlgorithm.setTransactions(transactions);
+                // Versi dibaca sebelum data diambil, sehingga transaksi yang masuk
+                // selama mining membuat snapshot dianggap kedaluwarsa
+                datasetVersion = salesController.getDatasetVersion();
+                
+                // Setup algoritma, gunakan basket store ter-memory-map jika tersedia
+                BasketSource basketSource = salesController.getBasketSource();
+                if (basketSource != null && basketSource.getBasketCount() > 0) {
+                    aprioriAlgorithm.setBasketSource(basketSource, salesController::getMiningProduct);
+                } else {
+                    // Tanpa basket store, transaksi terpaksa dimuat seluruhnya
+                    aprioriAlgorithm.setTransactions(salesController.getAllTransactions());
+                }
                 aprioriAlgorithm.setMinSupport(minSupport);
                 aprioriAlgorithm.setMinConfidence(minConfidence);
+                aprioriAlgorithm.setRuleGenerationMode(ruleMode);
+                if (significantOnly) {
+                    aprioriAlgorithm.setSignificanceFilter(SIGNIFICANCE_ALPHA, SIGNIFICANCE_PERMUTATIONS);
+                } else {
+                    aprioriAlgorithm.setSignificanceFilter(1.0, 0);
+                }
                 
                 publish("Mencari frequent itemsets...");
                 
                 // Jalankan algoritma
                 currentRules = aprioriAlgorithm.runApriori();
                 
+                publish("Menyimpan hasil analisis...");
+                salesController.saveMiningSnapshot(aprioriAlgorithm.createSnapshot(datasetVersion));
+                
                 publish("Analisis selesai!");
                 
                 return null;
@@ -427,10 +498,14 @@ public class AprioriPanel extends JPanel {
             protected void done() {
                 try {
                     get(); // Check for exceptions
+                    resultsDatasetVersion = datasetVersion;
+                    
+                    // Perbarui aturan untuk rekomendasi cross-sell di kasir
+                    salesController.updateRecommendationRules(currentRules);
                     
                     // Update UI dengan hasil
                     updateFrequentItemsTable();
-                    updateRulesTable();
+                    sortRules();
                     updateAnalysisSummary();
                     
                     exportButton.setEnabled(true);
@@ -465,6 +540,57 @@ public class AprioriPanel extends JPanel {
         worker.execute();
     }
     
+    /**
+     * Memuat hasil analisis terakhir yang tersimpan di background, lalu
+     * menampilkannya jika data transaksi belum berubah sejak analisis tersebut
+     */
+    private void loadSavedResults() {
+        SwingWorker<MiningSnapshot, Void> loader = new SwingWorker<MiningSnapshot, Void>() {
+            @Override
+            protected MiningSnapshot doInBackground() {
+                return salesController.getMiningSnapshot();
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    MiningSnapshot snapshot = get();
+                    if (snapshot != null && currentRules == null) {
+                        showSnapshot(snapshot);
+                    }
+                } catch (Exception e) {
+                    statusLabel.setText("Hasil analisis terakhir tidak dapat dimuat");
+                }
+            }
+        };
+        loader.execute();
+    }
+    
+    /**
+     * Menampilkan hasil analisis dari snapshot tanpa mining ulang
+     * @param snapshot Snapshot hasil analisis
+     */
+    private void showSnapshot(MiningSnapshot snapshot) {
+        aprioriAlgorithm.restoreSnapshot(snapshot);
+        currentRules = aprioriAlgorithm.getAssociationRules();
+        resultsDatasetVersion = snapshot.getDatasetVersion();
+        
+        // Kembalikan parameter agar ringkasan sesuai dengan hasil
+        minSupportSpinner.setValue(snapshot.getMinSupport());
+        minConfidenceSpinner.setValue(snapshot.getMinConfidence());
+        significanceCheckBox.setSelected(snapshot.getSignificanceAlpha() < 1.0);
+        nonRedundantCheckBox.setSelected(
+            snapshot.getRuleGenerationMode() == Apriori.RuleGenerationMode.NON_REDUNDANT);
+        
+        salesController.updateRecommendationRules(currentRules);
+        updateFrequentItemsTable();
+        sortRules();
+        updateAnalysisSummary();
+        exportButton.setEnabled(true);
+        statusLabel.setText(String.format("Hasil analisis terakhir dimuat (%1$td-%1$tm-%1$tY %1$tH:%1$tM)",
+                                          new java.util.Date(snapshot.getCreatedAt())));
+    }
+    
     /**
      * Update frequent items table
      */
@@ -504,6 +630,18 @@ public class AprioriPanel extends JPanel {
         }
     }
     
+    /**
+     * Mengurutkan aturan berdasarkan metrik yang dipilih lalu update tabel
+     */
+    private void sortRules() {
+        RuleMeasure measure = (RuleMeasure) sortMeasureComboBox.getSelectedItem();
+        if (currentRules != null && measure != null) {
+            currentRules = RuleSorter.sort(currentRules, measure);
+        }
+        rulesTable.getRowSorter().setSortKeys(null);
+        updateRulesTable();
+    }
+    
     /**
      * Update analysis summary
      */
@@ -566,29 +704,20 @@ public class AprioriPanel extends JPanel {
             return;
         }
         
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Hasil Analisis");
+        chooser.setSelectedFile(new java.io.File("analisis_apriori_" + System.currentTimeMillis() + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.io.File file = chooser.getSelectedFile();
+        
         try {
-            // Export ke CSV
-            String filename = "analisis_apriori_" + System.currentTimeMillis() + ".csv";
-            
-            // Buat CSV content
-            StringBuilder csvContent = new StringBuilder();
-            csvContent.append("Antecedent,Consequent,Confidence,Support,Lift,Interpretasi\n");
-            
-            for (Rule rule : currentRules) {
-                csvContent.append(String.format("\"%s\",\"%s\",%.4f,%.4f,%.4f,\"%s\"\n",
-                    rule.getAntecedentAsString(),
-                    rule.getConsequentAsString(),
-                    rule.getConfidence(),
-                    rule.getSupport(),
-                    rule.getLift(),
-                    rule.getLiftInterpretation()
-                ));
-            }
-            
-            // Simpan file (simulasi - dalam implementasi nyata bisa menggunakan JFileChooser)
+            // File berakhiran .gz dikompres dengan gzip
+            long rows = salesController.exportRulesToCSV(currentRules, file, file.getName().endsWith(".gz"));
             JOptionPane.showMessageDialog(this,
-                "Hasil analisis berhasil di-export ke file: " + filename + "\n" +
-                "Total aturan: " + currentRules.size(),
+                "Hasil analisis berhasil di-export ke file: " + file.getAbsolutePath() + "\n" +
+                "Total aturan: " + rows,
                 "Export Berhasil",
                 JOptionPane.INFORMATION_MESSAGE);
             
@@ -614,6 +743,8 @@ public class AprioriPanel extends JPanel {
             rulesTableModel.setRowCount(0);
             analysisResultArea.setText("");
             currentRules = null;
+            resultsDatasetVersion = -1;
+            salesController.clearMiningSnapshot();
             exportButton.setEnabled(false);
             statusLabel.setText("Hasil analisis dibersihkan");
         }
@@ -625,11 +756,11 @@ public class AprioriPanel extends JPanel {
     private void showRuleDetails() {
         int selectedRow = rulesTable.getSelectedRow();
         if (selectedRow >= 0 && currentRules != null) {
-            Rule rule = currentRules.get(selectedRow);
+            Rule rule = currentRules.get(rulesTable.convertRowIndexToModel(selectedRow));
             
             JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), 
                                        "Detail Aturan Asosiasi", true);
-            dialog.setSize(500, 300);
+            dialog.setSize(500, 420);
             dialog.setLocationRelativeTo(this);
             
             JTextArea detailArea = new JTextArea();
@@ -646,6 +777,27 @@ public class AprioriPanel extends JPanel {
             details.append("Lift: ").append(String.format("%.2f", rule.getLift())).append("\n");
             details.append("Interpretasi Lift: ").append(rule.getLiftInterpretation()).append("\n");
             details.append("Tingkat Kekuatan: ").append(rule.getConfidenceLevel()).append("\n\n");
+            if (rule.hasSupportCounts()) {
+                details.append("METRIK TAMBAHAN:\n");
+                details.append("Support Count: ").append(String.format("%d dari %d transaksi (antecedent: %d, consequent: %d)",
+                    rule.getRuleCount(), rule.getTotalTransactions(),
+                    rule.getAntecedentCount(), rule.getConsequentCount())).append("\n");
+                details.append("Conviction: ").append(Double.isInfinite(rule.getConviction())
+                    ? "Tak hingga" : String.format("%.4f", rule.getConviction())).append("\n");
+                details.append("Leverage: ").append(String.format("%.4f", rule.getLeverage())).append("\n");
+                details.append("Jaccard: ").append(String.format("%.4f", rule.getJaccard())).append("\n");
+                details.append("Kulczynski: ").append(String.format("%.4f", rule.getKulczynski())).append("\n");
+                details.append("Cosine: ").append(String.format("%.4f", rule.getCosine())).append("\n");
+                details.append("Imbalance Ratio: ").append(String.format("%.4f", rule.getImbalanceRatio())).append("\n\n");
+            }
+            if (!Double.isNaN(rule.getPValue())) {
+                details.append("UJI SIGNIFIKANSI:\n");
+                details.append("P-value: ").append(String.format("%.6f", rule.getPValue())).append("\n");
+                if (!Double.isNaN(rule.getAdjustedPValue())) {
+                    details.append("Adjusted P-value: ").append(String.format("%.6f", rule.getAdjustedPValue())).append("\n");
+                }
+                details.append("\n");
+            }
             details.append("PENJELASAN:\n");
             details.append("- Confidence menunjukkan seberapa sering consequent muncul ketika antecedent ada\n");
             details.append("- Support menunjukkan seberapa sering aturan ini muncul dalam semua transaksi\n");
@@ -667,8 +819,8 @@ public class AprioriPanel extends JPanel {
         int transactionCount = salesController.getTransactionCount();
         statusLabel.setText("Data siap - " + transactionCount + " transaksi tersedia");
         
-        // Clear previous results if any
-        if (currentRules != null) {
+        // Clear previous results if any, kecuali hasil masih sesuai dengan data
+        if (currentRules != null && salesController.getDatasetVersion() != resultsDatasetVersion) {
             clearResults();
         }
     }
@@ -1,8 +1,15 @@
 package com.aplikasipenjualan.view;
 
+import com.aplikasipenjualan.algorithm.Recommendation;
+import com.aplikasipenjualan.algorithm.RuleRecommender;
+import com.aplikasipenjualan.controller.EventBus;
 import com.aplikasipenjualan.controller.SalesController;
+import com.aplikasipenjualan.controller.SalesEvent;
 import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.ProductRegistry;
 import com.aplikasipenjualan.model.Transaction;
+import com.aplikasipenjualan.util.CsvTransactionImporter;
+import com.aplikasipenjualan.util.GroupCommitWriter;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
@@ -11,6 +18,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Panel untuk input data penjualan
@@ -33,19 +42,24 @@ public class InputPenjualanPanel extends JPanel {
     private DefaultTableModel cartTableModel;
     private JTable transactionHistoryTable;
     private DefaultTableModel transactionHistoryTableModel;
+    private JButton previousPageButton;
+    private JButton nextPageButton;
+    private JButton importButton;
+    private JButton exportButton;
+    private JLabel pageLabel;
     private JLabel totalLabel;
+    private JLabel recommendationLabel;
     private JTextArea statisticsArea;
     
+    // Constants
+    private static final int MAX_RECOMMENDATIONS = 3;
+    private static final int HISTORY_PAGE_SIZE = 50;
+    
     // Data
     private List<Product> currentCart;
-    private TransactionAddedListener transactionAddedListener;
-    
-    /**
-     * Interface untuk listener ketika transaksi ditambahkan
-     */
-    public interface TransactionAddedListener {
-        void onTransactionAdded();
-    }
+    private RuleRecommender.CartSession cartSession;
+    private List<Transaction> historyPage;
+    private int historyPageIndex;
     
     /**
      * Constructor
@@ -59,6 +73,7 @@ public class InputPenjualanPanel extends JPanel {
         setupLayout();
         setupEventHandlers();
         refreshData();
+        salesController.getEventBus().subscribe(SwingUtilities::invokeLater, this::handleSalesEvents);
     }
     
     /**
@@ -110,12 +125,25 @@ public class InputPenjualanPanel extends JPanel {
         };
         transactionHistoryTable = new JTable(transactionHistoryTableModel);
         setupTable(transactionHistoryTable);
+        historyPage = new ArrayList<>();
+        
+        // History paging
+        previousPageButton = new JButton("< Sebelumnya");
+        nextPageButton = new JButton("Berikutnya >");
+        pageLabel = new JLabel();
+        importButton = new JButton("Import CSV...");
+        exportButton = new JButton("Export CSV...");
         
         // Total label
         totalLabel = new JLabel("Total: Rp 0");
         totalLabel.setFont(new Font("SansSerif", Font.BOLD, 16));
         totalLabel.setForeground(new Color(41, 128, 185));
         
+        // Recommendation label
+        recommendationLabel = new JLabel(" ");
+        recommendationLabel.setFont(new Font("SansSerif", Font.ITALIC, 12));
+        recommendationLabel.setForeground(new Color(39, 174, 96));
+        
         // Statistics area
         statisticsArea = new JTextArea(5, 30);
         statisticsArea.setEditable(false);
@@ -255,6 +283,9 @@ public class InputPenjualanPanel extends JPanel {
         buttonPanel.add(submitTransactionButton);
         bottomPanel.add(buttonPanel, BorderLayout.EAST);
         
+        // Rekomendasi cross-sell
+        bottomPanel.add(recommendationLabel, BorderLayout.SOUTH);
+        
         panel.add(bottomPanel, BorderLayout.SOUTH);
         
         return panel;
@@ -277,6 +308,19 @@ public class InputPenjualanPanel extends JPanel {
         JScrollPane scrollPane = new JScrollPane(transactionHistoryTable);
         panel.add(scrollPane, BorderLayout.CENTER);
         
+        JPanel pagingPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        pagingPanel.add(pageLabel);
+        pagingPanel.add(previousPageButton);
+        pagingPanel.add(nextPageButton);
+        
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        JPanel importPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        importPanel.add(importButton);
+        importPanel.add(exportButton);
+        bottomPanel.add(importPanel, BorderLayout.WEST);
+        bottomPanel.add(pagingPanel, BorderLayout.EAST);
+        panel.add(bottomPanel, BorderLayout.SOUTH);
+        
         return panel;
     }
     
@@ -329,6 +373,39 @@ public class InputPenjualanPanel extends JPanel {
             }
         });
         
+        // History paging buttons
+        previousPageButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                historyPageIndex--;
+                refreshTransactionHistory();
+            }
+        });
+        
+        nextPageButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                historyPageIndex++;
+                refreshTransactionHistory();
+            }
+        });
+        
+        // Import riwayat dari file CSV
+        importButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                importTransactions();
+            }
+        });
+        
+        // Export riwayat ke file CSV
+        exportButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exportTransactions();
+            }
+        });
+        
         // Double click on history table to view details
         transactionHistoryTable.addMouseListener(new java.awt.event.MouseAdapter() {
             @Override
@@ -357,12 +434,15 @@ public class InputPenjualanPanel extends JPanel {
             int quantity = (Integer) quantitySpinner.getValue();
             
             // Tambahkan produk sebanyak quantity ke cart
+            RuleRecommender.CartSession session = getCartSession();
             for (int i = 0; i < quantity; i++) {
                 currentCart.add(selectedProduct);
+                session.addProduct(selectedProduct);
             }
             
             updateCartTable();
             updateTotal();
+            updateRecommendations();
             
             // Reset quantity spinner
             quantitySpinner.setValue(1);
@@ -387,8 +467,10 @@ public class InputPenjualanPanel extends JPanel {
             
             if (option == JOptionPane.YES_OPTION) {
                 currentCart.clear();
+                getCartSession().clear();
                 updateCartTable();
                 updateTotal();
+                updateRecommendations();
             }
         }
     }
@@ -412,32 +494,47 @@ public class InputPenjualanPanel extends JPanel {
                 transaction.addProduct(product);
             }
             
-            // Simpan transaksi
-            boolean success = salesController.addTransaction(transaction);
+            // Simpan transaksi, penulisan ke disk berjalan di thread penulis
+            CompletableFuture<Void> saved = salesController.addTransactionAsync(transaction);
             
-            if (success) {
-                JOptionPane.showMessageDialog(this, 
-                    "Transaksi berhasil disimpan!\nID: " + transaction.getTransactionId(), 
-                    "Sukses", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                
-                // Clear cart dan refresh data
-                currentCart.clear();
-                updateCartTable();
-                updateTotal();
-                refreshTransactionHistory();
+            // Clear cart dan refresh data tanpa menunggu disk, salinannya
+            // dikembalikan ke keranjang jika penyimpanan gagal
+            final List<Product> submittedCart = new ArrayList<>(currentCart);
+            currentCart.clear();
+            getCartSession().clear();
+            updateCartTable();
+            updateTotal();
+            updateRecommendations();
+            historyPageIndex = 0; // Transaksi baru ada di halaman pertama, di-refresh oleh event bus
+            
+            saved.whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
                 updateStatistics();
-                
-                // Notify listener
-                if (transactionAddedListener != null) {
-                    transactionAddedListener.onTransactionAdded();
+                if (error == null) {
+                    JOptionPane.showMessageDialog(this, 
+                        "Transaksi berhasil disimpan!\nID: " + transaction.getTransactionId(), 
+                        "Sukses", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                    return;
                 }
-            } else {
-                JOptionPane.showMessageDialog(this, 
-                    "Gagal menyimpan transaksi!", 
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-            }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (cause instanceof GroupCommitWriter.NotDurableException) {
+                    // Sudah ada di log, jangan dikembalikan ke keranjang agar tidak tercatat dua kali
+                    JOptionPane.showMessageDialog(this, 
+                        "Transaksi " + transaction.getTransactionId() + " sudah dicatat, tetapi belum " + 
+                        "dipastikan tersimpan di disk.\nJangan input ulang transaksi ini.\n" + 
+                        cause.getMessage(), 
+                        "Peringatan", 
+                        JOptionPane.WARNING_MESSAGE);
+                } else {
+                    restoreCart(submittedCart);
+                    JOptionPane.showMessageDialog(this, 
+                        "Gagal menyimpan transaksi " + transaction.getTransactionId() + 
+                        " ke disk!\nIsi keranjang sudah dikembalikan.\n" + cause.getMessage(), 
+                        "Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }));
             
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, 
@@ -447,18 +544,115 @@ public class InputPenjualanPanel extends JPanel {
         }
     }
     
+    /**
+     * Mengembalikan produk dari transaksi yang gagal disimpan ke awal
+     * keranjang, di depan produk yang sudah dimasukkan sejak submit
+     * @param products Isi keranjang saat transaksi di-submit
+     */
+    private void restoreCart(List<Product> products) {
+        currentCart.addAll(0, products);
+        cartSession = null; // Dibangun ulang dari isi keranjang
+        updateCartTable();
+        updateTotal();
+        updateRecommendations();
+    }
+    
+    /**
+     * Import riwayat transaksi dari file CSV/TSV di background thread
+     */
+    private void importTransactions() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Riwayat Transaksi");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        final java.io.File file = chooser.getSelectedFile();
+        importButton.setEnabled(false);
+        importButton.setText("Mengimport...");
+        
+        SwingWorker<CsvTransactionImporter.Report, Void> worker =
+                new SwingWorker<CsvTransactionImporter.Report, Void>() {
+            @Override
+            protected CsvTransactionImporter.Report doInBackground() throws Exception {
+                return salesController.importTransactionsFromCSV(file);
+            }
+            
+            @Override
+            protected void done() {
+                importButton.setEnabled(true);
+                importButton.setText("Import CSV...");
+                historyPageIndex = 0;
+                refreshTransactionHistory();
+                updateStatistics();
+                try {
+                    CsvTransactionImporter.Report report = get();
+                    StringBuilder message = new StringBuilder("Import selesai: ").append(report);
+                    for (String sample : report.getRejectedSamples()) {
+                        message.append("\n").append(sample);
+                    }
+                    JOptionPane.showMessageDialog(InputPenjualanPanel.this, message.toString(),
+                        "Import CSV",
+                        report.getRejected() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(InputPenjualanPanel.this,
+                        "Error import transaksi: " + cause.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+    
+    /**
+     * Export seluruh riwayat transaksi ke CSV di background thread. File
+     * berakhiran .gz dikompres dengan gzip.
+     */
+    private void exportTransactions() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Riwayat Transaksi");
+        chooser.setSelectedFile(new java.io.File("transaksi_" + System.currentTimeMillis() + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        final java.io.File file = chooser.getSelectedFile();
+        exportButton.setEnabled(false);
+        
+        SwingWorker<Long, Void> worker = new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return salesController.exportTransactionsToCSV(file, file.getName().endsWith(".gz"));
+            }
+            
+            @Override
+            protected void done() {
+                exportButton.setEnabled(true);
+                try {
+                    JOptionPane.showMessageDialog(InputPenjualanPanel.this,
+                        get() + " transaksi berhasil di-export ke file: " + file.getAbsolutePath(),
+                        "Export Berhasil",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(InputPenjualanPanel.this,
+                        "Error saat export: " + cause.getMessage(),
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+    
     /**
      * Melihat detail transaksi
      */
     private void viewTransactionDetails() {
         int selectedRow = transactionHistoryTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            String transactionId = (String) transactionHistoryTableModel.getValueAt(selectedRow, 0);
-            Transaction transaction = salesController.getTransactionById(transactionId);
-            
-            if (transaction != null) {
-                showTransactionDetailsDialog(transaction);
-            }
+        if (selectedRow >= 0 && selectedRow < historyPage.size()) {
+            // Transaksi halaman aktif sudah ada di memori
+            showTransactionDetailsDialog(historyPage.get(selectedRow));
         }
     }
     
@@ -536,6 +730,44 @@ public class InputPenjualanPanel extends JPanel {
         totalLabel.setText(String.format("Total: Rp %.2f", total));
     }
     
+    /**
+     * Mendapatkan sesi rekomendasi untuk keranjang saat ini.
+     * Sesi dibuat ulang jika aturan asosiasi di controller telah berubah.
+     * @return Sesi keranjang yang sinkron dengan currentCart
+     */
+    private RuleRecommender.CartSession getCartSession() {
+        RuleRecommender recommender = salesController.getRuleRecommender();
+        if (cartSession == null || cartSession.getRecommender() != recommender) {
+            cartSession = recommender.newSession();
+            for (Product product : currentCart) {
+                cartSession.addProduct(product);
+            }
+        }
+        return cartSession;
+    }
+    
+    /**
+     * Update rekomendasi cross-sell untuk keranjang
+     */
+    private void updateRecommendations() {
+        List<Recommendation> recommendations = getCartSession().recommend(MAX_RECOMMENDATIONS);
+        if (recommendations.isEmpty()) {
+            recommendationLabel.setText(" ");
+            return;
+        }
+        
+        StringBuilder text = new StringBuilder("Rekomendasi: ");
+        for (int i = 0; i < recommendations.size(); i++) {
+            Recommendation recommendation = recommendations.get(i);
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(recommendation.getProduct().getNama())
+                .append(String.format(" (%.0f%%)", recommendation.getConfidence() * 100));
+        }
+        recommendationLabel.setText(text.toString());
+    }
+    
     /**
      * Refresh data
      */
@@ -543,6 +775,7 @@ public class InputPenjualanPanel extends JPanel {
         refreshProductComboBox();
         refreshTransactionHistory();
         updateStatistics();
+        updateRecommendations();
     }
     
     /**
@@ -557,13 +790,23 @@ public class InputPenjualanPanel extends JPanel {
     }
     
     /**
-     * Refresh transaction history
+     * Refresh transaction history. Hanya halaman yang sedang ditampilkan yang
+     * dibaca dari disk, dimulai dari transaksi terbaru.
      */
     private void refreshTransactionHistory() {
         transactionHistoryTableModel.setRowCount(0);
-        List<Transaction> transactions = salesController.getAllTransactions();
-        
-        for (Transaction transaction : transactions) {
+        int total = salesController.getTransactionCount();
+        int pageCount = Math.max(1, (total + HISTORY_PAGE_SIZE - 1) / HISTORY_PAGE_SIZE);
+        historyPageIndex = Math.max(0, Math.min(historyPageIndex, pageCount - 1));
+        historyPage = salesController.getTransactionPage(historyPageIndex * HISTORY_PAGE_SIZE,
+                                                         HISTORY_PAGE_SIZE, true);
+        
+        pageLabel.setText(String.format("Halaman %d dari %d (%d transaksi)",
+                                        historyPageIndex + 1, pageCount, total));
+        previousPageButton.setEnabled(historyPageIndex > 0);
+        nextPageButton.setEnabled(historyPageIndex < pageCount - 1);
+        
+        for (Transaction transaction : historyPage) {
             transactionHistoryTableModel.addRow(new Object[] {
                 transaction.getTransactionId(),
                 transaction.getFormattedDate(),
@@ -577,16 +820,34 @@ public class InputPenjualanPanel extends JPanel {
      * Update statistics
      */
     private void updateStatistics() {
-        String statistics = salesController.getSalesStatistics();
+        String statistics = salesController.getSalesAggregates().toString();
+        GroupCommitWriter.Metrics metrics = salesController.getPersistenceMetrics();
+        statistics += String.format("\nAntrian Simpan: %d (lag disk %d ms)",
+                                    metrics.getPendingWrites(), metrics.getDurabilityLagMillis());
+        ProductRegistry.Report registry = salesController.getProductRegistryReport();
+        statistics += String.format("\nProduk di Memori: %d (hemat ~%d KB)",
+                                    registry.getUniqueProducts(), registry.getBytesSaved() / 1024);
         statisticsArea.setText(statistics);
     }
     
     /**
-     * Set listener untuk transaksi yang ditambahkan
-     * @param listener Listener
+     * Menangani event dari controller yang sudah digabungkan per frame,
+     * termasuk transaksi dari terminal lain dan import yang masih berjalan
+     * @param events Event sejak refresh sebelumnya
      */
-    public void setTransactionAddedListener(TransactionAddedListener listener) {
-        this.transactionAddedListener = listener;
+    private void handleSalesEvents(EventBus.Batch events) {
+        if (events.contains(SalesEvent.CatalogChanged.class)) {
+            refreshProductComboBox();
+        }
+        if (events.contains(SalesEvent.TransactionAdded.class)
+                || events.contains(SalesEvent.TransactionRemoved.class)
+                || events.contains(SalesEvent.TransactionsReloaded.class)) {
+            refreshTransactionHistory();
+            updateStatistics();
+        }
+        if (events.contains(SalesEvent.MiningFinished.class)) {
+            updateRecommendations();
+        }
     }
     
     /**
@@ -1,11 +1,15 @@
 package com.aplikasipenjualan.view;
 
+import com.aplikasipenjualan.controller.AnalyticsServer;
 import com.aplikasipenjualan.controller.SalesController;
+import com.aplikasipenjualan.controller.SalesEvent;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.InetSocketAddress;
 
 /**
  * Frame utama aplikasi penjualan dengan metode Apriori
@@ -23,6 +27,9 @@ public class MainFrame extends JFrame {
     private AprioriPanel aprioriPanel;
     private SalesController salesController;
     
+    // Data
+    private boolean aprioriStale;
+    
     // Constants
     private static final String TITLE = "Aplikasi Penjualan dengan Metode Apriori";
     private static final int DEFAULT_WIDTH = 1000;
@@ -52,6 +59,21 @@ public class MainFrame extends JFrame {
                 JOptionPane.ERROR_MESSAGE);
             System.exit(1);
         }
+        
+        // Server API opsional, diaktifkan dengan -Daplikasipenjualan.http.port=<port>;
+        // hanya loopback kecuali -Daplikasipenjualan.http.host=<alamat> diberikan
+        String port = System.getProperty(AnalyticsServer.PORT_PROPERTY);
+        if (port != null) {
+            try {
+                InetSocketAddress address = salesController.startAnalyticsServer(
+                    AnalyticsServer.parseBindAddress(System.getProperty(AnalyticsServer.HOST_PROPERTY)),
+                    Integer.parseInt(port.trim()));
+                System.out.println("Server analitik berjalan di " + address.getAddress().getHostAddress()
+                    + ":" + address.getPort());
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Gagal menjalankan server analitik: " + e.getMessage());
+            }
+        }
     }
     
     /**
@@ -154,9 +176,9 @@ public class MainFrame extends JFrame {
         tabbedPane.addChangeListener(e -> {
             int selectedIndex = tabbedPane.getSelectedIndex();
             
-            // Refresh data ketika pindah ke tab Apriori
-            if (selectedIndex == 1) { // Apriori tab
-                aprioriPanel.refreshData();
+            // Refresh data ketika pindah ke tab Apriori, hanya jika transaksi berubah
+            if (selectedIndex == 1 && aprioriStale) { // Apriori tab
+                refreshAprioriPanel();
             }
         });
         
@@ -173,13 +195,26 @@ public class MainFrame extends JFrame {
     }
     
     /**
-     * Setup komunikasi antar panel
+     * Setup komunikasi antar panel melalui event bus controller. Perubahan
+     * transaksi digabungkan per frame dan panel Apriori hanya di-refresh saat
+     * terlihat; jika tidak, panel ditandai basi sampai tabnya dibuka.
      */
     private void setupPanelCommunication() {
-        // Ketika ada transaksi baru di input panel, refresh apriori panel
-        inputPenjualanPanel.setTransactionAddedListener(() -> {
-            aprioriPanel.refreshData();
-        });
+        salesController.getEventBus().subscribe(SwingUtilities::invokeLater, events -> {
+            aprioriStale = true;
+            if (tabbedPane.getSelectedComponent() == aprioriPanel) {
+                refreshAprioriPanel();
+            }
+        }, SalesEvent.TransactionAdded.class, SalesEvent.TransactionRemoved.class,
+           SalesEvent.TransactionsReloaded.class);
+    }
+    
+    /**
+     * Refresh panel Apriori dan hapus tanda basi
+     */
+    private void refreshAprioriPanel() {
+        aprioriStale = false;
+        aprioriPanel.refreshData();
     }
     
     /**
@@ -195,7 +230,10 @@ public class MainFrame extends JFrame {
         );
         
         if (option == JOptionPane.YES_OPTION) {
-            // Cleanup resources jika diperlukan
+            // Tutup log transaksi agar semua data sudah di disk
+            if (salesController != null) {
+                salesController.close();
+            }
             dispose();
             System.exit(0);
         }
@@ -285,7 +323,7 @@ public class MainFrame extends JFrame {
      */
     public void refreshAllPanels() {
         inputPenjualanPanel.refreshData();
-        aprioriPanel.refreshData();
+        refreshAprioriPanel();
     }
     
     /**
@@ -330,4 +368,29 @@ public class MainFrame extends JFrame {
         );
         return result == JOptionPane.YES_OPTION;
     }
+    
+    /**
+     * Mengatur Look and Feel sistem lalu menampilkan frame utama di Event
+     * Dispatch Thread. Semua inisialisasi AWT/Swing aplikasi dimulai dari sini.
+     */
+    public static void launch() {
+        // Set Look and Feel ke sistem default
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (ClassNotFoundException | InstantiationException | 
+                 IllegalAccessException | UnsupportedLookAndFeelException e) {
+            System.err.println("Gagal mengatur Look and Feel: " + e.getMessage());
+        }
+        
+        // Jalankan aplikasi di Event Dispatch Thread
+        SwingUtilities.invokeLater(() -> {
+            try {
+                MainFrame mainFrame = new MainFrame();
+                mainFrame.setVisible(true);
+            } catch (Exception e) {
+                System.err.println("Error saat memulai aplikasi: " + e.getMessage());
+                e.printStackTrace();
+            }
+        });
+    }
 }
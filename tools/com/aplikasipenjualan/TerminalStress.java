@@ -0,0 +1,318 @@
+package com.aplikasipenjualan;
+
+import com.aplikasipenjualan.controller.SalesController;
+import com.aplikasipenjualan.model.Product;
+import com.aplikasipenjualan.model.SalesAggregates;
+import com.aplikasipenjualan.model.Transaction;
+import com.aplikasipenjualan.util.GroupCommitWriter;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Uji beban terminal kasir bersamaan tanpa GUI. Setiap thread terminal
+ * menambah transaksi dengan {@link SalesController#addTransactionAsync} dan
+ * sesekali menghapus salah satu transaksinya sendiri, sementara satu thread
+ * pembaca membuka halaman riwayat, statistik, dan pencarian produk.
+ * 
+ * Setelah semua terminal berhenti, hasilnya diperiksa terhadap hitungan
+ * terminal: jumlah transaksi di repository, {@link SalesAggregates}, ID yang
+ * unik, dan log di disk (dibaca ulang oleh controller baru setelah controller
+ * pertama ditutup) harus sama persis.
+ * 
+ * Uji ini menulis ke direktori data/ di direktori kerja, sehingga hanya mau
+ * berjalan jika direktori tersebut belum ada. Kelas ini ada di source root
+ * tools/ yang tidak ikut dikompilasi maupun dipaketkan oleh build aplikasi:
+ * <pre>
+ * javac -cp build -d build-tools tools/com/aplikasipenjualan/TerminalStress.java
+ * java -cp build:build-tools com.aplikasipenjualan.TerminalStress --terminals 8 --seconds 5
+ * </pre>
+ * 
+ * @author Developer
+ * @version 1.0
+ */
+public final class TerminalStress {
+    
+    private static final String DATA_DIRECTORY = "data";
+    private static final int MAX_ITEMS_PER_TRANSACTION = 5;
+    private static final int PAGE_SIZE = 50;
+    
+    private static final String USAGE =
+        "Penggunaan: java -cp build:build-tools com.aplikasipenjualan.TerminalStress [opsi]\n" +
+        "Dijalankan di direktori kerja tanpa direktori data/.\n" +
+        "\n" +
+        "  --terminals <n>           Jumlah thread terminal (default 4)\n" +
+        "  --seconds <n>             Lama uji dalam detik (default 3)\n" +
+        "  --remove-every <n>        Setiap n transaksi, hapus satu transaksi sendiri;\n" +
+        "                            0 untuk tanpa penghapusan (default 10)\n" +
+        "  --sync <every-commit|interval|never>\n" +
+        "                            Kebijakan fsync penyimpanan (default every-commit)\n" +
+        "  --help                    Tampilkan bantuan ini";
+    
+    private int terminals = 4;
+    private int seconds = 3;
+    private int removeEvery = 10;
+    private GroupCommitWriter.SyncPolicy syncPolicy = GroupCommitWriter.SyncPolicy.EVERY_COMMIT;
+    
+    private final List<String> failures = new ArrayList<>();
+    
+    /**
+     * Satu thread terminal beserta hitungannya
+     */
+    private static final class Terminal implements Runnable {
+        private final SalesController controller;
+        private final List<Product> products;
+        private final Random random;
+        private final long deadline;
+        private final int removeEvery;
+        private final List<Transaction> kept = new ArrayList<>();
+        private final List<CompletableFuture<Void>> writes = new ArrayList<>();
+        private long added;
+        private long removed;
+        private long failedRemovals;
+        
+        Terminal(SalesController controller, List<Product> products, long seed, long deadline, int removeEvery) {
+            this.controller = controller;
+            this.products = products;
+            this.random = new Random(seed);
+            this.deadline = deadline;
+            this.removeEvery = removeEvery;
+        }
+        
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadline) {
+                Transaction transaction = new Transaction();
+                int items = 1 + random.nextInt(MAX_ITEMS_PER_TRANSACTION);
+                for (int i = 0; i < items; i++) {
+                    transaction.addProduct(products.get(random.nextInt(products.size())));
+                }
+                writes.add(controller.addTransactionAsync(transaction));
+                kept.add(transaction);
+                added++;
+                if (removeEvery > 0 && added % removeEvery == 0) {
+                    Transaction victim = kept.remove(random.nextInt(kept.size()));
+                    if (controller.removeTransaction(victim.getTransactionId())) {
+                        removed++;
+                    } else {
+                        failedRemovals++;
+                    }
+                }
+            }
+        }
+    }
+    
+    private TerminalStress() {
+    }
+    
+    /**
+     * Entry point uji beban
+     * @param args Argumen command line
+     */
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+    
+    /**
+     * Menjalankan uji beban
+     * @param args Argumen command line
+     * @return Kode keluar proses: 0 jika semua pemeriksaan lolos
+     */
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        TerminalStress stress = new TerminalStress();
+        try {
+            if (!stress.parse(args)) {
+                System.out.println(USAGE);
+                return MiningCli.EXIT_OK;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return MiningCli.EXIT_USAGE;
+        }
+        if (new File(DATA_DIRECTORY).exists()) {
+            System.err.println("Direktori " + DATA_DIRECTORY + "/ sudah ada; jalankan uji beban di direktori kerja kosong");
+            return MiningCli.EXIT_USAGE;
+        }
+        try {
+            stress.execute();
+        } catch (RuntimeException | InterruptedException e) {
+            stress.failures.add("Uji beban berhenti: " + e);
+        }
+        if (stress.failures.isEmpty()) {
+            System.out.println("Semua pemeriksaan lolos");
+            return MiningCli.EXIT_OK;
+        }
+        for (String failure : stress.failures) {
+            System.err.println("GAGAL: " + failure);
+        }
+        return MiningCli.EXIT_FAILURE;
+    }
+    
+    /**
+     * Membaca argumen
+     * @return false jika bantuan diminta
+     * @throws IllegalArgumentException jika argumen tidak valid
+     */
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (name.equals("--help") || name.equals("-h")) {
+                return false;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Nilai untuk " + name + " tidak ada");
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--terminals":
+                    terminals = parsePositive(name, value);
+                    break;
+                case "--seconds":
+                    seconds = parsePositive(name, value);
+                    break;
+                case "--remove-every":
+                    removeEvery = value.equals("0") ? 0 : parsePositive(name, value);
+                    break;
+                case "--sync":
+                    try {
+                        syncPolicy = GroupCommitWriter.SyncPolicy.valueOf(
+                                value.toUpperCase(Locale.ROOT).replace('-', '_'));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Kebijakan fsync tidak dikenal: " + value);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opsi tidak dikenal: " + name);
+            }
+        }
+        return true;
+    }
+    
+    private static int parsePositive(String name, String value) {
+        try {
+            int result = Integer.parseInt(value);
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Dilaporkan di bawah
+        }
+        throw new IllegalArgumentException(name + " harus bilangan bulat positif: " + value);
+    }
+    
+    /**
+     * Menjalankan terminal dan pembaca, lalu memeriksa hasilnya
+     */
+    private void execute() throws InterruptedException {
+        SalesController controller = new SalesController();
+        controller.configurePersistence(syncPolicy, GroupCommitWriter.DEFAULT_SYNC_INTERVAL_MILLIS);
+        List<Product> products = controller.getAvailableProducts();
+        
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        List<Terminal> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < terminals; i++) {
+            Terminal terminal = new Terminal(controller, products, i, deadline, removeEvery);
+            workers.add(terminal);
+            threads.add(new Thread(terminal, "terminal-" + (i + 1)));
+        }
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicLong reads = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            while (!stopped.get()) {
+                controller.getTransactionPage(0, PAGE_SIZE, true);
+                controller.getSalesAggregates();
+                controller.searchProductsByName("ti");
+                reads.incrementAndGet();
+            }
+        }, "terminal-reader");
+        reader.start();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        stopped.set(true);
+        reader.join();
+        
+        long added = 0;
+        long removed = 0;
+        long expectedItems = 0;
+        double expectedRevenue = 0;
+        for (Terminal terminal : workers) {
+            added += terminal.added;
+            removed += terminal.removed;
+            for (Transaction transaction : terminal.kept) {
+                expectedItems += transaction.getItemCount();
+                expectedRevenue += transaction.getTotalHarga();
+            }
+            if (terminal.failedRemovals > 0) {
+                failures.add(terminal.failedRemovals + " penghapusan transaksi sendiri tidak menemukan transaksinya");
+            }
+            for (CompletableFuture<Void> write : terminal.writes) {
+                try {
+                    write.join();
+                } catch (CompletionException e) {
+                    failures.add("Penyimpanan transaksi gagal: " + e.getCause());
+                }
+            }
+        }
+        long expected = added - removed;
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%d terminal, %d detik, fsync %s: %d ditambah (%.0f/detik), %d dihapus, %d pembacaan%n",
+                          terminals, seconds, syncPolicy, added, added * 1e9 / elapsed, removed, reads.get());
+        System.out.println(controller.getPersistenceMetrics());
+        
+        check("repository", controller.getTransactionCount(), expected);
+        checkAggregates("agregat", controller.getSalesAggregates(), expected, expectedItems, expectedRevenue);
+        Set<String> ids = new HashSet<>();
+        long iterated = 0;
+        for (Transaction transaction : controller.getTransactions()) {
+            ids.add(transaction.getTransactionId());
+            iterated++;
+        }
+        check("iterasi repository", iterated, expected);
+        check("ID unik", ids.size(), expected);
+        controller.close();
+        
+        // Controller baru mengindeks ulang log dan menghitung ulang agregat dari disk
+        SalesController reopened = new SalesController();
+        try {
+            check("log setelah dibuka ulang", reopened.getTransactionCount(), expected);
+            checkAggregates("agregat setelah dibuka ulang", reopened.getSalesAggregates(),
+                            expected, expectedItems, expectedRevenue);
+        } finally {
+            reopened.close();
+        }
+    }
+    
+    private void check(String name, long actual, long expected) {
+        System.out.printf("%-44s %d (harus %d)%n", name + ":", actual, expected);
+        if (actual != expected) {
+            failures.add(name + " berisi " + actual + ", seharusnya " + expected);
+        }
+    }
+    
+    private void checkAggregates(String name, SalesAggregates.Snapshot aggregates,
+                                 long expectedCount, long expectedItems, double expectedRevenue) {
+        check(name + " transaksi", aggregates.getTransactionCount(), expectedCount);
+        check(name + " item", aggregates.getTotalItems(), expectedItems);
+        double tolerance = Math.max(1e-6, Math.abs(expectedRevenue) * 1e-12);
+        if (Math.abs(aggregates.getTotalRevenue() - expectedRevenue) > tolerance) {
+            failures.add(String.format("%s pendapatan Rp %.2f, seharusnya Rp %.2f",
+                                       name, aggregates.getTotalRevenue(), expectedRevenue));
+        }
+    }
+}